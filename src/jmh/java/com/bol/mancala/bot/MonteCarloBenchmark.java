@@ -0,0 +1,109 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+
+/**
+ * Benchmark of the Monte Carlo bot: moves per second from the start of a game, and the playouts per second of all
+ * threads together as the {@code playouts} counter.
+ *
+ * The CPU time of one move is the playouts of a move divided by the playouts per second of 1 thread; size the
+ * threads of the bot with it for the moves per second the bot has to play at peak.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonteCarloBenchmark {
+
+    /**
+     * Threads that search one move together.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * Playouts of one move.
+     */
+    @Param({"20000"})
+    private int playouts;
+
+    /**
+     * Tested bot.
+     */
+    private MonteCarloBot monteCarloBot;
+
+    /**
+     * The searched position.
+     */
+    private final MancalaBoard board = new MancalaBoard();
+
+    /**
+     * Playouts of all threads, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Playouts {
+
+        /**
+         * Playouts of the iteration.
+         */
+        public long playouts;
+
+        /**
+         * Start every iteration at 0.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            playouts = 0;
+        }
+    }
+
+    /**
+     * Prepare the bot and the position.
+     */
+    @Setup
+    public void setUp() {
+        monteCarloBot = new MonteCarloBot(playouts, threads, threads);
+        for (int i = 0; i < PIT_COUNT; i++) {
+            board.setStones(i, i == PLAYER_ONE_BIG_PIT || i == PLAYER_TWO_BIG_PIT ? 0 : 6);
+        }
+        board.setPlayerId(PLAYER_ONE);
+    }
+
+    /**
+     * Stop the threads of the bot.
+     */
+    @TearDown
+    public void tearDown() {
+        monteCarloBot.close();
+    }
+
+    @Benchmark
+    public int search(final Playouts counter) {
+        counter.playouts += playouts;
+        return monteCarloBot.search(board).getPit();
+    }
+}
@@ -0,0 +1,146 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+
+/**
+ * Benchmark of the parallel search: searches of a fixed position to a fixed depth per second, and the nodes per
+ * second of all threads together as the {@code nodes} counter.
+ *
+ * Run it with the thread counts up to the cores of the machine; the speedup of N threads is the searches per second
+ * of N threads divided by the searches per second of 1 thread. The transposition table is cleared before every
+ * search, so every search starts cold.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    /**
+     * Moves of the fixed opening of the middle position.
+     */
+    private static final int OPENING_MOVES = 10;
+
+    /**
+     * Threads that search one position together.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * The searched position: the start of a game, or a game after a fixed opening.
+     */
+    @Param({"start", "middle"})
+    private String position;
+
+    /**
+     * Searched depth.
+     */
+    @Param({"14"})
+    private int depth;
+
+    /**
+     * Transposition table of the searches.
+     */
+    private TranspositionTable transpositionTable;
+
+    /**
+     * Tested search.
+     */
+    private ParallelSearch parallelSearch;
+
+    /**
+     * The searched position.
+     */
+    private final MancalaBoard board = new MancalaBoard();
+
+    /**
+     * Nodes searched by all threads, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+
+        /**
+         * Nodes of the iteration.
+         */
+        public long nodes;
+
+        /**
+         * Start every iteration at 0.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    /**
+     * Prepare the search and the position.
+     */
+    @Setup
+    public void setUp() {
+        transpositionTable = new TranspositionTable(1 << 20);
+        parallelSearch = new ParallelSearch(transpositionTable, null, threads, threads);
+        for (int i = 0; i < PIT_COUNT; i++) {
+            board.setStones(i, i == PLAYER_ONE_BIG_PIT || i == PLAYER_TWO_BIG_PIT ? 0 : 6);
+        }
+        board.setPlayerId(PLAYER_ONE);
+        for (int move = 0; "middle".equals(position) && move < OPENING_MOVES && !board.isFinished(); move++) {
+            final int bigPit = board.getPlayerId() == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT;
+            int pit = bigPit - 1 - move % PITS_PER_PLAYER;
+            while (board.getStones(pit) == 0) {
+                pit = pit == bigPit - PITS_PER_PLAYER ? bigPit - 1 : pit - 1;
+            }
+            board.play(pit);
+        }
+    }
+
+    /**
+     * Start every search with an empty transposition table.
+     */
+    @Setup(Level.Invocation)
+    public void clearTranspositionTable() {
+        transpositionTable.clear();
+    }
+
+    /**
+     * Stop the threads of the search.
+     */
+    @TearDown
+    public void tearDown() {
+        parallelSearch.close();
+    }
+
+    @Benchmark
+    public int search(final Nodes nodes) {
+        final SearchResult searchResult = parallelSearch.search(board, depth,
+                                                                System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+        nodes.nodes += searchResult.getNodes();
+        return searchResult.getPit();
+    }
+}
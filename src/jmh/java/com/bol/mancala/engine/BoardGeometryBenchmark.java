@@ -0,0 +1,87 @@
+package com.bol.mancala.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+
+/**
+ * Benchmark of whole games of random moves on boards with different numbers of pits per player.
+ *
+ * The standard board of six pits takes its own path through {@link MancalaBoard#play(int)}, the boards of five and
+ * seven pits take the path of the tables of {@link BoardGeometry}, so the time per move of the three shows what the
+ * own path of the standard board is worth. Every invocation plays one game from the start with the same random pits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardGeometryBenchmark {
+
+    /**
+     * Stones of each small pit at the start of the game.
+     */
+    private static final int STONE_AMOUNT = 6;
+
+    /**
+     * Small pits per player.
+     */
+    @Param({"5", "6", "7"})
+    private int pitsPerPlayer;
+
+    /**
+     * Board at the start of the game.
+     */
+    private MancalaBoard startBoard;
+
+    /**
+     * Board the game is played on.
+     */
+    private MancalaBoard board;
+
+    /**
+     * Prepare the boards.
+     */
+    @Setup
+    public void setUp() {
+        final BoardGeometry geometry = BoardGeometry.of(pitsPerPlayer);
+        startBoard = new MancalaBoard(geometry);
+        startBoard.readFrom(PackedBoard.newBoard(geometry, STONE_AMOUNT));
+        startBoard.setPlayerId(PLAYER_ONE);
+        board = new MancalaBoard(geometry);
+    }
+
+    @Benchmark
+    public int playRandomGame() {
+        final BoardGeometry geometry = board.getGeometry();
+        board.copyFrom(startBoard);
+        long random = 42;
+        int moves = 0;
+        while (!board.isFinished()) {
+            final int firstPit = geometry.firstPit(board.getPlayerId());
+            int pit;
+            do {
+                random ^= random << 13;
+                random ^= random >>> 7;
+                random ^= random << 17;
+                pit = firstPit + (int) ((random >>> 1) % pitsPerPlayer);
+            } while (board.getStones(pit) == 0);
+            board.play(pit);
+            moves++;
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,115 @@
+package com.bol.mancala.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_B;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_D;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_F;
+
+/**
+ * Benchmarks of the move path of the board: sowing, capturing and the end of the game.
+ *
+ * Every invocation copies a prepared board into the working board before playing, so each
+ * benchmark measures the same move instead of a game that drifts over the iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MancalaBoardBenchmark {
+
+    /**
+     * Stones of each small pit at the start of the game, the same as start.stone.amount.
+     * The big values make the sowing wrap the board many times, the full laps cost the same as one.
+     */
+    @Param({"6", "60", "600", "6000"})
+    private int stoneAmount;
+
+    /**
+     * Board where player 1 sows all the stones of pit A.
+     */
+    private final MancalaBoard sowingBoard = new MancalaBoard();
+
+    /**
+     * Board where the last stone of player 1 ends in the empty pit D and captures the opposite stones.
+     */
+    private final MancalaBoard captureBoard = new MancalaBoard();
+
+    /**
+     * Board where player 1 plays his last stone and the game ends.
+     */
+    private final MancalaBoard endOfGameBoard = new MancalaBoard();
+
+    /**
+     * Board the moves are played on.
+     */
+    private final MancalaBoard board = new MancalaBoard();
+
+    /**
+     * Prepare the boards.
+     */
+    @Setup
+    public void setUp() {
+        fill(sowingBoard);
+
+        fill(captureBoard);
+        captureBoard.setStones(PLAYER_ONE_PIT_B.ordinal(), 2);
+        captureBoard.setStones(PLAYER_ONE_PIT_D.ordinal(), 0);
+
+        fill(endOfGameBoard);
+        for (int i = 0; i < PLAYER_ONE_BIG_PIT; i++) {
+            endOfGameBoard.setStones(i, 0);
+        }
+        endOfGameBoard.setStones(PLAYER_ONE_PIT_F.ordinal(), 1);
+    }
+
+    @Benchmark
+    public int addStonesToEachNextPit() {
+        board.copyFrom(sowingBoard);
+        return board.play(PLAYER_ONE_PIT_A.ordinal());
+    }
+
+    @Benchmark
+    public int captureOpponentStones() {
+        board.copyFrom(captureBoard);
+        return board.play(PLAYER_ONE_PIT_B.ordinal());
+    }
+
+    @Benchmark
+    public int setWinnerIfAny() {
+        board.copyFrom(endOfGameBoard);
+        board.play(PLAYER_ONE_PIT_F.ordinal());
+        return board.getWinnerId();
+    }
+
+    /**
+     * Fill the small pits of the board with the stone amount, player 1 has the turn.
+     *
+     * @param mancalaBoard board to fill.
+     */
+    private void fill(final MancalaBoard mancalaBoard) {
+        for (int i = 0; i < PIT_COUNT; i++) {
+            mancalaBoard.setStones(i, i == PLAYER_ONE_BIG_PIT || i == PLAYER_TWO_BIG_PIT ? 0 : stoneAmount);
+        }
+        mancalaBoard.setPlayerId(PLAYER_ONE);
+    }
+}
@@ -0,0 +1,87 @@
+package com.bol.mancala.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+
+/**
+ * Benchmark of whole games of random moves on the standard board with the rules of each {@link RuleVariant}.
+ *
+ * The Kalah rules take the own path of the standard board through {@link MancalaBoard#play(int)} and never call a
+ * {@link CaptureRule}, the other variants sow with the tables of {@link BoardGeometry} and call their rule once per
+ * move, so KALAH should be as fast as {@code BoardGeometryBenchmark} of six pits. Every invocation plays one game from
+ * the start with the same random pits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleVariantBenchmark {
+
+    /**
+     * Stones of each small pit at the start of the game.
+     */
+    private static final int STONE_AMOUNT = 6;
+
+    /**
+     * Rules of the game.
+     */
+    @Param({"KALAH", "OWARE", "EMPTY_CAPTURE"})
+    private RuleVariant ruleVariant;
+
+    /**
+     * Board at the start of the game.
+     */
+    private MancalaBoard startBoard;
+
+    /**
+     * Board the game is played on.
+     */
+    private MancalaBoard board;
+
+    /**
+     * Prepare the boards.
+     */
+    @Setup
+    public void setUp() {
+        startBoard = new MancalaBoard(BoardGeometry.STANDARD, ruleVariant);
+        startBoard.readFrom(PackedBoard.newBoard(STONE_AMOUNT));
+        startBoard.setPlayerId(PLAYER_ONE);
+        board = new MancalaBoard(BoardGeometry.STANDARD, ruleVariant);
+    }
+
+    @Benchmark
+    public int playRandomGame() {
+        board.copyFrom(startBoard);
+        long random = 42;
+        int moves = 0;
+        while (!board.isFinished()) {
+            final int firstPit = BoardGeometry.STANDARD.firstPit(board.getPlayerId());
+            int pit;
+            do {
+                random ^= random << 13;
+                random ^= random >>> 7;
+                random ^= random << 17;
+                pit = firstPit + (int) ((random >>> 1) % PITS_PER_PLAYER);
+            } while (board.getStones(pit) == 0);
+            board.play(pit);
+            moves++;
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,42 @@
+package com.bol.mancala.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of taking a new game id on several threads at once, as in a burst of new games: a random UUID from the
+ * shared secure random against a time-ordered id of {@link GameIdGenerator}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class GameIdBenchmark {
+
+    /**
+     * @return a random game id, as taken before.
+     */
+    @Benchmark
+    public UUID randomId() {
+        return UUID.randomUUID();
+    }
+
+    /**
+     * @return a time-ordered game id.
+     */
+    @Benchmark
+    public UUID timeOrderedId() {
+        return GameIdGenerator.nextId();
+    }
+}
@@ -0,0 +1,109 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.MancalaApplication;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.store.GameStore;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Insert rate and database size of new games with random ids or with the time-ordered ids of {@link GameIdGenerator}:
+ * inserts games in batches into the H2 file database of the durable profile, the way the bulk create does, and prints
+ * the games per second and the size of the database files after it is closed. A standalone program and not a JMH
+ * benchmark, because one run fills a new database once; run it in a JVM of its own for each id scheme.
+ *
+ * Usage: {@code java com.bol.mancala.service.GameIdInsertRate <random|time-ordered> <games> [batch size]}
+ */
+public final class GameIdInsertRate {
+
+    /**
+     * Stones per pit of the games.
+     */
+    private static final int STONE_AMOUNT = 6;
+
+    /**
+     * Default number of games of one insert.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Bytes of a megabyte.
+     */
+    private static final long MEGABYTE = 1024 * 1024;
+
+    /**
+     * Constructor.
+     */
+    private GameIdInsertRate() {
+    }
+
+    /**
+     * Insert the games into a new database in a temporary directory and print the rate and the size of the database.
+     *
+     * @param args the id scheme, random or time-ordered, the number of games and the games per batch, 1000 by default.
+     * @throws IOException when the database files can not be measured or deleted.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2)
+            throw new IllegalArgumentException("Usage: GameIdInsertRate <random|time-ordered> <games> [batch size]");
+        final boolean timeOrdered = "time-ordered".equals(args[0]);
+        final int games = Integer.parseInt(args[1]);
+        final int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : BATCH_SIZE;
+        final Path directory = Files.createTempDirectory("mancala-ids");
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(MancalaApplication.class)
+                .profiles("durable")
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:file:" + directory.resolve("mancala") + ";DB_CLOSE_ON_EXIT=FALSE",
+                     "--mancala.store.mode=repository",
+                     "--mancala.expiry.enabled=false",
+                     "--mancala.archive.enabled=false");
+        final GameStore gameStore = context.getBean(GameStore.class);
+        final long start = System.nanoTime();
+        for (int inserted = 0; inserted < games; inserted += batchSize) {
+            final int size = Math.min(batchSize, games - inserted);
+            final List<MancalaEntity> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final UUID gameId = timeOrdered ? GameIdGenerator.nextId() : UUID.randomUUID();
+                batch.add(new MancalaEntity(gameId, STONE_AMOUNT));
+            }
+            gameStore.createAll(batch);
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+        context.close();
+
+        final long databaseBytes;
+        try (Stream<Path> files = Files.walk(directory)) {
+            databaseBytes = files.filter(Files::isRegularFile).mapToLong(GameIdInsertRate::size).sum();
+        }
+        System.out.printf("%s ids, %d games in batches of %d: %d games/s, database %d MB%n",
+                          timeOrdered ? "time-ordered" : "random", games, batchSize,
+                          games * 1_000_000_000L / Math.max(1, elapsedNanos), databaseBytes / MEGABYTE);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * @param file a file.
+     * @return the size of the file in bytes.
+     */
+    private static long size(final Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not read the size of " + file, e);
+        }
+    }
+}
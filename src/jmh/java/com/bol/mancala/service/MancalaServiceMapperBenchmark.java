@@ -0,0 +1,72 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.model.MancalaGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the mapping between the entity, the board and the domain object that surrounds every move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MancalaServiceMapperBenchmark {
+
+    /**
+     * Stones of each small pit at the start of the game, the same as start.stone.amount.
+     */
+    @Param({"6", "60", "600"})
+    private int stoneAmount;
+
+    /**
+     * Service holding the mappers, the validators and the repository are not used.
+     */
+    private final MancalaService mancalaService = new MancalaService(null, null, null, null, null, null, null, null,
+                                                                     null);
+
+    /**
+     * Game entity.
+     */
+    private MancalaEntity mancalaEntity;
+
+    /**
+     * Game board.
+     */
+    private MancalaBoard mancalaBoard;
+
+    /**
+     * Prepare the entity and the board.
+     */
+    @Setup
+    public void setUp() {
+        mancalaEntity = new MancalaEntity(UUID.randomUUID(), stoneAmount);
+        mancalaBoard = mancalaService.mapMancalaEntityToMancalaBoard(mancalaEntity);
+    }
+
+    @Benchmark
+    public MancalaBoard mapMancalaEntityToMancalaBoard() {
+        return mancalaService.mapMancalaEntityToMancalaBoard(mancalaEntity);
+    }
+
+    @Benchmark
+    public MancalaGame mapMancalaBoardToMancalaGame() {
+        return mancalaService.mapMancalaBoardToMancalaGame(mancalaEntity.getMancalaId(), mancalaBoard);
+    }
+}
@@ -0,0 +1,117 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.MancalaApplication;
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.model.MancalaGame;
+import com.bol.mancala.model.MancalaPlayer;
+import com.bol.mancala.service.MancalaService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Moves per second of a game store with the durable profile and a mancala.durability.mode: every thread plays random
+ * moves on a game of its own through the service, and starts a new game when its game is finished, for a number of
+ * seconds. A standalone program and not a JMH benchmark, because it runs the whole application on a new H2 file
+ * database in a temporary directory; run it in a JVM of its own for each mode and number of threads.
+ *
+ * Usage: {@code java com.bol.mancala.store.DurabilityLoad <none|per-move|group-commit|periodic> <threads> <seconds>
+ * [store mode]}
+ */
+public final class DurabilityLoad {
+
+    /**
+     * Default store, the one of the durability table of the README.
+     */
+    private static final String STORE_MODE = "repository";
+
+    /**
+     * Constructor.
+     */
+    private DurabilityLoad() {
+    }
+
+    /**
+     * Play random moves on threads for a number of seconds and print the moves per second.
+     *
+     * @param args the durability mode, the number of threads, the seconds and the store mode, repository by default.
+     * @throws IOException          when the database files can not be deleted.
+     * @throws InterruptedException when the program is interrupted.
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length < 3)
+            throw new IllegalArgumentException("Usage: DurabilityLoad <none|per-move|group-commit|periodic> <threads> "
+                                                       + "<seconds> [store mode]");
+        final String durabilityMode = args[0];
+        final int threads = Integer.parseInt(args[1]);
+        final long seconds = Long.parseLong(args[2]);
+        final String storeMode = args.length > 3 ? args[3] : STORE_MODE;
+        final Path directory = Files.createTempDirectory("mancala-durability");
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(MancalaApplication.class)
+                .profiles("durable")
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:file:" + directory.resolve("mancala") + ";DB_CLOSE_ON_EXIT=FALSE",
+                     "--mancala.durability.mode=" + durabilityMode,
+                     "--mancala.store.mode=" + storeMode,
+                     "--mancala.store.warm-restart-file=",
+                     "--mancala.expiry.enabled=false",
+                     "--mancala.archive.enabled=false");
+        final MancalaService mancalaService = context.getBean(MancalaService.class);
+        final LongAdder moves = new LongAdder();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        final List<Thread> players = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            final var player = new Thread(() -> play(mancalaService, deadline, moves), "player-" + i);
+            player.start();
+            players.add(player);
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        context.close();
+        System.out.printf("%s store, durability %s, %d threads, %d s: %d moves/s%n", storeMode, durabilityMode,
+                          threads, seconds, moves.sum() / Math.max(1, seconds));
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Play random moves of both players on a game until the deadline, a new game after each finished one.
+     *
+     * @param mancalaService mancala service.
+     * @param deadline       time to stop, of {@link System#nanoTime()}.
+     * @param moves          counter of the played moves.
+     */
+    private static void play(final MancalaService mancalaService, final long deadline, final LongAdder moves) {
+        final var random = ThreadLocalRandom.current();
+        MancalaGame game = mancalaService.startMancalaNewGame(false);
+        while (System.nanoTime() < deadline) {
+            if (game.getPlayerWinner() != null) {
+                game = mancalaService.startMancalaNewGame(false);
+                continue;
+            }
+            final int firstPit = game.getPlayer() == MancalaPlayer.PLAYER_1 ? 0 : MancalaBoard.PLAYER_ONE_BIG_PIT + 1;
+            int pitIndex;
+            do {
+                pitIndex = firstPit + random.nextInt(MancalaBoard.PITS_PER_PLAYER);
+            } while (game.getPitGame(pitIndex).getStones() == 0);
+            game = mancalaService.updateGame(game.getGameId(), pitIndex);
+            moves.increment();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.entities.MancalaEntity;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap and full collection pause of many open games: in a map of entities on the heap, as the write-behind store
+ * keeps them, or in an {@link OffHeapGameTable}. A standalone program and not a JMH benchmark, because one run fills
+ * the store once and measures it once; run it in a JVM of its own for each store and number of games.
+ *
+ * Usage: {@code java -Xmx<heap> -XX:MaxDirectMemorySize=<direct> com.bol.mancala.store.GameStoreFootprint
+ * <heap|off-heap> <games> [pits per player]}
+ */
+public final class GameStoreFootprint {
+
+    /**
+     * Stones per pit of the games.
+     */
+    private static final int STONE_AMOUNT = 6;
+
+    /**
+     * Number of full collections that are measured, the pause is their average.
+     */
+    private static final int COLLECTIONS = 3;
+
+    /**
+     * Bytes of a megabyte.
+     */
+    private static final long MEGABYTE = 1024 * 1024;
+
+    /**
+     * Constructor.
+     */
+    private GameStoreFootprint() {
+    }
+
+    /**
+     * Fill a store with games and print the heap after a full collection, its pause and the direct memory.
+     *
+     * @param args the store, heap or off-heap, the number of games and the pits per player, 6 by default.
+     */
+    public static void main(final String[] args) {
+        if (args.length < 2)
+            throw new IllegalArgumentException("Usage: GameStoreFootprint <heap|off-heap> <games> [pits per player]");
+        final boolean offHeap = "off-heap".equals(args[0]);
+        final int games = Integer.parseInt(args[1]);
+        final int pitsPerPlayer = args.length > 2 ? Integer.parseInt(args[2])
+                : BoardGeometry.STANDARD.getPitsPerPlayer();
+        final BoardGeometry geometry = BoardGeometry.of(pitsPerPlayer);
+        final var random = new SplittableRandom(1);
+
+        final Map<UUID, MancalaEntity> heapGames = offHeap ? null : new ConcurrentHashMap<>();
+        final OffHeapGameTable gameTable = offHeap ? new OffHeapGameTable(pitsPerPlayer, 1 << 16) : null;
+        final long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            final var game = new MancalaEntity(new UUID(random.nextLong(), random.nextLong()), STONE_AMOUNT, geometry);
+            if (offHeap) {
+                gameTable.put(game);
+            } else {
+                heapGames.put(game.getMancalaId(), game);
+            }
+        }
+        System.out.printf("Stored %d games in %d ms%n", games, (System.nanoTime() - start) / 1_000_000);
+
+        // the first collection moves the games into the old generation, the next ones are the measured pauses
+        System.gc();
+        long pauseNanos = 0;
+        for (int i = 0; i < COLLECTIONS; i++) {
+            final long collectionStart = System.nanoTime();
+            System.gc();
+            pauseNanos += System.nanoTime() - collectionStart;
+        }
+        final long heapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        final long directBytes = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(bufferPool -> "direct".equals(bufferPool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+        final long storedGames = offHeap ? gameTable.size() : heapGames.size();
+        System.out.printf("%s store, %d games: heap %d MB, full collection %d ms, direct memory %d MB%n",
+                          offHeap ? "off-heap" : "heap", storedGames, heapBytes / MEGABYTE,
+                          pauseNanos / COLLECTIONS / 1_000_000, directBytes / MEGABYTE);
+    }
+}
@@ -2,7 +2,7 @@ import MancalaButton from "./components/common/MancalaButton";
 import {HeaderText} from "./components/HeaderText";
 import {MancalaPitBig} from "./components/MancalaPitBig";
 import {useEffect, useState} from "react";
-import {createGame} from "./services/client";
+import {createGame, subscribeToGame} from "./services/client";
 import {Spinner} from "./components/common/spinner/Spinner";
 import {PitsContainer} from "./components/PitsContainer";
 
@@ -11,12 +11,29 @@ export const App = () => {
     const [game, setGame] = useState([]);
     useEffect(() => {
         isLoading(true);
-        createGame().then((res) => {
+        // play against the computer with ?bot in the url
+        createGame(new URLSearchParams(window.location.search).has('bot')).then((res) => {
             setGame(res.data);
             isLoading(false);
         });
     }, []);
 
+    // apply the changed pits pushed by the server, also the moves of the opponent
+    useEffect(() => {
+        if (!game.gameId) {
+            return;
+        }
+        return subscribeToGame(game.gameId, (delta) => {
+            setGame((current) => ({
+                ...current,
+                pits: current.pits.map((pit, index) =>
+                    delta.pits[index] === undefined ? pit : {...pit, stones: delta.pits[index]}),
+                player: delta.player,
+                playerWinner: delta.playerWinner,
+            }));
+        });
+    }, [game.gameId]);
+
     if (loading) {
         return <Spinner/>;
     }
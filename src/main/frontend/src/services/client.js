@@ -1,5 +1,5 @@
 import Axios from 'axios';
-import {CONTENT_TYPE_JSON_VALUE, CREATE_GAME, DELETE_GAME, UPDATE_GAME} from "./constants";
+import {CONTENT_TYPE_JSON_VALUE, CREATE_GAME, DELETE_GAME, GAMES, UPDATE_GAME} from "./constants";
 
 const checkStatus = (response) => {
     if (response.status >= 200) {
@@ -14,8 +14,9 @@ const checkStatus = (response) => {
     }
 };
 
-export const createGame = () =>
+export const createGame = (bot) =>
     Axios.get(CREATE_GAME, {
+        params: {bot},
         headers: {
             'Content-Type': CONTENT_TYPE_JSON_VALUE,
         },
@@ -33,4 +34,11 @@ export const updateGame = (playerTurn) =>
         headers: {
             'Content-Type': CONTENT_TYPE_JSON_VALUE,
         },
-    }).then(checkStatus);
\ No newline at end of file
+    }).then(checkStatus);
+
+// Follow the changes of a game, the opponent moves included. Returns the function that stops following.
+export const subscribeToGame = (gameId, onDelta) => {
+    const events = new EventSource(GAMES + gameId + '/events');
+    events.addEventListener('delta', (event) => onDelta(JSON.parse(event.data)));
+    return () => events.close();
+};
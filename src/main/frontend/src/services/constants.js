@@ -2,4 +2,5 @@ const API_URL = `mancala/api/v1/`;
 export const CREATE_GAME = `${API_URL}create-game/`;
 export const DELETE_GAME = `${API_URL}delete-game/`;
 export const UPDATE_GAME = `${API_URL}update-game/`;
+export const GAMES = `${API_URL}games/`;
 export const CONTENT_TYPE_JSON_VALUE = 'application/json';
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.bol.mancala;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MancalaApplication {
 
     public static void main(final String[] args) {
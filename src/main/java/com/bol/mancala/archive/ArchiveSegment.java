@@ -0,0 +1,253 @@
+package com.bol.mancala.archive;
+
+import com.bol.mancala.engine.RuleVariant;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Format of the segment files of the archive.
+ *
+ * A segment starts with a header of 8 bytes: the magic number and the format version. Then follow the blocks, each
+ * written by one flush of the archive, and a block is never changed once it is written. A block is a header of
+ * 20 bytes, the magic number of a block, the number of games, the length of the games before and after the
+ * compression and the CRC-32 of the compressed games, followed by the games compressed with deflate. A game is the
+ * game id, the time it was finished in milliseconds, three bytes for the pits per player, the rule variant and the
+ * winner, and then the number of moves and the stones of every pit as variable length numbers of 7 bits per byte.
+ * The moves and the pits are small, so most of them take one byte before the compression.
+ */
+final class ArchiveSegment {
+
+    /**
+     * Magic number at the start of a segment, "MCAS".
+     */
+    static final int SEGMENT_MAGIC = 0x4D434153;
+
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Magic number at the start of a block, "MCAB".
+     */
+    static final int BLOCK_MAGIC = 0x4D434142;
+
+    /**
+     * Length of the header of a segment.
+     */
+    static final int SEGMENT_HEADER_LENGTH = 8;
+
+    /**
+     * Length of the header of a block.
+     */
+    static final int BLOCK_HEADER_LENGTH = 20;
+
+    /**
+     * Rule variants by ordinal.
+     */
+    private static final RuleVariant[] RULE_VARIANTS = RuleVariant.values();
+
+    private ArchiveSegment() {
+    }
+
+    /**
+     * @return the header of a new segment.
+     */
+    static byte[] header() {
+        return ByteBuffer.allocate(SEGMENT_HEADER_LENGTH).putInt(SEGMENT_MAGIC).putInt(VERSION).array();
+    }
+
+    /**
+     * Encode and compress games into one block.
+     *
+     * @param games games, at least one.
+     * @return the block with its header.
+     */
+    static byte[] encodeBlock(final List<ArchivedGame> games) {
+        final var records = new ByteArrayOutputStream(games.size() * 32);
+        final var out = new DataOutputStream(records);
+        try {
+            for (ArchivedGame game : games) {
+                out.writeLong(game.getGameId().getMostSignificantBits());
+                out.writeLong(game.getGameId().getLeastSignificantBits());
+                out.writeLong(game.getFinishedAt().toEpochMilli());
+                out.writeByte(game.getPitsPerPlayer());
+                out.writeByte(game.getRuleVariant().ordinal());
+                out.writeByte(game.getWinnerId());
+                writeVarLong(out, game.getMoves());
+                for (int stones : game.getPits()) {
+                    writeVarLong(out, stones);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final byte[] uncompressed = records.toByteArray();
+        final var deflater = new Deflater();
+        final var compressed = new ByteArrayOutputStream(uncompressed.length / 2 + 64);
+        try {
+            deflater.setInput(uncompressed);
+            deflater.finish();
+            final byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        final byte[] compressedGames = compressed.toByteArray();
+        final var crc = new CRC32();
+        crc.update(compressedGames);
+        return ByteBuffer.allocate(BLOCK_HEADER_LENGTH + compressedGames.length)
+                .putInt(BLOCK_MAGIC)
+                .putInt(games.size())
+                .putInt(uncompressed.length)
+                .putInt(compressedGames.length)
+                .putInt((int) crc.getValue())
+                .put(compressedGames)
+                .array();
+    }
+
+    /**
+     * Check the header of a segment.
+     *
+     * @param in the segment.
+     * @return true if the segment starts with the header of this format, false when it is empty or has another one.
+     * @throws IOException when the segment can not be read.
+     */
+    static boolean readHeader(final DataInputStream in) throws IOException {
+        try {
+            return in.readInt() == SEGMENT_MAGIC && in.readInt() == VERSION;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Read the next block of a segment. A block that is not complete or does not match its checksum can only be the
+     * last one, written while the application stopped, so it ends the segment.
+     *
+     * @param in       the segment, after its header.
+     * @param consumer gets the games of the block in the order they were archived.
+     * @return the number of games of the block, -1 at the end of the segment.
+     * @throws IOException when the segment can not be read.
+     */
+    static int readBlock(final DataInputStream in, final Consumer<ArchivedGame> consumer) throws IOException {
+        final byte[] uncompressed;
+        final int count;
+        try {
+            if (in.readInt() != BLOCK_MAGIC) {
+                return -1;
+            }
+            count = in.readInt();
+            final int uncompressedLength = in.readInt();
+            final int compressedLength = in.readInt();
+            final int checksum = in.readInt();
+            if (count < 0 || uncompressedLength < 0 || compressedLength < 0) {
+                return -1;
+            }
+            final byte[] compressed = new byte[compressedLength];
+            in.readFully(compressed);
+            final var crc = new CRC32();
+            crc.update(compressed);
+            if ((int) crc.getValue() != checksum) {
+                return -1;
+            }
+            uncompressed = inflate(compressed, uncompressedLength);
+        } catch (EOFException e) {
+            return -1;
+        }
+        final var games = ByteBuffer.wrap(uncompressed);
+        for (int i = 0; i < count; i++) {
+            final var gameId = new UUID(games.getLong(), games.getLong());
+            final Instant finishedAt = Instant.ofEpochMilli(games.getLong());
+            final int pitsPerPlayer = games.get();
+            final RuleVariant ruleVariant = RULE_VARIANTS[games.get()];
+            final int winnerId = games.get();
+            final long moves = readVarLong(games);
+            final int[] pits = new int[2 * pitsPerPlayer + 2];
+            for (int pit = 0; pit < pits.length; pit++) {
+                pits[pit] = (int) readVarLong(games);
+            }
+            consumer.accept(new ArchivedGame(gameId, finishedAt, pitsPerPlayer, ruleVariant, winnerId, moves, pits));
+        }
+        return count;
+    }
+
+    /**
+     * @param compressed         compressed games.
+     * @param uncompressedLength length of the games.
+     * @return the games.
+     * @throws IOException when the games are not deflate data of the length.
+     */
+    private static byte[] inflate(final byte[] compressed, final int uncompressedLength) throws IOException {
+        final var inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            final byte[] uncompressed = new byte[uncompressedLength];
+            int length = 0;
+            while (length < uncompressedLength && !inflater.finished()) {
+                final int inflated = inflater.inflate(uncompressed, length, uncompressedLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != uncompressedLength) {
+                throw new IOException("A block of the archive has " + length + " bytes instead of "
+                                              + uncompressedLength);
+            }
+            return uncompressed;
+        } catch (DataFormatException e) {
+            throw new IOException("A block of the archive is not compressed with deflate", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Write a number that is not negative, 7 bits per byte, the lowest bits first.
+     *
+     * @param out   output.
+     * @param value the number.
+     * @throws IOException when the output fails.
+     */
+    private static void writeVarLong(final DataOutputStream out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    /**
+     * @param in input.
+     * @return a number written by {@link #writeVarLong}.
+     */
+    private static long readVarLong(final ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,51 @@
+package com.bol.mancala.archive;
+
+import com.bol.mancala.engine.RuleVariant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A finished game as it is kept in the archive.
+ */
+@Getter
+@AllArgsConstructor
+public final class ArchivedGame {
+
+    /**
+     * Game id.
+     */
+    private final UUID gameId;
+
+    /**
+     * Time the game was finished.
+     */
+    private final Instant finishedAt;
+
+    /**
+     * Number of small pits per player.
+     */
+    private final int pitsPerPlayer;
+
+    /**
+     * Rules the game was played with.
+     */
+    private final RuleVariant ruleVariant;
+
+    /**
+     * The winner, 1 or 2.
+     */
+    private final int winnerId;
+
+    /**
+     * Number of moves played in the game.
+     */
+    private final long moves;
+
+    /**
+     * Stones of all the pits of the final board, in the order of their index.
+     */
+    private final int[] pits;
+}
@@ -0,0 +1,305 @@
+package com.bol.mancala.archive;
+
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.entities.MancalaEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Archive of the finished games in compressed, append-only segment files.
+ *
+ * The request that finishes a game only puts the final board, the winner and the number of moves in a bounded
+ * queue; when the queue is full the game is not archived and counted as dropped. Every
+ * mancala.archive.flush-interval-ms the queue is written to the segment in mancala.archive.directory as compressed
+ * blocks of at most {@link #BLOCK_GAMES} games, and the segment is forced to the disk once per flush. A segment is
+ * only appended by the instance that created it: every start of the application and every segment that grows past
+ * mancala.archive.segment-size-bytes begins a new one. The segments are read with {@link GameArchiveReader}, see
+ * {@link ArchiveSegment} for the format. Nothing is archived unless mancala.archive.enabled is true and a directory
+ * is set. The archived, dropped and queued games and the written bytes are exposed over JMX as the MBean
+ * com.bol.mancala:type=GameArchive.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.bol.mancala:type=GameArchive", description = "Archive of the finished games")
+public class GameArchive {
+
+    /**
+     * Largest number of games in one block.
+     */
+    static final int BLOCK_GAMES = 4096;
+
+    /**
+     * Directory of the segments, null when nothing is archived.
+     */
+    private final Path directory;
+
+    /**
+     * Finished games waiting to be written.
+     */
+    private final BlockingQueue<ArchivedGame> queue;
+
+    /**
+     * Largest number of games waiting to be written, in the queue and of a failed flush together.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Size after which a new segment is begun.
+     */
+    private final long segmentSizeBytes;
+
+    /**
+     * Only one flush at a time, so the blocks are appended in order.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Games of a flush that failed, written first by the next flush.
+     */
+    private final List<ArchivedGame> unwrittenGames = new ArrayList<>();
+
+    /**
+     * Segment the blocks are appended to, null until the first flush with games.
+     */
+    private FileChannel segment;
+
+    /**
+     * Games written to the segments.
+     */
+    private final LongAdder archivedGames = new LongAdder();
+
+    /**
+     * Games that were not archived because the queue was full.
+     */
+    private final LongAdder droppedGames = new LongAdder();
+
+    /**
+     * Bytes written to the segments.
+     */
+    private final LongAdder writtenBytes = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param enabled          true if the finished games are archived.
+     * @param directory        directory of the segments, nothing is archived when empty.
+     * @param queueCapacity    largest number of games waiting to be written.
+     * @param segmentSizeBytes size after which a new segment is begun.
+     */
+    public GameArchive(@Value("${mancala.archive.enabled:false}") final boolean enabled,
+                       @Value("${mancala.archive.directory:}") final String directory,
+                       @Value("${mancala.archive.queue-capacity:65536}") final int queueCapacity,
+                       @Value("${mancala.archive.segment-size-bytes:67108864}") final long segmentSizeBytes) {
+        this.directory = !enabled || directory.isEmpty() ? null : Path.of(directory);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        this.segmentSizeBytes = segmentSizeBytes;
+    }
+
+    /**
+     * Queue a finished game to be archived, without waiting for the disk.
+     *
+     * @param game  the game as it is stored, its version is the number of moves.
+     * @param board the final board.
+     */
+    public void archive(final MancalaEntity game, final MancalaBoard board) {
+        if (directory == null) {
+            return;
+        }
+        final int[] pits = new int[board.getGeometry().getPitCount()];
+        for (int i = 0; i < pits.length; i++) {
+            pits[i] = board.getStones(i);
+        }
+        final var archivedGame = new ArchivedGame(game.getMancalaId(), Instant.now(),
+                                                  board.getGeometry().getPitsPerPlayer(), board.getRuleVariant(),
+                                                  board.getWinnerId(), game.getVersion(), pits);
+        if (!queue.offer(archivedGame)) {
+            droppedGames.increment();
+            log.warn("The archive queue is full, game {} is not archived", game.getMancalaId());
+        }
+    }
+
+    /**
+     * Write the queued games to the segment. When the write fails, the segment is cut back to its size before the
+     * flush and the games are written again by the next flush in a new segment, so no game is archived twice. When
+     * the segment can not be cut back either, the games of the blocks that were written completely stay in it and
+     * only the other games are written again.
+     */
+    @Scheduled(fixedDelayString = "${mancala.archive.flush-interval-ms:1000}")
+    public void flush() {
+        if (directory == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            queue.drainTo(unwrittenGames, Math.max(0, queueCapacity - unwrittenGames.size()));
+            if (unwrittenGames.isEmpty()) {
+                return;
+            }
+            long segmentSize = -1;
+            int blockGames = 0;
+            try {
+                if (segment == null || segment.size() >= segmentSizeBytes) {
+                    beginSegment();
+                }
+                segmentSize = segment.size();
+                long bytes = 0;
+                for (int from = 0; from < unwrittenGames.size(); from += BLOCK_GAMES) {
+                    final int to = Math.min(from + BLOCK_GAMES, unwrittenGames.size());
+                    final var block = ByteBuffer.wrap(ArchiveSegment.encodeBlock(unwrittenGames.subList(from, to)));
+                    bytes += block.remaining();
+                    writeBlock(segment, block);
+                    blockGames = to;
+                }
+                segment.force(false);
+                archivedGames.add(unwrittenGames.size());
+                writtenBytes.add(bytes);
+                unwrittenGames.clear();
+            } catch (IOException e) {
+                log.error("Writing {} games to the archive failed, they will be written again",
+                          unwrittenGames.size(), e);
+                discardWrittenBlocks(segmentSize, blockGames);
+                closeSegment();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Append a block to the segment. Package-private for the tests.
+     *
+     * @param segment the segment.
+     * @param block   the encoded block.
+     * @throws IOException when the block can not be written.
+     */
+    void writeBlock(final FileChannel segment, final ByteBuffer block) throws IOException {
+        while (block.hasRemaining()) {
+            segment.write(block);
+        }
+    }
+
+    /**
+     * After a failed write, cut the segment back to its size before the flush, so the games of the flush are not in
+     * it when they are written again. When that fails too, the games of the complete blocks stay archived and are
+     * removed from the games that are written again.
+     *
+     * @param segmentSize size of the segment before the flush, -1 when no block was written.
+     * @param blockGames  number of games of the blocks that were written completely.
+     */
+    private void discardWrittenBlocks(final long segmentSize, final int blockGames) {
+        if (segment == null || segmentSize < 0) {
+            return;
+        }
+        try {
+            segment.truncate(segmentSize);
+            return;
+        } catch (IOException e) {
+            log.warn("Cutting the archive segment back failed, {} games of complete blocks stay in it",
+                     blockGames, e);
+        }
+        archivedGames.add(blockGames);
+        unwrittenGames.subList(0, blockGames).clear();
+    }
+
+    /**
+     * Write the queued games and close the segment.
+     */
+    @PreDestroy
+    public void close() {
+        flush();
+        flushLock.lock();
+        try {
+            closeSegment();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return the games written to the segments.
+     */
+    @ManagedAttribute(description = "Games written to the segments")
+    public long getArchivedGames() {
+        return archivedGames.sum();
+    }
+
+    /**
+     * @return the games that were not archived because the queue was full.
+     */
+    @ManagedAttribute(description = "Games not archived because the queue was full")
+    public long getDroppedGames() {
+        return droppedGames.sum();
+    }
+
+    /**
+     * @return the games waiting to be written.
+     */
+    @ManagedAttribute(description = "Games waiting to be written")
+    public int getQueuedGames() {
+        return queue.size();
+    }
+
+    /**
+     * @return the bytes written to the segments.
+     */
+    @ManagedAttribute(description = "Bytes written to the segments")
+    public long getWrittenBytes() {
+        return writtenBytes.sum();
+    }
+
+    /**
+     * Close the current segment and create the next one, named after the number that follows the last segment.
+     *
+     * @throws IOException when the segment can not be created.
+     */
+    private void beginSegment() throws IOException {
+        closeSegment();
+        Files.createDirectories(directory);
+        final List<Path> segments = GameArchiveReader.segments(directory);
+        final long number = segments.isEmpty() ? 1 :
+                GameArchiveReader.segmentNumber(segments.get(segments.size() - 1)) + 1;
+        final Path file = directory.resolve(GameArchiveReader.segmentName(number));
+        segment = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                                   StandardOpenOption.APPEND);
+        final var header = ByteBuffer.wrap(ArchiveSegment.header());
+        while (header.hasRemaining()) {
+            segment.write(header);
+        }
+        log.info("Archiving the finished games in {}", file);
+    }
+
+    /**
+     * Close the current segment, if any.
+     */
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Closing the archive segment failed", e);
+        }
+        segment = null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bol.mancala.archive;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reader of the archive written by {@link GameArchive}, without the database.
+ *
+ * The segments are read one after the other in the order they were begun, and the games of each segment in the
+ * order they were archived. Each segment is read sequentially through one buffered stream, block by block, so the
+ * memory of a scan is one block whatever the size of the archive. A segment that is still being written is read up
+ * to its last complete block.
+ */
+public final class GameArchiveReader {
+
+    /**
+     * Name of a segment: the number of the segment, zero padded so the names sort like the numbers.
+     */
+    private static final Pattern SEGMENT_NAME = Pattern.compile("games-(\\d{19})\\.seg");
+
+    /**
+     * Size of the read buffer.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private GameArchiveReader() {
+    }
+
+    /**
+     * Read all games of an archive.
+     *
+     * @param directory directory of the segments.
+     * @param consumer  gets every game, in the order they were archived.
+     * @return the number of games.
+     * @throws IOException when a segment can not be read.
+     */
+    public static long scan(final Path directory, final Consumer<ArchivedGame> consumer) throws IOException {
+        long games = 0;
+        for (Path segment : segments(directory)) {
+            try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment), BUFFER_SIZE))) {
+                if (!ArchiveSegment.readHeader(in)) {
+                    continue;
+                }
+                int blockGames;
+                while ((blockGames = ArchiveSegment.readBlock(in, consumer)) >= 0) {
+                    games += blockGames;
+                }
+            }
+        }
+        return games;
+    }
+
+    /**
+     * @param directory directory of the segments.
+     * @return the segments of the directory, in the order they were begun. None when the directory does not exist.
+     * @throws IOException when the directory can not be listed.
+     */
+    static List<Path> segments(final Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @param segment a segment.
+     * @return the number of the segment.
+     */
+    static long segmentNumber(final Path segment) {
+        final Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(segment + " is not a segment of the archive");
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    /**
+     * @param number number of a segment.
+     * @return the file name of the segment.
+     */
+    static String segmentName(final long number) {
+        return String.format("games-%019d.seg", number);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Bot that plays the best pit found by an alpha-beta search within a time budget.
+ *
+ * The budget is for the whole reply, including the moves of the extra turns, so the time the bot adds to a
+ * request is bounded. The transposition table is shared by the replies of all games: the positions of one game
+ * are found again by its next reply, and the table stays the same size under load. The searches run on their own
+ * pool of mancala.bot.threads threads, see {@link ParallelSearch}, so the bot never takes more cores than that,
+ * however many requests wait for a reply. With mancala.bot.tablebase, the endgame is looked up in an
+ * {@link EndgameTablebase} instead of searched.
+ */
+@Component
+@ConditionalOnProperty(name = "mancala.bot.engine", havingValue = "alpha-beta", matchIfMissing = true)
+public class AlphaBetaBot implements MancalaBot {
+
+    /**
+     * Search on the pool of the bot.
+     */
+    private final ParallelSearch parallelSearch;
+
+    /**
+     * Time budget of one reply, in nanoseconds.
+     */
+    private final long timeBudgetNanos;
+
+    /**
+     * Maximum searched depth.
+     */
+    private final int maxDepth;
+
+    /**
+     * Constructor.
+     *
+     * @param transpositionTableEntries number of entries of the transposition table.
+     * @param timeBudgetMs              time budget of one reply, in milliseconds.
+     * @param maxDepth                  maximum searched depth.
+     * @param threads                   threads of the pool of the bot, the number of processors when 0.
+     * @param threadsPerSearch          threads that search one reply together.
+     * @param tablebase                 file of the endgame tablebase, none when empty.
+     */
+    public AlphaBetaBot(@Value("${mancala.bot.transposition-table-entries:1048576}") final int transpositionTableEntries,
+                        @Value("${mancala.bot.time-budget-ms:50}") final long timeBudgetMs,
+                        @Value("${mancala.bot.max-depth:" + AlphaBetaSearch.MAX_DEPTH + "}") final int maxDepth,
+                        @Value("${mancala.bot.threads:0}") final int threads,
+                        @Value("${mancala.bot.threads-per-search:1}") final int threadsPerSearch,
+                        @Value("${mancala.bot.tablebase:}") final String tablebase) {
+        this.parallelSearch = new ParallelSearch(new TranspositionTable(transpositionTableEntries),
+                                                 tablebase.isEmpty() ? null : openTablebase(Path.of(tablebase)),
+                                                 threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                                                 threadsPerSearch);
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    public void reply(final MancalaBoard board, final IntConsumer playedPits) {
+        final long deadline = System.nanoTime() + timeBudgetNanos;
+        final int botPlayerId = board.getPlayerId();
+        while (!board.isFinished() && board.getPlayerId() == botPlayerId) {
+            final int pit = parallelSearch.search(board, maxDepth, deadline).getPit();
+            board.play(pit);
+            playedPits.accept(pit);
+        }
+    }
+
+    @Override
+    public SearchResult hint(final MancalaBoard board) {
+        return parallelSearch.search(board, maxDepth, System.nanoTime() + timeBudgetNanos);
+    }
+
+    /**
+     * @param file file of the endgame tablebase.
+     * @return the endgame tablebase.
+     */
+    private static EndgameTablebase openTablebase(final Path file) {
+        try {
+            return EndgameTablebase.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The endgame tablebase " + file + " can not be opened", e);
+        }
+    }
+
+    /**
+     * Stop the threads of the bot.
+     */
+    @PreDestroy
+    public void close() {
+        parallelSearch.close();
+    }
+}
@@ -0,0 +1,373 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+
+/**
+ * Iterative deepening alpha-beta search over the rules of {@link MancalaBoard}.
+ *
+ * The score of a position is for the player who has the turn. A move that gives the player one more turn keeps
+ * the same player on the next ply, so the score is only negated when the turn goes to the opponent. The board of
+ * every ply is copied into a board of this search that is reused, so the search does not allocate. A search is
+ * not thread-safe, one search is used by one thread at a time and can be reused for the next position; the
+ * transposition table can be shared, and the abort flag of a search can be set from any thread. With an
+ * {@link EndgameTablebase}, the positions with few stones left are not searched but looked up.
+ */
+public final class AlphaBetaSearch {
+
+    /**
+     * Maximum searched depth, in moves.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * Score of a won game, before the difference of the big pits is added.
+     */
+    static final int WIN_SCORE = 1_000_000;
+
+    /**
+     * Score above any reachable score.
+     */
+    private static final int INFINITY = Integer.MAX_VALUE - 1;
+
+    /**
+     * Number of nodes between two looks at the clock.
+     */
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    /**
+     * Number of pits the sowing passes around the board: all pits except the big pit of the opponent.
+     */
+    private static final int LAP = MancalaBoard.PIT_COUNT - 1;
+
+    /**
+     * Transposition table.
+     */
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * Endgame tablebase, or null.
+     */
+    private final EndgameTablebase endgameTablebase;
+
+    /**
+     * Board of each ply.
+     */
+    private final MancalaBoard[] boards = new MancalaBoard[MAX_DEPTH + 1];
+
+    /**
+     * Ordered pits of each ply.
+     */
+    private final int[][] orderedPits = new int[MAX_DEPTH + 1][PITS_PER_PLAYER];
+
+    /**
+     * Time after which the running iteration is stopped, in {@link System#nanoTime()}.
+     */
+    private long deadline;
+
+    /**
+     * True when the running iteration is stopped by the deadline or by the abort flag.
+     */
+    private boolean stopped;
+
+    /**
+     * Set by another thread to abort the running search.
+     */
+    private AtomicBoolean aborted;
+
+    /**
+     * Best pit of the root of the running iteration.
+     */
+    private int rootBestPit;
+
+    /**
+     * Nodes searched by the last call of {@link #search}.
+     */
+    private long nodes;
+
+    /**
+     * Completed depth of the last call of {@link #search}.
+     */
+    private int completedDepth;
+
+    /**
+     * Score of the best pit of the last completed depth.
+     */
+    private int score;
+
+    /**
+     * Constructor.
+     *
+     * @param transpositionTable transposition table, can be shared by searches of other threads.
+     */
+    public AlphaBetaSearch(final TranspositionTable transpositionTable) {
+        this(transpositionTable, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param transpositionTable transposition table, can be shared by searches of other threads.
+     * @param endgameTablebase   endgame tablebase, or null to search the endgame too.
+     */
+    public AlphaBetaSearch(final TranspositionTable transpositionTable, final EndgameTablebase endgameTablebase) {
+        this.transpositionTable = transpositionTable;
+        this.endgameTablebase = endgameTablebase;
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new MancalaBoard();
+        }
+    }
+
+    /**
+     * Search the best pit for the player who has the turn. Depth 1 is always searched completely, every next
+     * depth only when the deadline is not passed; an iteration that is stopped by the deadline is not used.
+     * The search ends early when the only pit with stones is found or the game is solved.
+     *
+     * @param board    the position, not changed. The game should not be finished and the player who has the
+     *                 turn has stones.
+     * @param maxDepth maximum depth, at most {@link #MAX_DEPTH}.
+     * @param deadline time after which the search stops, in {@link System#nanoTime()}.
+     * @return the best pit index.
+     */
+    public int search(final MancalaBoard board, final int maxDepth, final long deadline) {
+        return search(board, 1, maxDepth, deadline, new AtomicBoolean());
+    }
+
+    /**
+     * Search the best pit for the player who has the turn, starting the iterations at a given depth.
+     *
+     * @param board      the position, not changed.
+     * @param firstDepth depth of the first iteration, it is only stopped by the abort flag.
+     * @param maxDepth   maximum depth, at most {@link #MAX_DEPTH}.
+     * @param deadline   time after which the search stops, in {@link System#nanoTime()}.
+     * @param aborted    flag that another thread sets to stop the search; the search returns the best pit of the
+     *                   last completed iteration.
+     * @return the best pit index, or -1 when the search was aborted before an iteration completed.
+     * @see #search(MancalaBoard, int, long)
+     */
+    public int search(final MancalaBoard board, final int firstDepth, final int maxDepth, final long deadline,
+                      final AtomicBoolean aborted) {
+        this.aborted = aborted;
+        boards[0].copyFrom(board);
+        nodes = 0;
+        completedDepth = 0;
+        score = evaluate(board);
+        stopped = false;
+        this.deadline = deadline;
+        int bestPit = onlyPit(board);
+        if (bestPit >= 0) {
+            return bestPit;
+        }
+        for (int depth = firstDepth; depth <= Math.min(maxDepth, MAX_DEPTH) && !aborted.get(); depth++) {
+            final int iterationScore = negamax(0, depth, -INFINITY, INFINITY);
+            if (stopped) {
+                break;
+            }
+            bestPit = rootBestPit;
+            completedDepth = depth;
+            score = iterationScore;
+            if (Math.abs(iterationScore) >= WIN_SCORE) {
+                break;
+            }
+        }
+        return bestPit;
+    }
+
+    /**
+     * @return the nodes searched by the last search.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the depth that the last search completed.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return the score of the best pit of the last search, for the player who has the turn: the difference of
+     * the big pits at the end of the game when the search found it, else at the deepest completed depth. The
+     * current difference when only one pit has stones.
+     */
+    public int getScore() {
+        return Math.abs(score) >= WIN_SCORE ? score - Integer.signum(score) * WIN_SCORE : score;
+    }
+
+    /**
+     * Negamax with alpha-beta pruning on the board of the ply.
+     *
+     * @param ply   ply, the index of the board.
+     * @param depth remaining depth.
+     * @param alpha lower bound of the score.
+     * @param beta  upper bound of the score.
+     * @return the score for the player who has the turn.
+     */
+    private int negamax(final int ply, final int depth, int alpha, final int beta) {
+        final MancalaBoard board = boards[ply];
+        if (++nodes % CLOCK_CHECK_INTERVAL == 0
+                && (aborted.get() || completedDepth > 0 && System.nanoTime() - deadline > 0)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (board.isFinished()) {
+            return finalScore(board);
+        }
+        if (endgameTablebase != null && ply > 0) {
+            final int entry = endgameTablebase.lookup(board);
+            if (entry != EndgameTablebase.NOT_FOUND) {
+                return endgameScore(board, entry);
+            }
+        }
+        if (depth == 0) {
+            return evaluate(board);
+        }
+
+        final long hash = board.hash();
+        final long entry = transpositionTable.probe(hash);
+        int hashPit = -1;
+        if (entry != TranspositionTable.MISS) {
+            hashPit = TranspositionTable.bestPit(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                final int score = TranspositionTable.score(entry);
+                final int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER_BOUND && score >= beta
+                        || bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        final int[] pits = orderedPits[ply];
+        final int pitCount = orderPits(board, hashPit, pits);
+        final int originalAlpha = alpha;
+        final MancalaBoard child = boards[ply + 1];
+        int bestScore = -INFINITY;
+        int bestPit = pits[0];
+        for (int i = 0; i < pitCount; i++) {
+            child.copyFrom(board);
+            child.play(pits[i]);
+            final int score = child.getPlayerId() == board.getPlayerId() ?
+                    negamax(ply + 1, depth - 1, alpha, beta) :
+                    -negamax(ply + 1, depth - 1, -beta, -alpha);
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestPit = pits[i];
+                if (ply == 0) {
+                    rootBestPit = bestPit;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        final int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+                bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        transpositionTable.store(hash, bestScore, depth, bound, bestPit);
+        return bestScore;
+    }
+
+    /**
+     * Order the pits of the player who has the turn: the best pit of the transposition table first, then the
+     * pits that give one more turn, then the other pits, closest to the big pit first.
+     *
+     * @param board   the position.
+     * @param hashPit best pit from the transposition table, or -1. Ignored when it is not a pit with stones of
+     *                the player, a different position can have the same hash.
+     * @param pits    the ordered pit indexes, output.
+     * @return the number of pits with stones.
+     */
+    private static int orderPits(final MancalaBoard board, final int hashPit, final int[] pits) {
+        final int bigPit = board.getPlayerId() == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT;
+        int count = 0;
+        if (hashPit >= bigPit - PITS_PER_PLAYER && hashPit < bigPit && board.getStones(hashPit) > 0) {
+            pits[count++] = hashPit;
+        }
+        for (int pit = bigPit - 1; pit >= bigPit - PITS_PER_PLAYER; pit--) {
+            if (pit != hashPit && board.getStones(pit) % LAP == bigPit - pit) {
+                pits[count++] = pit;
+            }
+        }
+        for (int pit = bigPit - 1; pit >= bigPit - PITS_PER_PLAYER; pit--) {
+            final int stones = board.getStones(pit);
+            if (pit != hashPit && stones > 0 && stones % LAP != bigPit - pit) {
+                pits[count++] = pit;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Score of a position that is not searched further: the difference of the big pits.
+     *
+     * @param board the position.
+     * @return the score for the player who has the turn.
+     */
+    private static int evaluate(final MancalaBoard board) {
+        final int difference = board.getStones(PLAYER_ONE_BIG_PIT) - board.getStones(PLAYER_TWO_BIG_PIT);
+        return board.getPlayerId() == PLAYER_ONE ? difference : -difference;
+    }
+
+    /**
+     * Score of a finished game: a win or a loss, larger when the difference of the big pits is larger.
+     *
+     * @param board the finished position.
+     * @return the score for the player who has the turn.
+     */
+    private static int finalScore(final MancalaBoard board) {
+        final int score = WIN_SCORE + Math.abs(board.getStones(PLAYER_ONE_BIG_PIT) - board.getStones(PLAYER_TWO_BIG_PIT));
+        return board.getWinnerId() == board.getPlayerId() ? score : -score;
+    }
+
+    /**
+     * Score of a position of the endgame tablebase: a win or a loss by the difference of the big pits at the end, like
+     * {@link #finalScore}. When they will be equal, the tablebase knows who has the turn at the end and wins.
+     *
+     * @param board the position.
+     * @param entry the entry of the position in the tablebase.
+     * @return the score for the player who has the turn.
+     */
+    static int endgameScore(final MancalaBoard board, final int entry) {
+        final int difference = evaluate(board) + EndgameTablebase.value(entry);
+        if (difference == 0) {
+            return EndgameTablebase.winsEqualStones(entry) ? WIN_SCORE : -WIN_SCORE;
+        }
+        return difference > 0 ? WIN_SCORE + difference : -WIN_SCORE + difference;
+    }
+
+    /**
+     * @param board the position.
+     * @return the only pit with stones of the player who has the turn, or -1 when there are more.
+     */
+    private static int onlyPit(final MancalaBoard board) {
+        final int bigPit = board.getPlayerId() == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT;
+        int onlyPit = -1;
+        for (int pit = bigPit - PITS_PER_PLAYER; pit < bigPit; pit++) {
+            if (board.getStones(pit) > 0) {
+                if (onlyPit >= 0) {
+                    return -1;
+                }
+                onlyPit = pit;
+            }
+        }
+        return onlyPit;
+    }
+}
@@ -0,0 +1,251 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+
+/**
+ * Endgame tablebase: the exact result of every position with at most {@code maxStones} stones left in the small
+ * pits, read from a file written by {@link EndgameTablebaseGenerator}.
+ *
+ * The value of a position is the number of stones the player who has the turn gets into his big pit more than the
+ * opponent from now until the end of the game, when both players play for the most stones. The stones that are
+ * already in the big pits do not matter, so the final difference of the big pits is the current difference plus
+ * the value. When that difference is 0, the game gives the win to the player who has the turn at the end, so each
+ * entry also keeps whether the player who has the turn now wins those equal stones when both play for it; the other
+ * differences have one winner, whatever the turn. An entry is twice the value, plus 1 when he wins equal stones.
+ *
+ * The positions are stored from the side of the player who has the turn: his six pits first, then the six pits of
+ * the opponent. The positions with n stones are stored after all positions with fewer stones, and a position is
+ * found by the rank of its stones among all ways to put n stones in 12 pits, so a lookup is a sum over the 12 pits
+ * and one read. The file is mapped into memory, a lookup reads the page of the entry and does not allocate.
+ */
+public final class EndgameTablebase {
+
+    /**
+     * Result of a lookup of a position with more stones than the tablebase has.
+     */
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    /**
+     * Largest number of stones a tablebase can have, the entries are stored in one byte.
+     */
+    public static final int MAX_STONES = 24;
+
+    /**
+     * First int of the file.
+     */
+    static final int MAGIC = 0x4D4E4B54;
+
+    /**
+     * Version of the file format.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    /**
+     * Length of the header: magic, format version and the number of stones, as ints.
+     */
+    static final int HEADER_LENGTH = 3 * Integer.BYTES;
+
+    /**
+     * Number of small pits.
+     */
+    static final int SMALL_PITS = 2 * PITS_PER_PLAYER;
+
+    /**
+     * Binomial coefficients, BINOMIALS[m][k] is m over k.
+     */
+    private static final long[][] BINOMIALS = new long[MAX_STONES + SMALL_PITS + 1][SMALL_PITS + 1];
+
+    static {
+        for (int m = 0; m < BINOMIALS.length; m++) {
+            BINOMIALS[m][0] = 1;
+            for (int k = 1; k <= Math.min(m, SMALL_PITS); k++) {
+                BINOMIALS[m][k] = BINOMIALS[m - 1][k - 1] + BINOMIALS[m - 1][k];
+            }
+        }
+    }
+
+    /**
+     * The entries of the file.
+     */
+    private final MappedByteBuffer entries;
+
+    /**
+     * Largest number of stones of the stored positions.
+     */
+    private final int maxStones;
+
+    /**
+     * Constructor.
+     *
+     * @param entries   the entries of the file.
+     * @param maxStones largest number of stones of the stored positions.
+     */
+    private EndgameTablebase(final MappedByteBuffer entries, final int maxStones) {
+        this.entries = entries;
+        this.maxStones = maxStones;
+    }
+
+    /**
+     * Map a tablebase file into memory.
+     *
+     * @param file the file written by {@link EndgameTablebaseGenerator}.
+     * @return the tablebase.
+     * @throws IOException when the file can not be read or is not a tablebase.
+     */
+    public static EndgameTablebase open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (channel.size() < HEADER_LENGTH || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION)
+                throw new IOException(file + " is not an endgame tablebase");
+            final int maxStones = buffer.getInt(8);
+            if (maxStones < 0 || maxStones > MAX_STONES || channel.size() != HEADER_LENGTH + size(maxStones))
+                throw new IOException(file + " is not a complete endgame tablebase");
+            return new EndgameTablebase(buffer, maxStones);
+        }
+    }
+
+    /**
+     * @return the largest number of stones of the stored positions.
+     */
+    public int getMaxStones() {
+        return maxStones;
+    }
+
+    /**
+     * Look the entry of a position up.
+     *
+     * @param board the position, the game is not finished.
+     * @return the entry of the position, read by {@link #value} and {@link #winsEqualStones}, or {@link #NOT_FOUND}
+     * when the position has more stones than the tablebase.
+     */
+    public int lookup(final MancalaBoard board) {
+        int stones = 0;
+        for (int pit = 0; pit < SMALL_PITS && stones <= maxStones; pit++) {
+            stones += board.getStones(boardPit(pit, board.getPlayerId()));
+        }
+        if (stones > maxStones) {
+            return NOT_FOUND;
+        }
+        return entries.get(HEADER_LENGTH + (int) index(board, stones));
+    }
+
+    /**
+     * @param entry entry of a position.
+     * @return the stones the player who has the turn gets more than the opponent until the end of the game.
+     */
+    public static int value(final int entry) {
+        return entry >> 1;
+    }
+
+    /**
+     * @param entry entry of a position.
+     * @return true if the player who has the turn wins when the big pits end with the same stones.
+     */
+    public static boolean winsEqualStones(final int entry) {
+        return (entry & 1) != 0;
+    }
+
+    /**
+     * @param value           the stones the player who has the turn gets more than the opponent.
+     * @param winsEqualStones true if he wins when the big pits end with the same stones.
+     * @return the entry of a position.
+     */
+    static int entry(final int value, final boolean winsEqualStones) {
+        return 2 * value + (winsEqualStones ? 1 : 0);
+    }
+
+    /**
+     * @param maxStones largest number of stones.
+     * @return the number of positions with at most maxStones stones in the small pits.
+     */
+    static long size(final int maxStones) {
+        return binomial(maxStones + SMALL_PITS, SMALL_PITS);
+    }
+
+    /**
+     * @param stones number of stones.
+     * @return the number of positions with exactly this number of stones in the small pits.
+     */
+    static long layerSize(final int stones) {
+        return binomial(stones + SMALL_PITS - 1, SMALL_PITS - 1);
+    }
+
+    /**
+     * Index of a position: the positions with fewer stones, plus the rank of the stones of the pits. The pits are
+     * the pits between the bars in a row of stones and 11 bars, the rank is the rank of the places of the bars.
+     *
+     * @param board  the position.
+     * @param stones the number of stones in the small pits.
+     * @return the index of the position in the tablebase.
+     */
+    static long index(final MancalaBoard board, final int stones) {
+        long index = size(stones - 1);
+        int bar = -1;
+        for (int pit = 0; pit < SMALL_PITS - 1; pit++) {
+            bar += board.getStones(boardPit(pit, board.getPlayerId())) + 1;
+            index += binomial(bar, pit + 1);
+        }
+        return index;
+    }
+
+    /**
+     * Put the stones of the position with the rank into the small pits of the board, the inverse of
+     * {@link #index}. The player who has the turn is player 1 and the big pits are empty.
+     *
+     * @param board  the board.
+     * @param stones the number of stones in the small pits.
+     * @param rank   rank of the position among the positions with this number of stones.
+     */
+    static void position(final MancalaBoard board, final int stones, long rank) {
+        final int[] bars = new int[SMALL_PITS - 1];
+        for (int pit = SMALL_PITS - 2; pit >= 0; pit--) {
+            int bar = pit;
+            while (binomial(bar + 1, pit + 1) <= rank) {
+                bar++;
+            }
+            bars[pit] = bar;
+            rank -= binomial(bar, pit + 1);
+        }
+        board.setPlayerId(PLAYER_ONE);
+        int previousBar = -1;
+        for (int pit = 0; pit < SMALL_PITS - 1; pit++) {
+            board.setStones(boardPit(pit, PLAYER_ONE), bars[pit] - previousBar - 1);
+            previousBar = bars[pit];
+        }
+        board.setStones(boardPit(SMALL_PITS - 1, PLAYER_ONE), stones + SMALL_PITS - 2 - previousBar);
+        board.setStones(PLAYER_ONE_BIG_PIT, 0);
+        board.setStones(MancalaBoard.PLAYER_TWO_BIG_PIT, 0);
+    }
+
+    /**
+     * @param pit      small pit from the side of the player who has the turn: 0 to 5 are his own pits, 6 to 11 the
+     *                 pits of the opponent.
+     * @param playerId the player who has the turn.
+     * @return the pit index on the board.
+     */
+    static int boardPit(final int pit, final int playerId) {
+        final int ownPit = pit < PITS_PER_PLAYER ? pit : pit + 1;
+        return playerId == PLAYER_ONE ? ownPit : (ownPit + PLAYER_ONE_BIG_PIT + 1) % MancalaBoard.PIT_COUNT;
+    }
+
+    /**
+     * @param m number of items, can be negative.
+     * @param k number of chosen items, at least 1.
+     * @return m over k, 0 when k is greater than m.
+     */
+    private static long binomial(final int m, final int k) {
+        return m < k ? 0 : BINOMIALS[m][k];
+    }
+}
@@ -0,0 +1,183 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static com.bol.mancala.bot.EndgameTablebase.SMALL_PITS;
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+
+/**
+ * Offline generator of an {@link EndgameTablebase} file, solved backwards from the end of the game.
+ *
+ * The stones in the small pits never become more, so the positions are solved by the number of stones, from 0 up:
+ * a move that puts stones into a big pit leads to a position with fewer stones, which is solved before. A move that
+ * does not keeps its stones on the own side and moves them closer to the own big pit, so the moves between positions
+ * with the same number of stones never go round in a circle and those positions are solved in the order the moves
+ * need them. The positions of one number of stones are solved in parallel; a position that two threads need at the
+ * same time is solved by both, with the same value.
+ *
+ * Usage: {@code java -cp target/classes com.bol.mancala.bot.EndgameTablebaseGenerator <max stones> <file>}
+ */
+@Slf4j
+public final class EndgameTablebaseGenerator {
+
+    /**
+     * Entry of a position that is not solved yet.
+     */
+    private static final byte UNSOLVED = Byte.MIN_VALUE;
+
+    /**
+     * Entries of all positions, by index.
+     */
+    private final byte[] entries;
+
+    /**
+     * Constructor.
+     *
+     * @param maxStones largest number of stones.
+     */
+    private EndgameTablebaseGenerator(final int maxStones) {
+        entries = new byte[(int) EndgameTablebase.size(maxStones)];
+        Arrays.fill(entries, UNSOLVED);
+    }
+
+    /**
+     * Generate a tablebase file.
+     *
+     * @param args the largest number of stones and the file.
+     * @throws IOException when the file can not be written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2)
+            throw new IllegalArgumentException("Usage: EndgameTablebaseGenerator <max stones> <file>");
+        generate(Integer.parseInt(args[0]), Path.of(args[1]));
+    }
+
+    /**
+     * Solve all positions with at most maxStones stones in the small pits and write them to a file.
+     *
+     * @param maxStones largest number of stones, at most {@link EndgameTablebase#MAX_STONES}.
+     * @param file      the file.
+     * @throws IOException when the file can not be written.
+     */
+    public static void generate(final int maxStones, final Path file) throws IOException {
+        if (maxStones < 0 || maxStones > EndgameTablebase.MAX_STONES)
+            throw new IllegalArgumentException("The stones should be between 0 and " + EndgameTablebase.MAX_STONES);
+        final var generator = new EndgameTablebaseGenerator(maxStones);
+        for (int stones = 0; stones <= maxStones; stones++) {
+            final int layerStones = stones;
+            final long start = System.nanoTime();
+            LongStream.range(0, EndgameTablebase.layerSize(stones)).parallel().forEach(rank -> {
+                final var position = new MancalaBoard();
+                EndgameTablebase.position(position, layerStones, rank);
+                generator.solve(position, layerStones);
+            });
+            log.info("Solved {} positions with {} stones in {} ms", EndgameTablebase.layerSize(stones), stones,
+                     (System.nanoTime() - start) / 1_000_000);
+        }
+        try (OutputStream outputStream = Files.newOutputStream(file);
+             var output = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+            output.writeInt(EndgameTablebase.MAGIC);
+            output.writeInt(EndgameTablebase.FORMAT_VERSION);
+            output.writeInt(maxStones);
+            output.write(generator.entries);
+        }
+    }
+
+    /**
+     * Solve a position: the best of the stones each pit gets into the big pits now, plus the value of the position
+     * after the pit. Of the pits with the best value, the player wins the equal stones when one of them ends the game
+     * with his turn, or leads to a position where he wins them.
+     *
+     * @param position the position, not changed. Player 1 has the turn and the big pits are empty.
+     * @param stones   the number of stones in the small pits.
+     * @return the entry of the position, see {@link EndgameTablebase#entry}.
+     */
+    private int solve(final MancalaBoard position, final int stones) {
+        final int index = (int) EndgameTablebase.index(position, stones);
+        if (entries[index] != UNSOLVED) {
+            return entries[index];
+        }
+        if (isEmpty(position, 0) || isEmpty(position, PLAYER_ONE_BIG_PIT + 1)) {
+            // the game is finished before this position, it is never looked up
+            entries[index] = 0;
+            return 0;
+        }
+        final var board = new MancalaBoard();
+        final var next = new MancalaBoard();
+        int best = Integer.MIN_VALUE;
+        boolean winsEqualStones = false;
+        for (int pit = 0; pit < PITS_PER_PLAYER; pit++) {
+            if (position.getStones(pit) == 0) {
+                continue;
+            }
+            board.copyFrom(position);
+            board.play(pit);
+            final int gain = board.getStones(PLAYER_ONE_BIG_PIT) - board.getStones(PLAYER_TWO_BIG_PIT);
+            int value = gain;
+            // with equal stones at the end, the player who has the turn then wins
+            boolean winsEqual = board.getPlayerId() == PLAYER_ONE;
+            if (!board.isFinished()) {
+                final int nextStones = stones - board.getStones(PLAYER_ONE_BIG_PIT)
+                        - board.getStones(PLAYER_TWO_BIG_PIT);
+                toPlayerOne(board, next);
+                final int nextEntry = solve(next, nextStones);
+                final int nextValue = EndgameTablebase.value(nextEntry);
+                final boolean nextWinsEqual = EndgameTablebase.winsEqualStones(nextEntry);
+                value += board.getPlayerId() == PLAYER_ONE ? nextValue : -nextValue;
+                winsEqual = board.getPlayerId() == PLAYER_ONE ? nextWinsEqual : !nextWinsEqual;
+            }
+            if (value > best) {
+                best = value;
+                winsEqualStones = winsEqual;
+            } else if (value == best) {
+                winsEqualStones |= winsEqual;
+            }
+        }
+        final int entry = EndgameTablebase.entry(best, winsEqualStones);
+        entries[index] = (byte) entry;
+        return entry;
+    }
+
+    /**
+     * Copy the small pits of a board into a position where player 1 has the turn and the big pits are empty.
+     *
+     * @param board    the board.
+     * @param position the position, output.
+     */
+    private static void toPlayerOne(final MancalaBoard board, final MancalaBoard position) {
+        for (int pit = 0; pit < SMALL_PITS; pit++) {
+            position.setStones(EndgameTablebase.boardPit(pit, PLAYER_ONE),
+                               board.getStones(EndgameTablebase.boardPit(pit, board.getPlayerId())));
+        }
+        position.setStones(PLAYER_ONE_BIG_PIT, 0);
+        position.setStones(PLAYER_TWO_BIG_PIT, 0);
+        position.setPlayerId(PLAYER_ONE);
+    }
+
+    /**
+     * @param board    the board.
+     * @param firstPit first small pit of a player.
+     * @return true if the small pits of the player are empty.
+     */
+    private static boolean isEmpty(final MancalaBoard board, final int firstPit) {
+        for (int pit = firstPit; pit < firstPit + PITS_PER_PLAYER; pit++) {
+            if (board.getStones(pit) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
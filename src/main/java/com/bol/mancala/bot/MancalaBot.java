@@ -0,0 +1,31 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Computer player of a game.
+ */
+public interface MancalaBot {
+
+    /**
+     * Play the moves of the bot on the board: the bot has the turn, and keeps playing while it gets one more
+     * turn and the game is not finished.
+     *
+     * @param board      the board, the bot has the turn.
+     * @param playedPits called with the pit index of every move of the bot, in order.
+     */
+    void reply(MancalaBoard board, IntConsumer playedPits);
+
+    /**
+     * Search the best pit for the player who has the turn without playing it, with the same effort as one move of
+     * a reply. The score of the alpha-beta bot is the difference of the big pits it expects, see
+     * {@link AlphaBetaSearch#getScore()}; the score of the Monte Carlo bot is the percentage of the playouts
+     * through the pit that the player won.
+     *
+     * @param board the position, not changed. The game is not finished.
+     * @return the best pit and its score.
+     */
+    SearchResult hint(MancalaBoard board);
+}
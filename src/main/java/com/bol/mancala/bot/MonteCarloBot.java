@@ -0,0 +1,143 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+
+/**
+ * Bot that plays the pit with the most playouts of a Monte Carlo tree search.
+ *
+ * The strength of the bot is the number of playouts of one move, mancala.bot.playouts, not a time budget: every move
+ * costs the same work whatever the load is, so the CPU time of a move is the playouts divided by the playouts per
+ * second of a core, see {@code MonteCarloBenchmark}. The moves of the extra turns are moves too. The playouts of one
+ * move are split over mancala.bot.threads-per-search trees that are searched at the same time (root
+ * parallelization): the trees share nothing, and the playouts of the pits of all trees are added up. The searches run
+ * on their own pool of mancala.bot.threads threads, and every thread of the pool reuses its own
+ * {@link MonteCarloSearch}, so the memory of the trees is bounded by the pool.
+ */
+@Component
+@ConditionalOnProperty(name = "mancala.bot.engine", havingValue = "monte-carlo")
+public class MonteCarloBot implements MancalaBot {
+
+    /**
+     * Threads the searches run on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Search of each thread of the pool.
+     */
+    private final ThreadLocal<MonteCarloSearch> searches;
+
+    /**
+     * Playouts of one move.
+     */
+    private final int playouts;
+
+    /**
+     * Number of trees of one move.
+     */
+    private final int threadsPerSearch;
+
+    /**
+     * Constructor.
+     *
+     * @param playouts         playouts of one move, split over the trees.
+     * @param threads          threads of the pool of the bot, the number of processors when 0.
+     * @param threadsPerSearch trees that are searched for one move together.
+     */
+    public MonteCarloBot(@Value("${mancala.bot.playouts:20000}") final int playouts,
+                         @Value("${mancala.bot.threads:0}") final int threads,
+                         @Value("${mancala.bot.threads-per-search:1}") final int threadsPerSearch) {
+        final int poolThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.playouts = Math.max(1, playouts);
+        this.threadsPerSearch = Math.max(1, Math.min(threadsPerSearch, poolThreads));
+        final int maxNodes = 1 + PITS_PER_PLAYER * (this.playouts / this.threadsPerSearch + 1);
+        this.searches = ThreadLocal.withInitial(
+                () -> new MonteCarloSearch(maxNodes, ThreadLocalRandom.current().nextLong()));
+        final var threadNumber = new AtomicInteger();
+        this.pool = new ForkJoinPool(poolThreads, forkJoinPool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("mancala-playout-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @Override
+    public void reply(final MancalaBoard board, final IntConsumer playedPits) {
+        final int botPlayerId = board.getPlayerId();
+        while (!board.isFinished() && board.getPlayerId() == botPlayerId) {
+            final int pit = search(board).getPit();
+            board.play(pit);
+            playedPits.accept(pit);
+        }
+    }
+
+    @Override
+    public SearchResult hint(final MancalaBoard board) {
+        return search(board);
+    }
+
+    /**
+     * Search the pit with the most playouts of all trees.
+     *
+     * @param board the position, not changed. The game should not be finished.
+     * @return the pit index, the percentage of its playouts that the player won and the playouts.
+     */
+    SearchResult search(final MancalaBoard board) {
+        final var pitVisits = new int[threadsPerSearch][PITS_PER_PLAYER];
+        final var pitWins = new int[threadsPerSearch][PITS_PER_PLAYER];
+        final var tasks = new ForkJoinTask<?>[threadsPerSearch];
+        for (int i = 0; i < threadsPerSearch; i++) {
+            final int[] treePitVisits = pitVisits[i];
+            final int[] treePitWins = pitWins[i];
+            final int treePlayouts = playouts / threadsPerSearch + (i < playouts % threadsPerSearch ? 1 : 0);
+            tasks[i] = pool.submit(() -> searches.get().search(board, treePlayouts, treePitVisits, treePitWins));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        final int firstPit = (board.getPlayerId() == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT)
+                - PITS_PER_PLAYER;
+        int bestPit = -1;
+        int bestVisits = -1;
+        int bestWins = 0;
+        for (int offset = 0; offset < PITS_PER_PLAYER; offset++) {
+            int visits = 0;
+            int wins = 0;
+            for (int i = 0; i < threadsPerSearch; i++) {
+                visits += pitVisits[i][offset];
+                wins += pitWins[i][offset];
+            }
+            if (board.getStones(firstPit + offset) > 0 && visits > bestVisits) {
+                bestVisits = visits;
+                bestWins = wins;
+                bestPit = firstPit + offset;
+            }
+        }
+        return new SearchResult(bestPit, bestVisits == 0 ? 0 : (int) (100L * bestWins / bestVisits), 0, playouts);
+    }
+
+    /**
+     * Stop the threads of the bot.
+     */
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+}
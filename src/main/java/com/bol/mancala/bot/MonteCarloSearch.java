@@ -0,0 +1,232 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+
+/**
+ * Monte Carlo tree search over the rules of {@link MancalaBoard}.
+ *
+ * Every playout walks down the tree by UCT, adds the children of the node it ends in and plays random pits from
+ * there until the game is finished; the winner is counted in the nodes of the walk. The tree is kept in arrays that
+ * are allocated once, a node has the children of its six pits next to each other, and the playouts are played on a
+ * board of this search that is reused, so a search does not allocate. When the tree is full the playouts start at
+ * the node the walk ends in. A search is not thread-safe, one search is used by one thread at a time.
+ */
+public final class MonteCarloSearch {
+
+    /**
+     * Weight of the exploration term of UCT.
+     */
+    private static final double EXPLORATION = 1.4;
+
+    /**
+     * No children yet.
+     */
+    private static final int NO_CHILDREN = -1;
+
+    /**
+     * Root node.
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * Longest walk down the tree.
+     */
+    private static final int MAX_PATH = 256;
+
+    /**
+     * Number of playouts through each node.
+     */
+    private final int[] visits;
+
+    /**
+     * Number of playouts through each node that the player who played its pit won.
+     */
+    private final int[] wins;
+
+    /**
+     * First of the six children of each node, or {@link #NO_CHILDREN}.
+     */
+    private final int[] children;
+
+    /**
+     * Nodes of the running walk.
+     */
+    private final int[] path = new int[MAX_PATH];
+
+    /**
+     * Player who played the pit of each node of the running walk.
+     */
+    private final int[] pathPlayers = new int[MAX_PATH];
+
+    /**
+     * Board of the running playout.
+     */
+    private final MancalaBoard board = new MancalaBoard();
+
+    /**
+     * Number of used nodes.
+     */
+    private int nodeCount;
+
+    /**
+     * State of the xorshift random generator, never 0.
+     */
+    private long random;
+
+    /**
+     * Constructor.
+     *
+     * @param maxNodes largest number of nodes of the tree, at least 7.
+     * @param seed     seed of the random pits.
+     */
+    public MonteCarloSearch(final int maxNodes, final long seed) {
+        this.visits = new int[maxNodes];
+        this.wins = new int[maxNodes];
+        this.children = new int[maxNodes];
+        this.random = seed == 0 ? 1 : seed;
+    }
+
+    /**
+     * Play a number of playouts from a position and count the playouts through each pit.
+     *
+     * @param position  the position, not changed. The game should not be finished.
+     * @param playouts  number of playouts.
+     * @param pitVisits playouts through each of the six pits of the player who has the turn, from his first pit;
+     *                  the playouts of this search are added to it.
+     * @param pitWins   playouts through each pit that the player who has the turn won, added the same way.
+     */
+    public void search(final MancalaBoard position, final int playouts, final int[] pitVisits, final int[] pitWins) {
+        nodeCount = 1;
+        visits[ROOT] = 0;
+        wins[ROOT] = 0;
+        children[ROOT] = NO_CHILDREN;
+        for (int i = 0; i < playouts; i++) {
+            board.copyFrom(position);
+            playout();
+        }
+        final int firstChild = children[ROOT];
+        for (int i = 0; firstChild != NO_CHILDREN && i < PITS_PER_PLAYER; i++) {
+            pitVisits[i] += visits[firstChild + i];
+            pitWins[i] += wins[firstChild + i];
+        }
+    }
+
+    /**
+     * One playout from the root: walk down the tree, add the children of the last node, play random pits until
+     * the game is finished and count the winner in the nodes of the walk.
+     */
+    private void playout() {
+        int node = ROOT;
+        int length = 0;
+        while (!board.isFinished() && length < MAX_PATH) {
+            if (children[node] == NO_CHILDREN) {
+                if (visits[node] == 0 && node != ROOT || nodeCount + PITS_PER_PLAYER > children.length) {
+                    break;
+                }
+                addChildren(node);
+            }
+            final int offset = selectPit(node);
+            pathPlayers[length] = board.getPlayerId();
+            board.play(firstPit(board) + offset);
+            node = children[node] + offset;
+            path[length++] = node;
+        }
+        while (!board.isFinished()) {
+            board.play(randomPit());
+        }
+        final int winnerId = board.getWinnerId();
+        visits[ROOT]++;
+        for (int i = 0; i < length; i++) {
+            visits[path[i]]++;
+            if (pathPlayers[i] == winnerId) {
+                wins[path[i]]++;
+            }
+        }
+    }
+
+    /**
+     * @param node node without children.
+     */
+    private void addChildren(final int node) {
+        children[node] = nodeCount;
+        for (int i = nodeCount; i < nodeCount + PITS_PER_PLAYER; i++) {
+            visits[i] = 0;
+            wins[i] = 0;
+            children[i] = NO_CHILDREN;
+        }
+        nodeCount += PITS_PER_PLAYER;
+    }
+
+    /**
+     * Select the pit to walk down by UCT: a pit with stones that has no playouts yet, else the pit with the
+     * highest upper confidence bound of its wins.
+     *
+     * @param node node with children, the position of the node is on the board.
+     * @return the offset of the pit from the first pit of the player who has the turn.
+     */
+    private int selectPit(final int node) {
+        final int firstPit = firstPit(board);
+        final int firstChild = children[node];
+        final double logVisits = Math.log(visits[node]);
+        int bestOffset = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int offset = 0; offset < PITS_PER_PLAYER; offset++) {
+            if (board.getStones(firstPit + offset) == 0) {
+                continue;
+            }
+            final int childVisits = visits[firstChild + offset];
+            if (childVisits == 0) {
+                return offset;
+            }
+            final double value = (double) wins[firstChild + offset] / childVisits
+                    + EXPLORATION * Math.sqrt(logVisits / childVisits);
+            if (value > bestValue) {
+                bestValue = value;
+                bestOffset = offset;
+            }
+        }
+        return bestOffset;
+    }
+
+    /**
+     * @return a random pit with stones of the player who has the turn on the board.
+     */
+    private int randomPit() {
+        final int firstPit = firstPit(board);
+        int count = 0;
+        for (int pit = firstPit; pit < firstPit + PITS_PER_PLAYER; pit++) {
+            if (board.getStones(pit) > 0) {
+                count++;
+            }
+        }
+        int chosen = (int) ((nextRandom() >>> 1) % count);
+        for (int pit = firstPit; ; pit++) {
+            if (board.getStones(pit) > 0 && chosen-- == 0) {
+                return pit;
+            }
+        }
+    }
+
+    /**
+     * @return the next number of the xorshift random generator.
+     */
+    private long nextRandom() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return random;
+    }
+
+    /**
+     * @param board the position.
+     * @return the first small pit of the player who has the turn.
+     */
+    private static int firstPit(final MancalaBoard board) {
+        return (board.getPlayerId() == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT) - PITS_PER_PLAYER;
+    }
+}
@@ -0,0 +1,111 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy SMP search: several {@link AlphaBetaSearch}es search the same position at the same time on a fork-join pool
+ * and share one transposition table.
+ *
+ * The threads do not split the moves between them. Every thread searches the whole tree; half of the helpers start
+ * one depth deeper, so they reach other parts of the tree first and fill the shared table with results that the
+ * main search finds instead of searching them again. The pit of the main search is played; when it is done the
+ * helpers are aborted. The searches only run on the threads of the pool, so the number of cores the searches use
+ * is bounded by the size of the pool and the thread that asks for a pit only waits. Every thread of the pool keeps
+ * one search with its boards and reuses it for every position, so a search of a position does not allocate them.
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+    /**
+     * Search of each thread of the pool, reused for every position.
+     */
+    private final ThreadLocal<AlphaBetaSearch> searches;
+
+    /**
+     * Threads the searches run on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Number of searches of one position.
+     */
+    private final int threadsPerSearch;
+
+    /**
+     * Constructor.
+     *
+     * @param transpositionTable transposition table shared by all searches.
+     * @param endgameTablebase   endgame tablebase shared by all searches, or null.
+     * @param poolThreads        number of threads of the pool, shared by all searches.
+     * @param threadsPerSearch   number of searches of one position, at most the threads of the pool.
+     */
+    public ParallelSearch(final TranspositionTable transpositionTable, final EndgameTablebase endgameTablebase,
+                          final int poolThreads, final int threadsPerSearch) {
+        this.searches = ThreadLocal.withInitial(() -> new AlphaBetaSearch(transpositionTable, endgameTablebase));
+        this.threadsPerSearch = Math.max(1, Math.min(threadsPerSearch, poolThreads));
+        final var threadNumber = new AtomicInteger();
+        this.pool = new ForkJoinPool(poolThreads, forkJoinPool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("mancala-search-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Search the best pit for the player who has the turn, with {@code threadsPerSearch} threads.
+     *
+     * @param board    the position, not changed while the search runs. The game should not be finished and the
+     *                 player who has the turn has stones.
+     * @param maxDepth maximum depth.
+     * @param deadline time after which the search stops, in {@link System#nanoTime()}.
+     * @return the best pit of the main search, its score, its completed depth and the nodes of all threads.
+     * @see AlphaBetaSearch#search(MancalaBoard, int, long)
+     */
+    public SearchResult search(final MancalaBoard board, final int maxDepth, final long deadline) {
+        final var aborted = new AtomicBoolean();
+        final ForkJoinTask<SearchResult> main = pool.submit(() -> {
+            final AlphaBetaSearch search = searches.get();
+            final int pit = search.search(board, 1, maxDepth, deadline, aborted);
+            return new SearchResult(pit, search.getScore(), search.getCompletedDepth(), search.getNodes());
+        });
+        final var helpers = new ForkJoinTask<?>[threadsPerSearch - 1];
+        final var helperNodes = new long[threadsPerSearch - 1];
+        for (int i = 1; i < threadsPerSearch; i++) {
+            final int helper = i - 1;
+            final int firstDepth = 1 + i % 2;
+            helpers[helper] = pool.submit(() -> {
+                final AlphaBetaSearch search = searches.get();
+                search.search(board, firstDepth, maxDepth, deadline, aborted);
+                helperNodes[helper] = search.getNodes();
+            });
+        }
+        final SearchResult mainResult;
+        try {
+            mainResult = main.join();
+        } finally {
+            aborted.set(true);
+            for (ForkJoinTask<?> helper : helpers) {
+                helper.quietlyJoin();
+            }
+        }
+        long nodes = mainResult.getNodes();
+        for (long node : helperNodes) {
+            nodes += node;
+        }
+        return new SearchResult(mainResult.getPit(), mainResult.getScore(), mainResult.getDepth(), nodes);
+    }
+
+    /**
+     * Stop the threads of the pool.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,17 @@
+package com.bol.mancala.bot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of a search: the best pit, its score, the depth that was completed and the nodes searched by all threads.
+ * The score is for the player who has the turn, see {@link MancalaBot#hint}.
+ */
+@Getter
+@AllArgsConstructor
+public final class SearchResult {
+    private final int pit;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+}
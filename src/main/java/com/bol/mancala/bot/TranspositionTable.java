@@ -0,0 +1,145 @@
+package com.bol.mancala.bot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed-size transposition table of searched positions, shared by all searches without locks.
+ *
+ * Every entry is two longs in two arrays: the data (score, depth, bound and best pit) and the hash of the
+ * position xor the data. An entry is only used when the hash xor the data gives the hash of the position
+ * again, so an entry that is written by two searches at the same time, half of one and half of the other,
+ * is seen as a miss instead of a wrong score. A new entry always replaces the old one in its slot.
+ */
+public final class TranspositionTable {
+
+    /**
+     * The score is exact.
+     */
+    static final int EXACT = 1;
+
+    /**
+     * The score is at least the stored score, the search was cut off.
+     */
+    static final int LOWER_BOUND = 2;
+
+    /**
+     * The score is at most the stored score, no pit was better than alpha.
+     */
+    static final int UPPER_BOUND = 3;
+
+    /**
+     * No entry for the position.
+     */
+    static final long MISS = 0;
+
+    /**
+     * Atomic plain access to the array elements, a long is never torn.
+     */
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * Hash xor data of each entry.
+     */
+    private final long[] keys;
+
+    /**
+     * Data of each entry.
+     */
+    private final long[] data;
+
+    /**
+     * Mask of the slot index.
+     */
+    private final int mask;
+
+    /**
+     * Constructor.
+     *
+     * @param entries number of entries, rounded up to a power of two.
+     */
+    public TranspositionTable(final int entries) {
+        final int size = Integer.highestOneBit(Math.max(1, Math.min(entries, 1 << 30) - 1)) << 1;
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Look a position up.
+     *
+     * @param hash hash of the position.
+     * @return the data of the entry, or {@link #MISS}.
+     */
+    long probe(final long hash) {
+        final int slot = (int) hash & mask;
+        final long entry = (long) ENTRIES.getOpaque(data, slot);
+        final long key = (long) ENTRIES.getOpaque(keys, slot);
+        return (key ^ entry) == hash ? entry : MISS;
+    }
+
+    /**
+     * Store a searched position.
+     *
+     * @param hash    hash of the position.
+     * @param score   score for the player who has the turn.
+     * @param depth   searched depth.
+     * @param bound   {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     * @param bestPit best pit index.
+     */
+    void store(final long hash, final int score, final int depth, final int bound, final int bestPit) {
+        final long entry = (score & 0xFFFF_FFFFL) | (long) depth << 32 | (long) bound << 40 | (long) bestPit << 42;
+        final int slot = (int) hash & mask;
+        ENTRIES.setOpaque(data, slot, entry);
+        ENTRIES.setOpaque(keys, slot, hash ^ entry);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            ENTRIES.setOpaque(data, i, 0L);
+            ENTRIES.setOpaque(keys, i, 0L);
+        }
+    }
+
+    /**
+     * @param entry data of an entry.
+     * @return the score of the entry.
+     */
+    static int score(final long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * @param entry data of an entry.
+     * @return the searched depth of the entry.
+     */
+    static int depth(final long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /**
+     * @param entry data of an entry.
+     * @return the bound of the score of the entry.
+     */
+    static int bound(final long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    /**
+     * @param entry data of an entry.
+     * @return the best pit index of the entry.
+     */
+    static int bestPit(final long entry) {
+        return (int) (entry >>> 42) & 0xF;
+    }
+}
@@ -1,10 +1,16 @@
 package com.bol.mancala.controllers;
 
+import com.bol.mancala.engine.RuleVariant;
+import com.bol.mancala.model.GameDelta;
 import com.bol.mancala.model.MancalaGame;
+import com.bol.mancala.model.MoveHint;
+import com.bol.mancala.model.PlayMovesRequest;
+import com.bol.mancala.model.PlayMovesResponse;
 import com.bol.mancala.model.PlayTurnRequest;
 import com.bol.mancala.service.MancalaService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,9 +18,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -33,11 +47,45 @@ public class MancalaApi {
     /**
      * Rest endpoint to start a new Mancala Game.
      *
+     * @param bot           true to play against the bot, the bot replies to every move in the same request.
+     * @param pitsPerPlayer small pits per player, optional. The pits of a board with another number than six are
+     *                      selected by their index.
+     * @param rules         rules of the game, optional: KALAH, OWARE or EMPTY_CAPTURE.
      * @return a new Mancala game.
      */
     @GetMapping("/create-game")
-    public ResponseEntity<MancalaGame> startMancala() {
-        return new ResponseEntity<>(mancalaService.startMancalaNewGame(), HttpStatus.OK);
+    public ResponseEntity<MancalaGame> startMancala(@RequestParam(defaultValue = "false") final boolean bot,
+                                                    @RequestParam(required = false) final Integer pitsPerPlayer,
+                                                    @RequestParam(required = false) final RuleVariant rules) {
+        return new ResponseEntity<>(mancalaService.startMancalaNewGame(bot, pitsPerPlayer, rules), HttpStatus.OK);
+    }
+
+    /**
+     * Rest endpoint to start many Mancala Games at once, for tournaments and load tests.
+     *
+     * @param count         number of games.
+     * @param stoneAmount   stones per pit, optional.
+     * @param pitsPerPlayer small pits per player, optional.
+     * @param rules         rules of the games, optional.
+     * @return the ids of the new games as text, one per line, streamed while the games are stored.
+     */
+    @PostMapping(value = "/games:bulk", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> startMancalas(@RequestParam final int count,
+                                                               @RequestParam(required = false) final Integer stoneAmount,
+                                                               @RequestParam(required = false) final Integer pitsPerPlayer,
+                                                               @RequestParam(required = false) final RuleVariant rules) {
+        final Iterator<List<UUID>> gameIds = mancalaService.startMancalaNewGames(count, stoneAmount, pitsPerPlayer,
+                                                                                 rules);
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(outputStream -> {
+            final var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.US_ASCII));
+            while (gameIds.hasNext()) {
+                for (UUID gameId : gameIds.next()) {
+                    writer.write(gameId.toString());
+                    writer.write('\n');
+                }
+                writer.flush();
+            }
+        });
     }
 
     /**
@@ -54,12 +102,84 @@ public class MancalaApi {
     /**
      * Rest endpoint to update a Mancala Game.
      *
-     * @param playTurn contains the the game id and the pit id.
+     * @param playTurn contains the the game id and the pit id or the pit index.
      * @return a new Mancala game.
      */
     @PostMapping("/update-game")
     public ResponseEntity<MancalaGame> updateGame(@Valid @RequestBody final PlayTurnRequest playTurn) {
-        return new ResponseEntity<>(mancalaService.updateGame(playTurn.getGameId(),
-                                                              playTurn.getSelectedPit()), HttpStatus.OK);
+        return new ResponseEntity<>(playTurn.getSelectedPit() != null ?
+                                            mancalaService.updateGame(playTurn.getGameId(), playTurn.getSelectedPit()) :
+                                            mancalaService.updateGame(playTurn.getGameId(),
+                                                                      playTurn.getSelectedPitIndex()),
+                                    HttpStatus.OK);
+    }
+
+    /**
+     * Rest endpoint to update a Mancala Game and return only the change, for clients that keep the game
+     * themselves. Chosen with the Accept header {@value GameDelta#MEDIA_TYPE}.
+     *
+     * @param playTurn contains the the game id and the pit id or the pit index.
+     * @return the changed pits, the next player, the winner and the version of the game.
+     */
+    @PostMapping(value = "/update-game", produces = GameDelta.MEDIA_TYPE)
+    public ResponseEntity<GameDelta> updateGameDelta(@Valid @RequestBody final PlayTurnRequest playTurn) {
+        return new ResponseEntity<>(playTurn.getSelectedPit() != null ?
+                                            mancalaService.updateGameDelta(playTurn.getGameId(),
+                                                                           playTurn.getSelectedPit()) :
+                                            mancalaService.updateGameDelta(playTurn.getGameId(),
+                                                                           playTurn.getSelectedPitIndex()),
+                                    HttpStatus.OK);
+    }
+
+    /**
+     * Rest endpoint to update a Mancala Game and return only the change, chosen with the query flag view=delta
+     * for clients that can not set the Accept header.
+     *
+     * @param playTurn contains the the game id and the pit id.
+     * @return the changed pits, the next player, the winner and the version of the game.
+     * @see #updateGameDelta(PlayTurnRequest)
+     */
+    @PostMapping(value = "/update-game", params = "view=delta", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<GameDelta> updateGameDeltaView(@Valid @RequestBody final PlayTurnRequest playTurn) {
+        return updateGameDelta(playTurn);
+    }
+
+    /**
+     * Server-Sent Events endpoint to follow a Mancala Game: every change of the game is pushed as a delta event
+     * with the changed pits, the player who has the turn and the winner. The stream ends with the game.
+     *
+     * @param gameId the game id.
+     * @return the event stream.
+     */
+    @GetMapping(value = "/games/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable final UUID gameId) {
+        return mancalaService.subscribe(gameId);
+    }
+
+    /**
+     * Rest endpoint to suggest a move for the player who has the turn.
+     *
+     * @param gameId the game id.
+     * @return the best pit the bot finds and its score for the player.
+     */
+    @GetMapping("/games/{gameId}/hint")
+    public ResponseEntity<MoveHint> hint(@PathVariable final UUID gameId) {
+        return new ResponseEntity<>(mancalaService.hint(gameId), HttpStatus.OK);
+    }
+
+    /**
+     * Rest endpoint to update a Mancala Game with a batch of moves, stored at once.
+     *
+     * @param gameId    the game id.
+     * @param playMoves contains the pit ids or the pit indexes in the order they are played.
+     * @return the updated Mancala game and the index of the rejected move, if any.
+     */
+    @PostMapping("/games/{gameId}/moves:batch")
+    public ResponseEntity<PlayMovesResponse> playMoves(@PathVariable final UUID gameId,
+                                                       @Valid @RequestBody final PlayMovesRequest playMoves) {
+        return new ResponseEntity<>(playMoves.getSelectedPits() != null ?
+                                            mancalaService.playMoves(gameId, playMoves.getSelectedPits()) :
+                                            mancalaService.playMovesByIndex(gameId, playMoves.getSelectedPitIndexes()),
+                                    HttpStatus.OK);
     }
 }
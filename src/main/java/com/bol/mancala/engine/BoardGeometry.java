@@ -0,0 +1,211 @@
+package com.bol.mancala.engine;
+
+import static com.bol.mancala.engine.MancalaBoard.NO_WINNER;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO;
+
+/**
+ * Layout of a board with a number of small pits per player.
+ *
+ * The small pits of player 1 come first, then his big pit, then the small pits of player 2 and his big pit, the
+ * same order as the {@link com.bol.mancala.model.PitPlace} ordinals of the standard board. The pit that follows
+ * each pit when a player sows, the pit opposite of each small pit and the owner of each small pit are calculated
+ * once per layout, so a move on any board only looks them up. There is one instance per number of pits, so two
+ * geometries are equal when they are the same object.
+ */
+public final class BoardGeometry {
+
+    /**
+     * Smallest number of small pits per player.
+     */
+    public static final int MIN_PITS_PER_PLAYER = 1;
+
+    /**
+     * Largest number of small pits per player.
+     */
+    public static final int MAX_PITS_PER_PLAYER = 16;
+
+    /**
+     * Geometries by number of small pits per player.
+     */
+    private static final BoardGeometry[] GEOMETRIES = new BoardGeometry[MAX_PITS_PER_PLAYER + 1];
+
+    static {
+        for (int pitsPerPlayer = MIN_PITS_PER_PLAYER; pitsPerPlayer <= MAX_PITS_PER_PLAYER; pitsPerPlayer++) {
+            GEOMETRIES[pitsPerPlayer] = new BoardGeometry(pitsPerPlayer);
+        }
+    }
+
+    /**
+     * The standard board: six small pits per player, see the constants of {@link MancalaBoard}.
+     */
+    public static final BoardGeometry STANDARD = GEOMETRIES[MancalaBoard.PITS_PER_PLAYER];
+
+    /**
+     * Number of small pits each player has.
+     */
+    private final int pitsPerPlayer;
+
+    /**
+     * Number of pits of the board, including both big pits.
+     */
+    private final int pitCount;
+
+    /**
+     * Index of the big pit of player 1.
+     */
+    private final int playerOneBigPit;
+
+    /**
+     * Index of the big pit of player 2.
+     */
+    private final int playerTwoBigPit;
+
+    /**
+     * Next pit of each pit when player 1 sows, the big pit of player 2 is skipped.
+     */
+    final int[] playerOneNextPits;
+
+    /**
+     * Next pit of each pit when player 2 sows, the big pit of player 1 is skipped.
+     */
+    final int[] playerTwoNextPits;
+
+    /**
+     * Pit opposite of each small pit, a big pit is opposite of itself.
+     */
+    final int[] oppositePits;
+
+    /**
+     * Player who owns each small pit, {@link MancalaBoard#NO_WINNER} for the big pits.
+     */
+    final int[] owners;
+
+    /**
+     * Constructor.
+     *
+     * @param pitsPerPlayer number of small pits each player has.
+     */
+    private BoardGeometry(final int pitsPerPlayer) {
+        this.pitsPerPlayer = pitsPerPlayer;
+        this.pitCount = 2 * pitsPerPlayer + 2;
+        this.playerOneBigPit = pitsPerPlayer;
+        this.playerTwoBigPit = pitCount - 1;
+        this.playerOneNextPits = new int[pitCount];
+        this.playerTwoNextPits = new int[pitCount];
+        this.oppositePits = new int[pitCount];
+        this.owners = new int[pitCount];
+        for (int i = 0; i < pitCount; i++) {
+            final int next = (i + 1) % pitCount;
+            playerOneNextPits[i] = next == playerTwoBigPit ? 0 : next;
+            playerTwoNextPits[i] = next == playerOneBigPit ? next + 1 : next;
+            oppositePits[i] = (pitCount - 2 - i + pitCount) % pitCount;
+            owners[i] = i < playerOneBigPit ? PLAYER_ONE : i > playerOneBigPit && i < playerTwoBigPit ? PLAYER_TWO :
+                    NO_WINNER;
+        }
+    }
+
+    /**
+     * Get the geometry of a number of small pits per player.
+     *
+     * @param pitsPerPlayer number of small pits each player has, {@link #MIN_PITS_PER_PLAYER} to
+     *                      {@link #MAX_PITS_PER_PLAYER}.
+     * @return the geometry.
+     */
+    public static BoardGeometry of(final int pitsPerPlayer) {
+        if (pitsPerPlayer < MIN_PITS_PER_PLAYER || pitsPerPlayer > MAX_PITS_PER_PLAYER) {
+            throw new IllegalArgumentException("Pits per player should be between " + MIN_PITS_PER_PLAYER + " and "
+                                                       + MAX_PITS_PER_PLAYER + ": " + pitsPerPlayer);
+        }
+        return GEOMETRIES[pitsPerPlayer];
+    }
+
+    /**
+     * @return the number of small pits each player has.
+     */
+    public int getPitsPerPlayer() {
+        return pitsPerPlayer;
+    }
+
+    /**
+     * @return the number of pits of the board, including both big pits.
+     */
+    public int getPitCount() {
+        return pitCount;
+    }
+
+    /**
+     * @return the index of the big pit of player 1.
+     */
+    public int getPlayerOneBigPit() {
+        return playerOneBigPit;
+    }
+
+    /**
+     * @return the index of the big pit of player 2.
+     */
+    public int getPlayerTwoBigPit() {
+        return playerTwoBigPit;
+    }
+
+    /**
+     * @param playerId player 1 or 2.
+     * @return the index of the big pit of the player.
+     */
+    public int bigPit(final int playerId) {
+        return playerId == PLAYER_ONE ? playerOneBigPit : playerTwoBigPit;
+    }
+
+    /**
+     * @param playerId player 1 or 2.
+     * @return the index of the first small pit of the player.
+     */
+    public int firstPit(final int playerId) {
+        return bigPit(playerId) - pitsPerPlayer;
+    }
+
+    /**
+     * @param pitIndex pit index
+     * @return true if the index is a pit of the board.
+     */
+    public boolean contains(final int pitIndex) {
+        return pitIndex >= 0 && pitIndex < pitCount;
+    }
+
+    /**
+     * @param pitIndex pit index of the board
+     * @return true if the pit is one of the big pits.
+     */
+    public boolean isBigPit(final int pitIndex) {
+        return owners[pitIndex] == NO_WINNER;
+    }
+
+    /**
+     * @param pitIndex pit index of the board
+     * @return the player who owns the small pit, {@link MancalaBoard#NO_WINNER} for a big pit.
+     */
+    public int owner(final int pitIndex) {
+        return owners[pitIndex];
+    }
+
+    /**
+     * @param pitIndex pit index of the board
+     * @return the pit opposite of the pit.
+     */
+    public int oppositePit(final int pitIndex) {
+        return oppositePits[pitIndex];
+    }
+
+    /**
+     * @param playerId player 1 or 2.
+     * @return the next pit of each pit when the player sows.
+     */
+    int[] nextPits(final int playerId) {
+        return playerId == PLAYER_ONE ? playerOneNextPits : playerTwoNextPits;
+    }
+
+    @Override
+    public String toString() {
+        return "BoardGeometry(pitsPerPlayer=" + pitsPerPlayer + ")";
+    }
+}
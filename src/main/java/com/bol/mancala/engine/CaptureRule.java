@@ -0,0 +1,22 @@
+package com.bol.mancala.engine;
+
+/**
+ * Capture rule of a {@link RuleVariant}: what happens after the last stone of a move is sown.
+ *
+ * A rule gets the stones of the board after the sowing and changes them in place; the next player and the end of the
+ * game are decided by the board after it. The board only calls the rule of its variant, and the default variant on
+ * the standard board does not call a rule at all: its capture is part of the sowing, see {@link MancalaBoard}. A new
+ * rule gets a case of its own in the board, or its calls go through this interface and are not inlined.
+ */
+public interface CaptureRule {
+
+    /**
+     * Capture stones after the sowing of a move.
+     *
+     * @param pits         stones of each pit, changed in place.
+     * @param geometry     layout of the pits.
+     * @param playerId     the player who sowed.
+     * @param lastPitIndex the pit where the last stone ended.
+     */
+    void capture(int[] pits, BoardGeometry geometry, int playerId, int lastPitIndex);
+}
@@ -0,0 +1,20 @@
+package com.bol.mancala.engine;
+
+/**
+ * Empty capture: when the last stone ends in an own empty pit, it goes to the own big pit with the stones of the
+ * opposite pit, also when the opposite pit is empty. No capture when the opposite pit is empty is already the rule
+ * of {@link KalahCaptureRule}, so this variant is its inverse and not a copy of it.
+ */
+final class EmptyCaptureRule implements CaptureRule {
+
+    @Override
+    public void capture(final int[] pits, final BoardGeometry geometry, final int playerId, final int lastPitIndex) {
+        if (pits[lastPitIndex] != 1 || geometry.owners[lastPitIndex] != playerId) {
+            return;
+        }
+        final int oppositePitIndex = geometry.oppositePits[lastPitIndex];
+        pits[geometry.bigPit(playerId)] += pits[oppositePitIndex] + 1;
+        pits[oppositePitIndex] = 0;
+        pits[lastPitIndex] = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bol.mancala.engine;
+
+/**
+ * Kalah: when the last stone ends in an own empty pit and the opposite pit has stones, both go to the own big pit.
+ * When the opposite pit is empty, the last stone stays where it is.
+ */
+final class KalahCaptureRule implements CaptureRule {
+
+    @Override
+    public void capture(final int[] pits, final BoardGeometry geometry, final int playerId, final int lastPitIndex) {
+        if (pits[lastPitIndex] != 1 || geometry.owners[lastPitIndex] != playerId) {
+            return;
+        }
+        final int oppositePitIndex = geometry.oppositePits[lastPitIndex];
+        if (pits[oppositePitIndex] != 0) {
+            pits[geometry.bigPit(playerId)] += pits[oppositePitIndex] + 1;
+            pits[oppositePitIndex] = 0;
+            pits[lastPitIndex] = 0;
+        }
+    }
+}
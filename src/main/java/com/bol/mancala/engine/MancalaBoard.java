@@ -0,0 +1,460 @@
+package com.bol.mancala.engine;
+
+/**
+ * Mancala board engine.
+ *
+ * The whole board state lives in one primitive array, indexed by the {@link com.bol.mancala.model.PitPlace}
+ * ordinals, next to the current player and the winner. Sowing, capturing, the extra turn and the end of
+ * the game are all calculated on the indexes, without streams or boxed values, so a move does not allocate.
+ * The domain objects ({@link com.bol.mancala.model.MancalaGame}, {@link com.bol.mancala.model.PitGame})
+ * are only built from this board when the game is returned to the client.
+ *
+ * A board has a {@link BoardGeometry}, the number of small pits per player. The constants of this class are those
+ * of the standard board with six pits, where the indexes are the {@link com.bol.mancala.model.PitPlace} ordinals;
+ * the bots only play the standard board. A move on the standard board takes its own path, with the sizes as
+ * constants, so it is not slower than before there were other boards. A move on any other board looks the next pit,
+ * the opposite pit and the owner of a pit up in the tables of the geometry, without branching on the indexes.
+ *
+ * A board also has a {@link RuleVariant}. The default {@link RuleVariant#KALAH} rules on the standard board capture
+ * in the sowing of the own path above, and never call a {@link CaptureRule}. Every other board sows with the tables
+ * and then calls the capture rule of its variant. The board switches on the variant to a call of each known rule by
+ * its own final class, so every call site has one receiver and is inlined, whatever variants the games of the JVM
+ * are played with; one shared interface call would see all rules and not be inlined.
+ */
+public final class MancalaBoard {
+
+    /**
+     * Number of pits of the board, including both big pits.
+     */
+    public static final int PIT_COUNT = 14;
+
+    /**
+     * Number of small pits each player has.
+     */
+    public static final int PITS_PER_PLAYER = 6;
+
+    /**
+     * Index of the big pit of player 1.
+     */
+    public static final int PLAYER_ONE_BIG_PIT = 6;
+
+    /**
+     * Index of the big pit of player 2.
+     */
+    public static final int PLAYER_TWO_BIG_PIT = 13;
+
+    /**
+     * Player 1 id, the same id that is stored in the entity.
+     */
+    public static final int PLAYER_ONE = 1;
+
+    /**
+     * Player 2 id, the same id that is stored in the entity.
+     */
+    public static final int PLAYER_TWO = 2;
+
+    /**
+     * No winner (yet).
+     */
+    public static final int NO_WINNER = 0;
+
+    /**
+     * Number of pits the sowing passes in one lap around the board: all pits except the big pit of the opponent.
+     */
+    private static final int LAP = PIT_COUNT - 1;
+
+    /**
+     * Capture rules of the variants, each by its own final class.
+     */
+    private static final KalahCaptureRule KALAH_CAPTURE = new KalahCaptureRule();
+    private static final OwareCaptureRule OWARE_CAPTURE = new OwareCaptureRule();
+    private static final EmptyCaptureRule EMPTY_CAPTURE = new EmptyCaptureRule();
+
+    /**
+     * Layout of the pits.
+     */
+    private final BoardGeometry geometry;
+
+    /**
+     * Rules of the game.
+     */
+    private final RuleVariant ruleVariant;
+
+    /**
+     * True for the standard board with the default rules, the moves of which take their own path.
+     */
+    private final boolean standardKalah;
+
+    /**
+     * Stones of each pit.
+     */
+    private final int[] pits;
+
+    /**
+     * The player who has the turn, 1 or 2.
+     */
+    private int playerId;
+
+    /**
+     * The winner of the game, 1 or 2. {@link #NO_WINNER} while the game is running.
+     */
+    private int winnerId;
+
+    /**
+     * Constructor of a standard board.
+     */
+    public MancalaBoard() {
+        this(BoardGeometry.STANDARD);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param geometry layout of the pits.
+     */
+    public MancalaBoard(final BoardGeometry geometry) {
+        this(geometry, RuleVariant.KALAH);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param geometry    layout of the pits.
+     * @param ruleVariant rules of the game.
+     */
+    public MancalaBoard(final BoardGeometry geometry, final RuleVariant ruleVariant) {
+        this.geometry = geometry;
+        this.ruleVariant = ruleVariant;
+        this.standardKalah = geometry == BoardGeometry.STANDARD && ruleVariant == RuleVariant.KALAH;
+        this.pits = new int[geometry.getPitCount()];
+    }
+
+    /**
+     * @return the layout of the pits.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return the rules of the game.
+     */
+    public RuleVariant getRuleVariant() {
+        return ruleVariant;
+    }
+
+    /**
+     * Get the stones of the pit.
+     *
+     * @param pitIndex pit index
+     * @return the amount of stones.
+     */
+    public int getStones(final int pitIndex) {
+        return pits[pitIndex];
+    }
+
+    /**
+     * Set the stones of the pit.
+     *
+     * @param pitIndex pit index
+     * @param stones   amount of stones
+     */
+    public void setStones(final int pitIndex, final int stones) {
+        pits[pitIndex] = stones;
+    }
+
+    /**
+     * @return the player who has the turn.
+     */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * @param playerId the player who has the turn.
+     */
+    public void setPlayerId(final int playerId) {
+        this.playerId = playerId;
+    }
+
+    /**
+     * @return the winner or {@link #NO_WINNER}.
+     */
+    public int getWinnerId() {
+        return winnerId;
+    }
+
+    /**
+     * @return true if the game has a winner.
+     */
+    public boolean isFinished() {
+        return winnerId != NO_WINNER;
+    }
+
+    /**
+     * Copy the state of another board into this one, so boards can be reused without allocating.
+     *
+     * @param other the board to copy, of the same geometry and rules.
+     */
+    public void copyFrom(final MancalaBoard other) {
+        System.arraycopy(other.pits, 0, pits, 0, pits.length);
+        playerId = other.playerId;
+        winnerId = other.winnerId;
+    }
+
+    /**
+     * Hash of the stones of all pits and the player who has the turn, to look positions up in a
+     * transposition table. Two different positions can have the same hash, rarely.
+     *
+     * @return 64 bit hash of the position.
+     */
+    public long hash() {
+        long hash = playerId;
+        for (int i = 0; i < pits.length; i++) {
+            hash = (hash + pits[i]) * 0x9E3779B97F4A7C15L;
+        }
+        hash ^= hash >>> 31;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ hash >>> 29;
+    }
+
+    /**
+     * Read the stones of all pits from a packed board.
+     *
+     * @param packedBoard packed board, see {@link PackedBoard}.
+     */
+    public void readFrom(final byte[] packedBoard) {
+        for (int i = 0; i < pits.length; i++) {
+            pits[i] = PackedBoard.getStones(packedBoard, i);
+        }
+    }
+
+    /**
+     * @return a new packed board with the stones of all pits, see {@link PackedBoard}.
+     */
+    public byte[] toPackedBoard() {
+        final byte[] packedBoard = new byte[PackedBoard.length(geometry)];
+        for (int i = 0; i < pits.length; i++) {
+            PackedBoard.setStones(packedBoard, i, pits[i]);
+        }
+        return packedBoard;
+    }
+
+    /**
+     * Play the selected pit for the current player:
+     *
+     * 1- Take the stones from the selected pit.
+     * 2- Add stones to each next pit, capturing the opponent stones by the rules of the game.
+     * 3- Determine the next player.
+     * 4- Check the winner.
+     *
+     * The selected pit is expected to be validated before: a small pit of the current player with stones.
+     *
+     * @param pitIndex selected pit index.
+     * @return the pit index where the last stone ended.
+     */
+    public int play(final int pitIndex) {
+        final int stones = pits[pitIndex];
+        pits[pitIndex] = 0;
+        final int lastPitIndex;
+        if (standardKalah) {
+            lastPitIndex = addStonesToEachNextPit(stones, pitIndex);
+            determineNextPlayer(lastPitIndex, PLAYER_ONE_BIG_PIT, PLAYER_TWO_BIG_PIT);
+            setWinnerIfAny(PLAYER_ONE_BIG_PIT, PLAYER_TWO_BIG_PIT);
+        } else {
+            lastPitIndex = addStonesByGeometry(stones, pitIndex);
+            capture(lastPitIndex);
+            determineNextPlayer(lastPitIndex, geometry.getPlayerOneBigPit(), geometry.getPlayerTwoBigPit());
+            setWinnerIfAny(geometry.getPlayerOneBigPit(), geometry.getPlayerTwoBigPit());
+        }
+        return lastPitIndex;
+    }
+
+    /**
+     * Capture by the rule of the variant, after the sowing by the tables of the geometry. Each known rule is called
+     * at a call site of its own; a variant without a case here calls its rule through the interface.
+     *
+     * @param lastPitIndex the pit where the last stone ended.
+     */
+    private void capture(final int lastPitIndex) {
+        switch (ruleVariant) {
+            case KALAH:
+                KALAH_CAPTURE.capture(pits, geometry, playerId, lastPitIndex);
+                break;
+            case OWARE:
+                OWARE_CAPTURE.capture(pits, geometry, playerId, lastPitIndex);
+                break;
+            case EMPTY_CAPTURE:
+                EMPTY_CAPTURE.capture(pits, geometry, playerId, lastPitIndex);
+                break;
+            default:
+                ruleVariant.getCaptureRule().capture(pits, geometry, playerId, lastPitIndex);
+        }
+    }
+
+    /**
+     * Add stones to each next pit of the standard board, skipping the opponent big pit.
+     *
+     * The full laps around the board are added at once: every pit except the opponent big pit gets one stone per
+     * lap, the selected pit too. Only the stones of the last lap, 1 to 13, are sown one by one, so a move costs the
+     * same for any number of stones. The last stone can only capture when there was no full lap, after a lap no
+     * pit is empty anymore; the same as sowing all stones one by one.
+     *
+     * @param stones          stones taken from the selected pit
+     * @param currentPitIndex selected pit index
+     * @return the pit index where the last stone ended.
+     */
+    private int addStonesToEachNextPit(int stones, int currentPitIndex) {
+        final int opponentBigPit = playerId == PLAYER_ONE ? PLAYER_TWO_BIG_PIT : PLAYER_ONE_BIG_PIT;
+        final int laps = (stones - 1) / LAP;
+        if (laps > 0) {
+            for (int i = 0; i < PIT_COUNT; i++) {
+                if (i != opponentBigPit) {
+                    pits[i] += laps;
+                }
+            }
+            stones -= laps * LAP;
+        }
+        while (stones > 0) {
+            currentPitIndex++;
+            if (currentPitIndex == PIT_COUNT) {
+                currentPitIndex = 0;
+            }
+            if (currentPitIndex != opponentBigPit) {
+                if (stones == 1 && pits[currentPitIndex] == 0 && isOwnSmallPit(currentPitIndex)) {
+                    captureOpponentStones(currentPitIndex);
+                } else {
+                    pits[currentPitIndex]++;
+                }
+                stones--;
+            }
+        }
+        return currentPitIndex;
+    }
+
+    /**
+     * Add stones to each next pit of any board, the same as {@link #addStonesToEachNextPit(int, int)} with the
+     * tables of the geometry: the next pit already skips the opponent big pit and wraps around the board. The last
+     * stone does not capture here, the capture rule of the board is called after.
+     *
+     * @param stones          stones taken from the selected pit
+     * @param currentPitIndex selected pit index
+     * @return the pit index where the last stone ended.
+     */
+    private int addStonesByGeometry(int stones, int currentPitIndex) {
+        final int[] nextPits = geometry.nextPits(playerId);
+        final int lap = pits.length - 1;
+        final int laps = (stones - 1) / lap;
+        if (laps > 0) {
+            for (int i = 0; i < pits.length; i++) {
+                pits[i] += laps;
+            }
+            pits[playerId == PLAYER_ONE ? geometry.getPlayerTwoBigPit() : geometry.getPlayerOneBigPit()] -= laps;
+            stones -= laps * lap;
+        }
+        for (; stones > 0; stones--) {
+            currentPitIndex = nextPits[currentPitIndex];
+            pits[currentPitIndex]++;
+        }
+        return currentPitIndex;
+    }
+
+    /**
+     * @param pitIndex pit index
+     * @return true if the pit is one of the small pits of the current player.
+     */
+    private boolean isOwnSmallPit(final int pitIndex) {
+        if (playerId == PLAYER_ONE) {
+            return pitIndex < PLAYER_ONE_BIG_PIT;
+        }
+        return pitIndex > PLAYER_ONE_BIG_PIT && pitIndex < PLAYER_TWO_BIG_PIT;
+    }
+
+    /**
+     * Capture the stones of the opposite pit together with the last stone into the big pit of the
+     * current player. If the opposite pit is empty, the last stone just stays in the current pit.
+     *
+     * @param currentPitIndex the own empty pit where the last stone ended.
+     */
+    private void captureOpponentStones(final int currentPitIndex) {
+        final int opponentPitIndex = PIT_COUNT - 2 - currentPitIndex;
+        final int stonesOpponent = pits[opponentPitIndex];
+        if (stonesOpponent == 0) {
+            pits[currentPitIndex]++;
+        } else {
+            pits[opponentPitIndex] = 0;
+            pits[playerId == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT] += stonesOpponent + 1;
+        }
+    }
+
+    /**
+     * The player may play one more time if the last stone ended in his own big pit,
+     * otherwise the opponent has the turn.
+     *
+     * @param lastPitIndex    the pit index where the last stone ended.
+     * @param playerOneBigPit the big pit of player 1.
+     * @param playerTwoBigPit the big pit of player 2.
+     */
+    private void determineNextPlayer(final int lastPitIndex, final int playerOneBigPit, final int playerTwoBigPit) {
+        if (playerId == PLAYER_ONE && lastPitIndex != playerOneBigPit) {
+            playerId = PLAYER_TWO;
+        } else if (playerId == PLAYER_TWO && lastPitIndex != playerTwoBigPit) {
+            playerId = PLAYER_ONE;
+        }
+    }
+
+    /**
+     * If all small pits of one player are empty, the opponent collects his remaining stones into his
+     * big pit and the player with the most stones wins. When the stones are equal, the player who
+     * has the turn wins.
+     *
+     * @param playerOneBigPit the big pit of player 1.
+     * @param playerTwoBigPit the big pit of player 2.
+     */
+    private void setWinnerIfAny(final int playerOneBigPit, final int playerTwoBigPit) {
+        if (isEmpty(0, playerOneBigPit)) {
+            pits[playerTwoBigPit] += collectStones(playerOneBigPit + 1, playerTwoBigPit);
+        } else if (isEmpty(playerOneBigPit + 1, playerTwoBigPit)) {
+            pits[playerOneBigPit] += collectStones(0, playerOneBigPit);
+        } else {
+            return;
+        }
+        if (pits[playerOneBigPit] > pits[playerTwoBigPit]) {
+            winnerId = PLAYER_ONE;
+        } else if (pits[playerOneBigPit] < pits[playerTwoBigPit]) {
+            winnerId = PLAYER_TWO;
+        } else {
+            winnerId = playerId;
+        }
+    }
+
+    /**
+     * @param from first pit index, inclusive
+     * @param to   last pit index, exclusive
+     * @return true if all the pits in the range are empty.
+     */
+    private boolean isEmpty(final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (pits[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Empty the pits in the range.
+     *
+     * @param from first pit index, inclusive
+     * @param to   last pit index, exclusive
+     * @return the sum of the stones that were in the pits.
+     */
+    private int collectStones(final int from, final int to) {
+        int sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += pits[i];
+            pits[i] = 0;
+        }
+        return sum;
+    }
+}
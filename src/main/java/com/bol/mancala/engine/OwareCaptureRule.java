@@ -0,0 +1,23 @@
+package com.bol.mancala.engine;
+
+/**
+ * Oware: when the last stone makes a small pit of the opponent 2 or 3 stones, the stones of that pit go to the own big
+ * pit, and so do those of the pits of the opponent before it, as long as they have 2 or 3 stones too. The own empty
+ * pits do not capture.
+ */
+final class OwareCaptureRule implements CaptureRule {
+
+    @Override
+    public void capture(final int[] pits, final BoardGeometry geometry, final int playerId, final int lastPitIndex) {
+        final int opponentId = geometry.owners[lastPitIndex];
+        if (opponentId == playerId || opponentId == MancalaBoard.NO_WINNER) {
+            return;
+        }
+        final int firstPitIndex = geometry.firstPit(opponentId);
+        final int bigPitIndex = geometry.bigPit(playerId);
+        for (int i = lastPitIndex; i >= firstPitIndex && (pits[i] == 2 || pits[i] == 3); i--) {
+            pits[bigPitIndex] += pits[i];
+            pits[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.bol.mancala.engine;
+
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+
+/**
+ * Binary form of the board, as it is stored in the board column of the game row.
+ *
+ * Every pit takes 4 bytes (big-endian int), in the order of the {@link com.bol.mancala.model.PitPlace} ordinals.
+ * A board of another {@link BoardGeometry} has the pits in the same order, so its length depends on the geometry.
+ */
+public final class PackedBoard {
+
+    /**
+     * Bytes used by one pit.
+     */
+    public static final int BYTES_PER_PIT = Integer.BYTES;
+
+    /**
+     * Length of a packed standard board.
+     */
+    public static final int LENGTH = PIT_COUNT * BYTES_PER_PIT;
+
+    /**
+     * Length of the largest packed board, with {@link BoardGeometry#MAX_PITS_PER_PLAYER} pits per player.
+     */
+    public static final int MAX_LENGTH = (2 * BoardGeometry.MAX_PITS_PER_PLAYER + 2) * BYTES_PER_PIT;
+
+    /**
+     * Utility class.
+     */
+    private PackedBoard() {
+    }
+
+    /**
+     * @param geometry layout of the pits.
+     * @return the length of a packed board of the geometry.
+     */
+    public static int length(final BoardGeometry geometry) {
+        return geometry.getPitCount() * BYTES_PER_PIT;
+    }
+
+    /**
+     * Generate a packed standard board for a new game.
+     *
+     * @param startStoneAmount stones of each small pit.
+     * @return the packed board, the big pits are empty.
+     */
+    public static byte[] newBoard(final int startStoneAmount) {
+        return newBoard(BoardGeometry.STANDARD, startStoneAmount);
+    }
+
+    /**
+     * Generate a packed board for a new game.
+     *
+     * @param geometry         layout of the pits.
+     * @param startStoneAmount stones of each small pit.
+     * @return the packed board, the big pits are empty.
+     */
+    public static byte[] newBoard(final BoardGeometry geometry, final int startStoneAmount) {
+        final byte[] board = new byte[length(geometry)];
+        for (int i = 0; i < geometry.getPitCount(); i++) {
+            if (!geometry.isBigPit(i)) {
+                setStones(board, i, startStoneAmount);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Get the stones of one pit.
+     *
+     * @param board    packed board
+     * @param pitIndex pit index
+     * @return the amount of stones.
+     */
+    public static int getStones(final byte[] board, final int pitIndex) {
+        final int offset = pitIndex * BYTES_PER_PIT;
+        return (board[offset] & 0xFF) << 24
+                | (board[offset + 1] & 0xFF) << 16
+                | (board[offset + 2] & 0xFF) << 8
+                | board[offset + 3] & 0xFF;
+    }
+
+    /**
+     * Set the stones of one pit.
+     *
+     * @param board    packed board
+     * @param pitIndex pit index
+     * @param stones   amount of stones
+     */
+    public static void setStones(final byte[] board, final int pitIndex, final int stones) {
+        final int offset = pitIndex * BYTES_PER_PIT;
+        board[offset] = (byte) (stones >>> 24);
+        board[offset + 1] = (byte) (stones >>> 16);
+        board[offset + 2] = (byte) (stones >>> 8);
+        board[offset + 3] = (byte) stones;
+    }
+}
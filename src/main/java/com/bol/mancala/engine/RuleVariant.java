@@ -0,0 +1,44 @@
+package com.bol.mancala.engine;
+
+/**
+ * Rules of the mancala family a game is played with, chosen when the game is created. The sowing, the extra turn in
+ * the own big pit and the end of the game are the same for all variants, they differ in the {@link CaptureRule}.
+ */
+public enum RuleVariant {
+
+    /**
+     * The default rules, see {@link KalahCaptureRule}.
+     */
+    KALAH(new KalahCaptureRule()),
+
+    /**
+     * Capture on 2 or 3 stones in the pits of the opponent, see {@link OwareCaptureRule}.
+     */
+    OWARE(new OwareCaptureRule()),
+
+    /**
+     * Capture also when the opposite pit is empty, see {@link EmptyCaptureRule}.
+     */
+    EMPTY_CAPTURE(new EmptyCaptureRule());
+
+    /**
+     * Capture rule of the variant.
+     */
+    private final CaptureRule captureRule;
+
+    /**
+     * Constructor.
+     *
+     * @param captureRule capture rule of the variant.
+     */
+    RuleVariant(final CaptureRule captureRule) {
+        this.captureRule = captureRule;
+    }
+
+    /**
+     * @return the capture rule of the variant.
+     */
+    public CaptureRule getCaptureRule() {
+        return captureRule;
+    }
+}
@@ -1,47 +1,42 @@
 package com.bol.mancala.entities;
 
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.engine.PackedBoard;
+import com.bol.mancala.engine.RuleVariant;
 import com.bol.mancala.exception.mancala.MancalaGeneralException;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
-import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.Id;
-import javax.persistence.JoinColumn;
-import javax.persistence.OneToMany;
+import javax.persistence.Index;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.validation.constraints.NotNull;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.time.Instant;
 import java.util.UUID;
-
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_B;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_BIG;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_C;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_D;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_E;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_F;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_BIG;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_U;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_V;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_W;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_X;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Z;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Mancala Entity.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_mancala_entity_last_activity", columnList = "last_activity"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Builder(toBuilder = true)
-public class MancalaEntity {
+public class MancalaEntity implements Persistable<UUID> {
 
     /**
      * Mancala unique ID. Each game will have it's own ID.
@@ -54,44 +49,141 @@ public class MancalaEntity {
     /**
      * The player ID wil be generated for every new game. It can be 1 or 2.
      */
+    @Setter
     private Integer playerId;
 
     /**
-     * List of the Pits that the game will have. For every game a list of the pits will be
-     * generated with its own data.
-     * Cascade type all so that we do all the operations for the pits that we do for the
-     * game, by deleting the game the pits will be also deleted or updated.
+     * Stones of all the pits of the game packed in one column, see {@link PackedBoard}.
+     * The whole game is one row, so a move is one SELECT and one UPDATE.
+     * The packed board is replaced and never changed in place.
+     */
+    @Setter
+    @Column(name = "board", length = PackedBoard.MAX_LENGTH)
+    private byte[] board;
+
+    /**
+     * Number of small pits per player, chosen when the game is created. Null for the games that were stored
+     * before the number could be chosen, they have the standard board.
+     */
+    private Integer pitsPerPlayer;
+
+    /**
+     * Rules the game is played with, chosen when the game is created. Null for the games that were stored before
+     * the rules could be chosen, they have the Kalah rules.
+     */
+    @Enumerated(EnumType.STRING)
+    private RuleVariant ruleVariant;
+
+    /**
+     * The player that is played by the bot, 1 or 2. Null when two people play the game.
+     */
+    private Integer botPlayerId;
+
+    /**
+     * Number of moves played in the game. The board is only updated when the stored version is still the version
+     * the moves were played from, so two moves of the same game that started from the same board can not overwrite
+     * each other.
      */
-    @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn
-    private List<PitEntity> pits;
+    @Setter
+    private long version;
 
     /**
-     * Mancala constructor. Generate a game with a list of pits contains stones.
+     * Time of the last move of the game, or of its creation. The games that are idle for longer than
+     * mancala.expiry.idle-ttl-ms are deleted by the sweeper, which finds them by the index on this column.
+     */
+    @Setter
+    @Column(name = "last_activity")
+    private Instant lastActivity;
+
+    /**
+     * True until the game is inserted or loaded. The id is assigned by the application, so without it
+     * every save of a new game would first SELECT the id to decide between insert and update.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Builder.Default
+    private boolean newGame = true;
+
+    /**
+     * Version of the stored game row when the game was read. Only kept by the move-log store, whose row is a
+     * snapshot that can be more versions behind the game than the moves of one update.
+     */
+    @Transient
+    @Setter
+    private long storedVersion;
+
+    /**
+     * Mancala constructor. Generate a game with pits that contain stones.
      *
      * @param mancalaId        mancala game id.
      * @param startStoneAmount stones amount.
      */
     public MancalaEntity(final UUID mancalaId, final Integer startStoneAmount) {
+        this(mancalaId, startStoneAmount, BoardGeometry.STANDARD);
+    }
+
+    /**
+     * Mancala constructor. Generate a game with a number of pits per player that contain stones.
+     *
+     * @param mancalaId        mancala game id.
+     * @param startStoneAmount stones amount.
+     * @param geometry         layout of the pits.
+     */
+    public MancalaEntity(final UUID mancalaId, final Integer startStoneAmount, final BoardGeometry geometry) {
+        this(mancalaId, startStoneAmount, geometry, RuleVariant.KALAH);
+    }
+
+    /**
+     * Mancala constructor. Generate a game with a number of pits per player that contain stones, played with rules.
+     *
+     * @param mancalaId        mancala game id.
+     * @param startStoneAmount stones amount.
+     * @param geometry         layout of the pits.
+     * @param ruleVariant      rules of the game.
+     */
+    public MancalaEntity(final UUID mancalaId, final Integer startStoneAmount, final BoardGeometry geometry,
+                         final RuleVariant ruleVariant) {
         if (startStoneAmount <= 0)
             throw new MancalaGeneralException("Stones amount should be greater than zero!");
-        final List<PitEntity> pitEntityList = new ArrayList<>();
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_ONE_PIT_A).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_ONE_PIT_B).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_ONE_PIT_C).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_ONE_PIT_D).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_ONE_PIT_E).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_ONE_PIT_F).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_ONE_PIT_BIG).stones(0).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_TWO_PIT_U).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_TWO_PIT_V).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_TWO_PIT_W).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_TWO_PIT_X).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_TWO_PIT_Y).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_TWO_PIT_Z).stones(startStoneAmount).build());
-        pitEntityList.add(PitEntity.builder().pitPlace(PLAYER_TWO_PIT_BIG).stones(0).build());
-        this.pits = pitEntityList;
+        this.board = PackedBoard.newBoard(geometry, startStoneAmount);
+        this.pitsPerPlayer = geometry.getPitsPerPlayer();
+        this.ruleVariant = ruleVariant;
         this.mancalaId = mancalaId;
-        playerId = new Random().nextInt(2) + 1;
+        this.newGame = true;
+        this.lastActivity = Instant.now();
+        playerId = ThreadLocalRandom.current().nextInt(2) + 1;
+    }
+
+    /**
+     * @return the layout of the pits of the game.
+     */
+    public BoardGeometry getGeometry() {
+        return pitsPerPlayer == null ? BoardGeometry.STANDARD : BoardGeometry.of(pitsPerPlayer);
+    }
+
+    /**
+     * @return the rules of the game.
+     */
+    public RuleVariant getRules() {
+        return ruleVariant == null ? RuleVariant.KALAH : ruleVariant;
+    }
+
+    @Override
+    public UUID getId() {
+        return mancalaId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newGame;
+    }
+
+    /**
+     * The game is in the database from now on.
+     */
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newGame = false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.bol.mancala.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Transient;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One move of a game in the append-only move log.
+ *
+ * A row is the game id, the sequence number of the move and two small numbers: the pit that was played and the
+ * player who played it. Moves are only inserted, never updated, so the key (game id, sequence) also guards that
+ * two moves of the same game can not be stored with the same sequence number.
+ */
+@Entity
+@IdClass(MoveEntity.MoveId.class)
+@NoArgsConstructor
+@Getter
+public class MoveEntity implements Persistable<MoveEntity.MoveId> {
+
+    /**
+     * Game id.
+     */
+    @Id
+    @Column(name = "game_id")
+    private UUID gameId;
+
+    /**
+     * Sequence number of the move in the game, the version of the game after the move. The first move is 1.
+     */
+    @Id
+    @Column(name = "sequence_number")
+    private long sequence;
+
+    /**
+     * Index of the pit that was played.
+     */
+    @Column(name = "pit_index", nullable = false)
+    private byte pitIndex;
+
+    /**
+     * The player who played the move, 1 or 2.
+     */
+    @Column(name = "player_id", nullable = false)
+    private byte playerId;
+
+    /**
+     * Constructor.
+     *
+     * @param gameId   game id
+     * @param sequence sequence number of the move
+     * @param pitIndex index of the played pit
+     * @param playerId the player who played the move
+     */
+    public MoveEntity(final UUID gameId, final long sequence, final int pitIndex, final int playerId) {
+        this.gameId = gameId;
+        this.sequence = sequence;
+        this.pitIndex = (byte) pitIndex;
+        this.playerId = (byte) playerId;
+    }
+
+    @Override
+    public MoveId getId() {
+        return new MoveId(gameId, sequence);
+    }
+
+    /**
+     * A move is always inserted, so saving a move with an existing key fails instead of merging.
+     *
+     * @return true.
+     */
+    @Override
+    @Transient
+    public boolean isNew() {
+        return true;
+    }
+
+    /**
+     * Key of a move.
+     */
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class MoveId implements Serializable {
+
+        /**
+         * Game id.
+         */
+        private UUID gameId;
+
+        /**
+         * Sequence number of the move.
+         */
+        private long sequence;
+    }
+}
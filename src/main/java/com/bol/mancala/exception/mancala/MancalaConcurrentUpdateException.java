@@ -0,0 +1,17 @@
+package com.bol.mancala.exception.mancala;
+
+import com.bol.mancala.exception.ApplicationException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Mancala game was changed by another move at the same time.
+ */
+public class MancalaConcurrentUpdateException extends ApplicationException {
+
+    /**
+     * Constructor.
+     */
+    public MancalaConcurrentUpdateException() {
+        super("The game was changed at the same time, please try again!", HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,38 @@
+package com.bol.mancala.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Change of a game by one request: only the pits whose stones changed, by pit index, with the player who has the
+ * turn and the winner. The version is the number of moves played after the request and the base version the number
+ * before it. One request can play more than one move (a batch, an extra turn, the reply of the bot), so a client
+ * applies a delta only when its base version is the version the client has, and fetches the whole game otherwise.
+ *
+ * The update endpoint returns a delta instead of the whole game for the {@link #MEDIA_TYPE} media type.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameDelta {
+
+    /**
+     * Media type of a game delta, to ask for a delta instead of the whole game in the Accept header.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.mancala.delta+json";
+
+    private UUID gameId;
+    private long baseVersion;
+    private long version;
+    private Map<Integer, Integer> pits;
+    private MancalaPlayer player;
+    private MancalaPlayer playerWinner;
+}
@@ -0,0 +1,22 @@
+package com.bol.mancala.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Best pit for the player who has the turn, as the bot sees it, with its score for that player.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveHint {
+    private UUID gameId;
+    private MancalaPlayer player;
+    private PitPlace pit;
+    private int score;
+}
@@ -0,0 +1,32 @@
+package com.bol.mancala.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayMovesRequest {
+    private List<@NotNull PitPlace> selectedPits;
+    private List<@NotNull Integer> selectedPitIndexes;
+
+    /**
+     * The pits are selected by their place on the standard board, or by their index on any board.
+     *
+     * @return true if exactly one of them is selected, with at least one pit.
+     */
+    @AssertTrue(message = "Select either the pits or the pit indexes")
+    @JsonIgnore
+    public boolean isPitSelected() {
+        return selectedPits == null ? selectedPitIndexes != null && !selectedPitIndexes.isEmpty() :
+                selectedPitIndexes == null && !selectedPits.isEmpty();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bol.mancala.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a batch of moves: the game after the moves that were played and, when a move was rejected,
+ * its index in the batch and the reason. The moves after a rejected move are not played.
+ * A delta is returned instead of the game when only the change of the game is requested.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayMovesResponse {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private MancalaGame game;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private GameDelta delta;
+    private Integer rejectedMove;
+    private String rejectedReason;
+}
@@ -1,16 +1,29 @@
 package com.bol.mancala.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Getter;
 
+import javax.validation.constraints.AssertTrue;
 import javax.validation.constraints.NotNull;
 import java.util.UUID;
 
 @Builder
 @Getter
 public class PlayTurnRequest {
-    @NotNull
     private final PitPlace selectedPit;
+    private final Integer selectedPitIndex;
     @NotNull
     private final UUID gameId;
+
+    /**
+     * The pit is selected by its place on the standard board, or by its index on any board.
+     *
+     * @return true if exactly one of them is selected.
+     */
+    @AssertTrue(message = "Select either the pit or the pit index")
+    @JsonIgnore
+    public boolean isPitSelected() {
+        return selectedPit == null ^ selectedPitIndex == null;
+    }
 }
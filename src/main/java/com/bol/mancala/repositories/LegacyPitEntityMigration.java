@@ -0,0 +1,68 @@
+package com.bol.mancala.repositories;
+
+import com.bol.mancala.engine.PackedBoard;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migration of the games that were stored with one row per pit.
+ *
+ * Before the board became one packed column of the game row, every game had 14 rows in the pit_entity table.
+ * When that table is still found at startup, the stones of each game are packed into the board column of its
+ * game row and the pit_entity table is dropped. With a database that keeps its schema (ddl-auto update), the
+ * board column is added by Hibernate before this migration runs.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class LegacyPitEntityMigration implements ApplicationRunner {
+
+    /**
+     * Name of the table of the pits.
+     */
+    private static final String LEGACY_PIT_TABLE = "PIT_ENTITY";
+
+    /**
+     * JDBC template, the legacy table is not mapped by an entity anymore.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Migrate the legacy pits if the table exists.
+     *
+     * @param args application arguments.
+     */
+    @Override
+    @Transactional
+    public void run(final ApplicationArguments args) {
+        final Integer legacyTables = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where upper(table_name) = ?",
+                Integer.class, LEGACY_PIT_TABLE);
+        if (legacyTables == null || legacyTables == 0) {
+            return;
+        }
+        final Map<ByteBuffer, byte[]> boards = new HashMap<>();
+        jdbcTemplate.query("select pits_mancala_id, pit_place, stones from pit_entity where pits_mancala_id is not null",
+                           rs -> {
+                               final byte[] board = boards.computeIfAbsent(ByteBuffer.wrap(rs.getBytes(1)),
+                                                                           id -> new byte[PackedBoard.LENGTH]);
+                               PackedBoard.setStones(board, rs.getInt(2), rs.getInt(3));
+                           });
+        final List<Object[]> updates = new ArrayList<>(boards.size());
+        boards.forEach((mancalaId, board) -> updates.add(new Object[]{board, mancalaId.array()}));
+        jdbcTemplate.batchUpdate("update mancala_entity set board = ? where mancala_id = ? and board is null", updates);
+        jdbcTemplate.execute("drop table pit_entity");
+        log.info("Migrated {} games from the legacy pit table to the packed board column", boards.size());
+    }
+}
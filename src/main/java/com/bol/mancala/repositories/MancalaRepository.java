@@ -1,11 +1,107 @@
 package com.bol.mancala.repositories;
 
 import com.bol.mancala.entities.MancalaEntity;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface MancalaRepository extends CrudRepository<MancalaEntity, UUID> {
+
+    /**
+     * Update the board and the player of a game with one UPDATE statement, without loading the game again as a
+     * merge of the entity would do. The game is only updated when it is still at the version the moves were played
+     * from, so a game that got other moves in the meantime is never overwritten, also when more than one move is
+     * written at once. The last activity is the time of the application, like the time the sweeper compares it with,
+     * so the clock of the database does not shift the expiry of the games.
+     *
+     * @param mancalaId       game id
+     * @param playerId        the player who has the turn
+     * @param board           packed board
+     * @param previousVersion the version the moves were played from
+     * @param version         the new version of the game
+     * @param lastActivity    the time of the moves
+     * @return the number of updated games, 0 if the game was changed in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("update MancalaEntity m set m.playerId = :playerId, m.board = :board, m.version = :version, " +
+            "m.lastActivity = :lastActivity where m.mancalaId = :mancalaId and m.version = :previousVersion")
+    int updateBoardIfVersion(@Param("mancalaId") UUID mancalaId,
+                             @Param("playerId") Integer playerId,
+                             @Param("board") byte[] board,
+                             @Param("previousVersion") long previousVersion,
+                             @Param("version") long version,
+                             @Param("lastActivity") Instant lastActivity);
+
+    /**
+     * Delete a batch of games with one DELETE statement.
+     *
+     * @param mancalaIds game ids
+     * @return the number of deleted games.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from MancalaEntity m where m.mancalaId in :mancalaIds")
+    int deleteAllByMancalaIdIn(@Param("mancalaIds") Collection<UUID> mancalaIds);
+
+    /**
+     * Find the games that are idle since a time, the longest idle first, by a range scan of the index on the
+     * last activity.
+     *
+     * @param idleSince time of the last activity the games should be older than
+     * @param pageable  the number of games
+     * @return the game ids.
+     */
+    @Query("select m.mancalaId from MancalaEntity m where m.lastActivity < :idleSince order by m.lastActivity")
+    List<UUID> findIdleGameIds(@Param("idleSince") Instant idleSince, Pageable pageable);
+
+    /**
+     * Delete a batch of games with one DELETE statement, only those that are still idle since a time. A game that
+     * got a move after it was found idle is kept.
+     *
+     * @param mancalaIds game ids
+     * @param idleSince  time of the last activity the games should be older than
+     * @return the number of deleted games.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from MancalaEntity m where m.mancalaId in :mancalaIds and m.lastActivity < :idleSince")
+    int deleteIdleGames(@Param("mancalaIds") Collection<UUID> mancalaIds, @Param("idleSince") Instant idleSince);
+
+    /**
+     * Delete a batch of the games that are idle since a time: one indexed range scan for the ids and one DELETE
+     * statement, in a transaction of its own. The transaction does not lock the found games; a game that gets a move
+     * between the scan and the DELETE is kept because the DELETE checks the last activity again.
+     *
+     * @param idleSince time of the last activity the games should be older than
+     * @param batchSize largest number of games
+     * @return the number of deleted games.
+     */
+    @Transactional
+    default int deleteIdleGames(final Instant idleSince, final int batchSize) {
+        final List<UUID> mancalaIds = findIdleGameIds(idleSince, PageRequest.of(0, batchSize));
+        return mancalaIds.isEmpty() ? 0 : deleteIdleGames(mancalaIds, idleSince);
+    }
+
+    /**
+     * Give the games that were stored before their last activity was recorded a last activity.
+     *
+     * @param lastActivity the last activity
+     * @return the number of updated games.
+     */
+    @Transactional
+    @Modifying
+    @Query("update MancalaEntity m set m.lastActivity = :lastActivity where m.lastActivity is null")
+    int setMissingLastActivity(@Param("lastActivity") Instant lastActivity);
 }
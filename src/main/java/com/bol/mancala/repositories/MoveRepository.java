@@ -0,0 +1,51 @@
+package com.bol.mancala.repositories;
+
+import com.bol.mancala.entities.MoveEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MoveRepository extends CrudRepository<MoveEntity, MoveEntity.MoveId> {
+
+    /**
+     * Find the moves of a game after a snapshot, in the order they were played.
+     * With sequence 0 the whole history of the game is returned.
+     *
+     * @param gameId   game id
+     * @param sequence sequence number of the last move that is in the snapshot
+     * @return the moves played after the snapshot.
+     */
+    List<MoveEntity> findByGameIdAndSequenceGreaterThanOrderBySequence(UUID gameId, long sequence);
+
+    /**
+     * Delete the moves of a batch of games with one DELETE statement, by the game id that leads the key.
+     *
+     * @param gameIds game ids
+     * @return the number of deleted moves.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from MoveEntity m where m.gameId in :gameIds")
+    int deleteAllByGameIdIn(@Param("gameIds") Collection<UUID> gameIds);
+
+    /**
+     * Delete the moves of the games of a batch that have no game row anymore, with one DELETE statement. The moves
+     * of a game that was kept stay.
+     *
+     * @param gameIds game ids
+     * @return the number of deleted moves.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from MoveEntity m where m.gameId in :gameIds " +
+            "and not exists (select g.mancalaId from MancalaEntity g where g.mancalaId = m.gameId)")
+    int deleteAllOfDeletedGamesByGameIdIn(@Param("gameIds") Collection<UUID> gameIds);
+}
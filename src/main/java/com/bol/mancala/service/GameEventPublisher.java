@@ -0,0 +1,370 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.model.GameDelta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the changes of a game to the clients that subscribed to it with Server-Sent Events.
+ *
+ * The subscribers are kept per game id, and a game without subscribers costs one map lookup. Publishing a change
+ * only puts it in the queue of every subscriber of the game, in the order of the changes, and does not write to a
+ * client: the service publishes under the lock of the game, so a slow client must not hold the lock. The queues are
+ * sent by the mancala.events.threads threads of the publisher, one queue by one thread at a time, so every
+ * subscriber gets the changes in order. A change is serialized once for all subscribers, by the first thread that
+ * sends it. A subscriber that has more than mancala.events.subscriber-queue-capacity changes waiting, or that can not
+ * be written to anymore, is removed.
+ */
+@Slf4j
+@Component
+public class GameEventPublisher {
+
+    /**
+     * Name of the event of a game change.
+     */
+    static final String DELTA_EVENT = "delta";
+
+    /**
+     * Event in the queue of a subscriber that ends the subscription.
+     */
+    private static final Event COMPLETE = new Event(null);
+
+    /**
+     * Subscribers by game id.
+     */
+    private final Map<UUID, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Object mapper to serialize the changes.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Time after which a subscription ends, the client subscribes again.
+     */
+    private final long timeoutMs;
+
+    /**
+     * Largest number of changes waiting to be sent to one subscriber.
+     */
+    private final int subscriberQueueCapacity;
+
+    /**
+     * Threads that send the queues of the subscribers, with a bounded queue of subscribers to send.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper            objectMapper
+     * @param timeoutMs               time after which a subscription ends
+     * @param threads                 threads that send the changes
+     * @param subscriberQueueCapacity largest number of changes waiting to be sent to one subscriber
+     * @param executorQueueCapacity   largest number of subscribers waiting for a thread
+     */
+    public GameEventPublisher(final ObjectMapper objectMapper,
+                              @Value("${mancala.events.timeout-ms:1800000}") final long timeoutMs,
+                              @Value("${mancala.events.threads:4}") final int threads,
+                              @Value("${mancala.events.subscriber-queue-capacity:256}")
+                              final int subscriberQueueCapacity,
+                              @Value("${mancala.events.executor-queue-capacity:65536}")
+                              final int executorQueueCapacity) {
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.subscriberQueueCapacity = Math.max(1, subscriberQueueCapacity);
+        final var threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(Math.max(1, executorQueueCapacity)),
+                                               runnable -> {
+                                                   final var thread = new Thread(runnable, "mancala-events-"
+                                                           + threadNumber.incrementAndGet());
+                                                   thread.setDaemon(true);
+                                                   return thread;
+                                               });
+    }
+
+    /**
+     * Subscribe to the changes of a game.
+     *
+     * @param gameId game id.
+     * @return the emitter of the subscription.
+     */
+    public SseEmitter subscribe(final UUID gameId) {
+        return subscribe(gameId, new SseEmitter(timeoutMs));
+    }
+
+    /**
+     * Subscribe an emitter to the changes of a game. Package-private for the tests.
+     *
+     * @param gameId  game id.
+     * @param emitter emitter of the subscription.
+     * @return the emitter.
+     */
+    SseEmitter subscribe(final UUID gameId, final SseEmitter emitter) {
+        final var subscriber = new Subscriber(gameId, emitter);
+        subscribers.compute(gameId, (id, gameSubscribers) -> {
+            final List<Subscriber> newSubscribers = gameSubscribers == null ?
+                    new CopyOnWriteArrayList<>() : gameSubscribers;
+            newSubscribers.add(subscriber);
+            return newSubscribers;
+        });
+        final Runnable unsubscribe = () -> unsubscribe(subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    /**
+     * @param gameId game id.
+     * @return true if a client subscribed to the changes of the game.
+     */
+    public boolean hasSubscribers(final UUID gameId) {
+        return subscribers.containsKey(gameId);
+    }
+
+    /**
+     * Queue a change of a game for all its subscribers, without writing to them. The changes of a game should be
+     * published in order, under the lock of the game.
+     *
+     * @param gameDelta change of the game.
+     */
+    public void publish(final GameDelta gameDelta) {
+        final List<Subscriber> gameSubscribers = subscribers.get(gameDelta.getGameId());
+        if (gameSubscribers == null) {
+            return;
+        }
+        final var event = new Event(gameDelta);
+        for (Subscriber subscriber : gameSubscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * End all subscriptions of a game, after it is finished or deleted. A subscription ends after the changes that
+     * were published before.
+     *
+     * @param gameId game id.
+     */
+    public void complete(final UUID gameId) {
+        final List<Subscriber> gameSubscribers = subscribers.remove(gameId);
+        if (gameSubscribers != null) {
+            gameSubscribers.forEach(subscriber -> subscriber.offer(COMPLETE));
+        }
+    }
+
+    /**
+     * Stop the threads that send the changes.
+     */
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Remove a subscriber, and the game when it was the last one.
+     *
+     * @param subscriber the subscriber.
+     */
+    private void unsubscribe(final Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.gameId, (id, gameSubscribers) -> {
+            gameSubscribers.remove(subscriber);
+            return gameSubscribers.isEmpty() ? null : gameSubscribers;
+        });
+    }
+
+    /**
+     * A change of a game, serialized once by the first subscriber it is sent to.
+     */
+    private static final class Event {
+
+        /**
+         * The change, null for {@link #COMPLETE}.
+         */
+        private final GameDelta gameDelta;
+
+        /**
+         * The change as JSON, null until it is serialized.
+         */
+        private volatile String data;
+
+        /**
+         * Constructor.
+         *
+         * @param gameDelta the change.
+         */
+        private Event(final GameDelta gameDelta) {
+            this.gameDelta = gameDelta;
+        }
+
+        /**
+         * @param objectMapper object mapper.
+         * @return the change as JSON.
+         * @throws JsonProcessingException when the change can not be serialized.
+         */
+        private String data(final ObjectMapper objectMapper) throws JsonProcessingException {
+            String json = data;
+            if (json == null) {
+                json = objectMapper.writeValueAsString(gameDelta);
+                data = json;
+            }
+            return json;
+        }
+    }
+
+    /**
+     * A subscription with the changes waiting to be sent to it, sent by one thread at a time.
+     */
+    private final class Subscriber implements Runnable {
+
+        /**
+         * Game id.
+         */
+        private final UUID gameId;
+
+        /**
+         * Emitter of the subscription.
+         */
+        private final SseEmitter emitter;
+
+        /**
+         * Changes waiting to be sent, in order.
+         */
+        private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Number of changes waiting to be sent.
+         */
+        private final AtomicInteger queuedEvents = new AtomicInteger();
+
+        /**
+         * True while the subscriber is waiting for a thread or being sent.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * True when the subscription ended, the next changes are not sent.
+         */
+        private volatile boolean closed;
+
+        /**
+         * Constructor.
+         *
+         * @param gameId  game id.
+         * @param emitter emitter of the subscription.
+         */
+        private Subscriber(final UUID gameId, final SseEmitter emitter) {
+            this.gameId = gameId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queue an event and give the subscriber to a thread when no thread has it. Does not wait.
+         *
+         * @param event the event.
+         */
+        private void offer(final Event event) {
+            if (closed) {
+                return;
+            }
+            if (event != COMPLETE && queuedEvents.incrementAndGet() > subscriberQueueCapacity) {
+                log.debug("Subscriber of game {} is too slow, {} changes are waiting", gameId,
+                          subscriberQueueCapacity);
+                drop();
+                return;
+            }
+            events.add(event);
+            schedule();
+        }
+
+        /**
+         * Give the subscriber to a thread, unless a thread has it already.
+         */
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    log.debug("No thread for the subscriber of game {}", gameId);
+                    drop();
+                }
+            }
+        }
+
+        /**
+         * Send the waiting events in order, then let go of the thread.
+         */
+        @Override
+        public void run() {
+            Event event;
+            while (!closed && (event = events.poll()) != null) {
+                send(event);
+            }
+            scheduled.set(false);
+            if (!closed && !events.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * @param event the event to send.
+         */
+        private void send(final Event event) {
+            if (event == COMPLETE) {
+                closed = true;
+                emitter.complete();
+                return;
+            }
+            queuedEvents.decrementAndGet();
+            final GameDelta gameDelta = event.gameDelta;
+            try {
+                emitter.send(SseEmitter.event()
+                                     .id(Long.toString(gameDelta.getVersion()))
+                                     .name(DELTA_EVENT)
+                                     .data(event.data(objectMapper), MediaType.APPLICATION_JSON));
+            } catch (JsonProcessingException e) {
+                log.error("Change {} of game {} can not be serialized", gameDelta.getVersion(), gameId, e);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Subscriber of game {} is gone", gameId);
+                closed = true;
+                unsubscribe(this);
+            }
+        }
+
+        /**
+         * Remove the subscriber and end its subscription with an error, without waiting for a send that is running.
+         */
+        private void drop() {
+            closed = true;
+            unsubscribe(this);
+            events.clear();
+            try {
+                executor.execute(() -> emitter.completeWithError(new IOException("The subscriber is too slow")));
+            } catch (RejectedExecutionException e) {
+                log.debug("The subscription of game {} ends by its timeout", gameId);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.bol.mancala.service;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered game ids in the layout of a version 7 UUID.
+ *
+ * The 48 highest bits are the time in milliseconds, followed by the version, 12 bits of a counter, the variant and
+ * 62 random bits. The time and the counter come from one atomic number that only goes up, so the ids of all threads
+ * are increasing without a lock: new games are appended at the end of the primary key index instead of anywhere in
+ * it. When more than 4096 ids are taken in one millisecond, the counter carries into the time, which then runs a
+ * little ahead of the clock. The random bits keep the ids unguessable, as the game id is all a player needs to play
+ * a game: every thread takes them from its own {@link SecureRandom}, a buffer at a time, so the threads never wait
+ * for one shared generator.
+ */
+public final class GameIdGenerator {
+
+    /**
+     * Bits of the counter after the time.
+     */
+    private static final int COUNTER_BITS = 12;
+
+    /**
+     * Version 7 in the bits 12 to 15 of the most significant bits.
+     */
+    private static final long VERSION = 0x7000L;
+
+    /**
+     * Variant 2 in the two highest bits of the least significant bits.
+     */
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    /**
+     * The 62 random bits of the least significant bits.
+     */
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    /**
+     * Time in milliseconds and counter of the last id.
+     */
+    private static final AtomicLong LAST_TIMESTAMP = new AtomicLong();
+
+    /**
+     * Random bits of the thread.
+     */
+    private static final ThreadLocal<RandomBits> RANDOM_BITS = ThreadLocal.withInitial(RandomBits::new);
+
+    private GameIdGenerator() {
+    }
+
+    /**
+     * @return a new game id, greater than all ids taken before in this application.
+     */
+    public static UUID nextId() {
+        return newId(nextTimestamp(System.currentTimeMillis()), RANDOM_BITS.get().nextLong());
+    }
+
+    /**
+     * @param timeMillis the time in milliseconds.
+     * @return the time and counter of the next id: the time with counter 0, or one more than the last id.
+     */
+    static long nextTimestamp(final long timeMillis) {
+        final long timestamp = timeMillis << COUNTER_BITS;
+        long last;
+        long next;
+        do {
+            last = LAST_TIMESTAMP.get();
+            next = Math.max(timestamp, last + 1);
+        } while (!LAST_TIMESTAMP.compareAndSet(last, next));
+        return next;
+    }
+
+    /**
+     * @param timestamp  time in milliseconds and counter.
+     * @param randomBits random bits, the highest two are not used.
+     * @return the id.
+     */
+    static UUID newId(final long timestamp, final long randomBits) {
+        final long timeMillis = timestamp >>> COUNTER_BITS;
+        final long counter = timestamp & ((1L << COUNTER_BITS) - 1);
+        return new UUID(timeMillis << 16 | VERSION | counter, VARIANT | randomBits & RANDOM_MASK);
+    }
+
+    /**
+     * Random numbers of one thread, read from its secure random a buffer at a time.
+     */
+    private static final class RandomBits {
+
+        /**
+         * Number of random numbers read at a time.
+         */
+        private static final int BUFFER_LONGS = 64;
+
+        /**
+         * Generator of the thread.
+         */
+        private final SecureRandom secureRandom = newSecureRandom();
+
+        /**
+         * Random numbers not yet taken, empty at first.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_LONGS * Long.BYTES).limit(0);
+
+        /**
+         * @return the next random number.
+         */
+        long nextLong() {
+            if (!buffer.hasRemaining()) {
+                secureRandom.nextBytes(buffer.array());
+                buffer.clear();
+            }
+            return buffer.getLong();
+        }
+
+        /**
+         * @return a generator of its own: the default one of Linux reads all numbers through one shared lock.
+         */
+        private static SecureRandom newSecureRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
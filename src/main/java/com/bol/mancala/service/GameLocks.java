@@ -0,0 +1,53 @@
+package com.bol.mancala.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks of the games.
+ *
+ * Every game id maps to one of a fixed number of locks, so the moves of one game are serialized while moves of
+ * other games run in parallel, without a global lock and without a lock object per game.
+ */
+@Component
+public class GameLocks {
+
+    /**
+     * The locks, the number of locks is a power of two.
+     */
+    private final Lock[] locks;
+
+    /**
+     * Mask to select a lock from the hash of the game id.
+     */
+    private final int mask;
+
+    /**
+     * Constructor.
+     *
+     * @param stripes number of locks, rounded up to a power of two.
+     */
+    public GameLocks(@Value("${mancala.locks.stripes:1024}") final int stripes) {
+        final int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Get the lock of a game. The same game id always gets the same lock.
+     *
+     * @param gameId game id.
+     * @return the lock of the game.
+     */
+    public Lock lockFor(final UUID gameId) {
+        final int hash = gameId.hashCode();
+        return locks[(hash ^ hash >>> 16) & mask];
+    }
+}
@@ -0,0 +1,175 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.store.GameStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweeper of the abandoned games.
+ *
+ * A game is only deleted when it has a winner or when it is deleted by a player, so every game that is left
+ * behind would stay in the store forever. Every mancala.expiry.sweep-interval-ms the sweeper deletes the games
+ * without a move for mancala.expiry.idle-ttl-ms, in batches of mancala.expiry.batch-size: each batch is one range
+ * scan of the index on the last activity and one DELETE statement, so a sweep never holds a long transaction. The
+ * number of games, the expired games and the duration of the sweeps are exposed over JMX as the MBean
+ * com.bol.mancala:type=GameSweeper.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mancala.expiry.enabled", havingValue = "true", matchIfMissing = true)
+@ManagedResource(objectName = "com.bol.mancala:type=GameSweeper", description = "Sweeper of the abandoned games")
+public class GameSweeper implements ApplicationRunner {
+
+    /**
+     * Store of the games.
+     */
+    private final GameStore gameStore;
+
+    /**
+     * Mancala Repository, for the games stored before their last activity was recorded.
+     */
+    private final MancalaRepository mancalaRepository;
+
+    /**
+     * Time without a move after which a game is deleted.
+     */
+    private final Duration idleTtl;
+
+    /**
+     * Largest number of games deleted by one statement.
+     */
+    private final int batchSize;
+
+    /**
+     * Number of games after the last sweep.
+     */
+    private volatile long liveGames;
+
+    /**
+     * Games deleted by all sweeps.
+     */
+    private volatile long expiredGames;
+
+    /**
+     * Number of sweeps.
+     */
+    private volatile long sweeps;
+
+    /**
+     * Duration of the last sweep in milliseconds.
+     */
+    private volatile long lastSweepDurationMs;
+
+    /**
+     * Duration of the longest sweep in milliseconds.
+     */
+    private volatile long maxSweepDurationMs;
+
+    /**
+     * Constructor.
+     *
+     * @param gameStore         gameStore
+     * @param mancalaRepository mancalaRepository
+     * @param idleTtlMs         time without a move after which a game is deleted
+     * @param batchSize         largest number of games deleted by one statement
+     */
+    public GameSweeper(final GameStore gameStore,
+                       final MancalaRepository mancalaRepository,
+                       @Value("${mancala.expiry.idle-ttl-ms:86400000}") final long idleTtlMs,
+                       @Value("${mancala.expiry.batch-size:1000}") final int batchSize) {
+        this.gameStore = gameStore;
+        this.mancalaRepository = mancalaRepository;
+        this.idleTtl = Duration.ofMillis(idleTtlMs);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * The games that were stored before their last activity was recorded are active from the start of the
+     * application, so they expire one idle TTL later.
+     *
+     * @param args application arguments.
+     */
+    @Override
+    public void run(final ApplicationArguments args) {
+        final int updatedGames = mancalaRepository.setMissingLastActivity(Instant.now());
+        if (updatedGames > 0) {
+            log.info("Recorded the start of the application as the last activity of {} games", updatedGames);
+        }
+    }
+
+    /**
+     * Delete the idle games batch by batch, until a batch is not full.
+     */
+    @Scheduled(fixedDelayString = "${mancala.expiry.sweep-interval-ms:60000}")
+    public void sweep() {
+        final long start = System.nanoTime();
+        final Instant idleSince = Instant.now().minus(idleTtl);
+        long sweptGames = 0;
+        int deletedGames;
+        do {
+            deletedGames = gameStore.deleteIdleGames(idleSince, batchSize);
+            sweptGames += deletedGames;
+        } while (deletedGames >= batchSize);
+        liveGames = gameStore.count();
+        final long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        expiredGames += sweptGames;
+        sweeps++;
+        lastSweepDurationMs = durationMs;
+        maxSweepDurationMs = Math.max(maxSweepDurationMs, durationMs);
+        if (sweptGames > 0) {
+            log.info("Deleted {} games idle since {} in {} ms", sweptGames, idleSince, durationMs);
+        }
+    }
+
+    /**
+     * @return the number of games after the last sweep.
+     */
+    @ManagedAttribute(description = "Games after the last sweep")
+    public long getLiveGames() {
+        return liveGames;
+    }
+
+    /**
+     * @return the games deleted by all sweeps.
+     */
+    @ManagedAttribute(description = "Games deleted by all sweeps")
+    public long getExpiredGames() {
+        return expiredGames;
+    }
+
+    /**
+     * @return the number of sweeps.
+     */
+    @ManagedAttribute(description = "Number of sweeps")
+    public long getSweeps() {
+        return sweeps;
+    }
+
+    /**
+     * @return the duration of the last sweep in milliseconds.
+     */
+    @ManagedAttribute(description = "Duration of the last sweep in milliseconds")
+    public long getLastSweepDurationMs() {
+        return lastSweepDurationMs;
+    }
+
+    /**
+     * @return the duration of the longest sweep in milliseconds.
+     */
+    @ManagedAttribute(description = "Duration of the longest sweep in milliseconds")
+    public long getMaxSweepDurationMs() {
+        return maxSweepDurationMs;
+    }
+}
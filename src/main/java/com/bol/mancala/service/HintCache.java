@@ -0,0 +1,246 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.bot.SearchResult;
+import com.bol.mancala.engine.MancalaBoard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+
+/**
+ * Bounded cache of the hints of the bot, by position.
+ *
+ * A position is stored from the side of the player who has the turn, so the same position of player 1 and of
+ * player 2 is one entry, and the pit of the hint is stored as the offset from the first pit of that player. The key
+ * is the hash of the position; the pits are kept in the entry too, so two positions with the same hash are never
+ * mixed up. The cache is split in segments by the hash, each a least recently used map with its own lock, so hints
+ * of different positions do not wait for each other. The hits, misses and evictions are counted and exposed over
+ * JMX.
+ */
+@Component
+@ManagedResource(objectName = "com.bol.mancala:type=HintCache", description = "Cache of the hints of the bot")
+public class HintCache {
+
+    /**
+     * Number of segments, a power of two.
+     */
+    private static final int SEGMENTS = 16;
+
+    /**
+     * The segments.
+     */
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * Lookups that found the position.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Lookups that did not find the position.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Positions removed to make room for others.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Hint of a position.
+     */
+    private static final class Entry {
+
+        /**
+         * Stones of the position from the side of the player who has the turn.
+         */
+        private final int[] pits;
+
+        /**
+         * The hint, with the pit as the offset from the first pit of the player.
+         */
+        private final SearchResult hint;
+
+        /**
+         * Constructor.
+         *
+         * @param pits stones of the position.
+         * @param hint the hint.
+         */
+        private Entry(final int[] pits, final SearchResult hint) {
+            this.pits = pits;
+            this.hint = hint;
+        }
+    }
+
+    /**
+     * Least recently used map of one segment.
+     */
+    private final class Segment extends LinkedHashMap<Long, Entry> {
+
+        /**
+         * Largest number of entries.
+         */
+        private final int capacity;
+
+        /**
+         * Constructor.
+         *
+         * @param capacity largest number of entries.
+         */
+        private Segment(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param size largest number of positions, at least one per segment.
+     */
+    public HintCache(@Value("${mancala.hints.cache-size:65536}") final int size) {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(Math.max(1, size / SEGMENTS));
+        }
+    }
+
+    /**
+     * Get the hint of a position.
+     *
+     * @param board the position.
+     * @return the hint for the player who has the turn, or null when the position is not in the cache.
+     */
+    public SearchResult get(final MancalaBoard board) {
+        final int[] pits = canonicalPits(board);
+        final long hash = hash(pits);
+        final Segment segment = segmentFor(hash);
+        final Entry entry;
+        synchronized (segment) {
+            entry = segment.get(hash);
+        }
+        if (entry == null || !Arrays.equals(entry.pits, pits)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        final SearchResult hint = entry.hint;
+        return new SearchResult(firstPit(board) + hint.getPit(), hint.getScore(), hint.getDepth(), hint.getNodes());
+    }
+
+    /**
+     * Put the hint of a position.
+     *
+     * @param board the position.
+     * @param hint  the hint for the player who has the turn.
+     */
+    public void put(final MancalaBoard board, final SearchResult hint) {
+        final int[] pits = canonicalPits(board);
+        final long hash = hash(pits);
+        final Segment segment = segmentFor(hash);
+        final var entry = new Entry(pits, new SearchResult(hint.getPit() - firstPit(board), hint.getScore(),
+                                                           hint.getDepth(), hint.getNodes()));
+        synchronized (segment) {
+            segment.put(hash, entry);
+        }
+    }
+
+    /**
+     * @return the lookups that found the position.
+     */
+    @ManagedAttribute(description = "Lookups that found the position")
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the lookups that did not find the position.
+     */
+    @ManagedAttribute(description = "Lookups that did not find the position")
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the positions removed to make room for others.
+     */
+    @ManagedAttribute(description = "Positions removed to make room for others")
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of positions in the cache.
+     */
+    @ManagedAttribute(description = "Positions in the cache")
+    public int getSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @param hash hash of a position.
+     * @return the segment of the position.
+     */
+    private Segment segmentFor(final long hash) {
+        return segments[(int) (hash >>> 32) & SEGMENTS - 1];
+    }
+
+    /**
+     * @param board the position.
+     * @return the stones of the pits from the side of the player who has the turn: his small pits and big pit
+     * first, then those of the opponent.
+     */
+    private static int[] canonicalPits(final MancalaBoard board) {
+        final int offset = board.getPlayerId() == PLAYER_ONE ? 0 : PLAYER_ONE_BIG_PIT + 1;
+        final int[] pits = new int[PIT_COUNT];
+        for (int i = 0; i < PIT_COUNT; i++) {
+            pits[i] = board.getStones((i + offset) % PIT_COUNT);
+        }
+        return pits;
+    }
+
+    /**
+     * @param pits stones of the pits of a position.
+     * @return the hash of the position, see {@link MancalaBoard#hash()}.
+     */
+    private static long hash(final int[] pits) {
+        final var board = new MancalaBoard();
+        for (int i = 0; i < PIT_COUNT; i++) {
+            board.setStones(i, pits[i]);
+        }
+        board.setPlayerId(PLAYER_ONE);
+        return board.hash();
+    }
+
+    /**
+     * @param board the position.
+     * @return the first small pit of the player who has the turn.
+     */
+    private static int firstPit(final MancalaBoard board) {
+        return board.getPlayerId() == PLAYER_ONE ? 0 : PLAYER_ONE_BIG_PIT + 1;
+    }
+}
@@ -1,44 +1,47 @@
 package com.bol.mancala.service;
 
+import com.bol.mancala.archive.GameArchive;
+import com.bol.mancala.bot.MancalaBot;
+import com.bol.mancala.bot.SearchResult;
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.engine.RuleVariant;
 import com.bol.mancala.entities.MancalaEntity;
-import com.bol.mancala.entities.PitEntity;
+import com.bol.mancala.entities.MoveEntity;
+import com.bol.mancala.exception.ApplicationException;
 import com.bol.mancala.exception.mancala.MancalaBigPitNotAllowed;
+import com.bol.mancala.exception.mancala.MancalaConcurrentUpdateException;
 import com.bol.mancala.exception.mancala.MancalaGeneralException;
 import com.bol.mancala.exception.mancala.MancalaNotFoundException;
 import com.bol.mancala.exception.mancala.MancalaPLayerNotAllowedToUseOpponentPits;
 import com.bol.mancala.exception.mancala.MancalaPitIsEmpty;
+import com.bol.mancala.model.GameDelta;
 import com.bol.mancala.model.MancalaGame;
 import com.bol.mancala.model.MancalaPlayer;
+import com.bol.mancala.model.MoveHint;
 import com.bol.mancala.model.PitGame;
 import com.bol.mancala.model.PitPlace;
-import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.model.PlayMovesResponse;
+import com.bol.mancala.store.GameStore;
 import com.bol.mancala.validators.PitBigSelectedValidator;
 import com.bol.mancala.validators.PitNotExistsValidator;
 import com.bol.mancala.validators.PitOpponentUsedValidator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
 
 import static com.bol.mancala.model.MancalaPlayer.PLAYER_1;
 import static com.bol.mancala.model.MancalaPlayer.PLAYER_2;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_B;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_BIG;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_C;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_D;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_E;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_F;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_BIG;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_U;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_V;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_W;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_X;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Z;
 
 /**
  * Mancala service class.
@@ -47,6 +50,26 @@ import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Z;
 @Slf4j
 public class MancalaService {
 
+    /**
+     * Pit places by board index of the standard board.
+     */
+    private static final PitPlace[] PIT_PLACES = PitPlace.values();
+
+    /**
+     * Number of times a move is played again when the game was changed at the same time by another instance.
+     */
+    static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    /**
+     * Maximum number of games created by one bulk request.
+     */
+    static final int MAX_NEW_GAMES = 100_000;
+
+    /**
+     * Number of games stored in one transaction by a bulk request.
+     */
+    static final int NEW_GAMES_CHUNK_SIZE = 1_000;
+
     /**
      * Amount of the stones given by the application properties.
      */
@@ -69,9 +92,34 @@ public class MancalaService {
     private final PitBigSelectedValidator pitBigSelectedValidator;
 
     /**
-     * Mancala Repository
+     * Store of the games.
+     */
+    private final GameStore gameStore;
+
+    /**
+     * Locks that serialize the moves of one game.
+     */
+    private final GameLocks gameLocks;
+
+    /**
+     * Pushes the changes of the games to the subscribed clients.
+     */
+    private final GameEventPublisher gameEventPublisher;
+
+    /**
+     * Computer player of the games against the bot.
+     */
+    private final MancalaBot mancalaBot;
+
+    /**
+     * Hints of the bot by position.
      */
-    private final MancalaRepository mancalaRepository;
+    private final HintCache hintCache;
+
+    /**
+     * Archive of the finished games.
+     */
+    private final GameArchive gameArchive;
 
     /**
      * Constructor.
@@ -79,16 +127,31 @@ public class MancalaService {
      * @param pitOpponentUsedValidator pitOpponentUsedValidator
      * @param pitNotExistsValidator    pitNotExistsValidator
      * @param pitBigSelectedValidator  pitBigSelectedValidator
-     * @param mancalaRepository        mancalaRepository
+     * @param gameStore                gameStore
+     * @param gameLocks                gameLocks
+     * @param gameEventPublisher       gameEventPublisher
+     * @param mancalaBot               mancalaBot
+     * @param hintCache                hintCache
+     * @param gameArchive              gameArchive
      */
     public MancalaService(final PitOpponentUsedValidator pitOpponentUsedValidator,
                           final PitNotExistsValidator pitNotExistsValidator,
                           final PitBigSelectedValidator pitBigSelectedValidator,
-                          final MancalaRepository mancalaRepository) {
+                          final GameStore gameStore,
+                          final GameLocks gameLocks,
+                          final GameEventPublisher gameEventPublisher,
+                          final MancalaBot mancalaBot,
+                          final HintCache hintCache,
+                          final GameArchive gameArchive) {
         this.pitOpponentUsedValidator = pitOpponentUsedValidator;
         this.pitNotExistsValidator = pitNotExistsValidator;
         this.pitBigSelectedValidator = pitBigSelectedValidator;
-        this.mancalaRepository = mancalaRepository;
+        this.gameStore = gameStore;
+        this.gameLocks = gameLocks;
+        this.gameEventPublisher = gameEventPublisher;
+        this.mancalaBot = mancalaBot;
+        this.hintCache = hintCache;
+        this.gameArchive = gameArchive;
     }
 
     /**
@@ -99,8 +162,94 @@ public class MancalaService {
      * be used for each next request to update the game.
      */
     public MancalaGame startMancalaNewGame() {
-        final MancalaEntity mancala = mancalaRepository.save(new MancalaEntity(UUID.randomUUID(), startStoneAmount));
-        return mapMancalaEntityToMancalaGame(mancala);
+        return startMancalaNewGame(false);
+    }
+
+    /**
+     * Generates a new Mancala Game, against the bot or for two players. Against the bot, the player is
+     * player 1 and starts, and the bot replies to every move in the same request as player 2.
+     *
+     * @param againstBot true to play against the bot.
+     * @return a new Mancala game.
+     * @see #startMancalaNewGame()
+     */
+    public MancalaGame startMancalaNewGame(final boolean againstBot) {
+        return startMancalaNewGame(againstBot, null, null);
+    }
+
+    /**
+     * Generates a new Mancala Game with a number of small pits per player and rules. The bot only plays the
+     * standard board with the Kalah rules.
+     *
+     * @param againstBot    true to play against the bot.
+     * @param pitsPerPlayer small pits per player, the standard six when null.
+     * @param ruleVariant   rules of the game, Kalah when null.
+     * @return a new Mancala game.
+     * @see #startMancalaNewGame(boolean)
+     */
+    public MancalaGame startMancalaNewGame(final boolean againstBot, final Integer pitsPerPlayer,
+                                           final RuleVariant ruleVariant) {
+        final BoardGeometry geometry = toBoardGeometry(pitsPerPlayer);
+        final RuleVariant rules = ruleVariant == null ? RuleVariant.KALAH : ruleVariant;
+        if (againstBot && (geometry != BoardGeometry.STANDARD || rules != RuleVariant.KALAH))
+            throw new MancalaGeneralException("The bot only plays the standard board with the Kalah rules!");
+        final var newGame = new MancalaEntity(GameIdGenerator.nextId(), startStoneAmount, geometry, rules);
+        final MancalaEntity mancala = gameStore.create(!againstBot ? newGame : newGame.toBuilder()
+                .playerId(MancalaBoard.PLAYER_ONE)
+                .botPlayerId(MancalaBoard.PLAYER_TWO)
+                .build());
+        return mapMancalaBoardToMancalaGame(mancala.getMancalaId(), mapMancalaEntityToMancalaBoard(mancala));
+    }
+
+    /**
+     * Generates many new Mancala Games at once. The request is validated when this method is called, the games
+     * are created and stored in chunks of {@link #NEW_GAMES_CHUNK_SIZE} while the caller iterates, so the ids can
+     * be streamed to the client without holding all the games in memory.
+     *
+     * @param count         number of games, 1 to {@link #MAX_NEW_GAMES}
+     * @param stoneAmount   stones per pit, the amount of the property file when null
+     * @param pitsPerPlayer small pits per player, the standard six when null
+     * @param ruleVariant   rules of the games, Kalah when null
+     * @return the ids of the new games, one chunk per iteration.
+     */
+    public Iterator<List<UUID>> startMancalaNewGames(final int count, final Integer stoneAmount,
+                                                     final Integer pitsPerPlayer, final RuleVariant ruleVariant) {
+        if (count <= 0 || count > MAX_NEW_GAMES)
+            throw new MancalaGeneralException("The number of games should be between 1 and " + MAX_NEW_GAMES + "!");
+        final int stones = stoneAmount == null ? startStoneAmount : stoneAmount;
+        if (stones <= 0)
+            throw new MancalaGeneralException("Stones amount should be greater than zero!");
+        final BoardGeometry geometry = toBoardGeometry(pitsPerPlayer);
+        final RuleVariant rules = ruleVariant == null ? RuleVariant.KALAH : ruleVariant;
+        return new Iterator<>() {
+
+            /**
+             * Number of games created so far.
+             */
+            private int created;
+
+            @Override
+            public boolean hasNext() {
+                return created < count;
+            }
+
+            @Override
+            public List<UUID> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                final int chunkSize = Math.min(NEW_GAMES_CHUNK_SIZE, count - created);
+                final List<MancalaEntity> games = new ArrayList<>(chunkSize);
+                final List<UUID> gameIds = new ArrayList<>(chunkSize);
+                for (int i = 0; i < chunkSize; i++) {
+                    final var gameId = GameIdGenerator.nextId();
+                    games.add(new MancalaEntity(gameId, stones, geometry, rules));
+                    gameIds.add(gameId);
+                }
+                gameStore.createAll(games);
+                created += chunkSize;
+                return gameIds;
+            }
+        };
     }
 
     /**
@@ -109,323 +258,393 @@ public class MancalaService {
      * @param gameId the game id the is previously created by the startMancala endpoint.
      */
     public void deleteMancala(final UUID gameId) {
-        final MancalaEntity mancala = mancalaRepository.findById(gameId)
-                .orElseThrow(MancalaNotFoundException::new);
-        mancalaRepository.delete(mancala);
+        final Lock lock = gameLocks.lockFor(gameId);
+        lock.lock();
+        try {
+            final MancalaEntity mancala = gameStore.findById(gameId)
+                    .orElseThrow(MancalaNotFoundException::new);
+            gameStore.delete(mancala);
+            gameEventPublisher.complete(gameId);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * Update Mancala Game, the following steps will be occurring:
-     *
-     * 1- Get the Mancala Game from the Database by the Game ID.
-     * 2- Map the Entity Object to the Domain Object.
-     * 3- Get the stones from the selected pit and empty that pit afterwords.
-     * 4- Add stones to each next pit of the game.
-     * 5- Do manipulation in the Domain object, capturing, etc..
-     * 6- Determine next Player
-     * 7- Check game winner.
-     * 8- Update the database entity.
+     * Update Mancala Game with one move.
      *
      * @param gameId game Id
      * @param pitId  pit Id
      * @return updated Mancala Game.
+     * @see #playMoves(UUID, List, boolean, boolean, boolean)
      */
     public MancalaGame updateGame(final UUID gameId, final PitPlace pitId) {
-        
-        // Get the Mancala Game from the Database by the Game ID
-        final var mancalaEntity = mancalaRepository.findById(gameId)
-                .orElseThrow(MancalaNotFoundException::new);
-
-        // Validate selected pit
-        validateSelectedPit(mancalaEntity.getPlayerId(), pitId);
-
-        // Map the Entity Object to the Domain Object
-        final var mancalaGame = mapMancalaEntityToMancalaGame(mancalaEntity);
-
-        // Get the stones from the selected pit and empty that pit afterwords
-        final var selectedPit = mancalaGame.getPitGame(pitId.ordinal());
-        final int stonesFromSelectedPit = getStonesFromSelectedPit(selectedPit);
-        selectedPit.emptyStone();
+        return playMoves(gameId, List.of(pitId.ordinal()), true, true, false).getGame();
+    }
 
-        // Add stones to each next pit of the game.
-        final int currentPitIndex = addStonesToEachNextPit(mancalaGame, stonesFromSelectedPit, pitId.ordinal());
+    /**
+     * Update Mancala Game with one move, the pit selected by its index, for the boards of any number of pits.
+     *
+     * @param gameId   game Id
+     * @param pitIndex pit index
+     * @return updated Mancala Game.
+     * @see #updateGame(UUID, PitPlace)
+     */
+    public MancalaGame updateGame(final UUID gameId, final int pitIndex) {
+        return playMoves(gameId, List.of(pitIndex), false, true, false).getGame();
+    }
 
-        // Determine next Player
-        determineNextPlayer(mancalaGame, currentPitIndex);
+    /**
+     * Update Mancala Game with one move and return only the change: the pits whose stones changed, the next
+     * player, the winner and the version of the game.
+     *
+     * @param gameId game Id
+     * @param pitId  pit Id
+     * @return the change of the Mancala Game.
+     * @see #playMoves(UUID, List, boolean, boolean, boolean)
+     */
+    public GameDelta updateGameDelta(final UUID gameId, final PitPlace pitId) {
+        return playMoves(gameId, List.of(pitId.ordinal()), true, true, true).getDelta();
+    }
 
-        // Check if one of the Players wins. Add the winner accordingly and delete the game from the db. 
-        // If there is no winner, save the game in the database. 
-        setWinnerIfAnyAndUpdateEntity(mancalaGame);
+    /**
+     * Update Mancala Game with one move, the pit selected by its index, and return only the change.
+     *
+     * @param gameId   game Id
+     * @param pitIndex pit index
+     * @return the change of the Mancala Game.
+     * @see #updateGameDelta(UUID, PitPlace)
+     */
+    public GameDelta updateGameDelta(final UUID gameId, final int pitIndex) {
+        return playMoves(gameId, List.of(pitIndex), false, true, true).getDelta();
+    }
 
-        // return the Mancala Game
-        return mancalaGame;
+    /**
+     * Update Mancala Game with a batch of moves. The moves are played in the given order on one board and the
+     * game is stored once. The first move that is not allowed stops the batch: the moves before it are stored
+     * and its index and reason are returned with the game.
+     *
+     * @param gameId game Id
+     * @param pitIds pit Ids, in the order they are played
+     * @return the updated Mancala Game and the rejected move, if any.
+     * @see #playMoves(UUID, List, boolean, boolean, boolean)
+     */
+    public PlayMovesResponse playMoves(final UUID gameId, final List<PitPlace> pitIds) {
+        final List<Integer> pitIndexes = new ArrayList<>(pitIds.size());
+        for (PitPlace pitId : pitIds) {
+            pitIndexes.add(pitId.ordinal());
+        }
+        return playMoves(gameId, pitIndexes, true, false, false);
     }
 
     /**
-     * Get the stones from the selected pit. An exception will be thrown if there are not stone available.
+     * Update Mancala Game with a batch of moves, the pits selected by their index, for the boards of any number
+     * of pits.
      *
-     * @param selectedPit the selected pit.
-     * @return the amount of the stones.
+     * @param gameId     game Id
+     * @param pitIndexes pit indexes, in the order they are played
+     * @return the updated Mancala Game and the rejected move, if any.
+     * @see #playMoves(UUID, List)
      */
-    private int getStonesFromSelectedPit(final PitGame selectedPit) {
-        final int stonesFromSelectedPit = selectedPit.getStones();
-        if (stonesFromSelectedPit == 0)
-            throw new MancalaPitIsEmpty();
-        return stonesFromSelectedPit;
+    public PlayMovesResponse playMovesByIndex(final UUID gameId, final List<Integer> pitIndexes) {
+        return playMoves(gameId, pitIndexes, false, false, false);
     }
 
     /**
-     * Add stones to each next pit.
+     * Play moves on a game. The moves of one game are played one after the other: concurrent requests for
+     * the same game wait for the lock of the game. When the store reports that the game was changed at the
+     * same time anyway (by another instance of the application), the moves are played again on the new board,
+     * at most {@link #MAX_UPDATE_ATTEMPTS} times.
      *
-     * @param mancalaGame           mancalaGame
-     * @param stonesFromSelectedPit stones fromSelected pit
-     * @param currentPitIndex          currentPitIndex
-     * @return the new pit index.
-     */
-    private int addStonesToEachNextPit(final MancalaGame mancalaGame,
-                                       final int stonesFromSelectedPit,
-                                       int currentPitIndex) {
-        int stones = stonesFromSelectedPit;
-        while (stones > 0) {
-            // increase the pit index when there are still stones left to be placed
-            currentPitIndex++;
-            currentPitIndex = restartIndexIfReachedEnd(currentPitIndex);
-            final var currentPit = mancalaGame.getPitGame(currentPitIndex);
-            if (!isOpponentBigPit(mancalaGame.getPlayer(), currentPit)) {
-                if (isPlayerEligibleToCaptureStones(stones, currentPit,
-                                                    mancalaGame.getPlayer())) {
-                    captureOpponentStones(mancalaGame, currentPitIndex, currentPit);
-                } else {
-                    currentPit.addStones();
+     * @param gameId        game Id
+     * @param pitIndexes    pit indexes, in the order they are played
+     * @param byPitPlace    the pits were selected by their place, only allowed on the standard board
+     * @param throwRejected throw the exception of a rejected move instead of returning it
+     * @param deltaResponse return the change of the game instead of the whole game
+     * @return the updated Mancala Game and the rejected move, if any.
+     */
+    private PlayMovesResponse playMoves(final UUID gameId, final List<Integer> pitIndexes, final boolean byPitPlace,
+                                        final boolean throwRejected, final boolean deltaResponse) {
+        final Lock lock = gameLocks.lockFor(gameId);
+        lock.lock();
+        try {
+            for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+                final var playMovesResponse = tryPlayMoves(gameId, pitIndexes, byPitPlace, throwRejected,
+                                                            deltaResponse);
+                if (playMovesResponse != null) {
+                    return playMovesResponse;
                 }
-                stones--;
-            } 
+                log.debug("Game {} was changed at the same time, attempt {}", gameId, attempt);
+            }
+            throw new MancalaConcurrentUpdateException();
+        } finally {
+            lock.unlock();
         }
-        return currentPitIndex;
     }
 
     /**
-     * Determine if the player eligible to capture the opponent stones.
+     * Play moves, the following steps will be occurring:
      *
-     * @param stones          stones
-     * @param currentPit      currentPit
-     * @param player          player
-     * @return check if turn or false
-     */
-    private boolean isPlayerEligibleToCaptureStones(final int stones,
-                                                    final PitGame currentPit,
-                                                    final MancalaPlayer player) {
-        if (stones != 1) {
-            return false;
-        }
-        if (currentPit.getStones() != 0) {
-            return false;
+     * 1- Get the Mancala Game from the store by the Game ID.
+     * 2- Map the Entity Object to the primitive board.
+     * 3- Play each move on the board, until a move is not allowed, and the reply of the bot when it has the turn.
+     * 4- Update the game in the store with the played moves, archive and delete it when it has a winner.
+     * 5- Push the changed pits to the subscribers of the game.
+     * 6- Map the board to the Domain Object, or only the changed pits to a delta.
+     *
+     * @param gameId        game Id
+     * @param pitIndexes    pit indexes, in the order they are played
+     * @param byPitPlace    the pits were selected by their place, only allowed on the standard board
+     * @param throwRejected throw the exception of a rejected move instead of returning it
+     * @param deltaResponse return the change of the game instead of the whole game
+     * @return the updated Mancala Game and the rejected move, or null if the game was changed at the same time
+     * and is not updated.
+     */
+    private PlayMovesResponse tryPlayMoves(final UUID gameId, final List<Integer> pitIndexes,
+                                           final boolean byPitPlace, final boolean throwRejected,
+                                           final boolean deltaResponse) {
+
+        // Get the Mancala Game from the store by the Game ID
+        final var mancalaEntity = gameStore.findById(gameId)
+                .orElseThrow(MancalaNotFoundException::new);
+        final long baseVersion = mancalaEntity.getVersion();
+
+        // Map the Entity Object to the primitive board, keep the board before the moves for the subscribers
+        final var mancalaBoard = mapMancalaEntityToMancalaBoard(mancalaEntity);
+        final var previousBoard = new MancalaBoard(mancalaBoard.getGeometry(), mancalaBoard.getRuleVariant());
+        previousBoard.copyFrom(mancalaBoard);
+
+        // Play the moves on the board, the first move that is not allowed stops the batch. Against the bot, the
+        // batch also stops when the bot has the turn: the moves of the bot are never played by the player.
+        final Integer botPlayerId = mancalaEntity.getBotPlayerId();
+        final List<MoveEntity> moves = new ArrayList<>(pitIndexes.size());
+        final var playMovesResponse = PlayMovesResponse.builder();
+        for (int i = 0; i < pitIndexes.size(); i++) {
+            final int pitIndex = pitIndexes.get(i);
+            final int playerId = mancalaBoard.getPlayerId();
+            try {
+                playMove(mancalaBoard, pitIndex, byPitPlace, botPlayerId);
+            } catch (ApplicationException e) {
+                if (throwRejected) {
+                    throw e;
+                }
+                playMovesResponse.rejectedMove(i).rejectedReason(e.getMessage());
+                break;
+            }
+            moves.add(new MoveEntity(gameId, mancalaEntity.getVersion() + moves.size() + 1, pitIndex, playerId));
         }
-        if (player.equals(PLAYER_1)) {
-            return currentPit.getPitPlace().ordinal() < PLAYER_ONE_PIT_BIG.ordinal();
-        } else {
-            return currentPit.getPitPlace().ordinal() > PLAYER_ONE_PIT_BIG.ordinal()
-                    && currentPit.getPitPlace().ordinal() < PLAYER_TWO_PIT_BIG.ordinal(); 
+
+        // The bot replies in the same update, until the other player has the turn or the game is finished
+        if (botPlayerId != null && !mancalaBoard.isFinished() && mancalaBoard.getPlayerId() == botPlayerId) {
+            mancalaBot.reply(mancalaBoard, pitIndex -> moves.add(new MoveEntity(
+                    gameId, mancalaEntity.getVersion() + moves.size() + 1, pitIndex, botPlayerId)));
         }
-    }
 
-    /**
-     * Capture the stones of the opponent.
-     * 
-     * @param mancalaGame   mancalaGame
-     * @param currentPitIndex  currentPitIndex
-     * @param currentPit       currentPit
-     */
-    private void captureOpponentStones(final MancalaGame mancalaGame, final int currentPitIndex,
-                                       final PitGame currentPit) {
-        final var pitListSizeWithoutBigPits = mancalaGame.getPits().size() - 2;
-        final var pitOpponent = mancalaGame.getPitGame(pitListSizeWithoutBigPits - currentPitIndex);
-        final var stonesOpponent = pitOpponent.getStones();
-        if (stonesOpponent == 0) {
-            currentPit.addStones();
-        } else {
-            pitOpponent.emptyStone();
-            final int totalCapturedStones = stonesOpponent + 1;
-            final PitGame bigPitPlayer;
-
-            if (mancalaGame.getPlayer().equals(PLAYER_1)) {
-                bigPitPlayer = mancalaGame.getPitGame(PLAYER_ONE_PIT_BIG.ordinal());
-            } else {
-                bigPitPlayer = mancalaGame.getPitGame(PLAYER_TWO_PIT_BIG.ordinal());
+        // Update the game in the store with the moves. If one of the Players wins archive the game and delete it
+        // from the store.
+        if (!moves.isEmpty()) {
+            updateMancalaEntity(mancalaEntity, mancalaBoard, moves.size());
+            if (!gameStore.update(mancalaEntity, moves)) {
+                return null;
+            }
+            if (mancalaBoard.isFinished()) {
+                gameArchive.archive(mancalaEntity, mancalaBoard);
+                gameStore.delete(mancalaEntity);
             }
-            bigPitPlayer.addStonesToBigPit(totalCapturedStones);
         }
+
+        // The delta is mapped once for the response and the subscribers, and only when one of them needs it
+        final boolean publish = !moves.isEmpty() && gameEventPublisher.hasSubscribers(gameId);
+        if (!deltaResponse && !publish) {
+            return playMovesResponse.game(mapMancalaBoardToMancalaGame(gameId, mancalaBoard)).build();
+        }
+        final GameDelta gameDelta = mapMancalaBoardsToGameDelta(gameId, baseVersion, mancalaEntity.getVersion(),
+                                                                previousBoard, mancalaBoard);
+        if (publish) {
+            publishGameDelta(gameDelta, mancalaBoard.isFinished());
+        }
+        return deltaResponse ? playMovesResponse.delta(gameDelta).build() :
+                playMovesResponse.game(mapMancalaBoardToMancalaGame(gameId, mancalaBoard)).build();
     }
 
     /**
-     * If the current pit index reached its end, restart it by setting it to zero.
+     * Push the change of a game to its subscribers, and end the subscriptions when the game is finished.
+     * Called under the lock of the game, so the subscribers get the changes in the order of the versions. The
+     * change is only queued here, the publisher sends it on threads of its own after the lock is released.
      *
-     * @param currentPitIndex current pit index
-     * @return 0 if the current pit index is 14, otherwise rerun the same.
+     * @param gameDelta change of the game.
+     * @param finished  true if the game is finished by the change.
      */
-    private int restartIndexIfReachedEnd(final int currentPitIndex) {
-        return currentPitIndex % 14;
+    private void publishGameDelta(final GameDelta gameDelta, final boolean finished) {
+        gameEventPublisher.publish(gameDelta);
+        if (finished) {
+            gameEventPublisher.complete(gameDelta.getGameId());
+        }
     }
 
     /**
-     * Skip the opponent big pit when the current player reach it.
+     * Validate and play one move: sow the stones, capture, determine the next player and the winner.
      *
-     * @param player  mancala player
-     * @param nextPit nextPit
-     * @return the check if the pit is the opponent big pit or not.
-     */
-    private boolean isOpponentBigPit(final MancalaPlayer player, final PitGame nextPit) {
-        if (player.equals(PLAYER_1)) {
-            return nextPit.getPitPlace().equals(PLAYER_TWO_PIT_BIG);
-        } else {
-            return nextPit.getPitPlace().equals(PLAYER_ONE_PIT_BIG);
-        }
+     * @param mancalaBoard mancala board
+     * @param pitIndex     pit index
+     * @param byPitPlace   the pit was selected by its place, only allowed on the standard board
+     * @param botPlayerId  player id of the bot, null if the game is not against the bot
+     */
+    private void playMove(final MancalaBoard mancalaBoard, final int pitIndex, final boolean byPitPlace,
+                          final Integer botPlayerId) {
+        if (mancalaBoard.isFinished())
+            throw new MancalaGeneralException("The game is already finished!");
+        if (botPlayerId != null && mancalaBoard.getPlayerId() == botPlayerId)
+            throw new MancalaGeneralException("The bot has the turn, it replies after the moves of the player!");
+        if (byPitPlace && mancalaBoard.getGeometry() != BoardGeometry.STANDARD)
+            throw new MancalaGeneralException("The pits of this board are selected by index!");
+        validateSelectedPit(mancalaBoard.getGeometry(), mancalaBoard.getPlayerId(), pitIndex);
+        if (mancalaBoard.getStones(pitIndex) == 0)
+            throw new MancalaPitIsEmpty();
+        mancalaBoard.play(pitIndex);
     }
 
     /**
-     * Determine the next player turn. If the player end at his own big pit, he may
-     * play one more time. Otherwise the next player will have the turn.
+     * Copy the stones and the player of the board into the entity, the played moves further.
      *
-     * @param mancalaGame mancala game
-     * @param currentPitIndex the pit index where the current player end at.
-     */
-    private void determineNextPlayer(final MancalaGame mancalaGame, final int currentPitIndex) {
-        if (mancalaGame.getPlayer().equals(PLAYER_1) 
-                && currentPitIndex != PLAYER_ONE_PIT_BIG.ordinal()) {
-            mancalaGame.setPlayer(PLAYER_2);
-        } else if (mancalaGame.getPlayer().equals(PLAYER_2) 
-                && currentPitIndex != PLAYER_TWO_PIT_BIG.ordinal()) {
-            mancalaGame.setPlayer(PLAYER_1);
-        }
+     * @param mancalaEntity mancala entity.
+     * @param mancalaBoard  mancala board.
+     * @param playedMoves   number of played moves.
+     */
+    private void updateMancalaEntity(final MancalaEntity mancalaEntity, final MancalaBoard mancalaBoard,
+                                     final int playedMoves) {
+        mancalaEntity.setBoard(mancalaBoard.toPackedBoard());
+        mancalaEntity.setPlayerId(mancalaBoard.getPlayerId());
+        mancalaEntity.setVersion(mancalaEntity.getVersion() + playedMoves);
     }
 
     /**
-     * Check if the pits of the current player or the opponent player are empty. If so decide the winner
-     * based on the total of the stones in each big pit. The total will be counted based on all pits available.
-     * After the stones are added to the opponent player, empty the pit list.
-     * The one who has more stones in his own big bit, is the winner. After adding the winner,
-     * delete the game from the database. If there is no winner, save the game again in the database.
+     * Map mancala entity to the primitive mancala board. Package-private for the benchmarks.
      *
-     * @param mancalaGame mancala game.
-     */
-    private void setWinnerIfAnyAndUpdateEntity(final MancalaGame mancalaGame) {
-        final var bigPitPlayer1 = mancalaGame.getPitGame(PLAYER_ONE_PIT_BIG.ordinal());
-        final var bigPitPlayer2 = mancalaGame.getPitGame(PLAYER_TWO_PIT_BIG.ordinal());
-        List<PitPlace> pitsPlayer1 = List.of(PLAYER_ONE_PIT_A, PLAYER_ONE_PIT_B, PLAYER_ONE_PIT_C, PLAYER_ONE_PIT_D,
-                                             PLAYER_ONE_PIT_E, PLAYER_ONE_PIT_F);
-        List<PitPlace> pitsPlayer2 = List.of(PLAYER_TWO_PIT_U, PLAYER_TWO_PIT_V, PLAYER_TWO_PIT_W, PLAYER_TWO_PIT_X,
-                                             PLAYER_TWO_PIT_Y, PLAYER_TWO_PIT_Z);
-
-        if (arePitsEmptyForPlayer(mancalaGame.getPits(), pitsPlayer1)) {
-            bigPitPlayer2.addStonesToBigPit(getSumStonesForPlayer(mancalaGame.getPits(), pitsPlayer2));
-            emptyGamePitsFromStonesForPlayer(mancalaGame, pitsPlayer2);
-            setPlayerWinner(mancalaGame, bigPitPlayer1, bigPitPlayer2);
-            mancalaRepository.delete(mapMancalaGameToMancalaEntity(mancalaGame));
-        } else if (arePitsEmptyForPlayer(mancalaGame.getPits(), pitsPlayer2)) {
-            bigPitPlayer1.addStonesToBigPit(getSumStonesForPlayer(mancalaGame.getPits(), pitsPlayer1));
-            emptyGamePitsFromStonesForPlayer(mancalaGame, pitsPlayer1);
-            setPlayerWinner(mancalaGame, bigPitPlayer1, bigPitPlayer2);
-            mancalaRepository.delete(mapMancalaGameToMancalaEntity(mancalaGame));
-        } else {
-            mancalaRepository.save(mapMancalaGameToMancalaEntity(mancalaGame));
-        }
+     * @param mancalaEntity mancala entity.
+     * @return mancala board.
+     */
+    MancalaBoard mapMancalaEntityToMancalaBoard(final MancalaEntity mancalaEntity) {
+        final var mancalaBoard = new MancalaBoard(mancalaEntity.getGeometry(), mancalaEntity.getRules());
+        mancalaBoard.readFrom(mancalaEntity.getBoard());
+        mancalaBoard.setPlayerId(mancalaEntity.getPlayerId());
+        return mancalaBoard;
     }
 
     /**
-     * Set player winner based on the stones each big pit. If the stone amount is 
-     * equal. The winner will be the current player.
+     * Map the primitive mancala board to mancala game domain, the pits in the order of their index. The pits of
+     * a board with another number of pits than the standard board have no pit place. Package-private for the
+     * benchmarks.
      *
-     * @param mancalaGame   mancala game.
-     * @param bigPitPlayer1 big pit player 1
-     * @param bigPitPlayer2 big pit player 2
-     */
-    private void setPlayerWinner(final MancalaGame mancalaGame, final PitGame bigPitPlayer1,
-                                 final PitGame bigPitPlayer2) {
-        if (bigPitPlayer1.getStones() > bigPitPlayer2.getStones()) {
-            mancalaGame.setPlayerWinner(PLAYER_1);
-        } else if (bigPitPlayer1.getStones() < bigPitPlayer2.getStones()) {
-            mancalaGame.setPlayerWinner(PLAYER_2);
-        } else {
-            mancalaGame.setPlayerWinner(mancalaGame.getPlayer());
+     * @param gameId       game id.
+     * @param mancalaBoard mancala board.
+     * @return mancala game domain.
+     */
+    MancalaGame mapMancalaBoardToMancalaGame(final UUID gameId, final MancalaBoard mancalaBoard) {
+        final BoardGeometry geometry = mancalaBoard.getGeometry();
+        final boolean standard = geometry == BoardGeometry.STANDARD;
+        final List<PitGame> pitGames = new ArrayList<>(geometry.getPitCount());
+        for (int i = 0; i < geometry.getPitCount(); i++) {
+            pitGames.add(PitGame.builder().pitPlace(standard ? PIT_PLACES[i] : null)
+                                 .stones(mancalaBoard.getStones(i)).build());
         }
+        return MancalaGame.builder()
+                .gameId(gameId)
+                .player(toMancalaPlayer(mancalaBoard.getPlayerId()))
+                .playerWinner(mancalaBoard.isFinished() ? toMancalaPlayer(mancalaBoard.getWinnerId()) : null)
+                .pits(pitGames)
+                .build();
     }
 
     /**
-     * Are all the pits for the provided player empty from stones?
+     * Map the change between two boards to a game delta: only the pits whose stones changed.
      *
-     * @param pitsGame all game pits
-     * @param pits     player pits
-     * @return check if all the provided player pits are empty
-     */
-    private boolean arePitsEmptyForPlayer(final List<PitGame> pitsGame, final List<PitPlace> pits) {
-        return pitsGame.stream()
-                .filter(p -> pits.contains(p.getPitPlace()))
-                .allMatch(p -> p.getStones() == 0);
+     * @param gameId        game id.
+     * @param baseVersion   version of the game before the change.
+     * @param version       version of the game after the change.
+     * @param previousBoard mancala board before the change.
+     * @param mancalaBoard  mancala board after the change.
+     * @return game delta.
+     */
+    GameDelta mapMancalaBoardsToGameDelta(final UUID gameId, final long baseVersion, final long version,
+                                          final MancalaBoard previousBoard, final MancalaBoard mancalaBoard) {
+        final Map<Integer, Integer> changedPits = new TreeMap<>();
+        for (int i = 0; i < mancalaBoard.getGeometry().getPitCount(); i++) {
+            if (previousBoard.getStones(i) != mancalaBoard.getStones(i)) {
+                changedPits.put(i, mancalaBoard.getStones(i));
+            }
+        }
+        return GameDelta.builder()
+                .gameId(gameId)
+                .baseVersion(baseVersion)
+                .version(version)
+                .pits(changedPits)
+                .player(toMancalaPlayer(mancalaBoard.getPlayerId()))
+                .playerWinner(mancalaBoard.isFinished() ? toMancalaPlayer(mancalaBoard.getWinnerId()) : null)
+                .build();
     }
 
     /**
-     * Get the sum of the stones in all pits for the provided player.
+     * Suggest a move for the player who has the turn: the best pit the bot finds and its score. The hint of a
+     * position is searched once and kept in the hint cache, so popular positions like the openings are not
+     * searched again. The game is not changed.
      *
-     * @param pitsGame all game pits
-     * @param pits     player pits
-     * @return sum of the stones in all pits.
-     */
-    private int getSumStonesForPlayer(final List<PitGame> pitsGame, final List<PitPlace> pits) {
-        return pitsGame.stream()
-                .filter(p -> pits.contains(p.getPitPlace()))
-                .map(PitGame::getStones)
-                .mapToInt(e -> e)
-                .sum();
+     * @param gameId game id.
+     * @return the hint.
+     */
+    public MoveHint hint(final UUID gameId) {
+        final var mancalaEntity = gameStore.findById(gameId)
+                .orElseThrow(MancalaNotFoundException::new);
+        final var mancalaBoard = mapMancalaEntityToMancalaBoard(mancalaEntity);
+        if (mancalaBoard.isFinished())
+            throw new MancalaGeneralException("The game is finished!");
+        if (mancalaBoard.getGeometry() != BoardGeometry.STANDARD || mancalaBoard.getRuleVariant() != RuleVariant.KALAH)
+            throw new MancalaGeneralException("The bot only gives hints on the standard board with the Kalah rules!");
+        SearchResult hint = hintCache.get(mancalaBoard);
+        if (hint == null) {
+            hint = mancalaBot.hint(mancalaBoard);
+            hintCache.put(mancalaBoard, hint);
+        }
+        return MoveHint.builder()
+                .gameId(gameId)
+                .player(toMancalaPlayer(mancalaBoard.getPlayerId()))
+                .pit(PIT_PLACES[hint.getPit()])
+                .score(hint.getScore())
+                .build();
     }
 
     /**
-     * Empty the list from the stones.
+     * Subscribe to the changes of a game.
      *
-     * @param mancalaGame mancalaGame
-     * @param pits        player pits
-     */
-    private void emptyGamePitsFromStonesForPlayer(final MancalaGame mancalaGame, final List<PitPlace> pits) {
-        final var emptiedPits = mancalaGame.getPits()
-                .stream()
-                .map(p -> pits.contains(p.getPitPlace()) ? p.toBuilder().stones(0).build() : p)
-                .collect(Collectors.toList());
-        mancalaGame.setPits(emptiedPits);
+     * @param gameId game id.
+     * @return the emitter of the subscription.
+     */
+    public SseEmitter subscribe(final UUID gameId) {
+        if (gameStore.findById(gameId).isEmpty())
+            throw new MancalaNotFoundException();
+        return gameEventPublisher.subscribe(gameId);
     }
 
     /**
-     * Map mancala game domain to mancala entity.
-     *
-     * @param mancalaGame mancala game domain.
-     * @return mancala entity.
-     */
-    private MancalaEntity mapMancalaGameToMancalaEntity(final MancalaGame mancalaGame) {
-        final List<PitEntity> pits = mancalaGame.getPits()
-                .stream()
-                .map(p -> PitEntity.builder().pitPlace(p.getPitPlace()).stones(p.getStones()).build())
-                .collect(Collectors.toList());
-        return MancalaEntity.builder()
-                .mancalaId(mancalaGame.getGameId())
-                .playerId(mancalaGame.getPlayer().getPlayerId())
-                .pits(pits)
-                .build();
+     * @param playerId player id, 1 or 2.
+     * @return the mancala player.
+     */
+    private MancalaPlayer toMancalaPlayer(final int playerId) {
+        return playerId == 1 ? PLAYER_1 : PLAYER_2;
     }
 
     /**
-     * Map mancalaEntity entity to mancala game domain.
-     *
-     * @param mancalaEntity mancala entity.
-     * @return mancala game domain.
+     * @param pitsPerPlayer small pits per player, or null.
+     * @return the layout of the board, the standard board when null.
      */
-    private MancalaGame mapMancalaEntityToMancalaGame(final MancalaEntity mancalaEntity) {
-        final List<PitGame> pitGames = mancalaEntity.getPits()
-                .stream()
-                .map(p -> PitGame.builder().stones(p.getStones()).pitPlace(p.getPitPlace()).build())
-                .collect(Collectors.toList());
-        return MancalaGame.builder()
-                .gameId(mancalaEntity.getMancalaId())
-                .player(mancalaEntity.getPlayerId() == 1 ? PLAYER_1 : PLAYER_2)
-                .pits(pitGames)
-                .build();
+    private BoardGeometry toBoardGeometry(final Integer pitsPerPlayer) {
+        if (pitsPerPlayer == null)
+            return BoardGeometry.STANDARD;
+        if (pitsPerPlayer < BoardGeometry.MIN_PITS_PER_PLAYER || pitsPerPlayer > BoardGeometry.MAX_PITS_PER_PLAYER)
+            throw new MancalaGeneralException("The pits per player should be between "
+                                                      + BoardGeometry.MIN_PITS_PER_PLAYER + " and "
+                                                      + BoardGeometry.MAX_PITS_PER_PLAYER + "!");
+        return BoardGeometry.of(pitsPerPlayer);
     }
 
     /**
@@ -435,17 +654,20 @@ public class MancalaService {
      * 2. Pit index is one of the big pits. 
      * 3. Pit index is the one of the opponent pits.
      *
-     * @param mancalaPlayerId player ID
-     * @param selectedPit     selectedPit
+     * @param geometry         layout of the pits of the game
+     * @param mancalaPlayerId  player ID
+     * @param selectedPitIndex selected pit index
      */
-    private void validateSelectedPit(final Integer mancalaPlayerId, PitPlace selectedPit) {
-        if (pitNotExistsValidator.test(selectedPit.ordinal())) {
+    private void validateSelectedPit(final BoardGeometry geometry, final Integer mancalaPlayerId,
+                                     final int selectedPitIndex) {
+        if (pitNotExistsValidator.test(geometry, selectedPitIndex)) {
             throw new MancalaGeneralException("The selected index is not within the game range!");
         }
-        if (pitBigSelectedValidator.test(selectedPit)) {
+        if (pitBigSelectedValidator.test(geometry, selectedPitIndex)) {
             throw new MancalaBigPitNotAllowed();
         }
-        if (pitOpponentUsedValidator.test(mancalaPlayerId == 1 ? PLAYER_1.name() : PLAYER_2.name(), selectedPit.ordinal())) {
+        if (pitOpponentUsedValidator.test(geometry, mancalaPlayerId == 1 ? PLAYER_1.name() : PLAYER_2.name(),
+                                          selectedPitIndex)) {
             throw new MancalaPLayerNotAllowedToUseOpponentPits();
         }
     }
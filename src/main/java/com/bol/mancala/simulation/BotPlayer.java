@@ -0,0 +1,30 @@
+package com.bol.mancala.simulation;
+
+import com.bol.mancala.bot.MancalaBot;
+import com.bol.mancala.engine.MancalaBoard;
+
+/**
+ * Player that plays the hint of a bot, see {@link MancalaBot#hint}. The bot searches on its own threads and can be
+ * shared by the players of all threads.
+ */
+public final class BotPlayer implements SimulationPlayer {
+
+    /**
+     * The bot.
+     */
+    private final MancalaBot mancalaBot;
+
+    /**
+     * Constructor.
+     *
+     * @param mancalaBot the bot.
+     */
+    public BotPlayer(final MancalaBot mancalaBot) {
+        this.mancalaBot = mancalaBot;
+    }
+
+    @Override
+    public int choosePit(final MancalaBoard board) {
+        return mancalaBot.hint(board).getPit();
+    }
+}
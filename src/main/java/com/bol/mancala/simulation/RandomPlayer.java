@@ -0,0 +1,50 @@
+package com.bol.mancala.simulation;
+
+import com.bol.mancala.engine.MancalaBoard;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+
+/**
+ * Player that plays a random pit with stones, chosen by a xorshift generator of its own, so it does not allocate
+ * and the games of a seed are the same every run.
+ */
+public final class RandomPlayer implements SimulationPlayer {
+
+    /**
+     * State of the xorshift random generator, never 0.
+     */
+    private long random;
+
+    /**
+     * Constructor.
+     *
+     * @param seed seed of the random pits.
+     */
+    public RandomPlayer(final long seed) {
+        this.random = seed == 0 ? 1 : seed;
+    }
+
+    @Override
+    public int choosePit(final MancalaBoard board) {
+        final int firstPit = (board.getPlayerId() == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT)
+                - PITS_PER_PLAYER;
+        int count = 0;
+        for (int pit = firstPit; pit < firstPit + PITS_PER_PLAYER; pit++) {
+            if (board.getStones(pit) > 0) {
+                count++;
+            }
+        }
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        int chosen = (int) ((random >>> 1) % count);
+        for (int pit = firstPit; ; pit++) {
+            if (board.getStones(pit) > 0 && chosen-- == 0) {
+                return pit;
+            }
+        }
+    }
+}
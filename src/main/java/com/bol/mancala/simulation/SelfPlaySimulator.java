@@ -0,0 +1,277 @@
+package com.bol.mancala.simulation;
+
+import com.bol.mancala.bot.AlphaBetaBot;
+import com.bol.mancala.bot.AlphaBetaSearch;
+import com.bol.mancala.bot.MonteCarloBot;
+import com.bol.mancala.engine.MancalaBoard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+
+/**
+ * Headless self-play: plays many whole games on {@link MancalaBoard}, without Spring and without a database, and
+ * counts their outcomes.
+ *
+ * The games are split over the threads: thread i plays the games i, i + threads, ... on one board that is reset
+ * for every game, so a move does not allocate. The games alternate the player who starts. A thread counts its games
+ * itself and adds them to the shared counters every {@link #FLUSH_GAMES} games or {@link #FLUSH_INTERVAL_NANOS},
+ * and the caller gets the statistics of all threads while the games run.
+ *
+ * Usage: {@code java -cp target/classes:<dependencies> com.bol.mancala.simulation.SelfPlaySimulator
+ * --games=1000000 --stones=6 --threads=0 --player-one=random --player-two=random --seed=1}; a player is random,
+ * alpha-beta (with --time-budget-ms) or monte-carlo (with --playouts).
+ */
+public final class SelfPlaySimulator {
+
+    /**
+     * Number of games a thread plays before it adds them to the shared counters.
+     */
+    private static final int FLUSH_GAMES = 1024;
+
+    /**
+     * Time after which a thread adds its games to the shared counters, also when it played fewer games, in
+     * nanoseconds.
+     */
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Stones of every small pit at the start of a game.
+     */
+    private final int stonesPerPit;
+
+    /**
+     * Number of threads.
+     */
+    private final int threads;
+
+    /**
+     * Player 1 of the games of each thread, by thread index.
+     */
+    private final IntFunction<SimulationPlayer> playerOne;
+
+    /**
+     * Player 2 of the games of each thread, by thread index.
+     */
+    private final IntFunction<SimulationPlayer> playerTwo;
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder playerOneWins = new LongAdder();
+    private final LongAdder playerTwoWins = new LongAdder();
+    private final LongAdder starterWins = new LongAdder();
+    private final LongAdder equalStones = new LongAdder();
+    private final LongAdder stoneDifference = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param stonesPerPit stones of every small pit at the start of a game.
+     * @param threads      number of threads, the number of processors when 0.
+     * @param playerOne    creates player 1 of the games of a thread, by thread index.
+     * @param playerTwo    creates player 2 of the games of a thread, by thread index.
+     */
+    public SelfPlaySimulator(final int stonesPerPit, final int threads, final IntFunction<SimulationPlayer> playerOne,
+                             final IntFunction<SimulationPlayer> playerTwo) {
+        if (stonesPerPit <= 0)
+            throw new IllegalArgumentException("Stones amount should be greater than zero!");
+        this.stonesPerPit = stonesPerPit;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.playerOne = playerOne;
+        this.playerTwo = playerTwo;
+    }
+
+    /**
+     * Play the games. Can be called once.
+     *
+     * @param gameCount      number of games.
+     * @param reportInterval time between two reports, in milliseconds.
+     * @param reports        gets the statistics of the games so far every report interval, called by this thread.
+     * @return the statistics of all games.
+     */
+    public SimulationStats run(final long gameCount, final long reportInterval,
+                               final Consumer<SimulationStats> reports) {
+        final long start = System.nanoTime();
+        final var threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final var thread = new Thread(runnable, "mancala-simulation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final var done = new CountDownLatch(threads);
+        final List<Future<?>> shards = new ArrayList<>(threads);
+        try {
+            for (int shard = 0; shard < threads; shard++) {
+                final int shardIndex = shard;
+                shards.add(executor.submit(() -> {
+                    try {
+                        play(shardIndex, gameCount);
+                    } finally {
+                        done.countDown();
+                    }
+                }));
+            }
+            while (!done.await(reportInterval, TimeUnit.MILLISECONDS)) {
+                reports.accept(stats(start));
+            }
+            for (Future<?> shard : shards) {
+                shard.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The simulation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game of the simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return stats(start);
+    }
+
+    /**
+     * Play the games of one thread.
+     *
+     * @param shard     index of the thread.
+     * @param gameCount number of games of all threads.
+     */
+    private void play(final int shard, final long gameCount) {
+        final SimulationPlayer one = playerOne.apply(shard);
+        final SimulationPlayer two = playerTwo.apply(shard);
+        final var startBoard = new MancalaBoard();
+        for (int pit = 0; pit < PIT_COUNT; pit++) {
+            startBoard.setStones(pit, pit == PLAYER_ONE_BIG_PIT || pit == PLAYER_TWO_BIG_PIT ? 0 : stonesPerPit);
+        }
+        final var board = new MancalaBoard();
+        long shardGames = 0;
+        long shardMoves = 0;
+        long shardPlayerOneWins = 0;
+        long shardStarterWins = 0;
+        long shardEqualStones = 0;
+        long shardStoneDifference = 0;
+        long lastFlush = System.nanoTime();
+        for (long game = shard; game < gameCount; game += threads) {
+            final int starter = game % 2 == 0 ? PLAYER_ONE : PLAYER_TWO;
+            startBoard.setPlayerId(starter);
+            board.copyFrom(startBoard);
+            while (!board.isFinished()) {
+                board.play((board.getPlayerId() == PLAYER_ONE ? one : two).choosePit(board));
+                shardMoves++;
+            }
+            final int difference = board.getStones(PLAYER_ONE_BIG_PIT) - board.getStones(PLAYER_TWO_BIG_PIT);
+            shardGames++;
+            shardPlayerOneWins += board.getWinnerId() == PLAYER_ONE ? 1 : 0;
+            shardStarterWins += board.getWinnerId() == starter ? 1 : 0;
+            shardEqualStones += difference == 0 ? 1 : 0;
+            shardStoneDifference += difference;
+            if (shardGames == FLUSH_GAMES || game + threads >= gameCount
+                    || System.nanoTime() - lastFlush > FLUSH_INTERVAL_NANOS) {
+                lastFlush = System.nanoTime();
+                moves.add(shardMoves);
+                playerOneWins.add(shardPlayerOneWins);
+                playerTwoWins.add(shardGames - shardPlayerOneWins);
+                starterWins.add(shardStarterWins);
+                equalStones.add(shardEqualStones);
+                stoneDifference.add(shardStoneDifference);
+                games.add(shardGames);
+                shardGames = 0;
+                shardMoves = 0;
+                shardPlayerOneWins = 0;
+                shardStarterWins = 0;
+                shardEqualStones = 0;
+                shardStoneDifference = 0;
+            }
+        }
+    }
+
+    /**
+     * @param start start of the simulation, in {@link System#nanoTime()}.
+     * @return the statistics of the games so far.
+     */
+    private SimulationStats stats(final long start) {
+        return new SimulationStats(games.sum(), moves.sum(), playerOneWins.sum(), playerTwoWins.sum(),
+                                   starterWins.sum(), equalStones.sum(), stoneDifference.sum(),
+                                   System.nanoTime() - start);
+    }
+
+    /**
+     * Run a simulation and print the statistics every second.
+     *
+     * @param args options as --name=value, see the class comment.
+     */
+    public static void main(final String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            final int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0)
+                throw new IllegalArgumentException("Options are --name=value, not " + arg);
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        final long gameCount = Long.parseLong(options.getOrDefault("games", "1000000"));
+        final int threads = Integer.parseInt(options.getOrDefault("threads", "0"));
+        final long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        final List<AutoCloseable> bots = new ArrayList<>();
+        final IntFunction<SimulationPlayer> playerOne = player(options.getOrDefault("player-one", "random"),
+                                                               seed, options, bots);
+        final IntFunction<SimulationPlayer> playerTwo = player(options.getOrDefault("player-two", "random"),
+                                                               ~seed, options, bots);
+        final var simulator = new SelfPlaySimulator(Integer.parseInt(options.getOrDefault("stones", "6")), threads,
+                                                    playerOne, playerTwo);
+        try {
+            System.out.println(simulator.run(gameCount, 1000, System.out::println));
+        } finally {
+            for (AutoCloseable bot : bots) {
+                try {
+                    bot.close();
+                } catch (Exception e) {
+                    // the threads of the bots are daemon threads, they end with the program anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * @param type    random, alpha-beta or monte-carlo.
+     * @param seed    seed of a random player, the thread index is added.
+     * @param options options of the bots.
+     * @param bots    gets the bots that are created, to close them.
+     * @return the player of each thread.
+     */
+    private static IntFunction<SimulationPlayer> player(final String type, final long seed,
+                                                        final Map<String, String> options,
+                                                        final List<AutoCloseable> bots) {
+        switch (type) {
+            case "random":
+                return shard -> new RandomPlayer(seed + shard);
+            case "alpha-beta":
+                final var alphaBetaBot = new AlphaBetaBot(1 << 20,
+                                                          Long.parseLong(options.getOrDefault("time-budget-ms", "5")),
+                                                          AlphaBetaSearch.MAX_DEPTH, 0, 1, "");
+                bots.add(alphaBetaBot::close);
+                return shard -> new BotPlayer(alphaBetaBot);
+            case "monte-carlo":
+                final var monteCarloBot = new MonteCarloBot(Integer.parseInt(options.getOrDefault("playouts", "2000")),
+                                                            0, 1);
+                bots.add(monteCarloBot::close);
+                return shard -> new BotPlayer(monteCarloBot);
+            default:
+                throw new IllegalArgumentException("Unknown player " + type + ", use random, alpha-beta or monte-carlo");
+        }
+    }
+}
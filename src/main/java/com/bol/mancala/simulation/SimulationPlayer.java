@@ -0,0 +1,17 @@
+package com.bol.mancala.simulation;
+
+import com.bol.mancala.engine.MancalaBoard;
+
+/**
+ * Player of the games of the {@link SelfPlaySimulator}. A player is used by one thread only.
+ */
+public interface SimulationPlayer {
+
+    /**
+     * Choose the pit to play.
+     *
+     * @param board the position, not to be changed. The player has the turn and the game is not finished.
+     * @return a pit index of the player with stones.
+     */
+    int choosePit(MancalaBoard board);
+}
@@ -0,0 +1,69 @@
+package com.bol.mancala.simulation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome statistics of the games of a simulation so far.
+ */
+@Getter
+@AllArgsConstructor
+public final class SimulationStats {
+
+    /**
+     * Finished games.
+     */
+    private final long games;
+
+    /**
+     * Moves of the finished games.
+     */
+    private final long moves;
+
+    /**
+     * Games won by player 1.
+     */
+    private final long playerOneWins;
+
+    /**
+     * Games won by player 2.
+     */
+    private final long playerTwoWins;
+
+    /**
+     * Games won by the player who started.
+     */
+    private final long starterWins;
+
+    /**
+     * Games that ended with the same stones in both big pits, won by the player who had the turn.
+     */
+    private final long equalStones;
+
+    /**
+     * Sum over the games of the stones of player 1 minus the stones of player 2 at the end.
+     */
+    private final long stoneDifference;
+
+    /**
+     * Time since the start of the simulation, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * @return the moves per second of all threads together.
+     */
+    public double getMovesPerSecond() {
+        return elapsedNanos == 0 ? 0 : moves * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        final double games = Math.max(1, this.games);
+        return String.format("games=%d moves=%d moves/s=%.0f player1=%.2f%% player2=%.2f%% starter=%.2f%% "
+                                     + "equal=%.2f%% margin=%.2f",
+                             this.games, moves, getMovesPerSecond(), 100 * playerOneWins / games,
+                             100 * playerTwoWins / games, 100 * starterWins / games, 100 * equalStones / games,
+                             stoneDifference / games);
+    }
+}
@@ -0,0 +1,226 @@
+package com.bol.mancala.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Forces the committed writes of the game stores to the disk, as chosen with mancala.durability.mode.
+ *
+ * A commit of H2 is written to its file in the background and is only on the disk after a sync, so a crash of the
+ * machine loses the commits since the last sync. The sync is the mancala.durability.sync-statement, CHECKPOINT SYNC
+ * for H2:
+ * - none: no sync, for the in-memory database.
+ * - per-move: every write syncs before the request returns.
+ * - group-commit: every write waits for a sync that began after its commit, but one sync covers all writes that
+ *   committed while the sync before it ran, so concurrent moves share the cost of one sync.
+ * - periodic: the writes do not wait, the database is synced every mancala.durability.sync-interval-ms.
+ * The number of syncs and writes are exposed over JMX as the MBean com.bol.mancala:type=DatabaseSync.
+ */
+@Component
+@ManagedResource(objectName = "com.bol.mancala:type=DatabaseSync", description = "Syncs of the database")
+public class DatabaseSync {
+
+    /**
+     * Durability of a committed write.
+     */
+    public enum Mode {
+        /**
+         * Never synced by the application.
+         */
+        NONE,
+        /**
+         * Synced by every write.
+         */
+        PER_MOVE,
+        /**
+         * Synced by one write for all writes that wait.
+         */
+        GROUP_COMMIT,
+        /**
+         * Synced every sync interval.
+         */
+        PERIODIC;
+
+        /**
+         * @param mode mode as it is written in the properties, like group-commit.
+         * @return the mode.
+         */
+        public static Mode of(final String mode) {
+            return valueOf(mode.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Runs the sync statement.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Durability of a committed write.
+     */
+    private final Mode mode;
+
+    /**
+     * Statement that forces the database to the disk.
+     */
+    private final String syncStatement;
+
+    /**
+     * Guards the counters of the group commit.
+     */
+    private final ReentrantLock groupLock = new ReentrantLock();
+
+    /**
+     * Signalled when a sync of the group commit ends.
+     */
+    private final Condition syncEnded = groupLock.newCondition();
+
+    /**
+     * Writes of the group commit, the number of the last one.
+     */
+    private long groupWrites;
+
+    /**
+     * All writes of the group commit up to this number are synced.
+     */
+    private long syncedWrites;
+
+    /**
+     * True while a write of the group commit syncs.
+     */
+    private boolean syncing;
+
+    /**
+     * Writes that asked for the durability.
+     */
+    private final LongAdder writes = new LongAdder();
+
+    /**
+     * Syncs of the database.
+     */
+    private final LongAdder syncs = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate  runs the sync statement.
+     * @param mode          none, per-move, group-commit or periodic.
+     * @param syncStatement statement that forces the database to the disk.
+     */
+    public DatabaseSync(final JdbcTemplate jdbcTemplate,
+                        @Value("${mancala.durability.mode:none}") final String mode,
+                        @Value("${mancala.durability.sync-statement:CHECKPOINT SYNC}") final String syncStatement) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = Mode.of(mode);
+        this.syncStatement = syncStatement;
+    }
+
+    /**
+     * @return a sync that never syncs.
+     */
+    public static DatabaseSync none() {
+        return new DatabaseSync(null, Mode.NONE.name(), "");
+    }
+
+    /**
+     * Make a write that is committed as durable as the mode asks, before the request returns.
+     */
+    public void awaitDurable() {
+        if (mode == Mode.NONE) {
+            return;
+        }
+        if (mode == Mode.GROUP_COMMIT) {
+            groupSync();
+            return;
+        }
+        writes.increment();
+        if (mode == Mode.PER_MOVE) {
+            sync();
+        }
+    }
+
+    /**
+     * Sync the database every sync interval in the periodic mode.
+     */
+    @Scheduled(fixedDelayString = "${mancala.durability.sync-interval-ms:1000}")
+    public void syncPeriodically() {
+        if (mode == Mode.PERIODIC) {
+            sync();
+        }
+    }
+
+    /**
+     * @return the durability of a committed write.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the writes that asked for the durability.
+     */
+    @ManagedAttribute(description = "Writes that asked for the durability")
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    /**
+     * @return the syncs of the database.
+     */
+    @ManagedAttribute(description = "Syncs of the database")
+    public long getSyncs() {
+        return syncs.sum();
+    }
+
+    /**
+     * Wait until a sync that began after this write ends. The first write that finds no sync running syncs for all
+     * writes that came before it, the others wait for it; when the sync fails the next waiting write tries again.
+     */
+    private void groupSync() {
+        groupLock.lock();
+        try {
+            final long write = ++groupWrites;
+            writes.increment();
+            while (syncedWrites < write) {
+                if (syncing) {
+                    syncEnded.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                final long coveredWrites = groupWrites;
+                boolean synced = false;
+                groupLock.unlock();
+                try {
+                    sync();
+                    synced = true;
+                } finally {
+                    groupLock.lock();
+                    syncing = false;
+                    if (synced) {
+                        syncedWrites = coveredWrites;
+                    }
+                    syncEnded.signalAll();
+                }
+            }
+        } finally {
+            groupLock.unlock();
+        }
+    }
+
+    /**
+     * Force the database to the disk.
+     */
+    private void sync() {
+        jdbcTemplate.execute(syncStatement);
+        syncs.increment();
+    }
+}
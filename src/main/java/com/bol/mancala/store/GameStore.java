@@ -0,0 +1,75 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.entities.MoveEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Store of the games in front of the {@link com.bol.mancala.repositories.MancalaRepository}.
+ *
+ * The implementation is chosen with the property mancala.store.mode:
+ * repository (default) writes every change directly to the database, write-behind keeps the active games in
+ * memory and writes the changes to the database in batches, move-log appends every move to a log and only
+ * writes the board as a snapshot every few moves, off-heap keeps all games in direct memory without the database.
+ */
+public interface GameStore {
+
+    /**
+     * Find a game.
+     *
+     * @param gameId game id.
+     * @return the game, the caller may change it and pass it to {@link #update(MancalaEntity, List)}.
+     */
+    Optional<MancalaEntity> findById(UUID gameId);
+
+    /**
+     * Store a new game.
+     *
+     * @param game new game.
+     * @return the stored game.
+     */
+    MancalaEntity create(MancalaEntity game);
+
+    /**
+     * Store new games.
+     *
+     * @param games new games.
+     */
+    void createAll(List<MancalaEntity> games);
+
+    /**
+     * Store the board, the player and the version of an existing game after one or more moves, and record the
+     * activity of the game.
+     *
+     * @param game  changed game, its version is the sequence of the last move.
+     * @param moves the moves that changed the game, in the order they were played. Only the move-log store keeps them.
+     * @return false if the game got other moves since it was found, the game is not updated then.
+     */
+    boolean update(MancalaEntity game, List<MoveEntity> moves);
+
+    /**
+     * Delete a game.
+     *
+     * @param game game to delete.
+     */
+    void delete(MancalaEntity game);
+
+    /**
+     * Delete a batch of the games without a move since a time. Called by the sweeper until fewer games than the
+     * batch are deleted.
+     *
+     * @param idleSince time of the last activity the games should be older than.
+     * @param batchSize largest number of games to delete.
+     * @return the number of deleted games.
+     */
+    int deleteIdleGames(Instant idleSince, int batchSize);
+
+    /**
+     * @return the number of games in the store.
+     */
+    long count();
+}
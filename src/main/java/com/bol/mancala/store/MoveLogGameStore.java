@@ -0,0 +1,210 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.entities.MoveEntity;
+import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.repositories.MoveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Game store that appends every move to a move log instead of rewriting the board.
+ *
+ * A move is one small INSERT into the move log. The game row is a snapshot of the board: it is written when the
+ * game is created and after every mancala.store.snapshot-interval moves. The current board is the snapshot with
+ * the moves after it played again, which are at most snapshot-interval - 1 moves. The moves of a game are deleted
+ * with its snapshot, when the game is finished (and archived), deleted or expired, so the log only holds the games
+ * that are stored. The last activity of a game is on its snapshot, so the snapshot is also written when the stored
+ * last activity is older than mancala.expiry.activity-resolution-ms: a game in play is never taken for idle, and a
+ * move costs no more than one INSERT most of the time. Every write is made as durable as mancala.durability.mode
+ * asks before it returns.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mancala.store.mode", havingValue = "move-log")
+public class MoveLogGameStore implements GameStore {
+
+    /**
+     * Mancala Repository, the snapshots.
+     */
+    private final MancalaRepository mancalaRepository;
+
+    /**
+     * Move Repository, the move log.
+     */
+    private final MoveRepository moveRepository;
+
+    /**
+     * Deletes a snapshot and its moves in one transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Number of moves between two snapshots.
+     */
+    private final int snapshotInterval;
+
+    /**
+     * Largest age of the stored last activity of a game that is played.
+     */
+    private final Duration activityResolution;
+
+    /**
+     * Forces the committed writes to the disk.
+     */
+    private final DatabaseSync databaseSync;
+
+    /**
+     * Constructor.
+     *
+     * @param mancalaRepository    mancalaRepository
+     * @param moveRepository       moveRepository
+     * @param transactionTemplate  transactionTemplate
+     * @param snapshotInterval     number of moves between two snapshots
+     * @param activityResolutionMs largest age of the stored last activity of a game that is played
+     * @param databaseSync         forces the committed writes to the disk
+     */
+    public MoveLogGameStore(final MancalaRepository mancalaRepository,
+                            final MoveRepository moveRepository,
+                            final TransactionTemplate transactionTemplate,
+                            @Value("${mancala.store.snapshot-interval:16}") final int snapshotInterval,
+                            @Value("${mancala.expiry.activity-resolution-ms:60000}") final long activityResolutionMs,
+                            final DatabaseSync databaseSync) {
+        this.mancalaRepository = mancalaRepository;
+        this.moveRepository = moveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotInterval = snapshotInterval;
+        this.activityResolution = Duration.ofMillis(activityResolutionMs);
+        this.databaseSync = databaseSync;
+    }
+
+    @Override
+    public Optional<MancalaEntity> findById(final UUID gameId) {
+        final var snapshot = mancalaRepository.findById(gameId);
+        if (snapshot.isEmpty()) {
+            return snapshot;
+        }
+        snapshot.get().setStoredVersion(snapshot.get().getVersion());
+        final List<MoveEntity> moves = moveRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(
+                gameId, snapshot.get().getVersion());
+        if (moves.isEmpty()) {
+            return snapshot;
+        }
+        final var mancalaBoard = new MancalaBoard(snapshot.get().getGeometry(), snapshot.get().getRules());
+        mancalaBoard.readFrom(snapshot.get().getBoard());
+        for (MoveEntity move : moves) {
+            mancalaBoard.setPlayerId(move.getPlayerId());
+            mancalaBoard.play(move.getPitIndex());
+        }
+        return Optional.of(snapshot.get().toBuilder()
+                                   .board(mancalaBoard.toPackedBoard())
+                                   .playerId(mancalaBoard.getPlayerId())
+                                   .version(moves.get(moves.size() - 1).getSequence())
+                                   .build());
+    }
+
+    @Override
+    public MancalaEntity create(final MancalaEntity game) {
+        final MancalaEntity created = mancalaRepository.save(game);
+        databaseSync.awaitDurable();
+        return created;
+    }
+
+    /**
+     * Insert the games in one transaction, the inserts are sent in JDBC batches.
+     */
+    @Override
+    public void createAll(final List<MancalaEntity> games) {
+        mancalaRepository.saveAll(games);
+        databaseSync.awaitDurable();
+    }
+
+    /**
+     * Append the moves to the log in one transaction, and write the board as the new snapshot when the moves
+     * pass a multiple of snapshot-interval or the stored last activity is too old. The key of the log is the guard
+     * of the moves: moves played from an older version have a sequence that is already in the log. The snapshot is
+     * only written over the snapshot the game was read with; when a later update wrote its snapshot first, that
+     * snapshot is kept and the moves of this update are replayed from the log.
+     */
+    @Override
+    public boolean update(final MancalaEntity game, final List<MoveEntity> moves) {
+        try {
+            moveRepository.saveAll(moves);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Moves up to {} of game {} are already in the log", game.getVersion(), game.getMancalaId());
+            return false;
+        }
+        final boolean activityOutdated = isActivityOutdated(game);
+        game.setLastActivity(Instant.now());
+        if ((game.getVersion() - moves.size()) / snapshotInterval != game.getVersion() / snapshotInterval
+                || activityOutdated) {
+            if (mancalaRepository.updateBoardIfVersion(game.getMancalaId(), game.getPlayerId(), game.getBoard(),
+                                                       game.getStoredVersion(), game.getVersion(),
+                                                       game.getLastActivity()) == 1) {
+                game.setStoredVersion(game.getVersion());
+            } else {
+                log.debug("Snapshot of game {} was written by a later update, version {} is not written",
+                          game.getMancalaId(), game.getVersion());
+            }
+        }
+        databaseSync.awaitDurable();
+        return true;
+    }
+
+    /**
+     * Delete the snapshot of the game and its moves in one transaction.
+     */
+    @Override
+    public void delete(final MancalaEntity game) {
+        transactionTemplate.executeWithoutResult(status -> {
+            mancalaRepository.delete(game);
+            moveRepository.deleteAllByGameIdIn(List.of(game.getMancalaId()));
+        });
+        databaseSync.awaitDurable();
+    }
+
+    /**
+     * Delete a batch of the idle games in one transaction: one range scan for the ids, one DELETE statement for the
+     * snapshots that are still idle and one for the moves of the deleted games, by the game id that leads the key of
+     * the log. The moves of a game that got a move after the scan stay with it.
+     */
+    @Override
+    public int deleteIdleGames(final Instant idleSince, final int batchSize) {
+        final Integer deletedGames = transactionTemplate.execute(status -> {
+            final List<UUID> gameIds = mancalaRepository.findIdleGameIds(idleSince, PageRequest.of(0, batchSize));
+            if (gameIds.isEmpty()) {
+                return 0;
+            }
+            final int deleted = mancalaRepository.deleteIdleGames(gameIds, idleSince);
+            moveRepository.deleteAllOfDeletedGamesByGameIdIn(gameIds);
+            return deleted;
+        });
+        return deletedGames == null ? 0 : deletedGames;
+    }
+
+    @Override
+    public long count() {
+        return mancalaRepository.count();
+    }
+
+    /**
+     * @param game game as it was found.
+     * @return true if the stored last activity of the game is older than the activity resolution.
+     */
+    private boolean isActivityOutdated(final MancalaEntity game) {
+        return game.getLastActivity() == null
+                || game.getLastActivity().plus(activityResolution).isBefore(Instant.now());
+    }
+}
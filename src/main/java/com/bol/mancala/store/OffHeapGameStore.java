@@ -0,0 +1,99 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.entities.MoveEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Game store that keeps all games in direct memory, outside of the heap, see {@link OffHeapGameTable}.
+ *
+ * A game takes one fixed-size record and no objects on the heap, so millions of open games neither grow the heap
+ * nor the work of the garbage collector. The games are not written to the database: they are lost when the
+ * application stops, and every instance of the application has its own games. The number of games and the direct
+ * memory of the records are exposed over JMX as the MBean com.bol.mancala:type=OffHeapGameStore.
+ */
+@Component
+@ConditionalOnProperty(name = "mancala.store.mode", havingValue = "off-heap")
+@ManagedResource(objectName = "com.bol.mancala:type=OffHeapGameStore", description = "Games in direct memory")
+public class OffHeapGameStore implements GameStore {
+
+    /**
+     * The games.
+     */
+    private final OffHeapGameTable gameTable;
+
+    /**
+     * Constructor.
+     *
+     * @param maxPitsPerPlayer largest number of pits per player of a game, the size of a record.
+     * @param initialCapacity  number of games before the table grows.
+     */
+    public OffHeapGameStore(@Value("${mancala.store.off-heap.max-pits-per-player:16}") final int maxPitsPerPlayer,
+                            @Value("${mancala.store.off-heap.initial-capacity:65536}") final int initialCapacity) {
+        this.gameTable = new OffHeapGameTable(maxPitsPerPlayer, initialCapacity);
+    }
+
+    @Override
+    public Optional<MancalaEntity> findById(final UUID gameId) {
+        return Optional.ofNullable(gameTable.get(gameId));
+    }
+
+    @Override
+    public MancalaEntity create(final MancalaEntity game) {
+        gameTable.put(game);
+        return game;
+    }
+
+    @Override
+    public void createAll(final List<MancalaEntity> games) {
+        for (MancalaEntity game : games) {
+            gameTable.put(game);
+        }
+    }
+
+    @Override
+    public boolean update(final MancalaEntity game, final List<MoveEntity> moves) {
+        game.setLastActivity(Instant.now());
+        return gameTable.update(game, game.getVersion() - moves.size());
+    }
+
+    @Override
+    public void delete(final MancalaEntity game) {
+        gameTable.remove(game.getMancalaId());
+    }
+
+    @Override
+    public int deleteIdleGames(final Instant idleSince, final int batchSize) {
+        return gameTable.removeIdle(idleSince, batchSize);
+    }
+
+    @Override
+    public long count() {
+        return gameTable.size();
+    }
+
+    /**
+     * @return the number of games.
+     */
+    @ManagedAttribute(description = "Games in direct memory")
+    public long getGames() {
+        return gameTable.size();
+    }
+
+    /**
+     * @return the bytes of direct memory taken by the records.
+     */
+    @ManagedAttribute(description = "Bytes of direct memory of the records")
+    public long getOffHeapBytes() {
+        return gameTable.getOffHeapBytes();
+    }
+}
@@ -0,0 +1,493 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.engine.PackedBoard;
+import com.bol.mancala.engine.RuleVariant;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.exception.mancala.MancalaGeneralException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Games as fixed-size records in direct memory, outside of the heap.
+ *
+ * The games are spread over {@link #SEGMENTS} segments by the hash of their id, and each segment is an open
+ * addressing hash table of records with linear probing in one direct buffer, at most three quarters full. A
+ * segment that gets too full is copied into a buffer twice as large; a removed record is filled by shifting back the
+ * records after it, so a lookup never passes a removed record. A record is the game id, the version, the time of the
+ * last activity in milliseconds, one byte each for the state of the record, the player, the bot player, the pits per
+ * player and the rule variant, and the stones of the pits as in a {@link PackedBoard}, room for the pits of
+ * mancala.store.off-heap.max-pits-per-player pits per player: 96 bytes for the standard board. The heap only holds
+ * the segments, whatever the number of games. Every operation locks the segment of the game, so the games of
+ * different segments are read and written in parallel.
+ */
+final class OffHeapGameTable {
+
+    /**
+     * Number of segments, a power of two.
+     */
+    static final int SEGMENTS = 64;
+
+    /**
+     * Length of a record without its pits.
+     */
+    static final int RECORD_HEADER_LENGTH = 40;
+
+    /**
+     * Largest length of the buffer of a segment.
+     */
+    private static final long MAX_SEGMENT_LENGTH = Integer.MAX_VALUE;
+
+    /**
+     * State of a record that holds a game.
+     */
+    private static final byte USED = 1;
+
+    /**
+     * Offsets of the fields of a record.
+     */
+    private static final int MSB = 0;
+    private static final int LSB = 8;
+    private static final int VERSION = 16;
+    private static final int LAST_ACTIVITY = 24;
+    private static final int STATE = 32;
+    private static final int PLAYER = 33;
+    private static final int BOT_PLAYER = 34;
+    private static final int PITS_PER_PLAYER = 35;
+    private static final int RULE_VARIANT = 36;
+
+    /**
+     * Rule variants by ordinal.
+     */
+    private static final RuleVariant[] RULE_VARIANTS = RuleVariant.values();
+
+    /**
+     * The segments.
+     */
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * Largest number of pits per player of a game.
+     */
+    private final int maxPitsPerPlayer;
+
+    /**
+     * Length of a record.
+     */
+    private final int recordLength;
+
+    /**
+     * Constructor.
+     *
+     * @param maxPitsPerPlayer largest number of pits per player of a game.
+     * @param initialCapacity  number of games the table holds before a segment grows.
+     */
+    OffHeapGameTable(final int maxPitsPerPlayer, final int initialCapacity) {
+        this.maxPitsPerPlayer = Math.min(Math.max(maxPitsPerPlayer, BoardGeometry.MIN_PITS_PER_PLAYER),
+                                         BoardGeometry.MAX_PITS_PER_PLAYER);
+        this.recordLength = RECORD_HEADER_LENGTH + (2 * this.maxPitsPerPlayer + 2) * PackedBoard.BYTES_PER_PIT;
+        final int segmentCapacity = Integer.highestOneBit(Math.max(16, initialCapacity / SEGMENTS * 4 / 3 - 1)) << 1;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * @param gameId game id.
+     * @return the game as it is stored, a new entity, null when there is no such game.
+     */
+    MancalaEntity get(final UUID gameId) {
+        final long hash = hash(gameId);
+        final Segment segment = segment(hash);
+        segment.lock.lock();
+        try {
+            final int slot = segment.find(gameId, hash);
+            return slot < 0 ? null : segment.toEntity(slot);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Store a game, replacing the game with the same id.
+     *
+     * @param game the game.
+     */
+    void put(final MancalaEntity game) {
+        if (game.getGeometry().getPitsPerPlayer() > maxPitsPerPlayer) {
+            throw new MancalaGeneralException("Games of more than " + maxPitsPerPlayer
+                                                      + " pits per player can not be stored");
+        }
+        final long hash = hash(game.getMancalaId());
+        final Segment segment = segment(hash);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(game.getMancalaId(), hash);
+            if (slot < 0) {
+                slot = segment.insert(game.getMancalaId(), hash);
+            }
+            segment.write(slot, game);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Store the board, the player and the version of a stored game that is still at the version the moves were
+     * played from.
+     *
+     * @param game            the changed game.
+     * @param previousVersion the version the moves were played from.
+     * @return false if the game is not stored or the stored version is not the previous version.
+     */
+    boolean update(final MancalaEntity game, final long previousVersion) {
+        final long hash = hash(game.getMancalaId());
+        final Segment segment = segment(hash);
+        segment.lock.lock();
+        try {
+            final int slot = segment.find(game.getMancalaId(), hash);
+            if (slot < 0 || segment.buffer.getLong(segment.position(slot) + VERSION) != previousVersion) {
+                return false;
+            }
+            segment.write(slot, game);
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * @param gameId game id.
+     * @return true if the game was stored.
+     */
+    boolean remove(final UUID gameId) {
+        final long hash = hash(gameId);
+        final Segment segment = segment(hash);
+        segment.lock.lock();
+        try {
+            final int slot = segment.find(gameId, hash);
+            if (slot < 0) {
+                return false;
+            }
+            segment.remove(slot);
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the games whose last activity is older than a time, one segment at a time.
+     *
+     * @param idleSince time of the last activity the games should be older than.
+     * @param maxGames  largest number of games to remove.
+     * @return the number of removed games.
+     */
+    int removeIdle(final Instant idleSince, final int maxGames) {
+        final long idleSinceMillis = idleSince.toEpochMilli();
+        int removed = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                int slot = 0;
+                while (slot < segment.capacity && removed < maxGames) {
+                    final int position = segment.position(slot);
+                    if (segment.buffer.get(position + STATE) == USED
+                            && segment.buffer.getLong(position + LAST_ACTIVITY) < idleSinceMillis) {
+                        // the records after it are shifted back into the slot, so the slot is read again
+                        segment.remove(slot);
+                        removed++;
+                    } else {
+                        slot++;
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of stored games.
+     */
+    long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the bytes of direct memory taken by the records.
+     */
+    long getOffHeapBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                bytes += segment.buffer.capacity();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the length of a record.
+     */
+    int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * @param hash hash of a game id.
+     * @return the segment of the game.
+     */
+    private Segment segment(final long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - Integer.numberOfTrailingZeros(SEGMENTS)))];
+    }
+
+    /**
+     * @param gameId game id.
+     * @return the hash of the game id, the highest bits choose the segment and the bits from 32 the slot.
+     */
+    private static long hash(final UUID gameId) {
+        return hash(gameId.getMostSignificantBits(), gameId.getLeastSignificantBits());
+    }
+
+    /**
+     * @param mostSignificantBits  most significant bits of a game id.
+     * @param leastSignificantBits least significant bits of a game id.
+     * @return the hash of the game id.
+     */
+    private static long hash(final long mostSignificantBits, final long leastSignificantBits) {
+        return (mostSignificantBits ^ leastSignificantBits) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * One open addressing hash table of records, used under its lock.
+     */
+    private final class Segment {
+
+        /**
+         * Guards the segment.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The records.
+         */
+        private ByteBuffer buffer;
+
+        /**
+         * Number of records, a power of two.
+         */
+        private int capacity;
+
+        /**
+         * Number of games.
+         */
+        private int size;
+
+        /**
+         * Constructor.
+         *
+         * @param capacity number of records, a power of two.
+         */
+        Segment(final int capacity) {
+            this.capacity = capacity;
+            this.buffer = allocate(capacity);
+        }
+
+        /**
+         * @param gameId game id.
+         * @param hash   hash of the game id.
+         * @return the slot of the game, -1 when it is not stored.
+         */
+        int find(final UUID gameId, final long hash) {
+            int slot = firstSlot(hash);
+            while (buffer.get(position(slot) + STATE) == USED) {
+                if (buffer.getLong(position(slot) + MSB) == gameId.getMostSignificantBits()
+                        && buffer.getLong(position(slot) + LSB) == gameId.getLeastSignificantBits()) {
+                    return slot;
+                }
+                slot = (slot + 1) & (capacity - 1);
+            }
+            return -1;
+        }
+
+        /**
+         * Take a free slot for a game that is not stored, growing the segment when it is too full.
+         *
+         * @param gameId game id.
+         * @param hash   hash of the game id.
+         * @return the slot, with the game id.
+         */
+        int insert(final UUID gameId, final long hash) {
+            if ((size + 1) * 4L > capacity * 3L) {
+                grow();
+            }
+            int slot = firstSlot(hash);
+            while (buffer.get(position(slot) + STATE) == USED) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            buffer.putLong(position(slot) + MSB, gameId.getMostSignificantBits())
+                    .putLong(position(slot) + LSB, gameId.getLeastSignificantBits())
+                    .put(position(slot) + STATE, USED);
+            size++;
+            return slot;
+        }
+
+        /**
+         * Remove the game of a slot, and shift back the records after it that can not be found past the slot.
+         *
+         * @param slot the slot.
+         */
+        void remove(final int slot) {
+            int hole = slot;
+            int next = (hole + 1) & (capacity - 1);
+            while (buffer.get(position(next) + STATE) == USED) {
+                final int home = firstSlot(hash(buffer.getLong(position(next) + MSB),
+                                                buffer.getLong(position(next) + LSB)));
+                // the record may fill the hole when its home slot is not between the hole and the record
+                if (((next - home) & (capacity - 1)) >= ((next - hole) & (capacity - 1))) {
+                    copyRecord(buffer, position(next), buffer, position(hole));
+                    hole = next;
+                }
+                next = (next + 1) & (capacity - 1);
+            }
+            buffer.put(position(hole) + STATE, (byte) 0);
+            size--;
+        }
+
+        /**
+         * Write the fields of a game into its slot.
+         *
+         * @param slot the slot.
+         * @param game the game.
+         */
+        void write(final int slot, final MancalaEntity game) {
+            final int position = position(slot);
+            buffer.putLong(position + VERSION, game.getVersion())
+                    .putLong(position + LAST_ACTIVITY, game.getLastActivity() == null ? Long.MIN_VALUE :
+                            game.getLastActivity().toEpochMilli())
+                    .put(position + PLAYER, (byte) (int) game.getPlayerId())
+                    .put(position + BOT_PLAYER, (byte) (game.getBotPlayerId() == null ? 0 : game.getBotPlayerId()))
+                    .put(position + PITS_PER_PLAYER, (byte) (game.getPitsPerPlayer() == null ? 0 :
+                            game.getPitsPerPlayer()))
+                    .put(position + RULE_VARIANT, (byte) (game.getRuleVariant() == null ? -1 :
+                            game.getRuleVariant().ordinal()));
+            final byte[] board = game.getBoard();
+            for (int i = 0; i < board.length; i++) {
+                buffer.put(position + RECORD_HEADER_LENGTH + i, board[i]);
+            }
+        }
+
+        /**
+         * @param slot a slot with a game.
+         * @return the game, a new entity.
+         */
+        MancalaEntity toEntity(final int slot) {
+            final int position = position(slot);
+            final long lastActivity = buffer.getLong(position + LAST_ACTIVITY);
+            final int botPlayerId = buffer.get(position + BOT_PLAYER);
+            final int pitsPerPlayer = buffer.get(position + PITS_PER_PLAYER);
+            final int ruleVariant = buffer.get(position + RULE_VARIANT);
+            final byte[] board = new byte[PackedBoard.length(pitsPerPlayer == 0 ? BoardGeometry.STANDARD :
+                                                                     BoardGeometry.of(pitsPerPlayer))];
+            for (int i = 0; i < board.length; i++) {
+                board[i] = buffer.get(position + RECORD_HEADER_LENGTH + i);
+            }
+            return MancalaEntity.builder()
+                    .mancalaId(new UUID(buffer.getLong(position + MSB), buffer.getLong(position + LSB)))
+                    .version(buffer.getLong(position + VERSION))
+                    .lastActivity(lastActivity == Long.MIN_VALUE ? null : Instant.ofEpochMilli(lastActivity))
+                    .playerId((int) buffer.get(position + PLAYER))
+                    .botPlayerId(botPlayerId == 0 ? null : botPlayerId)
+                    .pitsPerPlayer(pitsPerPlayer == 0 ? null : pitsPerPlayer)
+                    .ruleVariant(ruleVariant < 0 ? null : RULE_VARIANTS[ruleVariant])
+                    .board(board)
+                    .newGame(false)
+                    .build();
+        }
+
+        /**
+         * @param slot a slot.
+         * @return the position of the record of the slot.
+         */
+        int position(final int slot) {
+            return slot * recordLength;
+        }
+
+        /**
+         * Copy the records into a buffer twice as large.
+         */
+        private void grow() {
+            final int newCapacity = capacity * 2;
+            if ((long) newCapacity * recordLength > MAX_SEGMENT_LENGTH) {
+                throw new MancalaGeneralException("The off-heap game store is full");
+            }
+            final ByteBuffer oldBuffer = buffer;
+            final int oldCapacity = capacity;
+            buffer = allocate(newCapacity);
+            capacity = newCapacity;
+            for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+                final int oldPosition = oldSlot * recordLength;
+                if (oldBuffer.get(oldPosition + STATE) != USED) {
+                    continue;
+                }
+                int slot = firstSlot(hash(oldBuffer.getLong(oldPosition + MSB), oldBuffer.getLong(oldPosition + LSB)));
+                while (buffer.get(position(slot) + STATE) == USED) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                copyRecord(oldBuffer, oldPosition, buffer, position(slot));
+            }
+        }
+
+        /**
+         * @param hash hash of a game id.
+         * @return the slot the game is looked for first.
+         */
+        private int firstSlot(final long hash) {
+            return (int) (hash >>> 32) & (capacity - 1);
+        }
+
+        /**
+         * @param capacity number of records.
+         * @return a direct buffer of the records, all free.
+         */
+        private ByteBuffer allocate(final int capacity) {
+            return ByteBuffer.allocateDirect(capacity * recordLength);
+        }
+
+        /**
+         * Copy a record.
+         *
+         * @param from         buffer of the record.
+         * @param fromPosition position of the record.
+         * @param to           buffer to copy to.
+         * @param toPosition   position to copy to.
+         */
+        private void copyRecord(final ByteBuffer from, final int fromPosition, final ByteBuffer to,
+                                final int toPosition) {
+            int i = 0;
+            for (; i + Long.BYTES <= recordLength; i += Long.BYTES) {
+                to.putLong(toPosition + i, from.getLong(fromPosition + i));
+            }
+            for (; i < recordLength; i++) {
+                to.put(toPosition + i, from.get(fromPosition + i));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.entities.MoveEntity;
+import com.bol.mancala.repositories.MancalaRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Game store that reads and writes every game directly in the database. Every write is one transaction, made as
+ * durable as mancala.durability.mode asks before it returns.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "mancala.store.mode", havingValue = "repository", matchIfMissing = true)
+public class RepositoryGameStore implements GameStore {
+
+    /**
+     * Mancala Repository
+     */
+    private final MancalaRepository mancalaRepository;
+
+    /**
+     * Forces the committed writes to the disk.
+     */
+    private final DatabaseSync databaseSync;
+
+    @Override
+    public Optional<MancalaEntity> findById(final UUID gameId) {
+        return mancalaRepository.findById(gameId);
+    }
+
+    @Override
+    public MancalaEntity create(final MancalaEntity game) {
+        final MancalaEntity created = mancalaRepository.save(game);
+        databaseSync.awaitDurable();
+        return created;
+    }
+
+    /**
+     * Insert the games in one transaction, the inserts are sent in JDBC batches.
+     */
+    @Override
+    public void createAll(final List<MancalaEntity> games) {
+        mancalaRepository.saveAll(games);
+        databaseSync.awaitDurable();
+    }
+
+    @Override
+    public boolean update(final MancalaEntity game, final List<MoveEntity> moves) {
+        game.setLastActivity(Instant.now());
+        if (mancalaRepository.updateBoardIfVersion(game.getMancalaId(), game.getPlayerId(), game.getBoard(),
+                                                   game.getVersion() - moves.size(), game.getVersion(),
+                                                   game.getLastActivity()) != 1) {
+            return false;
+        }
+        databaseSync.awaitDurable();
+        return true;
+    }
+
+    @Override
+    public void delete(final MancalaEntity game) {
+        mancalaRepository.delete(game);
+        databaseSync.awaitDurable();
+    }
+
+    @Override
+    public int deleteIdleGames(final Instant idleSince, final int batchSize) {
+        return mancalaRepository.deleteIdleGames(idleSince, batchSize);
+    }
+
+    @Override
+    public long count() {
+        return mancalaRepository.count();
+    }
+}
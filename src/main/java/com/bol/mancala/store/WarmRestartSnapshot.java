@@ -0,0 +1,432 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.engine.RuleVariant;
+import com.bol.mancala.entities.MancalaEntity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * File of the active games of the write-behind store, written at shutdown and memory-mapped at the next start.
+ *
+ * The file is a hash table that is read in place: a header of 32 bytes (magic number, format version, number of
+ * slots, number of games, length of the file and number of written games), the slots, and the games. A slot is the
+ * game id and the offset of the game, 0 when the slot is empty; the slot of a game is found from the hash of its id
+ * with linear probing, and the table is at most half full. A game is its version, the time of its last activity, one
+ * byte each for the player, the bot player, the pits per player and the rule variant, and the packed board with its
+ * length. Opening the file only maps it and checks the header, so the time to open it does not grow with the number
+ * of games; a game is decoded the first time it is found.
+ *
+ * A game that is found or expired is taken: it is marked in memory and not found again. Once the store has written
+ * a taken game to the database, the game is marked as written in the file itself, by a negative offset, so a file
+ * that is opened again after a crash only restores the games that did not reach the database. The file is written
+ * to a temporary file that is moved over the old one, so a file that can be opened is complete. One file holds at
+ * most 2 GB, some 15 million games of the standard board.
+ */
+final class WarmRestartSnapshot {
+
+    /**
+     * Magic number at the start of the file, "MCWS".
+     */
+    static final int MAGIC = 0x4D435753;
+
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * Length of the header.
+     */
+    static final int HEADER_LENGTH = 32;
+
+    /**
+     * Position of the number of written games in the header.
+     */
+    private static final int WRITTEN_GAMES_POSITION = 24;
+
+    /**
+     * Length of a slot: the game id and the offset of the game.
+     */
+    static final int SLOT_LENGTH = 24;
+
+    /**
+     * Length of a game without its board.
+     */
+    static final int GAME_HEADER_LENGTH = 22;
+
+    /**
+     * Rule variants by ordinal.
+     */
+    private static final RuleVariant[] RULE_VARIANTS = RuleVariant.values();
+
+    /**
+     * The mapped file.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Number of slots, a power of two.
+     */
+    private final int slotCount;
+
+    /**
+     * Number of games in the file.
+     */
+    private final int gameCount;
+
+    /**
+     * Guards the taking and the writing of a game.
+     */
+    private final ReentrantLock takeLock = new ReentrantLock();
+
+    /**
+     * Slots of the games that are taken and not yet written.
+     */
+    private final BitSet takenSlots;
+
+    /**
+     * Games that are neither taken nor written.
+     */
+    private int remainingGames;
+
+    /**
+     * Games that are written.
+     */
+    private int writtenGames;
+
+    /**
+     * Constructor.
+     *
+     * @param buffer    the mapped file.
+     * @param slotCount number of slots.
+     * @param gameCount number of games.
+     */
+    private WarmRestartSnapshot(final MappedByteBuffer buffer, final int slotCount, final int gameCount) {
+        this.buffer = buffer;
+        this.slotCount = slotCount;
+        this.gameCount = gameCount;
+        this.takenSlots = new BitSet(slotCount);
+        this.writtenGames = buffer.getInt(WRITTEN_GAMES_POSITION);
+        this.remainingGames = gameCount - writtenGames;
+    }
+
+    /**
+     * Map a file written by {@link #write}, without reading its games.
+     *
+     * @param file the file.
+     * @return the snapshot, null when the file does not exist or all its games are written.
+     * @throws IOException when the file can not be mapped or is not a snapshot of this format.
+     */
+    static WarmRestartSnapshot open(final Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a snapshot of the active games");
+            }
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining()) {
+                channel.read(header, header.position());
+            }
+            final int slotCount = header.getInt(8);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || Integer.bitCount(slotCount) != 1
+                    || header.getLong(16) != channel.size()) {
+                throw new IOException(file + " is not a snapshot of the active games");
+            }
+            if (header.getInt(WRITTEN_GAMES_POSITION) == header.getInt(12)) {
+                return null;
+            }
+            return new WarmRestartSnapshot(channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()),
+                                           slotCount, header.getInt(12));
+        }
+    }
+
+    /**
+     * Write the games to a new file, which replaces the file when it is complete.
+     *
+     * @param file  the file.
+     * @param games the games, each id once.
+     * @throws IOException when the file can not be written or the games do not fit in one file.
+     */
+    static void write(final Path file, final Collection<MancalaEntity> games) throws IOException {
+        final int slotCount = Integer.highestOneBit(Math.max(1, games.size() * 2 - 1)) << 1;
+        long length = HEADER_LENGTH + (long) slotCount * SLOT_LENGTH;
+        for (MancalaEntity game : games) {
+            length += GAME_HEADER_LENGTH + game.getBoard().length;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException(games.size() + " games do not fit in one snapshot");
+        }
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, slotCount).putInt(12, games.size())
+                    .putLong(16, length).putInt(WRITTEN_GAMES_POSITION, 0);
+            int offset = HEADER_LENGTH + slotCount * SLOT_LENGTH;
+            for (MancalaEntity game : games) {
+                int slot = firstSlot(game.getMancalaId(), slotCount);
+                while (buffer.getLong(slotPosition(slot) + 16) != 0) {
+                    slot = (slot + 1) & (slotCount - 1);
+                }
+                buffer.putLong(slotPosition(slot), game.getMancalaId().getMostSignificantBits())
+                        .putLong(slotPosition(slot) + 8, game.getMancalaId().getLeastSignificantBits())
+                        .putLong(slotPosition(slot) + 16, offset);
+                offset = putGame(buffer, offset, game);
+            }
+            buffer.force();
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Take a game out of the snapshot: it is decoded and not found again.
+     *
+     * @param gameId game id.
+     * @return the game, null when it is not in the snapshot or already taken.
+     */
+    MancalaEntity take(final UUID gameId) {
+        final int slot = findSlot(gameId);
+        return slot < 0 ? null : takeSlot(slot, gameId);
+    }
+
+    /**
+     * Mark the taken games that are written to the database as written in the file, and force the file to the disk.
+     *
+     * @param gameIds ids of the written games, those that are not taken from the snapshot are skipped.
+     * @return the number of games marked as written.
+     */
+    int markWritten(final Collection<UUID> gameIds) {
+        int marked = 0;
+        takeLock.lock();
+        try {
+            for (UUID gameId : gameIds) {
+                final int slot = findSlot(gameId);
+                if (slot >= 0 && takenSlots.get(slot)) {
+                    takenSlots.clear(slot);
+                    buffer.putLong(slotPosition(slot) + 16, -buffer.getLong(slotPosition(slot) + 16));
+                    marked++;
+                }
+            }
+            if (marked > 0) {
+                writtenGames += marked;
+                buffer.putInt(WRITTEN_GAMES_POSITION, writtenGames);
+                buffer.force();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        return marked;
+    }
+
+    /**
+     * @return true when all games of the snapshot are written, the file is not needed any more then.
+     */
+    boolean isWritten() {
+        takeLock.lock();
+        try {
+            return writtenGames == gameCount;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Take the games whose last activity is older than a time.
+     *
+     * @param idleSince time of the last activity the games should be older than.
+     * @param maxGames  largest number of games to take.
+     * @param consumer  gets the games that are taken.
+     * @return the number of games taken.
+     */
+    int takeIdle(final Instant idleSince, final int maxGames, final Consumer<MancalaEntity> consumer) {
+        int taken = 0;
+        if (getRemainingGames() == 0) {
+            return taken;
+        }
+        for (int slot = 0; slot < slotCount && taken < maxGames; slot++) {
+            final long offset = buffer.getLong(slotPosition(slot) + 16);
+            if (offset <= 0 || buffer.getLong((int) offset + 8) >= idleSince.toEpochMilli()
+                    || isTaken(slot)) {
+                continue;
+            }
+            final var game = takeSlot(slot, new UUID(buffer.getLong(slotPosition(slot)),
+                                                     buffer.getLong(slotPosition(slot) + 8)));
+            if (game != null) {
+                consumer.accept(game);
+                taken++;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * @param consumer gets every game that is not taken.
+     */
+    void forEachRemaining(final Consumer<MancalaEntity> consumer) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            final long offset = buffer.getLong(slotPosition(slot) + 16);
+            if (offset > 0 && !isTaken(slot)) {
+                consumer.accept(getGame(new UUID(buffer.getLong(slotPosition(slot)),
+                                                 buffer.getLong(slotPosition(slot) + 8)), (int) offset));
+            }
+        }
+    }
+
+    /**
+     * @return the number of games in the snapshot.
+     */
+    int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * @return the number of games that are neither taken nor written.
+     */
+    int getRemainingGames() {
+        takeLock.lock();
+        try {
+            return remainingGames;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * @param gameId game id.
+     * @return the slot of the game, -1 when the game is not in the snapshot.
+     */
+    private int findSlot(final UUID gameId) {
+        int slot = firstSlot(gameId, slotCount);
+        while (buffer.getLong(slotPosition(slot) + 16) != 0) {
+            if (buffer.getLong(slotPosition(slot)) == gameId.getMostSignificantBits()
+                    && buffer.getLong(slotPosition(slot) + 8) == gameId.getLeastSignificantBits()) {
+                return slot;
+            }
+            slot = (slot + 1) & (slotCount - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * @param slot the slot.
+     * @return true if the game of the slot is taken and not yet written.
+     */
+    private boolean isTaken(final int slot) {
+        takeLock.lock();
+        try {
+            return takenSlots.get(slot);
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Mark a slot as taken, once.
+     *
+     * @param slot   the slot.
+     * @param gameId id of the game of the slot.
+     * @return the game of the slot, null when it was taken or written already.
+     */
+    private MancalaEntity takeSlot(final int slot, final UUID gameId) {
+        takeLock.lock();
+        try {
+            final long offset = buffer.getLong(slotPosition(slot) + 16);
+            if (offset <= 0 || takenSlots.get(slot)) {
+                return null;
+            }
+            takenSlots.set(slot);
+            remainingGames--;
+            return getGame(gameId, (int) offset);
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Decode a game.
+     *
+     * @param gameId game id.
+     * @param offset offset of the game.
+     * @return the game, as it is stored.
+     */
+    private MancalaEntity getGame(final UUID gameId, final int offset) {
+        final long lastActivity = buffer.getLong(offset + 8);
+        final int botPlayerId = buffer.get(offset + 17);
+        final int pitsPerPlayer = buffer.get(offset + 18);
+        final int ruleVariant = buffer.get(offset + 19);
+        final byte[] board = new byte[buffer.getShort(offset + 20)];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = buffer.get(offset + GAME_HEADER_LENGTH + i);
+        }
+        return MancalaEntity.builder()
+                .mancalaId(gameId)
+                .version(buffer.getLong(offset))
+                .lastActivity(lastActivity == Long.MIN_VALUE ? null : Instant.ofEpochMilli(lastActivity))
+                .playerId((int) buffer.get(offset + 16))
+                .botPlayerId(botPlayerId == 0 ? null : botPlayerId)
+                .pitsPerPlayer(pitsPerPlayer == 0 ? null : pitsPerPlayer)
+                .ruleVariant(ruleVariant < 0 ? null : RULE_VARIANTS[ruleVariant])
+                .board(board)
+                .newGame(false)
+                .build();
+    }
+
+    /**
+     * Encode a game.
+     *
+     * @param buffer the file.
+     * @param offset offset of the game.
+     * @param game   the game.
+     * @return the offset after the game.
+     */
+    private static int putGame(final ByteBuffer buffer, final int offset, final MancalaEntity game) {
+        buffer.putLong(offset, game.getVersion())
+                .putLong(offset + 8, game.getLastActivity() == null ? Long.MIN_VALUE :
+                        game.getLastActivity().toEpochMilli())
+                .put(offset + 16, (byte) (int) game.getPlayerId())
+                .put(offset + 17, (byte) (game.getBotPlayerId() == null ? 0 : game.getBotPlayerId()))
+                .put(offset + 18, (byte) (game.getPitsPerPlayer() == null ? 0 : game.getPitsPerPlayer()))
+                .put(offset + 19, (byte) (game.getRuleVariant() == null ? -1 : game.getRuleVariant().ordinal()))
+                .putShort(offset + 20, (short) game.getBoard().length);
+        for (int i = 0; i < game.getBoard().length; i++) {
+            buffer.put(offset + GAME_HEADER_LENGTH + i, game.getBoard()[i]);
+        }
+        return offset + GAME_HEADER_LENGTH + game.getBoard().length;
+    }
+
+    /**
+     * @param gameId    game id.
+     * @param slotCount number of slots, a power of two.
+     * @return the first slot the game is looked for in.
+     */
+    private static int firstSlot(final UUID gameId, final int slotCount) {
+        final long hash = (gameId.getMostSignificantBits() ^ gameId.getLeastSignificantBits()) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (slotCount - 1);
+    }
+
+    /**
+     * @param slot a slot.
+     * @return the position of the slot in the file.
+     */
+    private static int slotPosition(final int slot) {
+        return HEADER_LENGTH + slot * SLOT_LENGTH;
+    }
+}
@@ -0,0 +1,650 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.entities.MoveEntity;
+import com.bol.mancala.repositories.MancalaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Game store that holds the active games in memory and writes the changes to the database behind.
+ *
+ * Every change of a game is recorded as a pending write. The pending writes are flushed in one transaction
+ * every mancala.store.flush-interval-ms: new games are inserted, changed games get their board updated and
+ * finished or deleted games are removed with one delete statement. When more than mancala.store.max-dirty-games
+ * games are waiting, the caller flushes them itself, so the memory that is not yet in the database is bounded.
+ * The games in memory are the authoritative ones: an idle game is expired from memory first, and the idle games in
+ * the database are only deleted when they are not in memory.
+ *
+ * A flush moves the writes it claims to the in-flight writes until its transaction commits, so a game that is
+ * deleted but not yet deleted in the database is never read from the database again in the meantime. The games map
+ * only changes within a compute of the pending writes of the game, so loading a game into memory is atomic with its
+ * delete, its expiry and the delete of the idle games in the database.
+ *
+ * At shutdown the active games are written to mancala.store.warm-restart-file after the last flush, see
+ * {@link WarmRestartSnapshot}. At the next start the file is renamed to the restoring file and only memory-mapped,
+ * so the store is ready at once however many games it holds: a game of the file is decoded the first time it is
+ * found, instead of being read from the database, and is then written to the database again in case the database
+ * did not keep it. A game that is written is marked in the file, and the file is deleted when all its games are
+ * written or the next shutdown wrote the remaining ones to a new file. After a crash the restoring file is mapped
+ * again, and restores only the games that did not reach the database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mancala.store.mode", havingValue = "write-behind")
+public class WriteBehindGameStore implements GameStore {
+
+    /**
+     * Kind of pending write of a game.
+     */
+    enum WriteType {
+        INSERT, UPDATE, DELETE, RESTORE
+    }
+
+    /**
+     * Pending write of a game.
+     */
+    static final class PendingWrite {
+
+        /**
+         * Kind of write.
+         */
+        private final WriteType writeType;
+
+        /**
+         * The game as it should be written.
+         */
+        private final MancalaEntity game;
+
+        /**
+         * Version of the game in the database that an update is written over.
+         */
+        private final long previousVersion;
+
+        /**
+         * Constructor.
+         *
+         * @param writeType kind of write.
+         * @param game      the game as it should be written.
+         */
+        PendingWrite(final WriteType writeType, final MancalaEntity game) {
+            this(writeType, game, game == null ? 0 : game.getVersion());
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param writeType       kind of write.
+         * @param game            the game as it should be written.
+         * @param previousVersion version of the game in the database that an update is written over.
+         */
+        PendingWrite(final WriteType writeType, final MancalaEntity game, final long previousVersion) {
+            this.writeType = writeType;
+            this.game = game;
+            this.previousVersion = previousVersion;
+        }
+    }
+
+    /**
+     * Active games by game id.
+     */
+    private final Map<UUID, MancalaEntity> games = new ConcurrentHashMap<>();
+
+    /**
+     * Writes that are not yet in the database, by game id.
+     */
+    private final Map<UUID, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Writes that are claimed by a flush and not yet committed, by game id.
+     */
+    private final Map<UUID, PendingWrite> inFlightWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Number of commits that deleted games. A game read from the database is only kept in memory when no delete was
+     * committed during the read, as the read may have found the game before its delete.
+     */
+    private final AtomicLong committedDeletes = new AtomicLong();
+
+    /**
+     * Only one flush at a time, so the writes of one game reach the database in order.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Mancala Repository
+     */
+    private final MancalaRepository mancalaRepository;
+
+    /**
+     * Transaction of one flush.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Maximum number of games waiting to be written before the caller flushes them.
+     */
+    private final int maxDirtyGames;
+
+    /**
+     * File the active games are written to at shutdown, null when they are not.
+     */
+    private final Path warmRestartFile;
+
+    /**
+     * File the games of the last shutdown are restored from, null when they are not.
+     */
+    private final Path restoringFile;
+
+    /**
+     * Games of the last shutdown that are not yet found, null when there are none.
+     */
+    private final WarmRestartSnapshot warmRestartSnapshot;
+
+    /**
+     * Constructor.
+     *
+     * @param mancalaRepository   mancalaRepository
+     * @param transactionTemplate transactionTemplate
+     * @param maxDirtyGames       maximum number of games waiting to be written
+     * @param warmRestartFile     file of the active games at shutdown, none when empty
+     */
+    public WriteBehindGameStore(final MancalaRepository mancalaRepository,
+                                final TransactionTemplate transactionTemplate,
+                                @Value("${mancala.store.max-dirty-games:10000}") final int maxDirtyGames,
+                                @Value("${mancala.store.warm-restart-file:}") final String warmRestartFile) {
+        this.mancalaRepository = mancalaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxDirtyGames = maxDirtyGames;
+        this.warmRestartFile = warmRestartFile.isEmpty() ? null : Path.of(warmRestartFile);
+        this.restoringFile = this.warmRestartFile == null ? null : toRestoringFile(this.warmRestartFile);
+        this.warmRestartSnapshot = restoringFile == null ? null : openWarmRestartSnapshot(restoringFile);
+    }
+
+    @Override
+    public Optional<MancalaEntity> findById(final UUID gameId) {
+        while (true) {
+            final var game = games.get(gameId);
+            if (game != null) {
+                // the caller changes its own copy, the cached game is replaced on update
+                return Optional.of(game.toBuilder().build());
+            }
+            final long deletes = committedDeletes.get();
+            final var write = latestWrite(gameId, pendingWrites.get(gameId));
+            if (write != null && write.writeType == WriteType.DELETE) {
+                return Optional.empty();
+            }
+            if (write != null) {
+                load(gameId, write.game, write, deletes);
+                continue;
+            }
+            final var restoredGame = warmRestartSnapshot == null ? null : warmRestartSnapshot.take(gameId);
+            if (restoredGame != null) {
+                pendingWrites.compute(gameId, (id, pendingWrite) -> {
+                    games.putIfAbsent(id, restoredGame);
+                    return pendingWrite == null ? new PendingWrite(WriteType.RESTORE, restoredGame) : pendingWrite;
+                });
+                continue;
+            }
+            final var storedGame = mancalaRepository.findById(gameId);
+            if (storedGame.isEmpty()) {
+                return Optional.empty();
+            }
+            load(gameId, storedGame.get(), null, deletes);
+        }
+    }
+
+    @Override
+    public MancalaEntity create(final MancalaEntity game) {
+        games.put(game.getMancalaId(), game);
+        pendingWrites.put(game.getMancalaId(), new PendingWrite(WriteType.INSERT, game));
+        flushIfTooManyDirtyGames();
+        return game.toBuilder().build();
+    }
+
+    @Override
+    public void createAll(final List<MancalaEntity> games) {
+        for (MancalaEntity game : games) {
+            this.games.put(game.getMancalaId(), game);
+            pendingWrites.put(game.getMancalaId(), new PendingWrite(WriteType.INSERT, game));
+        }
+        flushIfTooManyDirtyGames();
+    }
+
+    /**
+     * The games in memory are the authoritative ones and the moves of one game are serialized by the caller,
+     * so the update always succeeds. The game is put in memory while its pending write is computed, so it can
+     * not be expired at the same time. An update that replaces a pending update keeps the version the database
+     * has, so the flush writes the board over that version only.
+     */
+    @Override
+    public boolean update(final MancalaEntity game, final List<MoveEntity> moves) {
+        game.setLastActivity(Instant.now());
+        final long previousVersion = game.getVersion() - moves.size();
+        pendingWrites.compute(game.getMancalaId(), (id, pendingWrite) -> {
+            games.put(id, game);
+            if (pendingWrite == null) {
+                return new PendingWrite(WriteType.UPDATE, game, previousVersion);
+            }
+            return new PendingWrite(pendingWrite.writeType == WriteType.INSERT
+                    || pendingWrite.writeType == WriteType.RESTORE ? pendingWrite.writeType : WriteType.UPDATE, game,
+                                    pendingWrite.previousVersion);
+        });
+        flushIfTooManyDirtyGames();
+        return true;
+    }
+
+    @Override
+    public void delete(final MancalaEntity game) {
+        pendingWrites.compute(game.getMancalaId(), (id, pendingWrite) -> {
+            games.remove(id);
+            return pendingWrite != null && pendingWrite.writeType == WriteType.INSERT ?
+                    null : new PendingWrite(WriteType.DELETE, game);
+        });
+        flushIfTooManyDirtyGames();
+    }
+
+    /**
+     * Expire a batch of the idle games in memory and of the warm restart file, flush, and delete a batch of the idle
+     * games in the database that are not in memory.
+     */
+    @Override
+    public int deleteIdleGames(final Instant idleSince, final int batchSize) {
+        int expiredGames = 0;
+        for (UUID gameId : games.keySet()) {
+            if (expiredGames == batchSize) {
+                break;
+            }
+            if (expireIfIdle(gameId, idleSince)) {
+                expiredGames++;
+            }
+        }
+        if (warmRestartSnapshot != null && expiredGames < batchSize) {
+            expiredGames += warmRestartSnapshot.takeIdle(idleSince, batchSize - expiredGames, game ->
+                    pendingWrites.putIfAbsent(game.getMancalaId(), new PendingWrite(WriteType.DELETE, game)));
+        }
+        flush();
+        return expiredGames + deleteIdleStoredGames(idleSince, batchSize);
+    }
+
+    /**
+     * The games in the database, with the pending inserts and deletes. The games of the warm restart file that are
+     * not yet found are counted when the database kept them.
+     */
+    @Override
+    public long count() {
+        return mancalaRepository.count() + countInsertsMinusDeletes(inFlightWrites)
+                + countInsertsMinusDeletes(pendingWrites);
+    }
+
+    /**
+     * Write all pending writes to the database in one transaction. The claimed writes are in flight until the
+     * transaction commits. A write that fails is pending again, merged with the writes of the game in the meantime.
+     */
+    @Scheduled(fixedDelayString = "${mancala.store.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            final List<UUID> claimedIds = new ArrayList<>();
+            final List<PendingWrite> claimedWrites = new ArrayList<>();
+            for (UUID gameId : pendingWrites.keySet()) {
+                pendingWrites.computeIfPresent(gameId, (id, pendingWrite) -> {
+                    inFlightWrites.put(id, pendingWrite);
+                    claimedIds.add(id);
+                    claimedWrites.add(pendingWrite);
+                    return null;
+                });
+            }
+            if (claimedWrites.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(claimedIds, claimedWrites));
+            } catch (RuntimeException e) {
+                log.error("Writing {} games to the database failed, they will be written again", claimedWrites.size(), e);
+                for (int i = 0; i < claimedIds.size(); i++) {
+                    final var failedWrite = claimedWrites.get(i);
+                    pendingWrites.compute(claimedIds.get(i), (id, pendingWrite) -> {
+                        inFlightWrites.remove(id, failedWrite);
+                        return merge(failedWrite, pendingWrite);
+                    });
+                }
+                return;
+            }
+            if (claimedWrites.stream().anyMatch(write -> write.writeType == WriteType.DELETE)) {
+                committedDeletes.incrementAndGet();
+            }
+            for (int i = 0; i < claimedIds.size(); i++) {
+                inFlightWrites.remove(claimedIds.get(i), claimedWrites.get(i));
+            }
+            markRestoredGamesWritten(claimedIds);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Write the pending writes and then the active games to the warm restart file: the games in memory and the games
+     * of the last warm restart file that were not found since. The restoring file is deleted once the new file is
+     * written.
+     */
+    @PreDestroy
+    public void close() {
+        flush();
+        if (warmRestartFile == null) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final Map<UUID, MancalaEntity> activeGames = new LinkedHashMap<>();
+        if (warmRestartSnapshot != null) {
+            warmRestartSnapshot.forEachRemaining(game -> activeGames.put(game.getMancalaId(), game));
+        }
+        activeGames.putAll(games);
+        try {
+            WarmRestartSnapshot.write(warmRestartFile, activeGames.values());
+            log.info("Wrote {} active games to {} in {} ms", activeGames.size(), warmRestartFile,
+                     TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            log.error("Writing {} active games to {} failed", activeGames.size(), warmRestartFile, e);
+            return;
+        }
+        if (!restoringFile.equals(warmRestartFile)) {
+            deleteRestoringFile();
+        }
+    }
+
+    /**
+     * @return the number of games of the warm restart file that are not yet found.
+     */
+    public int getRestorableGames() {
+        return warmRestartSnapshot == null ? 0 : warmRestartSnapshot.getRemainingGames();
+    }
+
+    /**
+     * @return the number of games waiting to be written.
+     */
+    public int getDirtyGames() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Write the claimed writes.
+     *
+     * @param ids    game ids
+     * @param writes writes by game, in the same order as the ids
+     */
+    private void write(final List<UUID> ids, final List<PendingWrite> writes) {
+        final List<MancalaEntity> inserts = new ArrayList<>();
+        final List<MancalaEntity> restores = new ArrayList<>();
+        final List<UUID> deletes = new ArrayList<>();
+        for (int i = 0; i < writes.size(); i++) {
+            final var pendingWrite = writes.get(i);
+            switch (pendingWrite.writeType) {
+                case INSERT:
+                    inserts.add(pendingWrite.game);
+                    break;
+                case UPDATE:
+                    updateBoard(pendingWrite);
+                    break;
+                case RESTORE:
+                    restores.add(pendingWrite.game);
+                    break;
+                default:
+                    deletes.add(ids.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            mancalaRepository.saveAll(inserts);
+        }
+        if (!restores.isEmpty()) {
+            // not new, so each game is merged: inserted when the database did not keep it, updated when it did
+            mancalaRepository.saveAll(restores);
+        }
+        if (!deletes.isEmpty()) {
+            mancalaRepository.deleteAllByMancalaIdIn(deletes);
+        }
+    }
+
+    /**
+     * Update the board of a stored game that is still at the version of the pending write. Several moves can be
+     * collected in one pending write, so the stored game may be more than one version behind.
+     *
+     * @param pendingWrite pending update of the game.
+     */
+    private void updateBoard(final PendingWrite pendingWrite) {
+        final var game = pendingWrite.game;
+        if (mancalaRepository.updateBoardIfVersion(game.getMancalaId(), game.getPlayerId(), game.getBoard(),
+                                                   pendingWrite.previousVersion, game.getVersion(),
+                                                   game.getLastActivity()) == 0) {
+            log.warn("Game {} was changed outside of this store, version {} is not written",
+                     game.getMancalaId(), game.getVersion());
+        }
+    }
+
+    /**
+     * Remove a game from memory and record its delete when it is idle, atomically with the updates of the game.
+     *
+     * @param gameId    game id.
+     * @param idleSince time of the last activity the game should be older than.
+     * @return true if the game was idle.
+     */
+    private boolean expireIfIdle(final UUID gameId, final Instant idleSince) {
+        final boolean[] expired = new boolean[1];
+        pendingWrites.compute(gameId, (id, pendingWrite) -> {
+            final var game = games.get(id);
+            if (game == null || game.getLastActivity() == null || !game.getLastActivity().isBefore(idleSince)) {
+                return pendingWrite;
+            }
+            games.remove(id);
+            expired[0] = true;
+            return pendingWrite != null && pendingWrite.writeType == WriteType.INSERT ?
+                    null : new PendingWrite(WriteType.DELETE, game);
+        });
+        return expired[0];
+    }
+
+    /**
+     * Mark the games of the warm restart file that are written to the database, and delete the restoring file when
+     * all its games are written.
+     *
+     * @param gameIds ids of the written games.
+     */
+    private void markRestoredGamesWritten(final List<UUID> gameIds) {
+        if (warmRestartSnapshot == null || warmRestartSnapshot.isWritten()) {
+            return;
+        }
+        if (warmRestartSnapshot.markWritten(gameIds) > 0 && warmRestartSnapshot.isWritten()) {
+            log.info("All {} active games of {} are written to the database", warmRestartSnapshot.getGameCount(),
+                     restoringFile);
+            deleteRestoringFile();
+        }
+    }
+
+    /**
+     * Move the warm restart file of the last shutdown to the restoring file, so the next shutdown can write a new
+     * one while the games are restored. A restoring file left by a crash is replaced by a newer warm restart file,
+     * and restored again when there is none.
+     *
+     * @param file the warm restart file.
+     * @return the file to restore the games from, the warm restart file itself when it can not be moved.
+     */
+    private static Path toRestoringFile(final Path file) {
+        final Path restoringFile = file.resolveSibling(file.getFileName() + ".restoring");
+        if (Files.isRegularFile(file)) {
+            try {
+                Files.move(file, restoringFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Moving {} to {} failed, the games are restored from {}", file, restoringFile, file, e);
+                return file;
+            }
+        }
+        return restoringFile;
+    }
+
+    /**
+     * Map the file of the active games of the last shutdown. A file whose games are all written is deleted.
+     *
+     * @param file the file to restore the games from.
+     * @return the games of the file, null when there is no file, all its games are written or it can not be read.
+     */
+    private static WarmRestartSnapshot openWarmRestartSnapshot(final Path file) {
+        try {
+            final var snapshot = WarmRestartSnapshot.open(file);
+            if (snapshot == null) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            log.info("Mapped {} active games of {}", snapshot.getRemainingGames(), file);
+            return snapshot;
+        } catch (IOException e) {
+            log.error("Reading the active games of {} failed, the games are read from the database", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Delete the restoring file, all its games are in the database or in a newer warm restart file.
+     */
+    private void deleteRestoringFile() {
+        try {
+            Files.deleteIfExists(restoringFile);
+        } catch (IOException e) {
+            log.warn("Deleting {} failed, it is deleted at the next start", restoringFile, e);
+        }
+    }
+
+    /**
+     * Delete a batch of the idle games in the database that are not in memory. The games are in flight as deletes
+     * while the statement runs, so they are not loaded into memory in the meantime.
+     *
+     * @param idleSince time of the last activity the games should be older than.
+     * @param batchSize largest number of games to delete.
+     * @return the number of deleted games.
+     */
+    private int deleteIdleStoredGames(final Instant idleSince, final int batchSize) {
+        flushLock.lock();
+        try {
+            final List<UUID> idleGameIds = new ArrayList<>();
+            for (UUID gameId : mancalaRepository.findIdleGameIds(idleSince, PageRequest.of(0, batchSize))) {
+                pendingWrites.compute(gameId, (id, pendingWrite) -> {
+                    if (pendingWrite == null && !games.containsKey(id)
+                            && inFlightWrites.putIfAbsent(id, new PendingWrite(WriteType.DELETE, null)) == null) {
+                        idleGameIds.add(id);
+                    }
+                    return pendingWrite;
+                });
+            }
+            if (idleGameIds.isEmpty()) {
+                return 0;
+            }
+            try {
+                final int deletedGames = mancalaRepository.deleteIdleGames(idleGameIds, idleSince);
+                committedDeletes.incrementAndGet();
+                return deletedGames;
+            } finally {
+                idleGameIds.forEach(inFlightWrites::remove);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Keep a game in memory that was found without it, unless the game was written in the meantime.
+     *
+     * @param gameId        game id.
+     * @param game          the game as it was found.
+     * @param expectedWrite the pending or in-flight write the game was found in, null when it was read from the
+     *                      database.
+     * @param deletes       the committed deletes before the game was found.
+     */
+    private void load(final UUID gameId, final MancalaEntity game, final PendingWrite expectedWrite,
+                      final long deletes) {
+        pendingWrites.compute(gameId, (id, pendingWrite) -> {
+            if (latestWrite(id, pendingWrite) == expectedWrite && committedDeletes.get() == deletes) {
+                games.putIfAbsent(id, game);
+            }
+            return pendingWrite;
+        });
+    }
+
+    /**
+     * @param gameId       game id.
+     * @param pendingWrite the pending write of the game, or null.
+     * @return the pending write of the game, else the write of the game in flight, or null.
+     */
+    private PendingWrite latestWrite(final UUID gameId, final PendingWrite pendingWrite) {
+        return pendingWrite != null ? pendingWrite : inFlightWrites.get(gameId);
+    }
+
+    /**
+     * Merge a write that failed with the write of the game that is pending since. A failed insert or restore stays an
+     * insert or restore with the later board, as the game may not be in the database; a failed update followed by a
+     * later update is written over the version of the failed one, which is still in the database; a later delete or a
+     * later write of the same kind replaces it.
+     *
+     * @param failedWrite  the write that failed.
+     * @param pendingWrite the write that is pending since, or null.
+     * @return the pending write.
+     */
+    private static PendingWrite merge(final PendingWrite failedWrite, final PendingWrite pendingWrite) {
+        if (pendingWrite == null) {
+            return failedWrite;
+        }
+        if (pendingWrite.writeType == WriteType.UPDATE && failedWrite.writeType != WriteType.UPDATE
+                && failedWrite.writeType != WriteType.DELETE) {
+            return new PendingWrite(failedWrite.writeType, pendingWrite.game);
+        }
+        if (pendingWrite.writeType == WriteType.UPDATE && failedWrite.writeType == WriteType.UPDATE) {
+            return new PendingWrite(WriteType.UPDATE, pendingWrite.game, failedWrite.previousVersion);
+        }
+        return pendingWrite;
+    }
+
+    /**
+     * @param writes writes by game id.
+     * @return the number of inserts minus the number of deletes.
+     */
+    private static long countInsertsMinusDeletes(final Map<UUID, PendingWrite> writes) {
+        long count = 0;
+        for (PendingWrite pendingWrite : writes.values()) {
+            if (pendingWrite.writeType == WriteType.INSERT) {
+                count++;
+            } else if (pendingWrite.writeType == WriteType.DELETE) {
+                count--;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Flush on the calling thread when too many games are waiting to be written.
+     */
+    private void flushIfTooManyDirtyGames() {
+        if (pendingWrites.size() >= maxDirtyGames) {
+            flush();
+        }
+    }
+}
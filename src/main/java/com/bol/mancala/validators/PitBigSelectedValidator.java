@@ -1,23 +1,24 @@
 package com.bol.mancala.validators;
 
-import com.bol.mancala.model.PitPlace;
+import com.bol.mancala.engine.BoardGeometry;
 import org.springframework.stereotype.Component;
 
-import java.util.function.Predicate;
+import java.util.function.BiPredicate;
 
 /**
  * Mancala Big Pit Validator. This class prevents the usage of the Big Pits in both sides.
  */
 @Component
-public class PitBigSelectedValidator implements Predicate<PitPlace> {
+public class PitBigSelectedValidator implements BiPredicate<BoardGeometry, Integer> {
 
     /**
      * Check if the player chooses the right pit. The player is not allowed to use both big pits.
      *
-     * @param pitPlace chosen pit place
+     * @param geometry         layout of the pits of the game
+     * @param selectedPitIndex selected pit index, within the board
      */
     @Override
-    public boolean test(final PitPlace pitPlace) {
-        return pitPlace.equals(PitPlace.PLAYER_ONE_PIT_BIG) || pitPlace.equals(PitPlace.PLAYER_TWO_PIT_BIG);
+    public boolean test(final BoardGeometry geometry, final Integer selectedPitIndex) {
+        return geometry.isBigPit(selectedPitIndex);
     }
 }
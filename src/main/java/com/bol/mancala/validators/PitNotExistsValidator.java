@@ -1,22 +1,24 @@
 package com.bol.mancala.validators;
 
+import com.bol.mancala.engine.BoardGeometry;
 import org.springframework.stereotype.Component;
 
-import java.util.function.IntPredicate;
+import java.util.function.BiPredicate;
 
 /**
  * Mancala Not exists pit Validator. This class prevents the usage of out of range pit index.
  */
 @Component
-public class PitNotExistsValidator implements IntPredicate {
+public class PitNotExistsValidator implements BiPredicate<BoardGeometry, Integer> {
     
     /**
      * Check if the player chooses the right pit. The player is not allowed to use out of range index.
      *
+     * @param geometry         layout of the pits of the game
      * @param selectedPitIndex selected pit index
      */
     @Override
-    public boolean test(final int selectedPitIndex) {
-        return selectedPitIndex < 0 || selectedPitIndex > 13;
+    public boolean test(final BoardGeometry geometry, final Integer selectedPitIndex) {
+        return !geometry.contains(selectedPitIndex);
     }
 }
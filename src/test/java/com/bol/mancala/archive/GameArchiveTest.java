@@ -0,0 +1,201 @@
+package com.bol.mancala.archive;
+
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.engine.RuleVariant;
+import com.bol.mancala.entities.MancalaEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Game Archive Test.
+ */
+class GameArchiveTest {
+
+    /**
+     * Directory of the segments.
+     */
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("It should read the archived games back in order over the segments of two starts")
+    void itShouldReadArchivedGames() throws IOException {
+        // Given
+        final List<MancalaBoard> boards = List.of(finishedBoard(BoardGeometry.STANDARD, RuleVariant.KALAH),
+                                                  finishedBoard(BoardGeometry.of(4), RuleVariant.OWARE),
+                                                  finishedBoard(BoardGeometry.of(16), RuleVariant.EMPTY_CAPTURE));
+        final List<UUID> gameIds = new ArrayList<>();
+        // When
+        for (int start = 0; start < 2; start++) {
+            final var gameArchive = new GameArchive(true, directory.toString(), 16, 1 << 20);
+            for (int i = 0; i < boards.size(); i++) {
+                final MancalaBoard board = boards.get(i);
+                final var game = new MancalaEntity(UUID.randomUUID(), 4, board.getGeometry(), board.getRuleVariant())
+                        .toBuilder().version(1000L * i + start).build();
+                gameArchive.archive(game, board);
+                gameIds.add(game.getMancalaId());
+            }
+            gameArchive.close();
+            assertThat(gameArchive.getArchivedGames()).isEqualTo(boards.size());
+        }
+        final List<ArchivedGame> archivedGames = new ArrayList<>();
+        final long games = GameArchiveReader.scan(directory, archivedGames::add);
+        // Then
+        assertThat(GameArchiveReader.segments(directory)).hasSize(2);
+        assertThat(games).isEqualTo(2L * boards.size());
+        assertThat(archivedGames).extracting(ArchivedGame::getGameId).containsExactlyElementsOf(gameIds);
+        for (int i = 0; i < archivedGames.size(); i++) {
+            final ArchivedGame archivedGame = archivedGames.get(i);
+            final MancalaBoard board = boards.get(i % boards.size());
+            assertThat(archivedGame.getPitsPerPlayer()).isEqualTo(board.getGeometry().getPitsPerPlayer());
+            assertThat(archivedGame.getRuleVariant()).isSameAs(board.getRuleVariant());
+            assertThat(archivedGame.getWinnerId()).isEqualTo(board.getWinnerId()).isNotZero();
+            assertThat(archivedGame.getMoves()).isEqualTo(1000L * (i % boards.size()) + i / boards.size());
+            assertThat(archivedGame.getPits()).containsExactly(pitsOf(board));
+            assertThat(archivedGame.getFinishedAt()).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("It should read a segment up to its last complete block")
+    void itShouldIgnoreIncompleteLastBlock() throws IOException {
+        // Given
+        final var gameArchive = new GameArchive(true, directory.toString(), 16, 1 << 20);
+        final MancalaBoard board = finishedBoard(BoardGeometry.STANDARD, RuleVariant.KALAH);
+        gameArchive.archive(new MancalaEntity(UUID.randomUUID(), 4), board);
+        gameArchive.close();
+        final Path segment = GameArchiveReader.segments(directory).get(0);
+        final byte[] block = ArchiveSegment.encodeBlock(List.of(new ArchivedGame(
+                UUID.randomUUID(), Instant.now(), 6, RuleVariant.KALAH, 1, 10, pitsOf(board))));
+        // When
+        Files.write(segment, Arrays.copyOf(block, block.length - 3), StandardOpenOption.APPEND);
+        final List<ArchivedGame> archivedGames = new ArrayList<>();
+        final long games = GameArchiveReader.scan(directory, archivedGames::add);
+        // Then
+        assertThat(games).isOne();
+        assertThat(archivedGames).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("It should begin a new segment when the segment is full and drop the games when the queue is full")
+    void itShouldRollSegmentsAndDropGamesWhenQueueIsFull() throws IOException {
+        // Given
+        final var gameArchive = new GameArchive(true, directory.toString(), 2, 1);
+        final MancalaBoard board = finishedBoard(BoardGeometry.STANDARD, RuleVariant.KALAH);
+        // When
+        for (int i = 0; i < 3; i++) {
+            gameArchive.archive(new MancalaEntity(UUID.randomUUID(), 4), board);
+        }
+        gameArchive.flush();
+        gameArchive.archive(new MancalaEntity(UUID.randomUUID(), 4), board);
+        gameArchive.close();
+        // Then
+        assertThat(gameArchive.getDroppedGames()).isOne();
+        assertThat(gameArchive.getArchivedGames()).isEqualTo(3);
+        assertThat(gameArchive.getQueuedGames()).isZero();
+        assertThat(GameArchiveReader.segments(directory)).hasSize(2);
+        assertThat(GameArchiveReader.scan(directory, archivedGame -> { })).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("It should archive every game once when a flush fails after some of its blocks were written")
+    void itShouldNotArchiveGamesTwiceAfterFailedFlush() throws IOException {
+        // Given
+        final AtomicInteger writtenBlocks = new AtomicInteger();
+        final var gameArchive = new GameArchive(true, directory.toString(), 4 * GameArchive.BLOCK_GAMES, 1 << 30) {
+            @Override
+            void writeBlock(final FileChannel segment, final ByteBuffer block) throws IOException {
+                if (writtenBlocks.incrementAndGet() == 2) {
+                    segment.write(ByteBuffer.wrap(block.array(), 0, block.remaining() / 2));
+                    throw new IOException("The disk is full");
+                }
+                super.writeBlock(segment, block);
+            }
+        };
+        final MancalaBoard board = finishedBoard(BoardGeometry.STANDARD, RuleVariant.KALAH);
+        final Set<UUID> gameIds = new HashSet<>();
+        for (int i = 0; i < GameArchive.BLOCK_GAMES + 1; i++) {
+            final var game = new MancalaEntity(UUID.randomUUID(), 4);
+            gameArchive.archive(game, board);
+            gameIds.add(game.getMancalaId());
+        }
+        gameArchive.flush();
+        assertThat(gameArchive.getArchivedGames()).isZero();
+        // When
+        gameArchive.close();
+        final List<UUID> archivedGameIds = new ArrayList<>();
+        final long games = GameArchiveReader.scan(directory, archivedGame -> archivedGameIds.add(
+                archivedGame.getGameId()));
+        // Then
+        assertThat(gameArchive.getArchivedGames()).isEqualTo(gameIds.size());
+        assertThat(games).isEqualTo(gameIds.size());
+        assertThat(archivedGameIds).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(gameIds);
+    }
+
+    @Test
+    @DisplayName("It should not archive anything when the archive is not enabled")
+    void itShouldNotArchiveWhenNotEnabled() throws IOException {
+        // Given
+        final var gameArchive = new GameArchive(false, directory.toString(), 16, 1 << 20);
+        // When
+        gameArchive.archive(new MancalaEntity(UUID.randomUUID(), 4),
+                            finishedBoard(BoardGeometry.STANDARD, RuleVariant.KALAH));
+        gameArchive.close();
+        // Then
+        assertThat(gameArchive.getQueuedGames()).isZero();
+        assertThat(gameArchive.getArchivedGames()).isZero();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    /**
+     * @param geometry    layout of the pits.
+     * @param ruleVariant rules of the game.
+     * @return a board finished by player 1 sowing his last stone into his big pit.
+     */
+    private static MancalaBoard finishedBoard(final BoardGeometry geometry, final RuleVariant ruleVariant) {
+        final var board = new MancalaBoard(geometry, ruleVariant);
+        final int lastPit = geometry.getPlayerOneBigPit() - 1;
+        board.setStones(lastPit, 1);
+        for (int i = geometry.firstPit(MancalaBoard.PLAYER_TWO); i < geometry.getPlayerTwoBigPit(); i++) {
+            board.setStones(i, i + 200);
+        }
+        board.setPlayerId(PLAYER_ONE);
+        board.play(lastPit);
+        return board;
+    }
+
+    /**
+     * @param board a board.
+     * @return the stones of all pits of the board.
+     */
+    private static int[] pitsOf(final MancalaBoard board) {
+        final int[] pits = new int[board.getGeometry().getPitCount()];
+        for (int i = 0; i < pits.length; i++) {
+            pits[i] = board.getStones(i);
+        }
+        return pits;
+    }
+}
@@ -0,0 +1,149 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_D;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_E;
+import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Alpha Beta Search Test.
+ */
+class AlphaBetaSearchTest {
+
+    /**
+     * Transposition table.
+     */
+    private TranspositionTable transpositionTable;
+
+    /**
+     * Tested search.
+     */
+    private AlphaBetaSearch alphaBetaSearch;
+
+    /**
+     * Set up the test.
+     */
+    @BeforeEach
+    void setUp() {
+        transpositionTable = new TranspositionTable(1 << 16);
+        alphaBetaSearch = new AlphaBetaSearch(transpositionTable);
+    }
+
+    @Test
+    @DisplayName("It should capture the opponent stones instead of playing a pit that gains less")
+    void itShouldCaptureOpponentStones() {
+        // Given
+        final MancalaBoard mancalaBoard = newBoard(0, PLAYER_ONE);
+        mancalaBoard.setStones(PLAYER_ONE_PIT_A.ordinal(), 1);
+        mancalaBoard.setStones(PLAYER_ONE_PIT_D.ordinal(), 1);
+        mancalaBoard.setStones(PLAYER_ONE_PIT_E.ordinal(), 3);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_Y.ordinal(), 10);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_Y.ordinal() + 1, 1);
+        final List<Integer> playedPits = new ArrayList<>();
+        // When
+        final var alphaBetaBot = new AlphaBetaBot(1 << 16, 100, AlphaBetaSearch.MAX_DEPTH, 2, 2, "");
+        alphaBetaBot.reply(mancalaBoard, playedPits::add);
+        alphaBetaBot.close();
+        // Then
+        assertThat(playedPits).first().isEqualTo(PLAYER_ONE_PIT_A.ordinal());
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_BIG_PIT)).isGreaterThanOrEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("It should return the best pit of the last completed depth when the time budget is spent")
+    void itShouldStopAtDeadline() {
+        // Given
+        final MancalaBoard mancalaBoard = newBoard(20, PLAYER_TWO);
+        final long start = System.nanoTime();
+        // When
+        final int pit = alphaBetaSearch.search(mancalaBoard, AlphaBetaSearch.MAX_DEPTH,
+                                               start + TimeUnit.MILLISECONDS.toNanos(10));
+        // Then
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(pit).isBetween(PLAYER_ONE_BIG_PIT + 1, PLAYER_TWO_BIG_PIT - 1);
+        assertThat(alphaBetaSearch.getCompletedDepth()).isBetween(1, AlphaBetaSearch.MAX_DEPTH - 1);
+    }
+
+    @Test
+    @DisplayName("It should search a position with several threads and count the nodes of all threads")
+    void itShouldSearchWithSeveralThreads() {
+        // Given
+        final MancalaBoard mancalaBoard = newBoard(6, PLAYER_ONE);
+        final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        // When
+        final SearchResult searchResult;
+        try (var parallelSearch = new ParallelSearch(transpositionTable, null, 4, 4)) {
+            searchResult = parallelSearch.search(mancalaBoard, 8, deadline);
+        }
+        // Then
+        assertThat(searchResult.getDepth()).isEqualTo(8);
+        assertThat(searchResult.getPit()).isBetween(0, PLAYER_ONE_BIG_PIT - 1);
+        assertThat(searchResult.getNodes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("It should search the next position with the searches of the threads after the helpers were aborted")
+    void itShouldReuseSearchesOfThreads() {
+        // Given
+        final MancalaBoard mancalaBoard = newBoard(6, PLAYER_ONE);
+        final long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        final SearchResult secondResult;
+        try (var parallelSearch = new ParallelSearch(transpositionTable, null, 2, 2)) {
+            parallelSearch.search(mancalaBoard, 8, deadline);
+            // When
+            secondResult = parallelSearch.search(mancalaBoard, 8, deadline);
+        }
+        // Then
+        assertThat(secondResult.getDepth()).isEqualTo(8);
+        assertThat(secondResult.getPit()).isBetween(0, PLAYER_ONE_BIG_PIT - 1);
+        assertThat(secondResult.getNodes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("It should not use an entry of the transposition table that belongs to another position")
+    void itShouldMissEntryOfOtherPosition() {
+        // Given
+        final long hash = newBoard(6, PLAYER_ONE).hash();
+        final long otherHash = newBoard(6, PLAYER_TWO).hash();
+        transpositionTable.store(hash, -3, 5, TranspositionTable.LOWER_BOUND, 4);
+        // When
+        final long entry = transpositionTable.probe(hash);
+        // Then
+        assertThat(TranspositionTable.score(entry)).isEqualTo(-3);
+        assertThat(TranspositionTable.depth(entry)).isEqualTo(5);
+        assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.LOWER_BOUND);
+        assertThat(TranspositionTable.bestPit(entry)).isEqualTo(4);
+        assertThat(transpositionTable.probe(otherHash)).isEqualTo(TranspositionTable.MISS);
+    }
+
+    /**
+     * @param stones   stones of each small pit.
+     * @param playerId the player who has the turn.
+     * @return a board with the same stones in each small pit.
+     */
+    private static MancalaBoard newBoard(final int stones, final int playerId) {
+        final MancalaBoard mancalaBoard = new MancalaBoard();
+        for (int i = 0; i < PIT_COUNT; i++) {
+            if (i != PLAYER_ONE_BIG_PIT && i != PLAYER_TWO_BIG_PIT) {
+                mancalaBoard.setStones(i, stones);
+            }
+        }
+        mancalaBoard.setPlayerId(playerId);
+        return mancalaBoard;
+    }
+}
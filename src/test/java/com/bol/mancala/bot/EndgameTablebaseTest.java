@@ -0,0 +1,237 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_F;
+import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Endgame Tablebase Test.
+ */
+class EndgameTablebaseTest {
+
+    /**
+     * Largest number of stones of the tested tablebase.
+     */
+    private static final int MAX_STONES = 5;
+
+    /**
+     * Tested tablebase.
+     */
+    private static EndgameTablebase endgameTablebase;
+
+    /**
+     * Generate the tablebase.
+     *
+     * @param directory temporary directory.
+     * @throws IOException when the file can not be written.
+     */
+    @BeforeAll
+    static void setUp(@TempDir final Path directory) throws IOException {
+        final Path file = directory.resolve("endgame.tb");
+        EndgameTablebaseGenerator.generate(MAX_STONES, file);
+        endgameTablebase = EndgameTablebase.open(file);
+    }
+
+    @Test
+    @DisplayName("It should find the value of every position that a full search of the game finds")
+    void itShouldMatchFullSearch() {
+        // Given
+        final MancalaBoard mancalaBoard = new MancalaBoard();
+        int positions = 0;
+        for (int stones = 0; stones <= MAX_STONES; stones++) {
+            for (long rank = 0; rank < EndgameTablebase.layerSize(stones); rank++) {
+                EndgameTablebase.position(mancalaBoard, stones, rank);
+                if (isEmpty(mancalaBoard, 0) || isEmpty(mancalaBoard, PLAYER_ONE_BIG_PIT + 1)) {
+                    continue;
+                }
+                mancalaBoard.setPlayerId(rank % 2 == 0 ? PLAYER_ONE : PLAYER_TWO);
+                mancalaBoard.setStones(PLAYER_ONE_BIG_PIT, (int) rank % 7);
+                // When
+                final int entry = endgameTablebase.lookup(mancalaBoard);
+                // Then
+                assertThat(EndgameTablebase.value(entry)).isEqualTo(fullSearch(mancalaBoard));
+                positions++;
+            }
+        }
+        assertThat(positions).isPositive();
+    }
+
+    @Test
+    @DisplayName("It should give the win of equal big pits to the player who has the turn at the end, like the game")
+    void itShouldMatchGameTieRule() {
+        // Given
+        final MancalaBoard mancalaBoard = new MancalaBoard();
+        int equalEndings = 0;
+        for (int stones = 0; stones <= MAX_STONES; stones++) {
+            for (long rank = 0; rank < EndgameTablebase.layerSize(stones); rank++) {
+                EndgameTablebase.position(mancalaBoard, stones, rank);
+                if (isEmpty(mancalaBoard, 0) || isEmpty(mancalaBoard, PLAYER_ONE_BIG_PIT + 1)) {
+                    continue;
+                }
+                mancalaBoard.setPlayerId(rank % 2 == 0 ? PLAYER_ONE : PLAYER_TWO);
+                for (int difference = -MAX_STONES; difference <= MAX_STONES; difference++) {
+                    // the big pits of the player who has the turn and his opponent differ by the difference
+                    final int bigPit = mancalaBoard.getPlayerId() == PLAYER_ONE
+                            ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT;
+                    mancalaBoard.setStones(PLAYER_ONE_BIG_PIT, MAX_STONES);
+                    mancalaBoard.setStones(PLAYER_TWO_BIG_PIT, MAX_STONES);
+                    mancalaBoard.setStones(bigPit, MAX_STONES + difference);
+                    // When
+                    final int entry = endgameTablebase.lookup(mancalaBoard);
+                    // Then
+                    assertThat(AlphaBetaSearch.endgameScore(mancalaBoard, entry)).isEqualTo(gameScore(mancalaBoard));
+                    if (difference + EndgameTablebase.value(entry) == 0) {
+                        equalEndings++;
+                    }
+                }
+            }
+        }
+        assertThat(equalEndings).isPositive();
+    }
+
+    @Test
+    @DisplayName("It should not find a position with more stones than the tablebase")
+    void itShouldNotFindLargerPosition() {
+        // Given
+        final MancalaBoard mancalaBoard = new MancalaBoard();
+        mancalaBoard.setStones(PLAYER_ONE_PIT_F.ordinal(), MAX_STONES);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_Y.ordinal(), 1);
+        mancalaBoard.setPlayerId(PLAYER_ONE);
+        // When
+        final int value = endgameTablebase.lookup(mancalaBoard);
+        // Then
+        assertThat(value).isEqualTo(EndgameTablebase.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("It should play the endgame of the tablebase without searching it")
+    void itShouldSearchWithTablebase() {
+        // Given
+        final MancalaBoard mancalaBoard = new MancalaBoard();
+        mancalaBoard.setStones(PLAYER_ONE_BIG_PIT - 2, 1);
+        mancalaBoard.setStones(PLAYER_ONE_BIG_PIT - 1, 2);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_Y.ordinal(), 2);
+        mancalaBoard.setPlayerId(PLAYER_ONE);
+        final var alphaBetaSearch = new AlphaBetaSearch(new TranspositionTable(1 << 10), endgameTablebase);
+        // When
+        final int pit = alphaBetaSearch.search(mancalaBoard, AlphaBetaSearch.MAX_DEPTH,
+                                               System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+        // Then
+        assertThat(pitValue(mancalaBoard, pit)).isEqualTo(fullSearch(mancalaBoard));
+        assertThat(alphaBetaSearch.getCompletedDepth()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("It should not open a file that is not a tablebase")
+    void itShouldRejectOtherFile(@TempDir final Path directory) throws IOException {
+        // Given
+        final Path file = Files.write(directory.resolve("other.tb"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        // When, Then
+        assertThatThrownBy(() -> EndgameTablebase.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("is not an endgame tablebase");
+    }
+
+    /**
+     * Search all moves until the end of the game.
+     *
+     * @param board the position, not changed.
+     * @return the stones the player who has the turn gets more than the opponent from now on.
+     */
+    private static int fullSearch(final MancalaBoard board) {
+        final int bigPit = board.getPlayerId() == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT;
+        int best = Integer.MIN_VALUE;
+        for (int pit = bigPit - PITS_PER_PLAYER; pit < bigPit; pit++) {
+            if (board.getStones(pit) > 0) {
+                best = Math.max(best, pitValue(board, pit));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Search all moves until the end of the game, for a win first and then for the most stones, like the bot.
+     *
+     * @param board the position, not changed.
+     * @return the score of the game for the player who has the turn: more than {@link AlphaBetaSearch#WIN_SCORE}
+     * plus the difference of the big pits when he wins, the negative of that when he loses.
+     */
+    private static int gameScore(final MancalaBoard board) {
+        final int playerId = board.getPlayerId();
+        final int bigPit = playerId == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT;
+        final MancalaBoard child = new MancalaBoard();
+        int best = Integer.MIN_VALUE;
+        for (int pit = bigPit - PITS_PER_PLAYER; pit < bigPit; pit++) {
+            if (board.getStones(pit) == 0) {
+                continue;
+            }
+            child.copyFrom(board);
+            child.play(pit);
+            final int score;
+            if (child.isFinished()) {
+                score = AlphaBetaSearch.WIN_SCORE
+                        + Math.abs(child.getStones(PLAYER_ONE_BIG_PIT) - child.getStones(PLAYER_TWO_BIG_PIT));
+                best = Math.max(best, child.getWinnerId() == playerId ? score : -score);
+            } else {
+                score = gameScore(child);
+                best = Math.max(best, child.getPlayerId() == playerId ? score : -score);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param board the position, not changed.
+     * @param pit   pit with stones of the player who has the turn.
+     * @return the stones the player gets more than the opponent from now on when he plays the pit.
+     */
+    private static int pitValue(final MancalaBoard board, final int pit) {
+        final int playerId = board.getPlayerId();
+        final int bigPit = playerId == PLAYER_ONE ? PLAYER_ONE_BIG_PIT : PLAYER_TWO_BIG_PIT;
+        final int opponentBigPit = playerId == PLAYER_ONE ? PLAYER_TWO_BIG_PIT : PLAYER_ONE_BIG_PIT;
+        final MancalaBoard child = new MancalaBoard();
+        for (int i = 0; i < PIT_COUNT; i++) {
+            child.setStones(i, board.getStones(i));
+        }
+        child.setPlayerId(playerId);
+        child.play(pit);
+        int value = child.getStones(bigPit) - board.getStones(bigPit)
+                - child.getStones(opponentBigPit) + board.getStones(opponentBigPit);
+        if (!child.isFinished()) {
+            value += child.getPlayerId() == playerId ? fullSearch(child) : -fullSearch(child);
+        }
+        return value;
+    }
+
+    /**
+     * @param board    the board.
+     * @param firstPit first small pit of a player.
+     * @return true if the small pits of the player are empty.
+     */
+    private static boolean isEmpty(final MancalaBoard board, final int firstPit) {
+        for (int pit = firstPit; pit < firstPit + PITS_PER_PLAYER; pit++) {
+            if (board.getStones(pit) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bol.mancala.bot;
+
+import com.bol.mancala.engine.MancalaBoard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.bol.mancala.engine.MancalaBoard.PITS_PER_PLAYER;
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_D;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_E;
+import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Monte Carlo Search Test.
+ */
+class MonteCarloSearchTest {
+
+    @Test
+    @DisplayName("It should capture the opponent stones that win the game")
+    void itShouldCaptureOpponentStones() {
+        // Given
+        final MancalaBoard mancalaBoard = new MancalaBoard();
+        mancalaBoard.setStones(PLAYER_ONE_PIT_A.ordinal(), 1);
+        mancalaBoard.setStones(PLAYER_ONE_PIT_D.ordinal(), 1);
+        mancalaBoard.setStones(PLAYER_ONE_PIT_E.ordinal(), 3);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_Y.ordinal(), 10);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_Y.ordinal() + 1, 1);
+        mancalaBoard.setPlayerId(PLAYER_ONE);
+        final List<Integer> playedPits = new ArrayList<>();
+        // When
+        final var monteCarloBot = new MonteCarloBot(5000, 2, 2);
+        monteCarloBot.reply(mancalaBoard, playedPits::add);
+        monteCarloBot.close();
+        // Then
+        assertThat(playedPits).first().isEqualTo(PLAYER_ONE_PIT_A.ordinal());
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_BIG_PIT)).isGreaterThanOrEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("It should play every playout through one of the pits with stones, also when the tree is full")
+    void itShouldCountEveryPlayout() {
+        // Given
+        final MancalaBoard mancalaBoard = new MancalaBoard();
+        for (int i = 0; i < PIT_COUNT; i++) {
+            mancalaBoard.setStones(i, i == PLAYER_ONE_BIG_PIT || i == PLAYER_TWO_BIG_PIT ? 0 : 4);
+        }
+        mancalaBoard.setStones(PLAYER_ONE_PIT_D.ordinal(), 0);
+        mancalaBoard.setPlayerId(PLAYER_ONE);
+        final var monteCarloSearch = new MonteCarloSearch(1 + 10 * PITS_PER_PLAYER, 42);
+        final int[] pitVisits = new int[PITS_PER_PLAYER];
+        final int[] pitWins = new int[PITS_PER_PLAYER];
+        // When
+        monteCarloSearch.search(mancalaBoard, 1000, pitVisits, pitWins);
+        monteCarloSearch.search(mancalaBoard, 1000, pitVisits, pitWins);
+        // Then
+        assertThat(Arrays.stream(pitVisits).sum()).isEqualTo(2000);
+        assertThat(pitVisits[PLAYER_ONE_PIT_D.ordinal()]).isZero();
+        assertThat(Arrays.stream(pitWins).sum()).isBetween(0, 2000);
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_PIT_A.ordinal())).isEqualTo(4);
+    }
+}
@@ -1,10 +1,15 @@
 package com.bol.mancala.controllers;
 
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.engine.PackedBoard;
 import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.model.GameDelta;
 import com.bol.mancala.model.MancalaGame;
 import com.bol.mancala.model.PitPlace;
+import com.bol.mancala.model.PlayMovesRequest;
 import com.bol.mancala.model.PlayTurnRequest;
 import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.service.GameEventPublisher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,10 +24,12 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
 import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_B;
@@ -38,17 +45,23 @@ import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_W;
 import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_X;
 import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
 import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Z;
+import static java.util.Map.entry;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -71,6 +84,16 @@ class MancalaApiTest {
      */
     private static final String UPDATE_GAME_PATH = "/mancala/api/v1/update-game";
 
+    /**
+     * Path to Mancala API bulk create endpoint.
+     */
+    private static final String BULK_CREATE_GAMES_PATH = "/mancala/api/v1/games:bulk";
+
+    /**
+     * Path to Mancala API games endpoints.
+     */
+    private static final String GAMES_PATH = "/mancala/api/v1/games/";
+
     /**
      * Mock MVC.
      */
@@ -83,6 +106,12 @@ class MancalaApiTest {
     @MockBean
     MancalaRepository mancalaRepository;
 
+    /**
+     * Publisher of the game changes.
+     */
+    @Autowired
+    private GameEventPublisher gameEventPublisher;
+
     /**
      * mockUUID.
      */
@@ -98,6 +127,7 @@ class MancalaApiTest {
         mockUUID = UUID.fromString("09f5cc11-ec7c-4344-8022-5b6ab11546ea");
         Integer startStoneAmount = 6;
         mancalaEntity = new MancalaEntity(mockUUID, startStoneAmount);
+        given(mancalaRepository.updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any())).willReturn(1);
     }
 
     @Test
@@ -118,6 +148,36 @@ class MancalaApiTest {
                 .andExpect(content().string(new ObjectMapper().writeValueAsString(mancalaGame)));
     }
 
+    @Test
+    @DisplayName("It should create many Mancala games via the endpoint and stream their ids")
+    void itShouldCreateMancalaGames() throws Exception {
+        // When
+        MvcResult mvcResult = this.mockMvc.perform(post(BULK_CREATE_GAMES_PATH)
+                                                           .param("count", "3")
+                                                           .param("stoneAmount", "4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Then
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().string(Matchers.matchesPattern("([0-9a-f-]{36}\n){3}")));
+        verify(mancalaRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    @DisplayName("It should not create Mancala games via the endpoint when the count is not allowed")
+    void itShouldNotCreateMancalaGamesWithoutCount() throws Exception {
+        // When
+        this.mockMvc.perform(post(BULK_CREATE_GAMES_PATH)
+                                     .param("count", "0"))
+                .andDo(print())
+        // Then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", Matchers.is("The number of games should be between 1 and 100000!")));
+    }
+
     @Test
     @DisplayName("It should delete a Mancala game Successfully via the endpoint")
     void itShouldDeleteMancalaGame() throws Exception {
@@ -185,11 +245,7 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_ONE_PIT_F);
         MancalaGame mancalaGame = getMancalaGame("Player1TurnFromFtoASkipOpponentBig.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? 
-                                                                                                         p.toBuilder().stones(8).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.of(PLAYER_ONE_PIT_F, 8)))
                                                                                    .playerId(1)
                                                                                    .build()));
 
@@ -218,12 +274,7 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_ONE_PIT_B);
         MancalaGame mancalaGame = getMancalaGame("Player1TurnFromBtoDCaptureW.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(2).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(5).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.of(PLAYER_ONE_PIT_B, 2, PLAYER_ONE_PIT_D, 0, PLAYER_TWO_PIT_W, 5)))
                                                                                    .playerId(1)
                                                                                    .build()));
         // When
@@ -247,23 +298,21 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_ONE_PIT_F);
         MancalaGame mancalaGame = getMancalaGame("Player1Winner.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_A ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_C ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_BIG ? p.toBuilder().stones(20).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_BIG ? p.toBuilder().stones(14).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.ofEntries(
+                                                                                           entry(PLAYER_ONE_PIT_A, 0),
+                                                                                           entry(PLAYER_ONE_PIT_B, 0),
+                                                                                           entry(PLAYER_ONE_PIT_C, 0),
+                                                                                           entry(PLAYER_ONE_PIT_D, 0),
+                                                                                           entry(PLAYER_ONE_PIT_E, 0),
+                                                                                           entry(PLAYER_ONE_PIT_F, 1),
+                                                                                           entry(PLAYER_TWO_PIT_U, 1),
+                                                                                           entry(PLAYER_TWO_PIT_V, 1),
+                                                                                           entry(PLAYER_TWO_PIT_W, 1),
+                                                                                           entry(PLAYER_TWO_PIT_X, 1),
+                                                                                           entry(PLAYER_TWO_PIT_Y, 1),
+                                                                                           entry(PLAYER_TWO_PIT_Z, 1),
+                                                                                           entry(PLAYER_ONE_PIT_BIG, 20),
+                                                                                           entry(PLAYER_TWO_PIT_BIG, 14))))
                                                                                    .playerId(1)
                                                                                    .build()));
         // When
@@ -287,23 +336,21 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_ONE_PIT_F);
         MancalaGame mancalaGame = getMancalaGame("player1WinnerWhenStonesAreEqual.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_A ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_C ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_BIG ? p.toBuilder().stones(20).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_BIG ? p.toBuilder().stones(15).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.ofEntries(
+                                                                                           entry(PLAYER_ONE_PIT_A, 0),
+                                                                                           entry(PLAYER_ONE_PIT_B, 0),
+                                                                                           entry(PLAYER_ONE_PIT_C, 0),
+                                                                                           entry(PLAYER_ONE_PIT_D, 0),
+                                                                                           entry(PLAYER_ONE_PIT_E, 0),
+                                                                                           entry(PLAYER_ONE_PIT_F, 1),
+                                                                                           entry(PLAYER_TWO_PIT_U, 1),
+                                                                                           entry(PLAYER_TWO_PIT_V, 1),
+                                                                                           entry(PLAYER_TWO_PIT_W, 1),
+                                                                                           entry(PLAYER_TWO_PIT_X, 1),
+                                                                                           entry(PLAYER_TWO_PIT_Y, 1),
+                                                                                           entry(PLAYER_TWO_PIT_Z, 1),
+                                                                                           entry(PLAYER_ONE_PIT_BIG, 20),
+                                                                                           entry(PLAYER_TWO_PIT_BIG, 15))))
                                                                                    .playerId(1)
                                                                                    .build()));
         // When
@@ -327,23 +374,21 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_ONE_PIT_F);
         MancalaGame mancalaGamePlayer2Wins = getMancalaGame("player2WinnerWhenPlayer1EndsGame.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_A ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_C ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(5).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_BIG ? p.toBuilder().stones(20).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_BIG ? p.toBuilder().stones(14).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.ofEntries(
+                                                                                           entry(PLAYER_ONE_PIT_A, 0),
+                                                                                           entry(PLAYER_ONE_PIT_B, 0),
+                                                                                           entry(PLAYER_ONE_PIT_C, 0),
+                                                                                           entry(PLAYER_ONE_PIT_D, 0),
+                                                                                           entry(PLAYER_ONE_PIT_E, 0),
+                                                                                           entry(PLAYER_ONE_PIT_F, 1),
+                                                                                           entry(PLAYER_TWO_PIT_U, 5),
+                                                                                           entry(PLAYER_TWO_PIT_V, 1),
+                                                                                           entry(PLAYER_TWO_PIT_W, 1),
+                                                                                           entry(PLAYER_TWO_PIT_X, 1),
+                                                                                           entry(PLAYER_TWO_PIT_Y, 1),
+                                                                                           entry(PLAYER_TWO_PIT_Z, 1),
+                                                                                           entry(PLAYER_ONE_PIT_BIG, 20),
+                                                                                           entry(PLAYER_TWO_PIT_BIG, 14))))
                                                                                    .playerId(1)
                                                                                    .build()));
         // When
@@ -432,11 +477,7 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_TWO_PIT_Z);
         MancalaGame mancalaGame = getMancalaGame("Player2TurnFromZtoUSkipOpponentBig.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ?
-                                                                                                         p.toBuilder().stones(8).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.of(PLAYER_TWO_PIT_Z, 8)))
                                                                                    .playerId(2)
                                                                                    .build()));
 
@@ -465,15 +506,7 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_TWO_PIT_W);
         MancalaGame mancalaGame = getMancalaGame("Player2TurnFromWtoYCaptureB.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ?
-                                                                                                         p.toBuilder().stones(2).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ?
-                                                                                                         p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ?
-                                                                                                         p.toBuilder().stones(5).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.of(PLAYER_TWO_PIT_W, 2, PLAYER_TWO_PIT_Y, 0, PLAYER_ONE_PIT_B, 5)))
                                                                                    .playerId(2)
                                                                                    .build()));
         // When
@@ -497,23 +530,21 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_TWO_PIT_Z);
         MancalaGame mancalaGamePlayer2Wins = getMancalaGame("Player2Winner.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_A ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_C ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_BIG ? p.toBuilder().stones(20).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_BIG ? p.toBuilder().stones(14).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.ofEntries(
+                                                                                           entry(PLAYER_ONE_PIT_A, 1),
+                                                                                           entry(PLAYER_ONE_PIT_B, 1),
+                                                                                           entry(PLAYER_ONE_PIT_C, 1),
+                                                                                           entry(PLAYER_ONE_PIT_D, 1),
+                                                                                           entry(PLAYER_ONE_PIT_E, 1),
+                                                                                           entry(PLAYER_ONE_PIT_F, 1),
+                                                                                           entry(PLAYER_TWO_PIT_U, 0),
+                                                                                           entry(PLAYER_TWO_PIT_V, 0),
+                                                                                           entry(PLAYER_TWO_PIT_W, 0),
+                                                                                           entry(PLAYER_TWO_PIT_X, 0),
+                                                                                           entry(PLAYER_TWO_PIT_Y, 0),
+                                                                                           entry(PLAYER_TWO_PIT_Z, 1),
+                                                                                           entry(PLAYER_TWO_PIT_BIG, 20),
+                                                                                           entry(PLAYER_ONE_PIT_BIG, 14))))
                                                                                    .playerId(2)
                                                                                    .build()));
         // When
@@ -537,23 +568,21 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_TWO_PIT_Z);
         MancalaGame mancalaGamePlayer2Wins = getMancalaGame("player2WinnerWhenStonesAreEqual.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_A ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_C ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_BIG ? p.toBuilder().stones(20).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_BIG ? p.toBuilder().stones(15).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.ofEntries(
+                                                                                           entry(PLAYER_ONE_PIT_A, 1),
+                                                                                           entry(PLAYER_ONE_PIT_B, 1),
+                                                                                           entry(PLAYER_ONE_PIT_C, 1),
+                                                                                           entry(PLAYER_ONE_PIT_D, 1),
+                                                                                           entry(PLAYER_ONE_PIT_E, 1),
+                                                                                           entry(PLAYER_ONE_PIT_F, 1),
+                                                                                           entry(PLAYER_TWO_PIT_U, 0),
+                                                                                           entry(PLAYER_TWO_PIT_V, 0),
+                                                                                           entry(PLAYER_TWO_PIT_W, 0),
+                                                                                           entry(PLAYER_TWO_PIT_X, 0),
+                                                                                           entry(PLAYER_TWO_PIT_Y, 0),
+                                                                                           entry(PLAYER_TWO_PIT_Z, 1),
+                                                                                           entry(PLAYER_TWO_PIT_BIG, 20),
+                                                                                           entry(PLAYER_ONE_PIT_BIG, 15))))
                                                                                    .playerId(2)
                                                                                    .build()));
         // When
@@ -577,23 +606,21 @@ class MancalaApiTest {
         PlayTurnRequest requestBody = selectPit(PLAYER_TWO_PIT_Z);
         MancalaGame mancalaGamePlayer1Wins = getMancalaGame("player1WinnerWhenPlayer2EndsGame.json");
         given(mancalaRepository.findById(mockUUID)).willReturn(Optional.of(mancalaEntity.toBuilder()
-                                                                                   .pits(mancalaEntity.getPits()
-                                                                                                 .stream()
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_A ? p.toBuilder().stones(5).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_C ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(0).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ? p.toBuilder().stones(1).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_BIG ? p.toBuilder().stones(20).build() : p)
-                                                                                                 .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_BIG ? p.toBuilder().stones(14).build() : p)
-                                                                                                 .collect(Collectors.toList()))
+                                                                                   .board(boardWith(Map.ofEntries(
+                                                                                           entry(PLAYER_ONE_PIT_A, 5),
+                                                                                           entry(PLAYER_ONE_PIT_B, 1),
+                                                                                           entry(PLAYER_ONE_PIT_C, 1),
+                                                                                           entry(PLAYER_ONE_PIT_D, 1),
+                                                                                           entry(PLAYER_ONE_PIT_E, 1),
+                                                                                           entry(PLAYER_ONE_PIT_F, 1),
+                                                                                           entry(PLAYER_TWO_PIT_U, 0),
+                                                                                           entry(PLAYER_TWO_PIT_V, 0),
+                                                                                           entry(PLAYER_TWO_PIT_W, 0),
+                                                                                           entry(PLAYER_TWO_PIT_X, 0),
+                                                                                           entry(PLAYER_TWO_PIT_Y, 0),
+                                                                                           entry(PLAYER_TWO_PIT_Z, 1),
+                                                                                           entry(PLAYER_TWO_PIT_BIG, 20),
+                                                                                           entry(PLAYER_ONE_PIT_BIG, 14))))
                                                                                    .playerId(2)
                                                                                    .build()));
         // When
@@ -628,6 +655,155 @@ class MancalaApiTest {
                 .andExpect(jsonPath("$.httpStatus", Matchers.is(403)));
     }
     
+    @Test
+    @DisplayName("It should push the changed pits of a move to the subscribers of the game")
+    void itShouldPushGameDeltaToSubscribers() throws Exception {
+        // Given
+        givenPlayer_1();
+        MvcResult mvcResult = this.mockMvc.perform(get(GAMES_PATH + mockUUID + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // When
+        this.mockMvc.perform(post(UPDATE_GAME_PATH)
+                                     .contentType(APPLICATION_JSON)
+                                     .content(new ObjectMapper().writeValueAsString(selectPit(PLAYER_ONE_PIT_A))))
+                .andExpect(status().isOk());
+        gameEventPublisher.complete(mockUUID);
+        // Then
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("id:1\nevent:delta\ndata:{\"gameId\":\"" + mockUUID + "\"," +
+                                                    "\"baseVersion\":0,\"version\":1," +
+                                                    "\"pits\":{\"0\":0,\"1\":7,\"2\":7,\"3\":7,\"4\":7,\"5\":7,\"6\":1}," +
+                                                    "\"player\":\"PLAYER_1\"}\n\n"));
+    }
+
+    @Test
+    @DisplayName("It should return only the changed pits of a move when the delta media type is accepted")
+    void itShouldReturnGameDeltaWhenAccepted() throws Exception {
+        // Given
+        givenPlayer_1();
+        PlayTurnRequest requestBody = selectPit(PLAYER_ONE_PIT_B);
+        // When
+        this.mockMvc.perform(post(UPDATE_GAME_PATH)
+                                     .contentType(APPLICATION_JSON)
+                                     .accept(GameDelta.MEDIA_TYPE)
+                                     .content(new ObjectMapper().writeValueAsString(requestBody)))
+                .andDo(print())
+        // Then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(GameDelta.MEDIA_TYPE))
+                .andExpect(content().json("{\"gameId\":\"" + mockUUID + "\",\"baseVersion\":0," +
+                                                  "\"version\":1," +
+                                                  "\"pits\":{\"1\":0,\"2\":7,\"3\":7,\"4\":7,\"5\":7,\"6\":1,\"7\":7}," +
+                                                  "\"player\":\"PLAYER_2\"}", true));
+    }
+
+    @Test
+    @DisplayName("It should return only the changed pits of a move when the delta view is asked in the query")
+    void itShouldReturnGameDeltaForDeltaView() throws Exception {
+        // Given
+        givenPlayer_1();
+        PlayTurnRequest requestBody = selectPit(PLAYER_ONE_PIT_A);
+        // When
+        this.mockMvc.perform(post(UPDATE_GAME_PATH)
+                                     .param("view", "delta")
+                                     .contentType(APPLICATION_JSON)
+                                     .content(new ObjectMapper().writeValueAsString(requestBody)))
+                .andDo(print())
+        // Then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.baseVersion", Matchers.is(0)))
+                .andExpect(jsonPath("$.version", Matchers.is(1)))
+                .andExpect(jsonPath("$.pits.*", hasSize(7)))
+                .andExpect(jsonPath("$.pits.6", Matchers.is(1)))
+                .andExpect(jsonPath("$.player", Matchers.is("PLAYER_1")));
+    }
+
+    @Test
+    @DisplayName("It should play a batch of moves via the endpoint and return the index of the rejected move")
+    void itShouldPlayMovesInBatch() throws Exception {
+        // Given
+        PlayMovesRequest requestBody = PlayMovesRequest.builder()
+                .selectedPits(List.of(PLAYER_ONE_PIT_A, PLAYER_ONE_PIT_B, PLAYER_ONE_PIT_C))
+                .build();
+        givenPlayer_1();
+        // When
+        this.mockMvc.perform(post(GAMES_PATH + mockUUID + "/moves:batch")
+                                     .contentType(APPLICATION_JSON)
+                                     .content(new ObjectMapper().writeValueAsString(requestBody)))
+                .andDo(print())
+        // Then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.game.player", Matchers.is("PLAYER_2")))
+                .andExpect(jsonPath("$.game.pits", hasSize(14)))
+                .andExpect(jsonPath("$.rejectedMove", Matchers.is(2)))
+                .andExpect(jsonPath("$.rejectedReason", Matchers.is("Please choose your own pit!")));
+    }
+
+    @Test
+    @DisplayName("It should suggest a pit for the player who has the turn via the hint endpoint")
+    void itShouldReturnHint() throws Exception {
+        // Given
+        givenPlayer_1();
+        // When
+        this.mockMvc.perform(get(GAMES_PATH + mockUUID + "/hint"))
+                .andDo(print())
+        // Then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.gameId", Matchers.is(mockUUID.toString())))
+                .andExpect(jsonPath("$.player", Matchers.is("PLAYER_1")))
+                .andExpect(jsonPath("$.pit", Matchers.startsWith("PLAYER_ONE_PIT_")))
+                .andExpect(jsonPath("$.score").isNumber());
+    }
+
+    @Test
+    @DisplayName("It should update Successfully a game with four pits per player when player 2 selects pit index 7")
+    void itShouldMakePlayerTwoTurnByPitIndex() throws Exception {
+        // Given
+        given(mancalaRepository.findById(mockUUID))
+                .willReturn(Optional.of(new MancalaEntity(mockUUID, 4, BoardGeometry.of(4)).toBuilder()
+                                                .playerId(2).build()));
+        PlayTurnRequest requestBody = PlayTurnRequest.builder()
+                .gameId(mockUUID)
+                .selectedPitIndex(7)
+                .build();
+        // When
+        this.mockMvc.perform(post(UPDATE_GAME_PATH)
+                                     .contentType(APPLICATION_JSON)
+                                     .content(new ObjectMapper().writeValueAsString(requestBody)))
+                .andDo(print())
+        // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pits", hasSize(10)))
+                .andExpect(jsonPath("$.pits[*].stones", Matchers.contains(5, 5, 4, 4, 0, 4, 4, 0, 5, 1)))
+                .andExpect(jsonPath("$.pits[0].pitPlace").doesNotExist())
+                .andExpect(jsonPath("$.player", Matchers.is("PLAYER_1")));
+    }
+
+    @Test
+    @DisplayName("It should not update a game via the endpoint when no pit is selected")
+    void itShouldNotUpdateWithoutSelectedPit() throws Exception {
+        // Given
+        givenPlayer_1();
+        PlayTurnRequest requestBody = PlayTurnRequest.builder()
+                .gameId(mockUUID)
+                .build();
+        // When
+        this.mockMvc.perform(post(UPDATE_GAME_PATH)
+                                     .contentType(APPLICATION_JSON)
+                                     .content(new ObjectMapper().writeValueAsString(requestBody)))
+                .andDo(print())
+        // Then
+                .andExpect(status().isBadRequest());
+        verify(mancalaRepository, never()).updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any());
+    }
+
     /**
      * Player selects next pit
      *
@@ -669,4 +845,16 @@ class MancalaApiTest {
                 new ClassPathResource(jsonFileName).getFile(),
                 MancalaGame.class);
     }
-}
\ No newline at end of file
+
+    /**
+     * Packed board of the game with the stones of some pits replaced.
+     *
+     * @param stones stones by pit place.
+     * @return packed board.
+     */
+    private byte[] boardWith(final Map<PitPlace, Integer> stones) {
+        final byte[] board = mancalaEntity.getBoard().clone();
+        stones.forEach((pitPlace, amount) -> PackedBoard.setStones(board, pitPlace.ordinal(), amount));
+        return board;
+    }
+}
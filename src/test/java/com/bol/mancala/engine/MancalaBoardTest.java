@@ -0,0 +1,256 @@
+package com.bol.mancala.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.bol.mancala.engine.MancalaBoard.NO_WINNER;
+import static com.bol.mancala.engine.MancalaBoard.PIT_COUNT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_ONE_BIG_PIT;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO;
+import static com.bol.mancala.engine.MancalaBoard.PLAYER_TWO_BIG_PIT;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_B;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_D;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_F;
+import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_U;
+import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_V;
+import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_W;
+import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
+import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Z;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mancala Board Test.
+ */
+class MancalaBoardTest {
+
+    /**
+     * Stones amount.
+     */
+    private static final int START_STONE_AMOUNT = 6;
+
+    /**
+     * Tested board.
+     */
+    private MancalaBoard mancalaBoard;
+
+    /**
+     * Set up a new board with 6 stones in each small pit.
+     */
+    @BeforeEach
+    void setUp() {
+        mancalaBoard = new MancalaBoard();
+        for (int i = 0; i < PIT_COUNT; i++) {
+            if (i != PLAYER_ONE_BIG_PIT && i != PLAYER_TWO_BIG_PIT) {
+                mancalaBoard.setStones(i, START_STONE_AMOUNT);
+            }
+        }
+        mancalaBoard.setPlayerId(PLAYER_ONE);
+    }
+
+    @Test
+    @DisplayName("It should give player 1 one more turn when the last stone ends in his own big pit")
+    void itShouldGivePlayerOneMoreTurn() {
+        // When
+        final int lastPitIndex = mancalaBoard.play(PLAYER_ONE_PIT_A.ordinal());
+        // Then
+        assertThat(lastPitIndex).isEqualTo(PLAYER_ONE_BIG_PIT);
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_PIT_A.ordinal())).isZero();
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_PIT_B.ordinal())).isEqualTo(START_STONE_AMOUNT + 1);
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_BIG_PIT)).isOne();
+        assertThat(mancalaBoard.getPlayerId()).isEqualTo(PLAYER_ONE);
+        assertThat(mancalaBoard.getWinnerId()).isEqualTo(NO_WINNER);
+    }
+
+    @Test
+    @DisplayName("It should skip the opponent big pit and restart at the first pit")
+    void itShouldSkipOpponentBigPit() {
+        // Given
+        mancalaBoard.setStones(PLAYER_ONE_PIT_F.ordinal(), 8);
+        // When
+        final int lastPitIndex = mancalaBoard.play(PLAYER_ONE_PIT_F.ordinal());
+        // Then
+        assertThat(lastPitIndex).isEqualTo(PLAYER_ONE_PIT_A.ordinal());
+        assertThat(mancalaBoard.getStones(PLAYER_TWO_BIG_PIT)).isZero();
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_PIT_A.ordinal())).isEqualTo(START_STONE_AMOUNT + 1);
+        assertThat(mancalaBoard.getPlayerId()).isEqualTo(PLAYER_TWO);
+    }
+
+    @Test
+    @DisplayName("It should capture the opposite stones when the last stone ends in an own empty pit")
+    void itShouldCaptureOpponentStones() {
+        // Given
+        mancalaBoard.setStones(PLAYER_ONE_PIT_B.ordinal(), 2);
+        mancalaBoard.setStones(PLAYER_ONE_PIT_D.ordinal(), 0);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_W.ordinal(), 5);
+        // When
+        mancalaBoard.play(PLAYER_ONE_PIT_B.ordinal());
+        // Then
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_PIT_D.ordinal())).isZero();
+        assertThat(mancalaBoard.getStones(PLAYER_TWO_PIT_W.ordinal())).isZero();
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_BIG_PIT)).isEqualTo(6);
+        assertThat(mancalaBoard.getPlayerId()).isEqualTo(PLAYER_TWO);
+    }
+
+    @Test
+    @DisplayName("It should keep the last stone when the opposite pit is empty")
+    void itShouldNotCaptureWhenOppositePitIsEmpty() {
+        // Given
+        mancalaBoard.setPlayerId(PLAYER_TWO);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_U.ordinal(), 2);
+        mancalaBoard.setStones(PLAYER_TWO_PIT_W.ordinal(), 0);
+        mancalaBoard.setStones(PLAYER_ONE_PIT_D.ordinal(), 0);
+        // When
+        mancalaBoard.play(PLAYER_TWO_PIT_U.ordinal());
+        // Then
+        assertThat(mancalaBoard.getStones(PLAYER_TWO_PIT_W.ordinal())).isOne();
+        assertThat(mancalaBoard.getStones(PLAYER_TWO_BIG_PIT)).isZero();
+        assertThat(mancalaBoard.getPlayerId()).isEqualTo(PLAYER_ONE);
+    }
+
+    @Test
+    @DisplayName("It should sweep the remaining stones and determine the winner when one side is empty")
+    void itShouldDetermineWinner() {
+        // Given
+        for (int i = 0; i < PLAYER_ONE_BIG_PIT; i++) {
+            mancalaBoard.setStones(i, 0);
+        }
+        for (int i = PLAYER_ONE_BIG_PIT + 1; i < PLAYER_TWO_BIG_PIT; i++) {
+            mancalaBoard.setStones(i, 1);
+        }
+        mancalaBoard.setStones(PLAYER_ONE_PIT_F.ordinal(), 1);
+        mancalaBoard.setStones(PLAYER_ONE_BIG_PIT, 20);
+        mancalaBoard.setStones(PLAYER_TWO_BIG_PIT, 5);
+        // When
+        mancalaBoard.play(PLAYER_ONE_PIT_F.ordinal());
+        // Then
+        assertThat(mancalaBoard.isFinished()).isTrue();
+        assertThat(mancalaBoard.getWinnerId()).isEqualTo(PLAYER_ONE);
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_BIG_PIT)).isEqualTo(21);
+        assertThat(mancalaBoard.getStones(PLAYER_TWO_BIG_PIT)).isEqualTo(11);
+        assertThat(mancalaBoard.getStones(PLAYER_TWO_PIT_Z.ordinal())).isZero();
+    }
+
+    @Test
+    @DisplayName("It should sow full laps around the board and end in the selected pit after exactly two laps")
+    void itShouldSowFullLaps() {
+        // Given
+        mancalaBoard.setStones(PLAYER_ONE_PIT_A.ordinal(), 26);
+        // When
+        final int lastPitIndex = mancalaBoard.play(PLAYER_ONE_PIT_A.ordinal());
+        // Then
+        assertThat(lastPitIndex).isEqualTo(PLAYER_ONE_PIT_A.ordinal());
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_PIT_A.ordinal())).isEqualTo(2);
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_PIT_B.ordinal())).isEqualTo(START_STONE_AMOUNT + 2);
+        assertThat(mancalaBoard.getStones(PLAYER_TWO_PIT_Z.ordinal())).isEqualTo(START_STONE_AMOUNT + 2);
+        assertThat(mancalaBoard.getStones(PLAYER_ONE_BIG_PIT)).isEqualTo(2);
+        assertThat(mancalaBoard.getStones(PLAYER_TWO_BIG_PIT)).isZero();
+        assertThat(mancalaBoard.getPlayerId()).isEqualTo(PLAYER_TWO);
+    }
+
+    @Test
+    @DisplayName("It should copy the whole state from another board")
+    void itShouldCopyFromAnotherBoard() {
+        // Given
+        final MancalaBoard copy = new MancalaBoard();
+        mancalaBoard.play(PLAYER_ONE_PIT_B.ordinal());
+        // When
+        copy.copyFrom(mancalaBoard);
+        // Then
+        for (int i = 0; i < PIT_COUNT; i++) {
+            assertThat(copy.getStones(i)).isEqualTo(mancalaBoard.getStones(i));
+        }
+        assertThat(copy.getPlayerId()).isEqualTo(mancalaBoard.getPlayerId());
+        assertThat(copy.getWinnerId()).isEqualTo(mancalaBoard.getWinnerId());
+    }
+
+    @Test
+    @DisplayName("It should skip the opponent big pit and capture on a board with four pits per player")
+    void itShouldCaptureOnOtherBoard() {
+        // Given
+        final BoardGeometry geometry = BoardGeometry.of(4);
+        final MancalaBoard otherBoard = new MancalaBoard(geometry);
+        otherBoard.setStones(3, 7);
+        otherBoard.setStones(6, 3);
+        otherBoard.setPlayerId(PLAYER_ONE);
+        // When
+        final int lastPitIndex = otherBoard.play(3);
+        // Then
+        assertThat(lastPitIndex).isOne();
+        assertThat(otherBoard.getStones(geometry.getPlayerOneBigPit())).isEqualTo(3);
+        assertThat(otherBoard.getStones(geometry.getPlayerTwoBigPit())).isZero();
+        assertThat(otherBoard.getStones(0)).isOne();
+        assertThat(otherBoard.getStones(1)).isZero();
+        assertThat(otherBoard.getStones(6)).isEqualTo(4);
+        assertThat(otherBoard.getStones(7)).isZero();
+        assertThat(otherBoard.getPlayerId()).isEqualTo(PLAYER_TWO);
+        assertThat(otherBoard.getWinnerId()).isEqualTo(NO_WINNER);
+    }
+
+    @Test
+    @DisplayName("It should sow full laps around a board with four pits per player")
+    void itShouldSowFullLapsOnOtherBoard() {
+        // Given
+        final BoardGeometry geometry = BoardGeometry.of(4);
+        final MancalaBoard otherBoard = new MancalaBoard(geometry);
+        otherBoard.setStones(0, 1);
+        otherBoard.setStones(5, 20);
+        otherBoard.setPlayerId(PLAYER_TWO);
+        // When
+        final int lastPitIndex = otherBoard.play(5);
+        // Then
+        assertThat(lastPitIndex).isEqualTo(7);
+        assertThat(otherBoard.getStones(geometry.getPlayerOneBigPit())).isZero();
+        assertThat(otherBoard.getStones(geometry.getPlayerTwoBigPit())).isEqualTo(2);
+        assertThat(otherBoard.getStones(0)).isEqualTo(3);
+        assertThat(otherBoard.getStones(5)).isEqualTo(2);
+        assertThat(otherBoard.getStones(7)).isEqualTo(3);
+        assertThat(otherBoard.toPackedBoard()).hasSize(geometry.getPitCount() * PackedBoard.BYTES_PER_PIT);
+        assertThat(otherBoard.getPlayerId()).isEqualTo(PLAYER_ONE);
+    }
+
+    @Test
+    @DisplayName("It should capture the pits of the opponent with 2 or 3 stones backwards with the Oware rules")
+    void itShouldCaptureWithOwareRules() {
+        // Given
+        final MancalaBoard owareBoard = new MancalaBoard(BoardGeometry.STANDARD, RuleVariant.OWARE);
+        owareBoard.setStones(PLAYER_ONE_PIT_A.ordinal(), 1);
+        owareBoard.setStones(PLAYER_ONE_PIT_F.ordinal(), 3);
+        owareBoard.setStones(PLAYER_TWO_PIT_U.ordinal(), 1);
+        owareBoard.setStones(PLAYER_TWO_PIT_V.ordinal(), 2);
+        owareBoard.setStones(PLAYER_TWO_PIT_W.ordinal(), 4);
+        owareBoard.setPlayerId(PLAYER_ONE);
+        // When
+        final int lastPitIndex = owareBoard.play(PLAYER_ONE_PIT_F.ordinal());
+        // Then
+        assertThat(lastPitIndex).isEqualTo(PLAYER_TWO_PIT_V.ordinal());
+        assertThat(owareBoard.getStones(PLAYER_ONE_BIG_PIT)).isEqualTo(6);
+        assertThat(owareBoard.getStones(PLAYER_TWO_PIT_U.ordinal())).isZero();
+        assertThat(owareBoard.getStones(PLAYER_TWO_PIT_V.ordinal())).isZero();
+        assertThat(owareBoard.getStones(PLAYER_TWO_PIT_W.ordinal())).isEqualTo(4);
+        assertThat(owareBoard.getPlayerId()).isEqualTo(PLAYER_TWO);
+        assertThat(owareBoard.getWinnerId()).isEqualTo(NO_WINNER);
+    }
+
+    @Test
+    @DisplayName("It should capture the last stone in an own empty pit also when the opposite pit is empty")
+    void itShouldCaptureWithEmptyCaptureRules() {
+        // Given
+        final MancalaBoard emptyCaptureBoard = new MancalaBoard(BoardGeometry.STANDARD, RuleVariant.EMPTY_CAPTURE);
+        emptyCaptureBoard.setStones(PLAYER_ONE_PIT_A.ordinal(), 1);
+        emptyCaptureBoard.setStones(PLAYER_ONE_PIT_D.ordinal(), 2);
+        emptyCaptureBoard.setStones(PLAYER_TWO_PIT_W.ordinal(), 3);
+        emptyCaptureBoard.setPlayerId(PLAYER_ONE);
+        // When
+        final int lastPitIndex = emptyCaptureBoard.play(PLAYER_ONE_PIT_A.ordinal());
+        // Then
+        assertThat(lastPitIndex).isEqualTo(PLAYER_ONE_PIT_B.ordinal());
+        assertThat(emptyCaptureBoard.getStones(PLAYER_ONE_BIG_PIT)).isOne();
+        assertThat(emptyCaptureBoard.getStones(PLAYER_ONE_PIT_B.ordinal())).isZero();
+        assertThat(emptyCaptureBoard.getStones(PLAYER_TWO_PIT_Y.ordinal())).isZero();
+        assertThat(emptyCaptureBoard.getPlayerId()).isEqualTo(PLAYER_TWO);
+        assertThat(emptyCaptureBoard.getWinnerId()).isEqualTo(NO_WINNER);
+    }
+}
@@ -0,0 +1,100 @@
+package com.bol.mancala.repositories;
+
+import com.bol.mancala.engine.PackedBoard;
+import com.bol.mancala.entities.MancalaEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Legacy Pit Entity Migration Test.
+ */
+@DataJpaTest
+@Import(LegacyPitEntityMigration.class)
+class LegacyPitEntityMigrationTest {
+
+    /**
+     * Tested migration.
+     */
+    @Autowired
+    private LegacyPitEntityMigration legacyPitEntityMigration;
+
+    /**
+     * Mancala repository.
+     */
+    @Autowired
+    private MancalaRepository mancalaRepository;
+
+    /**
+     * JDBC template to create the legacy table.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Test entity manager.
+     */
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    @DisplayName("It should pack the legacy pits into the board column and drop the legacy table")
+    void itShouldMigrateLegacyPits() {
+        // Given
+        final UUID mancalaId = UUID.randomUUID();
+        testEntityManager.persistAndFlush(MancalaEntity.builder().mancalaId(mancalaId).playerId(1).build());
+        jdbcTemplate.execute("create table pit_entity (pit_id binary(255) not null, pit_place integer, " +
+                                     "stones integer, pits_mancala_id binary(255), primary key (pit_id))");
+        for (int i = 0; i < 14; i++) {
+            jdbcTemplate.update("insert into pit_entity values (?, ?, ?, ?)",
+                                toBytes(UUID.randomUUID()), i, i + 1, toBytes(mancalaId));
+        }
+        // When
+        legacyPitEntityMigration.run(null);
+        // Then
+        testEntityManager.clear();
+        assertThat(mancalaRepository.findById(mancalaId)).isPresent().hasValueSatisfying(m -> {
+            for (int i = 0; i < 14; i++) {
+                assertThat(PackedBoard.getStones(m.getBoard(), i)).isEqualTo(i + 1);
+            }
+        });
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where upper(table_name) = 'PIT_ENTITY'",
+                Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("It should do nothing when there is no legacy table")
+    void itShouldSkipWithoutLegacyTable() {
+        // Given
+        final UUID mancalaId = UUID.randomUUID();
+        final MancalaEntity mancala = new MancalaEntity(mancalaId, 6);
+        testEntityManager.persistAndFlush(mancala);
+        // When
+        legacyPitEntityMigration.run(null);
+        // Then
+        testEntityManager.clear();
+        assertThat(mancalaRepository.findById(mancalaId)).isPresent()
+                .hasValueSatisfying(m -> assertThat(m.getBoard()).isEqualTo(mancala.getBoard()));
+    }
+
+    /**
+     * @param uuid uuid
+     * @return the 16 bytes of the uuid, as Hibernate stores it.
+     */
+    private byte[] toBytes(final UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
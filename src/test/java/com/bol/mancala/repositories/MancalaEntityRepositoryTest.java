@@ -1,5 +1,6 @@
 package com.bol.mancala.repositories;
 
+import com.bol.mancala.engine.PackedBoard;
 import com.bol.mancala.entities.MancalaEntity;
 import com.bol.mancala.exception.mancala.MancalaGeneralException;
 import org.junit.jupiter.api.DisplayName;
@@ -7,27 +8,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_B;
 import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_BIG;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_C;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_D;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_E;
-import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_F;
 import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_BIG;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_U;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_V;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_W;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_X;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
-import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Z;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
-import static org.mockito.ArgumentMatchers.any;
 
 /**
  * Mancala Repository Test.
@@ -47,15 +41,20 @@ class MancalaEntityRepositoryTest {
     @Autowired
     private MancalaRepository mancalaRepository;
 
+    /**
+     * Test entity manager.
+     */
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     /**
      * Test if the correct Mancala game with its correct data is saved in the database.
      *
      * 1- The player should be 1 or 2.
-     * 2- The size of the Pits should be 14
+     * 2- The board should be packed in one column with 14 pits.
      * 3- There should be exactly 12 pits contains the amount of the stones given in the
      * property file *startStoneAmount*.
-     * 4- The size of the Pit places should be 14 and contains the names that are shown below
-     * in the test.
+     * 4- The big pits, PLAYER_ONE_PIT_BIG and PLAYER_TWO_PIT_BIG, should be empty.
      * 5- There should be a unique UUID for each Mancala game.
      */
     @Test
@@ -71,33 +70,117 @@ class MancalaEntityRepositoryTest {
         assertThat(optionalMancala).isPresent().hasValueSatisfying(m -> {
             assertThat(m.getMancalaId()).isEqualTo(mockUUID);
             assertThat(m.getPlayerId() == 1 || m.getPlayerId() == 2).isTrue();
-            assertThat(m.getPits().size()).isEqualTo(14);
-            assertThat(m.getPits()
-                               .stream()
-                               .filter(man -> man.getStones().equals(startStoneAmount))
+            assertThat(m.getBoard()).hasSize(14 * PackedBoard.BYTES_PER_PIT);
+            assertThat(IntStream.range(0, 14)
+                               .filter(i -> PackedBoard.getStones(m.getBoard(), i) == startStoneAmount)
                                .count()).isSameAs(12L);
-            assertThat(m.getPits().get(0).getPitId()).isNotNull();
-            assertThat(m.getPits().get(0).getPitPlace()).isEqualTo(PLAYER_ONE_PIT_A);
-            assertThat(m.getPits().get(1).getPitId()).isNotNull();
-            assertThat(m.getPits().get(1).getPitPlace()).isEqualTo(PLAYER_ONE_PIT_B);
-            assertThat(m.getPits().get(2).getPitPlace()).isEqualTo(PLAYER_ONE_PIT_C);
-            assertThat(m.getPits().get(2).getPitId()).isNotNull();
-            assertThat(m.getPits().get(3).getPitPlace()).isEqualTo(PLAYER_ONE_PIT_D);
-            assertThat(m.getPits().get(3).getPitId()).isNotNull();
-            assertThat(m.getPits().get(4).getPitPlace()).isEqualTo(PLAYER_ONE_PIT_E);
-            assertThat(m.getPits().get(4).getPitId()).isNotNull();
-            assertThat(m.getPits().get(5).getPitPlace()).isEqualTo(PLAYER_ONE_PIT_F);
-            assertThat(m.getPits().get(6).getPitPlace()).isEqualTo(PLAYER_ONE_PIT_BIG);
-            assertThat(m.getPits().get(7).getPitPlace()).isEqualTo(PLAYER_TWO_PIT_U);
-            assertThat(m.getPits().get(8).getPitPlace()).isEqualTo(PLAYER_TWO_PIT_V);
-            assertThat(m.getPits().get(9).getPitPlace()).isEqualTo(PLAYER_TWO_PIT_W);
-            assertThat(m.getPits().get(10).getPitPlace()).isEqualTo(PLAYER_TWO_PIT_X);
-            assertThat(m.getPits().get(11).getPitPlace()).isEqualTo(PLAYER_TWO_PIT_Y);
-            assertThat(m.getPits().get(12).getPitPlace()).isEqualTo(PLAYER_TWO_PIT_Z);
-            assertThat(m.getPits().get(13).getPitPlace()).isEqualTo(PLAYER_TWO_PIT_BIG);
+            assertThat(PackedBoard.getStones(m.getBoard(), PLAYER_ONE_PIT_BIG.ordinal())).isZero();
+            assertThat(PackedBoard.getStones(m.getBoard(), PLAYER_TWO_PIT_BIG.ordinal())).isZero();
+        });
+    }
+
+    /**
+     * Test if the board and the player of a game are updated.
+     */
+    @Test
+    @DisplayName("It should update the board, the player and the last activity of a Mancala game")
+    void itShouldUpdateBoard() {
+        // Given
+        final UUID mockUUID = UUID.randomUUID();
+        mancalaRepository.save(new MancalaEntity(mockUUID, startStoneAmount));
+        final byte[] board = PackedBoard.newBoard(startStoneAmount);
+        PackedBoard.setStones(board, PLAYER_ONE_PIT_A.ordinal(), 0);
+        PackedBoard.setStones(board, PLAYER_ONE_PIT_BIG.ordinal(), 1);
+        final Instant lastActivity = Instant.parse("2021-05-01T10:15:30Z");
+        // When
+        final int updated = mancalaRepository.updateBoardIfVersion(mockUUID, 2, board, 0, 1, lastActivity);
+        // Then
+        assertThat(updated).isOne();
+        testEntityManager.clear();
+        assertThat(mancalaRepository.findById(mockUUID)).isPresent().hasValueSatisfying(m -> {
+            assertThat(m.getPlayerId()).isEqualTo(2);
+            assertThat(m.getBoard()).isEqualTo(board);
+            assertThat(m.getVersion()).isOne();
+            assertThat(m.getLastActivity()).isEqualTo(lastActivity);
         });
     }
 
+    /**
+     * Test if a move that started from an old version does not overwrite the game.
+     */
+    @Test
+    @DisplayName("It should not update the board of a Mancala game that already has the version")
+    void itShouldNotUpdateBoardOfNewerVersion() {
+        // Given
+        final UUID mockUUID = UUID.randomUUID();
+        mancalaRepository.save(new MancalaEntity(mockUUID, startStoneAmount));
+        mancalaRepository.updateBoardIfVersion(mockUUID, 2, PackedBoard.newBoard(startStoneAmount), 0, 1,
+                                               Instant.now());
+        // When
+        final int updated = mancalaRepository.updateBoardIfVersion(mockUUID, 1, PackedBoard.newBoard(1), 0, 1,
+                                                                   Instant.now());
+        // Then
+        assertThat(updated).isZero();
+        testEntityManager.clear();
+        assertThat(mancalaRepository.findById(mockUUID)).isPresent()
+                .hasValueSatisfying(m -> assertThat(m.getPlayerId()).isEqualTo(2));
+    }
+
+    /**
+     * Test if a batch of moves is only written on the version it was played from.
+     */
+    @Test
+    @DisplayName("It should only update the board of a Mancala game that is still at the previous version")
+    void itShouldUpdateBoardIfVersion() {
+        // Given
+        final UUID mockUUID = UUID.randomUUID();
+        mancalaRepository.save(new MancalaEntity(mockUUID, startStoneAmount));
+        mancalaRepository.updateBoardIfVersion(mockUUID, 2, PackedBoard.newBoard(startStoneAmount), 0, 1,
+                                               Instant.now());
+        // When
+        final byte[] board = PackedBoard.newBoard(1);
+        final int updatedFromOldVersion = mancalaRepository.updateBoardIfVersion(mockUUID, 1, board, 0, 3,
+                                                                                 Instant.now());
+        final int updated = mancalaRepository.updateBoardIfVersion(mockUUID, 1, board, 1, 3, Instant.now());
+        // Then
+        assertThat(updatedFromOldVersion).isZero();
+        assertThat(updated).isOne();
+        testEntityManager.clear();
+        assertThat(mancalaRepository.findById(mockUUID)).isPresent()
+                .hasValueSatisfying(m -> assertThat(m.getVersion()).isEqualTo(3));
+    }
+
+    /**
+     * Test if the idle games are found by their last activity and only deleted when they are still idle.
+     */
+    @Test
+    @DisplayName("It should find the idle Mancala games, the longest idle first, and delete those that are still idle")
+    void itShouldDeleteIdleGames() {
+        // Given
+        final Instant idleSince = Instant.now().minusSeconds(60);
+        final UUID longestIdleUUID = UUID.randomUUID();
+        final UUID idleUUID = UUID.randomUUID();
+        final UUID activeUUID = UUID.randomUUID();
+        mancalaRepository.save(new MancalaEntity(idleUUID, startStoneAmount).toBuilder()
+                                       .lastActivity(idleSince.minusSeconds(1)).build());
+        mancalaRepository.save(new MancalaEntity(longestIdleUUID, startStoneAmount).toBuilder()
+                                       .lastActivity(idleSince.minusSeconds(2)).build());
+        mancalaRepository.save(new MancalaEntity(activeUUID, startStoneAmount));
+        // When
+        final List<UUID> idleGameIds = mancalaRepository.findIdleGameIds(idleSince, PageRequest.of(0, 10));
+        mancalaRepository.updateBoardIfVersion(idleUUID, 1, PackedBoard.newBoard(startStoneAmount), 0, 1,
+                                               Instant.now());
+        final int deleted = mancalaRepository.deleteIdleGames(idleGameIds, idleSince);
+        // Then
+        assertThat(idleGameIds).containsExactly(longestIdleUUID, idleUUID);
+        assertThat(deleted).isOne();
+        testEntityManager.clear();
+        assertThat(mancalaRepository.findById(longestIdleUUID)).isEmpty();
+        assertThat(mancalaRepository.findById(idleUUID)).isPresent()
+                .hasValueSatisfying(m -> assertThat(m.getLastActivity()).isAfter(idleSince));
+        assertThat(mancalaRepository.findById(activeUUID)).isPresent();
+    }
+
     /**
      * Test if there is no stones are in the game when its created. 
      */
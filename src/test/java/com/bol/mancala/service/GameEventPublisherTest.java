@@ -0,0 +1,175 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.model.GameDelta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Game Event Publisher Test.
+ */
+class GameEventPublisherTest {
+
+    /**
+     * Largest number of changes waiting for one subscriber.
+     */
+    private static final int SUBSCRIBER_QUEUE_CAPACITY = 4;
+
+    /**
+     * Tested publisher.
+     */
+    private final GameEventPublisher gameEventPublisher = new GameEventPublisher(new ObjectMapper(), 60_000, 2,
+                                                                                 SUBSCRIBER_QUEUE_CAPACITY, 16);
+
+    /**
+     * Lets the sends of a stalled subscriber go.
+     */
+    private final CountDownLatch stalled = new CountDownLatch(1);
+
+    /**
+     * Let the stalled sends go and stop the threads.
+     */
+    @AfterEach
+    void tearDown() {
+        stalled.countDown();
+        gameEventPublisher.close();
+    }
+
+    @Test
+    @DisplayName("It should send the changes of a game in order to a subscriber while another subscriber is stalled")
+    void itShouldNotWaitForStalledSubscriber() throws InterruptedException {
+        // Given
+        final UUID gameId = UUID.randomUUID();
+        final var stalledEmitter = new RecordingEmitter(stalled);
+        final var emitter = new RecordingEmitter(null);
+        gameEventPublisher.subscribe(gameId, stalledEmitter);
+        gameEventPublisher.subscribe(gameId, emitter);
+        // When
+        for (long version = 1; version <= 3; version++) {
+            gameEventPublisher.publish(delta(gameId, version));
+        }
+        gameEventPublisher.complete(gameId);
+        // Then
+        awaitTrue(() -> emitter.completed);
+        assertThat(emitter.events).hasSize(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(emitter.events.get(i)).startsWith("id:" + (i + 1) + "\nevent:delta\n");
+        }
+        assertThat(stalledEmitter.completed).isFalse();
+    }
+
+    @Test
+    @DisplayName("It should remove a subscriber that has too many changes waiting")
+    void itShouldDropSubscriberWhoseQueueOverflows() throws InterruptedException {
+        // Given
+        final UUID gameId = UUID.randomUUID();
+        final var stalledEmitter = new RecordingEmitter(stalled);
+        gameEventPublisher.subscribe(gameId, stalledEmitter);
+        // When
+        for (long version = 1; version <= SUBSCRIBER_QUEUE_CAPACITY + 2; version++) {
+            gameEventPublisher.publish(delta(gameId, version));
+        }
+        // Then
+        assertThat(gameEventPublisher.hasSubscribers(gameId)).isFalse();
+        stalled.countDown();
+        awaitTrue(() -> stalledEmitter.failed);
+        assertThat(stalledEmitter.events).hasSizeLessThanOrEqualTo(1);
+    }
+
+    /**
+     * @param gameId  game id.
+     * @param version version of the change.
+     * @return a change of the game.
+     */
+    private static GameDelta delta(final UUID gameId, final long version) {
+        return GameDelta.builder().gameId(gameId).version(version).pits(Map.of(0, (int) version)).build();
+    }
+
+    /**
+     * Wait until a condition holds, at most 10 seconds.
+     *
+     * @param condition the condition.
+     * @throws InterruptedException when the test is interrupted.
+     */
+    private static void awaitTrue(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Emitter that records the sent events, and waits for a latch before each send when it is stalled.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        /**
+         * Latch a send waits for, null when the emitter is not stalled.
+         */
+        private final CountDownLatch stalled;
+
+        /**
+         * The sent events, as text.
+         */
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        /**
+         * True when the subscription ended.
+         */
+        private volatile boolean completed;
+
+        /**
+         * True when the subscription ended with an error.
+         */
+        private volatile boolean failed;
+
+        /**
+         * Constructor.
+         *
+         * @param stalled latch a send waits for, null when the emitter is not stalled.
+         */
+        private RecordingEmitter(final CountDownLatch stalled) {
+            this.stalled = stalled;
+        }
+
+        @Override
+        public void send(final SseEventBuilder builder) throws IOException {
+            if (stalled != null) {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            events.add(builder.build().stream().map(ResponseBodyEmitter.DataWithMediaType::getData)
+                               .map(Object::toString).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(final Throwable ex) {
+            failed = true;
+        }
+    }
+}
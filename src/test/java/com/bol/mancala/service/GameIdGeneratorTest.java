@@ -0,0 +1,81 @@
+package com.bol.mancala.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Game Id Generator Test.
+ */
+class GameIdGeneratorTest {
+
+    @Test
+    @DisplayName("It should take unique version 7 ids that increase on every thread")
+    void itShouldTakeIncreasingIdsOnAllThreads() throws Exception {
+        // Given
+        final int threads = 4;
+        final int idsPerThread = 20_000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final long start = System.currentTimeMillis();
+        final List<Future<List<UUID>>> futures = new ArrayList<>();
+        // When
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    final List<UUID> ids = new ArrayList<>(idsPerThread);
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids.add(GameIdGenerator.nextId());
+                    }
+                    return ids;
+                }));
+            }
+            final Set<UUID> allIds = new HashSet<>();
+            // Then
+            for (Future<List<UUID>> future : futures) {
+                final List<UUID> ids = future.get(10, TimeUnit.SECONDS);
+                assertThat(ids).isSorted();
+                allIds.addAll(ids);
+            }
+            assertThat(allIds).hasSize(threads * idsPerThread).allSatisfy(id -> {
+                assertThat(id.version()).isEqualTo(7);
+                assertThat(id.variant()).isEqualTo(2);
+                assertThat(id.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(start);
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("It should keep the ids increasing when the clock stands still or goes back")
+    void itShouldIncreaseWhenClockStandsStill() {
+        // Given
+        final long timeMillis = 1_000L;
+        final long firstTimestamp = GameIdGenerator.nextTimestamp(timeMillis);
+        // When
+        long timestamp = firstTimestamp;
+        for (int i = 0; i < 5000; i++) {
+            final long nextTimestamp = GameIdGenerator.nextTimestamp(timeMillis);
+            assertThat(nextTimestamp).isEqualTo(timestamp + 1);
+            timestamp = nextTimestamp;
+        }
+        final UUID id = GameIdGenerator.newId(timestamp, -1L);
+        // Then
+        assertThat(GameIdGenerator.newId(firstTimestamp, 0L)).isLessThan(id);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(timestamp >>> 12);
+        assertThat(id.getMostSignificantBits() & 0xFFF).isEqualTo(timestamp & 0xFFF);
+        assertThat(id.getLeastSignificantBits()).isEqualTo(0xBFFF_FFFF_FFFF_FFFFL);
+        assertThat(id.version()).isEqualTo(7);
+    }
+}
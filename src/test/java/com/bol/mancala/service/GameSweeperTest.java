@@ -0,0 +1,110 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.store.GameStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+/**
+ * Game Sweeper Test.
+ */
+@ExtendWith(MockitoExtension.class)
+class GameSweeperTest {
+
+    /**
+     * Time without a move after which a game is deleted.
+     */
+    private static final long IDLE_TTL_MS = 60_000;
+
+    /**
+     * Largest number of games deleted by one statement.
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Mock Game Store.
+     */
+    @Mock
+    private GameStore mockGameStore;
+
+    /**
+     * Mock Mancala Repository.
+     */
+    @Mock
+    private MancalaRepository mockMancalaRepository;
+
+    /**
+     * Tested sweeper.
+     */
+    private GameSweeper gameSweeper;
+
+    /**
+     * Set up the test.
+     */
+    @BeforeEach
+    void setUp() {
+        gameSweeper = new GameSweeper(mockGameStore, mockMancalaRepository, IDLE_TTL_MS, BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("It should delete the idle games batch by batch until a batch is not full")
+    void itShouldDeleteIdleGamesInBatches() {
+        // Given
+        given(mockGameStore.deleteIdleGames(any(), anyInt())).willReturn(BATCH_SIZE, BATCH_SIZE, 7);
+        given(mockGameStore.count()).willReturn(42L);
+        final Instant before = Instant.now();
+        // When
+        gameSweeper.sweep();
+        // Then
+        final ArgumentCaptor<Instant> idleSinceCaptor = ArgumentCaptor.forClass(Instant.class);
+        then(mockGameStore).should(times(3)).deleteIdleGames(idleSinceCaptor.capture(), anyInt());
+        assertThat(idleSinceCaptor.getAllValues()).containsOnly(idleSinceCaptor.getValue())
+                .allSatisfy(idleSince -> assertThat(idleSince).isBetween(before.minusMillis(IDLE_TTL_MS),
+                                                                         Instant.now().minusMillis(IDLE_TTL_MS)));
+        assertThat(gameSweeper.getExpiredGames()).isEqualTo(2 * BATCH_SIZE + 7);
+        assertThat(gameSweeper.getLiveGames()).isEqualTo(42);
+        assertThat(gameSweeper.getSweeps()).isOne();
+        assertThat(gameSweeper.getMaxSweepDurationMs()).isGreaterThanOrEqualTo(gameSweeper.getLastSweepDurationMs());
+    }
+
+    @Test
+    @DisplayName("It should count the expired games of all sweeps")
+    void itShouldCountExpiredGamesOfAllSweeps() {
+        // Given
+        given(mockGameStore.deleteIdleGames(any(), anyInt())).willReturn(3, 0);
+        // When
+        gameSweeper.sweep();
+        gameSweeper.sweep();
+        // Then
+        then(mockGameStore).should(times(2)).deleteIdleGames(any(), anyInt());
+        assertThat(gameSweeper.getExpiredGames()).isEqualTo(3);
+        assertThat(gameSweeper.getSweeps()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("It should give the games stored before their last activity was recorded the start as last activity")
+    void itShouldSetMissingLastActivity() {
+        // Given
+        final Instant before = Instant.now();
+        // When
+        gameSweeper.run(null);
+        // Then
+        final ArgumentCaptor<Instant> lastActivityCaptor = ArgumentCaptor.forClass(Instant.class);
+        then(mockMancalaRepository).should().setMissingLastActivity(lastActivityCaptor.capture());
+        assertThat(lastActivityCaptor.getValue()).isBetween(before, Instant.now());
+    }
+}
@@ -0,0 +1,214 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.archive.GameArchive;
+import com.bol.mancala.bot.MancalaBot;
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.engine.PackedBoard;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.exception.ApplicationException;
+import com.bol.mancala.model.PitPlace;
+import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.store.GameStore;
+import com.bol.mancala.store.WriteBehindGameStore;
+import com.bol.mancala.validators.PitBigSelectedValidator;
+import com.bol.mancala.validators.PitNotExistsValidator;
+import com.bol.mancala.validators.PitOpponentUsedValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Mancala Service Concurrency Test.
+ *
+ * Many threads play moves on a few games at the same time. Every move that is accepted must be part of the
+ * stored game: the version of each game is the number of accepted moves and no stone gets lost.
+ */
+class MancalaServiceConcurrencyTest {
+
+    /**
+     * Number of games.
+     */
+    private static final int GAMES = 20;
+
+    /**
+     * Number of threads playing.
+     */
+    static final int THREADS = 16;
+
+    /**
+     * Number of moves each thread tries.
+     */
+    static final int MOVES_PER_THREAD = 100;
+
+    /**
+     * Stones per pit, enough to keep the games running during the test.
+     */
+    static final int START_STONE_AMOUNT = 100;
+
+    /**
+     * Game store, in memory only.
+     */
+    private WriteBehindGameStore gameStore;
+
+    /**
+     * Tested Service.
+     */
+    private MancalaService mancalaService;
+
+    /**
+     * Set up the test.
+     */
+    @BeforeEach
+    void setUp() {
+        gameStore = new WriteBehindGameStore(mock(MancalaRepository.class),
+                                             new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                                             Integer.MAX_VALUE, "");
+        mancalaService = new MancalaService(new PitOpponentUsedValidator(), new PitNotExistsValidator(),
+                                            new PitBigSelectedValidator(), gameStore, new GameLocks(16),
+                                            new GameEventPublisher(new ObjectMapper(), 1000, 1, 16, 16),
+                                            mock(MancalaBot.class), new HintCache(16),
+                                            mock(GameArchive.class));
+        ReflectionTestUtils.setField(mancalaService, "startStoneAmount", START_STONE_AMOUNT);
+    }
+
+    @Test
+    @DisplayName("It should not lose a move when many threads play the same games at the same time")
+    void itShouldNotLoseConcurrentMoves() throws Exception {
+        // Given
+        final List<UUID> gameIds = startGames(mancalaService, GAMES);
+        // When
+        final int[] acceptedMoves = playConcurrently(List.of(mancalaService), gameStore, gameIds);
+        // Then
+        assertNoMoveLost(gameStore, gameIds, acceptedMoves);
+    }
+
+    /**
+     * Start new games.
+     *
+     * @param mancalaService service
+     * @param games          number of games
+     * @return the game ids.
+     */
+    static List<UUID> startGames(final MancalaService mancalaService, final int games) {
+        final List<UUID> gameIds = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            gameIds.add(mancalaService.startMancalaNewGame().getGameId());
+        }
+        return gameIds;
+    }
+
+    /**
+     * Let many threads play moves on the games at the same time, each move through one of the services.
+     *
+     * @param mancalaServices services, one per instance of the application
+     * @param gameStore       store of the games
+     * @param gameIds         game ids
+     * @return the number of accepted moves by game.
+     * @throws Exception when a thread fails.
+     */
+    static int[] playConcurrently(final List<MancalaService> mancalaServices, final GameStore gameStore,
+                                  final List<UUID> gameIds) throws Exception {
+        final AtomicInteger[] acceptedMoves = new AtomicInteger[gameIds.size()];
+        for (int i = 0; i < gameIds.size(); i++) {
+            acceptedMoves[i] = new AtomicInteger();
+        }
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> players = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            players.add(executorService.submit(() -> {
+                start.await();
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int m = 0; m < MOVES_PER_THREAD; m++) {
+                    final int game = random.nextInt(gameIds.size());
+                    final PitPlace pit = pickPit(gameStore, gameIds.get(game), random);
+                    try {
+                        mancalaServices.get(random.nextInt(mancalaServices.size())).updateGame(gameIds.get(game), pit);
+                        acceptedMoves[game].incrementAndGet();
+                    } catch (ApplicationException e) {
+                        // another thread played the game in between, the pit is not valid anymore
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> player : players) {
+                player.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        final int[] moves = new int[gameIds.size()];
+        for (int i = 0; i < gameIds.size(); i++) {
+            moves[i] = acceptedMoves[i].get();
+        }
+        return moves;
+    }
+
+    /**
+     * Assert that every accepted move is part of the stored game: the version of each game is the number of
+     * accepted moves and no stone got lost.
+     *
+     * @param gameStore     store of the games
+     * @param gameIds       game ids
+     * @param acceptedMoves number of accepted moves by game
+     */
+    static void assertNoMoveLost(final GameStore gameStore, final List<UUID> gameIds, final int[] acceptedMoves) {
+        for (int i = 0; i < gameIds.size(); i++) {
+            final int game = i;
+            assertThat(gameStore.findById(gameIds.get(game))).hasValueSatisfying(g -> {
+                assertThat(g.getVersion()).isEqualTo(acceptedMoves[game]);
+                assertThat(countStones(g)).isEqualTo(START_STONE_AMOUNT * 2 * MancalaBoard.PITS_PER_PLAYER);
+            });
+        }
+    }
+
+    /**
+     * Pick a small pit with stones of the player who has the turn, as a client would do.
+     *
+     * @param gameStore store of the games
+     * @param gameId    game id
+     * @param random    random
+     * @return the pit to play.
+     */
+    private static PitPlace pickPit(final GameStore gameStore, final UUID gameId, final ThreadLocalRandom random) {
+        final MancalaEntity game = gameStore.findById(gameId).orElseThrow();
+        final int firstPit = game.getPlayerId() == MancalaBoard.PLAYER_ONE ? 0 : MancalaBoard.PLAYER_ONE_BIG_PIT + 1;
+        int pit = firstPit + random.nextInt(MancalaBoard.PITS_PER_PLAYER);
+        for (int i = 0; i < MancalaBoard.PITS_PER_PLAYER && PackedBoard.getStones(game.getBoard(), pit) == 0; i++) {
+            pit = pit + 1 == firstPit + MancalaBoard.PITS_PER_PLAYER ? firstPit : pit + 1;
+        }
+        return PitPlace.values()[pit];
+    }
+
+    /**
+     * @param game game
+     * @return the stones of all pits of the game.
+     */
+    private static int countStones(final MancalaEntity game) {
+        int stones = 0;
+        for (int i = 0; i < MancalaBoard.PIT_COUNT; i++) {
+            stones += PackedBoard.getStones(game.getBoard(), i);
+        }
+        return stones;
+    }
+}
@@ -0,0 +1,194 @@
+package com.bol.mancala.service;
+
+import com.bol.mancala.archive.GameArchive;
+import com.bol.mancala.bot.MancalaBot;
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.entities.MoveEntity;
+import com.bol.mancala.exception.mancala.MancalaConcurrentUpdateException;
+import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.store.DatabaseSync;
+import com.bol.mancala.store.GameStore;
+import com.bol.mancala.store.RepositoryGameStore;
+import com.bol.mancala.validators.PitBigSelectedValidator;
+import com.bol.mancala.validators.PitNotExistsValidator;
+import com.bol.mancala.validators.PitOpponentUsedValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_A;
+import static com.bol.mancala.model.PitPlace.PLAYER_ONE_PIT_B;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Mancala Service Repository Concurrency Test.
+ *
+ * The games are stored in the database by the repository game store, and two services with locks of their own
+ * play them like two instances of the application: only the version guard of the update keeps their moves apart.
+ * The test runs without a transaction of its own, so every thread sees the committed games.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MancalaServiceRepositoryConcurrencyTest {
+
+    /**
+     * Number of games.
+     */
+    private static final int GAMES = 40;
+
+    /**
+     * Stones per pit of the game of a single move, player 1 plays pit A and has the turn again.
+     */
+    private static final int STONE_AMOUNT = 6;
+
+    /**
+     * Tested repository.
+     */
+    @Autowired
+    private MancalaRepository mancalaRepository;
+
+    /**
+     * Game store in front of the repository.
+     */
+    private RepositoryGameStore gameStore;
+
+    /**
+     * Ids of the games of the test, deleted after it.
+     */
+    private final List<UUID> gameIds = new ArrayList<>();
+
+    /**
+     * Set up the test.
+     */
+    @BeforeEach
+    void setUp() {
+        gameStore = new RepositoryGameStore(mancalaRepository, DatabaseSync.none());
+    }
+
+    /**
+     * Delete the games of the test.
+     */
+    @AfterEach
+    void tearDown() {
+        mancalaRepository.deleteAllByMancalaIdIn(gameIds);
+    }
+
+    @Test
+    @DisplayName("It should not lose a move when two instances play the same games in the database at the same time")
+    void itShouldNotLoseConcurrentMovesOfTwoInstances() throws Exception {
+        // Given
+        final List<MancalaService> mancalaServices = List.of(newMancalaService(gameStore),
+                                                             newMancalaService(gameStore));
+        gameIds.addAll(MancalaServiceConcurrencyTest.startGames(mancalaServices.get(0), GAMES));
+        // When
+        final int[] acceptedMoves = MancalaServiceConcurrencyTest.playConcurrently(mancalaServices, gameStore,
+                                                                                   gameIds);
+        // Then
+        MancalaServiceConcurrencyTest.assertNoMoveLost(gameStore, gameIds, acceptedMoves);
+    }
+
+    @Test
+    @DisplayName("It should play the move again on the new board when another instance changed the game in between")
+    void itShouldRetryMoveChangedByOtherInstance() {
+        // Given
+        final MancalaService otherInstance = newMancalaService(gameStore);
+        final AtomicInteger updates = new AtomicInteger();
+        final MancalaService mancalaService = newMancalaService(new RepositoryGameStore(mancalaRepository,
+                                                                                        DatabaseSync.none()) {
+            @Override
+            public boolean update(final MancalaEntity game, final List<MoveEntity> moves) {
+                if (updates.getAndIncrement() == 0) {
+                    otherInstance.updateGame(game.getMancalaId(), PLAYER_ONE_PIT_A);
+                }
+                return super.update(game, moves);
+            }
+        });
+        final UUID gameId = newGameOfPlayerOne();
+        // When
+        mancalaService.updateGame(gameId, PLAYER_ONE_PIT_B);
+        // Then
+        assertThat(updates.get()).isEqualTo(2);
+        assertThat(gameStore.findById(gameId)).hasValueSatisfying(g -> {
+            assertThat(g.getVersion()).isEqualTo(2);
+            assertThat(g.getBoard()).isEqualTo(boardAfter(PLAYER_ONE_PIT_A.ordinal(), PLAYER_ONE_PIT_B.ordinal()));
+        });
+    }
+
+    @Test
+    @DisplayName("It should answer with a conflict when the store keeps reporting a change at the same time")
+    void itShouldNotUpdateGameThatKeepsChanging() {
+        // Given
+        final AtomicInteger updates = new AtomicInteger();
+        final MancalaService mancalaService = newMancalaService(new RepositoryGameStore(mancalaRepository,
+                                                                                        DatabaseSync.none()) {
+            @Override
+            public boolean update(final MancalaEntity game, final List<MoveEntity> moves) {
+                updates.incrementAndGet();
+                return false;
+            }
+        });
+        final UUID gameId = newGameOfPlayerOne();
+        // When
+        // Then
+        assertThatExceptionOfType(MancalaConcurrentUpdateException.class)
+                .isThrownBy(() -> mancalaService.updateGame(gameId, PLAYER_ONE_PIT_B))
+                .satisfies(e -> assertThat(e.getHttpStatus()).isSameAs(HttpStatus.CONFLICT));
+        assertThat(updates.get()).isEqualTo(MancalaService.MAX_UPDATE_ATTEMPTS);
+        assertThat(gameStore.findById(gameId)).hasValueSatisfying(g -> assertThat(g.getVersion()).isZero());
+    }
+
+    /**
+     * @param gameStore store of the games
+     * @return a service with locks of its own, like another instance of the application.
+     */
+    private static MancalaService newMancalaService(final GameStore gameStore) {
+        final var mancalaService = new MancalaService(new PitOpponentUsedValidator(), new PitNotExistsValidator(),
+                                                      new PitBigSelectedValidator(), gameStore, new GameLocks(16),
+                                                      new GameEventPublisher(new ObjectMapper(), 1000, 1, 16, 16),
+                                                      mock(MancalaBot.class), new HintCache(16),
+                                                      mock(GameArchive.class));
+        ReflectionTestUtils.setField(mancalaService, "startStoneAmount",
+                                     MancalaServiceConcurrencyTest.START_STONE_AMOUNT);
+        return mancalaService;
+    }
+
+    /**
+     * @return the id of a new game in the database where player 1 has the turn.
+     */
+    private UUID newGameOfPlayerOne() {
+        final UUID gameId = UUID.randomUUID();
+        gameStore.create(new MancalaEntity(gameId, STONE_AMOUNT).toBuilder().playerId(MancalaBoard.PLAYER_ONE).build());
+        gameIds.add(gameId);
+        return gameId;
+    }
+
+    /**
+     * @param pitIndexes pits played by player 1 on a new game
+     * @return the packed board after the moves.
+     */
+    private static byte[] boardAfter(final int... pitIndexes) {
+        final var mancalaBoard = new MancalaBoard();
+        mancalaBoard.readFrom(new MancalaEntity(UUID.randomUUID(), STONE_AMOUNT).getBoard());
+        mancalaBoard.setPlayerId(MancalaBoard.PLAYER_ONE);
+        for (int pitIndex : pitIndexes) {
+            mancalaBoard.play(pitIndex);
+        }
+        return mancalaBoard.toPackedBoard();
+    }
+}
@@ -1,30 +1,47 @@
 package com.bol.mancala.service;
 
+import com.bol.mancala.archive.GameArchive;
+import com.bol.mancala.bot.AlphaBetaBot;
+import com.bol.mancala.bot.AlphaBetaSearch;
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.engine.PackedBoard;
+import com.bol.mancala.engine.RuleVariant;
 import com.bol.mancala.entities.MancalaEntity;
 import com.bol.mancala.exception.mancala.MancalaBigPitNotAllowed;
+import com.bol.mancala.exception.mancala.MancalaConcurrentUpdateException;
 import com.bol.mancala.exception.mancala.MancalaGeneralException;
 import com.bol.mancala.exception.mancala.MancalaNotFoundException;
 import com.bol.mancala.exception.mancala.MancalaPLayerNotAllowedToUseOpponentPits;
 import com.bol.mancala.exception.mancala.MancalaPitIsEmpty;
+import com.bol.mancala.model.GameDelta;
 import com.bol.mancala.model.MancalaGame;
+import com.bol.mancala.model.MoveHint;
 import com.bol.mancala.model.PitGame;
+import com.bol.mancala.model.PitPlace;
+import com.bol.mancala.model.PlayMovesResponse;
 import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.store.DatabaseSync;
+import com.bol.mancala.store.RepositoryGameStore;
 import com.bol.mancala.validators.PitBigSelectedValidator;
 import com.bol.mancala.validators.PitNotExistsValidator;
 import com.bol.mancala.validators.PitOpponentUsedValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.bol.mancala.model.MancalaPlayer.PLAYER_1;
@@ -44,13 +61,23 @@ import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_X;
 import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Y;
 import static com.bol.mancala.model.PitPlace.PLAYER_TWO_PIT_Z;
 import static com.bol.mancala.model.PitPlace.PIT_NOT_EXISTS_IN_MANCALA;
+import static java.util.Map.entry;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -87,12 +114,40 @@ class MancalaServiceTest {
      */
     @Captor
     private ArgumentCaptor<MancalaEntity> mancalaEntityArgumentCaptor;
+
+    /**
+     * Mancala list argument capture.
+     */
+    @Captor
+    private ArgumentCaptor<List<MancalaEntity>> mancalaEntitiesArgumentCaptor;
     
     /**
      * Tested Service.
      */
     private MancalaService mancalaService;
+
+    /**
+     * Spy on the publisher of the changes of the games.
+     */
+    private GameEventPublisher gameEventPublisher;
+
+    /**
+     * Game delta argument capture.
+     */
+    @Captor
+    private ArgumentCaptor<GameDelta> gameDeltaArgumentCaptor;
+
+    /**
+     * Hint cache of the service.
+     */
+    private HintCache hintCache;
     
+    /**
+     * Mock archive of the finished games.
+     */
+    @Mock
+    private GameArchive mockGameArchive;
+
     /**
      * Validates if the player uses the opponent pit.
      */
@@ -116,13 +171,21 @@ class MancalaServiceTest {
      */
     @BeforeEach
     void setUp() {
+        hintCache = new HintCache(16);
+        gameEventPublisher = spy(new GameEventPublisher(new ObjectMapper(), 1000, 1, 16, 16));
         mancalaService = new MancalaService(pitOpponentUsedValidator,
                                             pitNotExistsValidator, pitBigSelectedValidator,
-                                            mockMancalaRepository);
+                                            new RepositoryGameStore(mockMancalaRepository, DatabaseSync.none()),
+                                            new GameLocks(16),
+                                            gameEventPublisher,
+                                            new AlphaBetaBot(1 << 16, 5, AlphaBetaSearch.MAX_DEPTH, 1, 1, ""),
+                                            hintCache, mockGameArchive);
         mancalaUUID = UUID.randomUUID();
         stringMancalaUUID = mancalaUUID;
         mancalaEntity = new MancalaEntity(mancalaUUID, startStoneAmount);
         ReflectionTestUtils.setField(mancalaService, "startStoneAmount", startStoneAmount);
+        lenient().when(mockMancalaRepository.updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any()))
+                .thenReturn(1);
     }
 
     @Test
@@ -136,17 +199,46 @@ class MancalaServiceTest {
         assertThat(mancalaGame.getGameId()).isEqualTo(mancalaUUID);
         assertThat(mancalaGame.getPlayer().getPlayerId()).isEqualTo(mancalaEntity.getPlayerId());
         assertThat(mancalaGame.getPlayerWinner()).isNull();
-        assertThat(mancalaGame.getPits().size()).isSameAs(mancalaEntity.getPits().size());
+        assertThat(mancalaGame.getPits().size()).isSameAs(PackedBoard.LENGTH / PackedBoard.BYTES_PER_PIT);
         assertThat(mancalaGame.getPits()
                            .stream()
                            .filter(man -> man.getStones()
                                    .equals(startStoneAmount))
-                           .count()).isSameAs(mancalaEntity.getPits().stream()
-                                                              .filter(man -> man.getStones().equals(startStoneAmount))
-                                                              .count());
-        IntStream.range(0, mancalaEntity.getPits().size())
-                .forEach(i ->  assertThat(mancalaGame.getPitGame(i).getPitPlace())
-                        .isSameAs(mancalaEntity.getPits().get(i).getPitPlace()));
+                           .count()).isSameAs(12L);
+        IntStream.range(0, mancalaGame.getPits().size())
+                .forEach(i ->  assertThat(mancalaGame.getPitGame(i).getStones())
+                        .isEqualTo(PackedBoard.getStones(mancalaEntity.getBoard(), i)));
+        IntStream.range(0, mancalaGame.getPits().size())
+                .forEach(i ->  assertThat(mancalaGame.getPitGame(i).getPitPlace().ordinal()).isEqualTo(i));
+    }
+
+    @Test
+    @DisplayName("It should save many new Mancala games in chunks")
+    void itShouldStartMancalaNewGamesInChunks() {
+        // Given
+        final int count = MancalaService.NEW_GAMES_CHUNK_SIZE + 1;
+        // When
+        final Iterator<List<UUID>> gameIds = mancalaService.startMancalaNewGames(count, 4, null, null);
+        final List<UUID> firstChunk = gameIds.next();
+        final List<UUID> secondChunk = gameIds.next();
+        // Then
+        assertThat(gameIds.hasNext()).isFalse();
+        assertThat(firstChunk).hasSize(MancalaService.NEW_GAMES_CHUNK_SIZE).doesNotContainAnyElementsOf(secondChunk);
+        assertThat(secondChunk).hasSize(1);
+        then(mockMancalaRepository).should(times(2)).saveAll(mancalaEntitiesArgumentCaptor.capture());
+        assertThat(mancalaEntitiesArgumentCaptor.getAllValues().get(1))
+                .extracting(MancalaEntity::getMancalaId).containsExactlyElementsOf(secondChunk);
+    }
+
+    @Test
+    @DisplayName("It should not start more Mancala games than allowed at once")
+    void itShouldNotStartTooManyMancalaNewGames() {
+        // When
+        // Then
+        assertThatExceptionOfType(MancalaGeneralException.class)
+                .isThrownBy(() -> mancalaService.startMancalaNewGames(MancalaService.MAX_NEW_GAMES + 1, null, null, null))
+                .withMessage("The number of games should be between 1 and 100000!");
+        then(mockMancalaRepository).shouldHaveNoInteractions();
     }
 
     @Test
@@ -187,13 +279,44 @@ class MancalaServiceTest {
                 .withMessage("Mancala does not exists!");
     }
 
+    @Test
+    @DisplayName("It should play the move again when the game was changed at the same time")
+    void itShouldRetryUpdateOnConcurrentChange() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willAnswer(invocation -> Optional.of(mancalaEntity.toBuilder().playerId(1).build()));
+        given(mockMancalaRepository.updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any()))
+                .willReturn(0, 1);
+        // When
+        final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_ONE_PIT_B);
+        // Then
+        assertThat(mancalaGame.getPitGame(PLAYER_ONE_PIT_B.ordinal()).getStones()).isZero();
+        then(mockMancalaRepository).should(times(2))
+                .updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("It should not update the game that keeps being changed at the same time")
+    void itShouldNotUpdateGameOnRepeatedConcurrentChange() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willAnswer(invocation -> Optional.of(mancalaEntity.toBuilder().playerId(1).build()));
+        given(mockMancalaRepository.updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any()))
+                .willReturn(0);
+        // When
+        // Then
+        assertThatExceptionOfType(MancalaConcurrentUpdateException.class)
+                .isThrownBy(() -> mancalaService.updateGame(stringMancalaUUID, PLAYER_ONE_PIT_B))
+                .withMessage("The game was changed at the same time, please try again!");
+    }
+
     @Test
     @DisplayName("It should not update the game if the player 1 selected the opponent pit")
     void itShouldNotUpdateGameIfPlayer1UsesOpponentPits() {
         // Given
         given(mockMancalaRepository.findById(any()))
                 .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(1).build()));
-        given(pitOpponentUsedValidator.test(PLAYER_1.name(), PLAYER_TWO_PIT_X.ordinal())).willReturn(true);
+        given(pitOpponentUsedValidator.test(BoardGeometry.STANDARD, PLAYER_1.name(), PLAYER_TWO_PIT_X.ordinal())).willReturn(true);
         // When
         // Then
         assertThatExceptionOfType(MancalaPLayerNotAllowedToUseOpponentPits.class)
@@ -207,7 +330,7 @@ class MancalaServiceTest {
         // Given
         given(mockMancalaRepository.findById(any()))
                 .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(2).build()));
-        given(pitOpponentUsedValidator.test(PLAYER_2.name(), PLAYER_ONE_PIT_A.ordinal())).willReturn(true);
+        given(pitOpponentUsedValidator.test(BoardGeometry.STANDARD, PLAYER_2.name(), PLAYER_ONE_PIT_A.ordinal())).willReturn(true);
         // When
         // Then
         assertThatExceptionOfType(MancalaPLayerNotAllowedToUseOpponentPits.class)
@@ -220,7 +343,7 @@ class MancalaServiceTest {
     void itShouldNotUpdateGameIfPlayerUsesBigPit1() {
         // Given
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity));
-        given(pitBigSelectedValidator.test(PLAYER_ONE_PIT_BIG)).willReturn(true);
+        given(pitBigSelectedValidator.test(BoardGeometry.STANDARD, PLAYER_ONE_PIT_BIG.ordinal())).willReturn(true);
         // When
         // Then
         assertThatExceptionOfType(MancalaBigPitNotAllowed.class)
@@ -233,7 +356,7 @@ class MancalaServiceTest {
     void itShouldNotUpdateGameIfPlayerUsesBigPit2() {
         // Given
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity));
-        given(pitBigSelectedValidator.test(PLAYER_TWO_PIT_BIG)).willReturn(true);
+        given(pitBigSelectedValidator.test(BoardGeometry.STANDARD, PLAYER_TWO_PIT_BIG.ordinal())).willReturn(true);
         // When
         // Then
         assertThatExceptionOfType(MancalaBigPitNotAllowed.class)
@@ -246,7 +369,7 @@ class MancalaServiceTest {
     void itShouldNotUpdateGameIfPlayerUsesNegativeIndex() {
         // Given
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity));
-        given(pitNotExistsValidator.test(PIT_NOT_EXISTS_IN_MANCALA.ordinal())).willReturn(true);
+        given(pitNotExistsValidator.test(BoardGeometry.STANDARD, PIT_NOT_EXISTS_IN_MANCALA.ordinal())).willReturn(true);
         // When
         // Then
         assertThatExceptionOfType(MancalaGeneralException.class)
@@ -260,11 +383,7 @@ class MancalaServiceTest {
         // Given
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity.toBuilder()
                                                .playerId(1)
-                                               .pits(mancalaEntity.getPits()
-                                                             .stream()
-                                                             .filter(p -> p.getPitPlace() == PLAYER_ONE_PIT_A)
-                                                             .map(p -> p.toBuilder().stones(0).build())
-                                                             .collect(Collectors.toList()))
+                                               .board(boardWith(Map.of(PLAYER_ONE_PIT_A, 0)))
                                                .build()));
         // When
         // Then
@@ -339,11 +458,7 @@ class MancalaServiceTest {
         // Given
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity.toBuilder()
                                                                                     .playerId(1)
-                                                                                    .pits(mancalaEntity.getPits()
-                                                                                                  .stream()
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ?
-                                                                                                          p.toBuilder().stones(20).build() : p)
-                                                                                                  .collect(Collectors.toList()))
+                                                                                    .board(boardWith(Map.of(PLAYER_ONE_PIT_F, 20)))
                                                                                     .build()));
         // When
         // Then
@@ -358,11 +473,7 @@ class MancalaServiceTest {
         // And PLAYER_ONE_PIT_D should stay the same with its stones. 
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity.toBuilder()
                                                                                     .playerId(1)
-                                                                                    .pits(mancalaEntity.getPits()
-                                                                                                  .stream()
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ?
-                                                                                                          p.toBuilder().stones(10).build() : p)
-                                                                                                  .collect(Collectors.toList()))
+                                                                                    .board(boardWith(Map.of(PLAYER_ONE_PIT_F, 10)))
                                                                                     .build()));
         // When
         final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_ONE_PIT_F);
@@ -385,11 +496,7 @@ class MancalaServiceTest {
         // And PLAYER_TWO_PIT_X should stay the same with its stones. 
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity.toBuilder()
                                                                                     .playerId(2)
-                                                                                    .pits(mancalaEntity.getPits()
-                                                                                                  .stream()
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ?
-                                                                                                          p.toBuilder().stones(10).build() : p)
-                                                                                                  .collect(Collectors.toList()))
+                                                                                    .board(boardWith(Map.of(PLAYER_TWO_PIT_Z, 10)))
                                                                                     .build()));
         // When
         final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_TWO_PIT_Z);
@@ -413,12 +520,7 @@ class MancalaServiceTest {
         // and place it in the player 1 big pit PLAYER_ONE_PIT_BIG. 
         final MancalaEntity mancalaWithPlayer1Turn = mancalaEntity.toBuilder()
                 .playerId(1)
-                .pits(mancalaEntity.getPits()
-                              .stream()
-                              .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(1).build() : p)
-                              .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(0).build() : p)
-                              .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(9).build() : p)
-                              .collect(Collectors.toList())).build();
+                .board(boardWith(Map.of(PLAYER_ONE_PIT_E, 1, PLAYER_ONE_PIT_F, 0, PLAYER_TWO_PIT_U, 9))).build();
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaWithPlayer1Turn));
         // When
         final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_ONE_PIT_E);
@@ -438,12 +540,7 @@ class MancalaServiceTest {
         // Given
         final MancalaEntity mancalaWithPlayer1Turn = mancalaEntity.toBuilder()
                 .playerId(1)
-                .pits(mancalaEntity.getPits()
-                              .stream()
-                              .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(1).build() : p)
-                              .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(0).build() : p)
-                              .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(0).build() : p)
-                              .collect(Collectors.toList())).build();
+                .board(boardWith(Map.of(PLAYER_ONE_PIT_E, 1, PLAYER_ONE_PIT_F, 0, PLAYER_TWO_PIT_U, 0))).build();
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaWithPlayer1Turn));
         // When
         final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_ONE_PIT_E);
@@ -463,12 +560,7 @@ class MancalaServiceTest {
         // and place it in the player 2 big pit PLAYER_TWO_PIT_BIG. 
         final MancalaEntity mancalaWithPlayer1Turn = mancalaEntity.toBuilder()
                 .playerId(2)
-                .pits(mancalaEntity.getPits()
-                              .stream()
-                              .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(3).build() : p)
-                              .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(0).build() : p)
-                              .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(5).build() : p)
-                              .collect(Collectors.toList())).build();
+                .board(boardWith(Map.of(PLAYER_TWO_PIT_V, 3, PLAYER_TWO_PIT_Y, 0, PLAYER_ONE_PIT_B, 5))).build();
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaWithPlayer1Turn));
         // When
         final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_TWO_PIT_V);
@@ -489,12 +581,7 @@ class MancalaServiceTest {
         // Given
         final MancalaEntity mancalaWithPlayer1Turn = mancalaEntity.toBuilder()
                 .playerId(2)
-                .pits(mancalaEntity.getPits()
-                              .stream()
-                              .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(1).build() : p)
-                              .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(0).build() : p)
-                              .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(0).build() : p)
-                              .collect(Collectors.toList())).build();
+                .board(boardWith(Map.of(PLAYER_TWO_PIT_X, 1, PLAYER_TWO_PIT_Y, 0, PLAYER_ONE_PIT_B, 0))).build();
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaWithPlayer1Turn));
         // When
         final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_TWO_PIT_X);
@@ -511,28 +598,30 @@ class MancalaServiceTest {
         // Given
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity.toBuilder()
                                                                                     .playerId(1)
-                                                                                    .pits(mancalaEntity.getPits()
-                                                                                                  .stream()
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_A ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_C ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_BIG ? p.toBuilder().stones(20).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_BIG ? p.toBuilder().stones(5).build() : p)
-                                                                                                  .collect(Collectors.toList()))
+                                                                                    .board(boardWith(Map.ofEntries(
+                                                                                            entry(PLAYER_ONE_PIT_A, 0),
+                                                                                            entry(PLAYER_ONE_PIT_B, 0),
+                                                                                            entry(PLAYER_ONE_PIT_C, 0),
+                                                                                            entry(PLAYER_ONE_PIT_D, 0),
+                                                                                            entry(PLAYER_ONE_PIT_E, 0),
+                                                                                            entry(PLAYER_ONE_PIT_F, 1),
+                                                                                            entry(PLAYER_TWO_PIT_U, 1),
+                                                                                            entry(PLAYER_TWO_PIT_V, 1),
+                                                                                            entry(PLAYER_TWO_PIT_W, 1),
+                                                                                            entry(PLAYER_TWO_PIT_X, 1),
+                                                                                            entry(PLAYER_TWO_PIT_Y, 1),
+                                                                                            entry(PLAYER_TWO_PIT_Z, 1),
+                                                                                            entry(PLAYER_ONE_PIT_BIG, 20),
+                                                                                            entry(PLAYER_TWO_PIT_BIG, 5))))
                                                                                     .build()));
         // When
         final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_ONE_PIT_F);
         // Then
         assertThat(mancalaGame.getPlayerWinner()).isSameAs(PLAYER_1);
+        final InOrder inOrder = inOrder(mockGameArchive, mockMancalaRepository);
+        then(mockGameArchive).should(inOrder).archive(argThat(game -> game.getVersion() == 1),
+                                                      argThat(board -> board.getWinnerId() == 1));
+        then(mockMancalaRepository).should(inOrder).delete(any(MancalaEntity.class));
     }
     
     @Test
@@ -541,27 +630,253 @@ class MancalaServiceTest {
         // Given
         given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity.toBuilder()
                                                                                     .playerId(2)
-                                                                                    .pits(mancalaEntity.getPits()
-                                                                                                  .stream()
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_A ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_B ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_C ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_D ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_E ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_F ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_U ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_V ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_W ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_X ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Y ? p.toBuilder().stones(0).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_Z ? p.toBuilder().stones(1).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_ONE_PIT_BIG ? p.toBuilder().stones(5).build() : p)
-                                                                                                  .map(p -> p.getPitPlace() == PLAYER_TWO_PIT_BIG ? p.toBuilder().stones(20).build() : p)
-                                                                                                  .collect(Collectors.toList()))
+                                                                                    .board(boardWith(Map.ofEntries(
+                                                                                            entry(PLAYER_ONE_PIT_A, 1),
+                                                                                            entry(PLAYER_ONE_PIT_B, 1),
+                                                                                            entry(PLAYER_ONE_PIT_C, 1),
+                                                                                            entry(PLAYER_ONE_PIT_D, 1),
+                                                                                            entry(PLAYER_ONE_PIT_E, 1),
+                                                                                            entry(PLAYER_ONE_PIT_F, 1),
+                                                                                            entry(PLAYER_TWO_PIT_U, 0),
+                                                                                            entry(PLAYER_TWO_PIT_V, 0),
+                                                                                            entry(PLAYER_TWO_PIT_W, 0),
+                                                                                            entry(PLAYER_TWO_PIT_X, 0),
+                                                                                            entry(PLAYER_TWO_PIT_Y, 0),
+                                                                                            entry(PLAYER_TWO_PIT_Z, 1),
+                                                                                            entry(PLAYER_ONE_PIT_BIG, 5),
+                                                                                            entry(PLAYER_TWO_PIT_BIG, 20))))
                                                                                     .build()));
         // When
         final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_TWO_PIT_Z);
         // Then
         assertThat(mancalaGame.getPlayerWinner()).isSameAs(PLAYER_2);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("It should play a batch of moves and store the game once")
+    void itShouldPlayMovesInBatch() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(1).build()));
+        // When
+        final PlayMovesResponse playMovesResponse = mancalaService.playMoves(
+                stringMancalaUUID, List.of(PLAYER_ONE_PIT_A, PLAYER_ONE_PIT_B, PLAYER_TWO_PIT_U));
+        // Then
+        assertThat(playMovesResponse.getRejectedMove()).isNull();
+        assertThat(playMovesResponse.getGame().getPlayer()).isSameAs(PLAYER_1);
+        assertThat(playMovesResponse.getGame().getPitGame(PLAYER_TWO_PIT_U.ordinal()).getStones()).isZero();
+        then(mockMancalaRepository).should().updateBoardIfVersion(any(), any(), any(), eq(0L), eq(3L), any());
+    }
+
+    @Test
+    @DisplayName("It should stop a batch of moves at the first rejected move and store the moves before it")
+    void itShouldStopPlayMovesAtRejectedMove() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(1).build()));
+        // When
+        final PlayMovesResponse playMovesResponse = mancalaService.playMoves(
+                stringMancalaUUID, List.of(PLAYER_ONE_PIT_A, PLAYER_ONE_PIT_A, PLAYER_ONE_PIT_B));
+        // Then
+        assertThat(playMovesResponse.getRejectedMove()).isOne();
+        assertThat(playMovesResponse.getRejectedReason()).isEqualTo("Please use another Pit, this one is empty!");
+        assertThat(playMovesResponse.getGame().getPitGame(PLAYER_ONE_PIT_B.ordinal()).getStones())
+                .isEqualTo(startStoneAmount + 1);
+        then(mockMancalaRepository).should().updateBoardIfVersion(any(), any(), any(), eq(0L), eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("It should not store the game when the first move of a batch is rejected")
+    void itShouldNotStoreGameWhenFirstMoveRejected() {
+        // Given
+        given(mockMancalaRepository.findById(any())).willReturn(Optional.of(mancalaEntity.toBuilder()
+                                                                                    .playerId(2)
+                                                                                    .board(boardWith(Map.of(PLAYER_TWO_PIT_U, 0)))
+                                                                                    .build()));
+        // When
+        final PlayMovesResponse playMovesResponse = mancalaService.playMoves(
+                stringMancalaUUID, List.of(PLAYER_TWO_PIT_U, PLAYER_TWO_PIT_V));
+        // Then
+        assertThat(playMovesResponse.getRejectedMove()).isZero();
+        assertThat(playMovesResponse.getGame().getPlayer()).isSameAs(PLAYER_2);
+        then(mockMancalaRepository).should(never())
+                .updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("It should return only the changed pits and the version when the change of the game is asked")
+    void itShouldUpdateGameDelta() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(1).version(4).build()));
+        // When
+        final GameDelta gameDelta = mancalaService.updateGameDelta(stringMancalaUUID, PLAYER_ONE_PIT_A);
+        // Then
+        assertThat(gameDelta.getBaseVersion()).isEqualTo(4);
+        assertThat(gameDelta.getVersion()).isEqualTo(5);
+        assertThat(gameDelta.getPlayer()).isSameAs(PLAYER_1);
+        assertThat(gameDelta.getPlayerWinner()).isNull();
+        assertThat(gameDelta.getPits()).containsOnlyKeys(0, 1, 2, 3, 4, 5, 6)
+                .containsEntry(0, 0).containsEntry(PLAYER_ONE_PIT_BIG.ordinal(), 1);
+        then(mockMancalaRepository).should().updateBoardIfVersion(any(), any(), any(), eq(4L), eq(5L), any());
+    }
+
+    @Test
+    @DisplayName("It should return the version before and after the request when the bot replies in the same update")
+    void itShouldUpdateGameDeltaWithBaseVersionWhenBotReplies() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(1).botPlayerId(2).version(4).build()));
+        // When
+        final GameDelta gameDelta = mancalaService.updateGameDelta(stringMancalaUUID, PLAYER_ONE_PIT_B);
+        // Then
+        assertThat(gameDelta.getBaseVersion()).isEqualTo(4);
+        assertThat(gameDelta.getVersion()).isGreaterThanOrEqualTo(6);
+        assertThat(gameDelta.getPlayer()).isSameAs(PLAYER_1);
+    }
+
+    @Test
+    @DisplayName("It should publish the version before and after a batch of moves to the subscribers")
+    void itShouldPublishGameDeltaWithBaseVersionOfBatch() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(1).version(4).build()));
+        given(gameEventPublisher.hasSubscribers(stringMancalaUUID)).willReturn(true);
+        // When
+        mancalaService.playMoves(stringMancalaUUID, List.of(PLAYER_ONE_PIT_A, PLAYER_ONE_PIT_B, PLAYER_TWO_PIT_U));
+        // Then
+        then(gameEventPublisher).should().publish(gameDeltaArgumentCaptor.capture());
+        assertThat(gameDeltaArgumentCaptor.getValue().getBaseVersion()).isEqualTo(4);
+        assertThat(gameDeltaArgumentCaptor.getValue().getVersion()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("It should start a game against the bot where the player starts")
+    void itShouldStartMancalaNewGameAgainstBot() {
+        // Given
+        given(mockMancalaRepository.save(any(MancalaEntity.class))).willAnswer(invocation -> invocation.getArgument(0));
+        // When
+        final MancalaGame mancalaGame = mancalaService.startMancalaNewGame(true);
+        // Then
+        then(mockMancalaRepository).should().save(mancalaEntityArgumentCaptor.capture());
+        assertThat(mancalaEntityArgumentCaptor.getValue().getBotPlayerId()).isEqualTo(2);
+        assertThat(mancalaGame.getPlayer()).isSameAs(PLAYER_1);
+    }
+
+    @Test
+    @DisplayName("It should let the bot reply in the same update until the player has the turn again")
+    void itShouldLetBotReplyInSameUpdate() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(1).botPlayerId(2).build()));
+        // When
+        final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, PLAYER_ONE_PIT_B);
+        // Then
+        assertThat(mancalaGame.getPlayer()).isSameAs(PLAYER_1);
+        assertThat(mancalaGame.getPitGame(PLAYER_TWO_PIT_BIG.ordinal()).getStones()).isPositive();
+        then(mockMancalaRepository).should().updateBoardIfVersion(any(), eq(1), any(), eq(0L), longThat(v -> v >= 2),
+                                                                  any());
+    }
+
+    @Test
+    @DisplayName("It should stop a batch against the bot when the bot has the turn and let the bot reply")
+    void itShouldStopPlayMovesAtTurnOfBot() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(1).botPlayerId(2).build()));
+        // When
+        final PlayMovesResponse playMovesResponse = mancalaService.playMoves(
+                stringMancalaUUID, List.of(PLAYER_ONE_PIT_B, PLAYER_TWO_PIT_V));
+        // Then
+        assertThat(playMovesResponse.getRejectedMove()).isOne();
+        assertThat(playMovesResponse.getRejectedReason()).startsWith("The bot has the turn");
+        assertThat(playMovesResponse.getGame().getPlayer()).isSameAs(PLAYER_1);
+        then(mockMancalaRepository).should().updateBoardIfVersion(any(), eq(1), any(), eq(0L), longThat(v -> v >= 2),
+                                                                  any());
+    }
+
+    @Test
+    @DisplayName("It should suggest a pit of the player and search the same position only once")
+    void itShouldHintFromCache() {
+        // Given
+        given(mockMancalaRepository.findById(any()))
+                .willReturn(Optional.of(mancalaEntity.toBuilder().playerId(2).build()));
+        // When
+        final MoveHint moveHint = mancalaService.hint(stringMancalaUUID);
+        final MoveHint cachedMoveHint = mancalaService.hint(stringMancalaUUID);
+        // Then
+        assertThat(moveHint.getPlayer()).isSameAs(PLAYER_2);
+        assertThat(moveHint.getPit().ordinal()).isBetween(PLAYER_ONE_PIT_BIG.ordinal() + 1,
+                                                          PLAYER_TWO_PIT_BIG.ordinal() - 1);
+        assertThat(cachedMoveHint.getPit()).isSameAs(moveHint.getPit());
+        assertThat(cachedMoveHint.getScore()).isEqualTo(moveHint.getScore());
+        assertThat(hintCache.getMisses()).isEqualTo(1);
+        assertThat(hintCache.getHits()).isEqualTo(1);
+        then(mockMancalaRepository).should(never())
+                .updateBoardIfVersion(any(), anyInt(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("It should start a new Mancala game with four pits per player, but not against the bot")
+    void itShouldStartMancalaNewGameWithOtherPits() {
+        // Given
+        given(mockMancalaRepository.save(any(MancalaEntity.class))).willAnswer(invocation -> invocation.getArgument(0));
+        // When
+        final MancalaGame mancalaGame = mancalaService.startMancalaNewGame(false, 4, null);
+        // Then
+        assertThat(mancalaGame.getPits()).hasSize(10).allSatisfy(pit -> assertThat(pit.getPitPlace()).isNull());
+        assertThat(mancalaGame.getPits()).extracting(PitGame::getStones)
+                .containsExactly(6, 6, 6, 6, 0, 6, 6, 6, 6, 0);
+        assertThatExceptionOfType(MancalaGeneralException.class)
+                .isThrownBy(() -> mancalaService.startMancalaNewGame(true, 4, null))
+                .withMessage("The bot only plays the standard board with the Kalah rules!");
+        assertThatExceptionOfType(MancalaGeneralException.class)
+                .isThrownBy(() -> mancalaService.startMancalaNewGame(false, 17, null))
+                .withMessage("The pits per player should be between 1 and 16!");
+    }
+
+    @Test
+    @DisplayName("It should store the rules of a new game and play them on the next move")
+    void itShouldStartMancalaNewGameWithOtherRules() {
+        // Given
+        given(mockMancalaRepository.save(mancalaEntityArgumentCaptor.capture())).willAnswer(invocation -> invocation.getArgument(0));
+        // When
+        mancalaService.startMancalaNewGame(false, null, RuleVariant.OWARE);
+        // Then
+        assertThat(mancalaEntityArgumentCaptor.getValue().getRules()).isSameAs(RuleVariant.OWARE);
+        assertThat(mancalaEntityArgumentCaptor.getValue().getGeometry()).isSameAs(BoardGeometry.STANDARD);
+        assertThatExceptionOfType(MancalaGeneralException.class)
+                .isThrownBy(() -> mancalaService.startMancalaNewGame(true, null, RuleVariant.OWARE))
+                .withMessage("The bot only plays the standard board with the Kalah rules!");
+    }
+
+    @Test
+    @DisplayName("It should play a pit by its index on a board with four pits per player")
+    void itShouldUpdateGameByPitIndex() {
+        // Given
+        final MancalaEntity otherEntity = new MancalaEntity(mancalaUUID, 4, BoardGeometry.of(4)).toBuilder()
+                .playerId(1).build();
+        given(mockMancalaRepository.findById(any())).willReturn(Optional.of(otherEntity));
+        // When
+        final MancalaGame mancalaGame = mancalaService.updateGame(stringMancalaUUID, 0);
+        // Then
+        assertThat(mancalaGame.getPits()).extracting(PitGame::getStones)
+                .containsExactly(0, 5, 5, 5, 1, 4, 4, 4, 4, 0);
+        assertThat(mancalaGame.getPlayer()).isSameAs(PLAYER_1);
+        assertThatExceptionOfType(MancalaGeneralException.class)
+                .isThrownBy(() -> mancalaService.updateGame(stringMancalaUUID, PLAYER_ONE_PIT_B))
+                .withMessage("The pits of this board are selected by index!");
+    }
+
+    /**
+     * Packed board of the game with the stones of some pits replaced.
+     *
+     * @param stones stones by pit place.
+     * @return packed board.
+     */
+    private byte[] boardWith(final Map<PitPlace, Integer> stones) {
+        final byte[] board = mancalaEntity.getBoard().clone();
+        stones.forEach((pitPlace, amount) -> PackedBoard.setStones(board, pitPlace.ordinal(), amount));
+        return board;
+    }
+}
@@ -0,0 +1,45 @@
+package com.bol.mancala.simulation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Self Play Simulator Test.
+ */
+class SelfPlaySimulatorTest {
+
+    @Test
+    @DisplayName("It should play every game on the threads and count the same outcomes for the same seeds")
+    void itShouldPlayAllGames() {
+        // Given
+        final var simulator = new SelfPlaySimulator(4, 3, RandomPlayer::new, shard -> new RandomPlayer(-1 - shard));
+        final var sameSimulator = new SelfPlaySimulator(4, 3, RandomPlayer::new, shard -> new RandomPlayer(-1 - shard));
+        // When
+        final SimulationStats stats = simulator.run(5000, 1000, report -> { });
+        final SimulationStats sameStats = sameSimulator.run(5000, 1000, report -> { });
+        // Then
+        assertThat(stats.getGames()).isEqualTo(5000);
+        assertThat(stats.getPlayerOneWins() + stats.getPlayerTwoWins()).isEqualTo(5000);
+        assertThat(stats.getMoves()).isGreaterThan(5000 * 4);
+        assertThat(stats.getStarterWins()).isBetween(1L, 4999L);
+        assertThat(sameStats.getMoves()).isEqualTo(stats.getMoves());
+        assertThat(sameStats.getPlayerOneWins()).isEqualTo(stats.getPlayerOneWins());
+        assertThat(sameStats.getStoneDifference()).isEqualTo(stats.getStoneDifference());
+    }
+
+    @Test
+    @DisplayName("It should stop the simulation when a player fails")
+    void itShouldFailWithPlayer() {
+        // Given
+        final var simulator = new SelfPlaySimulator(6, 2, RandomPlayer::new, shard -> board -> {
+            throw new IllegalArgumentException("no pit");
+        });
+        // When, Then
+        assertThatThrownBy(() -> simulator.run(10, 1000, report -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.bol.mancala.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Database Sync Test.
+ */
+class DatabaseSyncTest {
+
+    /**
+     * Statement that forces the database to the disk.
+     */
+    private static final String SYNC_STATEMENT = "CHECKPOINT SYNC";
+
+    @Test
+    @DisplayName("It should sync on every write per move and only on the schedule when periodic")
+    void itShouldSyncPerMoveAndPeriodically() {
+        // Given
+        final var perMoveTemplate = mock(JdbcTemplate.class);
+        final var periodicTemplate = mock(JdbcTemplate.class);
+        final var perMoveSync = new DatabaseSync(perMoveTemplate, "per-move", SYNC_STATEMENT);
+        final var periodicSync = new DatabaseSync(periodicTemplate, "periodic", SYNC_STATEMENT);
+        // When
+        for (int i = 0; i < 3; i++) {
+            perMoveSync.awaitDurable();
+            periodicSync.awaitDurable();
+        }
+        perMoveSync.syncPeriodically();
+        // Then
+        verify(perMoveTemplate, times(3)).execute(SYNC_STATEMENT);
+        verify(periodicTemplate, never()).execute(anyString());
+        periodicSync.syncPeriodically();
+        verify(periodicTemplate).execute(SYNC_STATEMENT);
+        assertThat(perMoveSync.getMode()).isSameAs(DatabaseSync.Mode.PER_MOVE);
+        assertThat(periodicSync.getWrites()).isEqualTo(3);
+        assertThat(periodicSync.getSyncs()).isOne();
+    }
+
+    @Test
+    @DisplayName("It should let the writes that wait for a running sync share the next one")
+    void itShouldShareSyncsInGroupCommit() throws Exception {
+        // Given
+        final int writers = 8;
+        final var jdbcTemplate = mock(JdbcTemplate.class);
+        final var firstSyncStarted = new CountDownLatch(1);
+        final var othersWaiting = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstSyncStarted.countDown();
+            othersWaiting.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(jdbcTemplate).execute(SYNC_STATEMENT);
+        final var databaseSync = new DatabaseSync(jdbcTemplate, "group-commit", SYNC_STATEMENT);
+        final ExecutorService executor = Executors.newFixedThreadPool(writers);
+        // When
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(databaseSync::awaitDurable));
+            assertThat(firstSyncStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < writers; i++) {
+                futures.add(executor.submit(databaseSync::awaitDurable));
+            }
+            while (databaseSync.getWrites() < writers) {
+                Thread.onSpinWait();
+            }
+            othersWaiting.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Then
+        assertThat(databaseSync.getWrites()).isEqualTo(writers);
+        assertThat(databaseSync.getSyncs()).isEqualTo(2);
+        verify(jdbcTemplate, times(2)).execute(SYNC_STATEMENT);
+    }
+
+    @Test
+    @DisplayName("It should never sync without a mode")
+    void itShouldNotSyncWithoutMode() {
+        // Given
+        final var jdbcTemplate = mock(JdbcTemplate.class);
+        final var databaseSync = new DatabaseSync(jdbcTemplate, "none", SYNC_STATEMENT);
+        // When
+        databaseSync.awaitDurable();
+        databaseSync.syncPeriodically();
+        DatabaseSync.none().awaitDurable();
+        // Then
+        verify(jdbcTemplate, never()).execute(anyString());
+        assertThat(databaseSync.getWrites()).isZero();
+    }
+}
@@ -0,0 +1,192 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.engine.MancalaBoard;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.entities.MoveEntity;
+import com.bol.mancala.repositories.MancalaRepository;
+import com.bol.mancala.repositories.MoveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Move Log Game Store Test. Every repository call commits, as it does in the application.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MoveLogGameStoreTest {
+
+    /**
+     * Number of moves between two snapshots.
+     */
+    private static final int SNAPSHOT_INTERVAL = 4;
+
+    /**
+     * Largest age of the stored last activity of a game that is played.
+     */
+    private static final long ACTIVITY_RESOLUTION_MS = 60_000;
+
+    /**
+     * Mancala repository.
+     */
+    @Autowired
+    private MancalaRepository mancalaRepository;
+
+    /**
+     * Move repository.
+     */
+    @Autowired
+    private MoveRepository moveRepository;
+
+    /**
+     * Transaction manager of the test database.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Tested store.
+     */
+    private MoveLogGameStore gameStore;
+
+    /**
+     * Set up the test.
+     */
+    @BeforeEach
+    void setUp() {
+        gameStore = new MoveLogGameStore(mancalaRepository, moveRepository, new TransactionTemplate(transactionManager),
+                                         SNAPSHOT_INTERVAL, ACTIVITY_RESOLUTION_MS, DatabaseSync.none());
+    }
+
+    @Test
+    @DisplayName("It should replay the moves after the last snapshot")
+    void itShouldReplayMovesAfterSnapshot() {
+        // Given
+        final MancalaEntity game = gameStore.create(new MancalaEntity(UUID.randomUUID(), 6));
+        final MancalaBoard expectedBoard = playMoves(game, SNAPSHOT_INTERVAL + 2);
+        // When
+        final var foundGame = gameStore.findById(game.getMancalaId());
+        // Then
+        assertThat(mancalaRepository.findById(game.getMancalaId())).hasValueSatisfying(
+                snapshot -> assertThat(snapshot.getVersion()).isEqualTo(SNAPSHOT_INTERVAL));
+        assertThat(foundGame).hasValueSatisfying(g -> {
+            assertThat(g.getVersion()).isEqualTo(SNAPSHOT_INTERVAL + 2);
+            assertThat(g.getPlayerId()).isEqualTo(expectedBoard.getPlayerId());
+            assertThat(g.getBoard()).isEqualTo(expectedBoard.toPackedBoard());
+        });
+    }
+
+    @Test
+    @DisplayName("It should not append a move with a sequence that is already in the log")
+    void itShouldNotAppendMoveTwice() {
+        // Given
+        final MancalaEntity game = gameStore.create(new MancalaEntity(UUID.randomUUID(), 6));
+        playMoves(game, 1);
+        // When
+        final boolean updated = gameStore.update(game, List.of(new MoveEntity(game.getMancalaId(), 1, 8, 2)));
+        // Then
+        assertThat(updated).isFalse();
+        assertThat(moveRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(game.getMancalaId(), 0))
+                .hasSize(1);
+    }
+
+    @Test
+    @DisplayName("It should delete the moves of a deleted game from the log")
+    void itShouldDeleteMovesOfDeletedGame() {
+        // Given
+        final MancalaEntity game = gameStore.create(new MancalaEntity(UUID.randomUUID(), 6));
+        playMoves(game, 3);
+        // When
+        gameStore.delete(gameStore.findById(game.getMancalaId()).orElseThrow());
+        // Then
+        assertThat(gameStore.findById(game.getMancalaId())).isEmpty();
+        assertThat(moveRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(game.getMancalaId(), 0))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("It should write the snapshot of a move when the stored last activity is too old")
+    void itShouldWriteSnapshotWhenLastActivityIsOld() {
+        // Given
+        final Instant lastActivity = Instant.now().minusMillis(2 * ACTIVITY_RESOLUTION_MS);
+        final MancalaEntity game = gameStore.create(new MancalaEntity(UUID.randomUUID(), 6).toBuilder()
+                                                            .lastActivity(lastActivity).build());
+        // When
+        playMoves(game, 1);
+        // Then
+        assertThat(mancalaRepository.findById(game.getMancalaId())).hasValueSatisfying(snapshot -> {
+            assertThat(snapshot.getVersion()).isOne();
+            assertThat(snapshot.getLastActivity()).isAfter(lastActivity);
+        });
+    }
+
+    @Test
+    @DisplayName("It should delete the idle games and their moves in batches and keep the active games")
+    void itShouldDeleteIdleGamesInBatches() {
+        // Given
+        final Instant idleSince = Instant.now().minusSeconds(60);
+        final MancalaEntity idleGame = gameStore.create(new MancalaEntity(UUID.randomUUID(), 6));
+        playMoves(idleGame, 1);
+        for (int i = 0; i < 2; i++) {
+            gameStore.create(new MancalaEntity(UUID.randomUUID(), 6).toBuilder()
+                                     .lastActivity(idleSince.minusSeconds(i + 1)).build());
+        }
+        mancalaRepository.save(mancalaRepository.findById(idleGame.getMancalaId()).orElseThrow().toBuilder()
+                                       .lastActivity(idleSince.minusSeconds(3)).build());
+        final MancalaEntity activeGame = gameStore.create(new MancalaEntity(UUID.randomUUID(), 6));
+        playMoves(activeGame, 2);
+        final long games = gameStore.count();
+        // When
+        final int firstBatch = gameStore.deleteIdleGames(idleSince, 2);
+        final int secondBatch = gameStore.deleteIdleGames(idleSince, 2);
+        // Then
+        assertThat(firstBatch).isEqualTo(2);
+        assertThat(secondBatch).isOne();
+        assertThat(gameStore.count()).isEqualTo(games - 3);
+        assertThat(gameStore.findById(idleGame.getMancalaId())).isEmpty();
+        assertThat(gameStore.findById(activeGame.getMancalaId())).isPresent();
+        assertThat(moveRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(idleGame.getMancalaId(), 0))
+                .isEmpty();
+        assertThat(moveRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(activeGame.getMancalaId(), 0))
+                .hasSize(2);
+    }
+
+    /**
+     * Play the first pit with stones of the current player, the way the service does.
+     *
+     * @param game  game
+     * @param moves number of moves to play
+     * @return the board after the moves.
+     */
+    private MancalaBoard playMoves(final MancalaEntity game, final int moves) {
+        final MancalaBoard mancalaBoard = new MancalaBoard();
+        mancalaBoard.readFrom(game.getBoard());
+        mancalaBoard.setPlayerId(game.getPlayerId());
+        for (int sequence = 1; sequence <= moves; sequence++) {
+            final int playerId = mancalaBoard.getPlayerId();
+            int pitIndex = playerId == MancalaBoard.PLAYER_ONE ? 0 : MancalaBoard.PLAYER_ONE_BIG_PIT + 1;
+            while (mancalaBoard.getStones(pitIndex) == 0) {
+                pitIndex++;
+            }
+            mancalaBoard.play(pitIndex);
+            game.setBoard(mancalaBoard.toPackedBoard());
+            game.setPlayerId(mancalaBoard.getPlayerId());
+            game.setVersion(sequence);
+            final var move = new MoveEntity(game.getMancalaId(), sequence, pitIndex, playerId);
+            assertThat(gameStore.update(game, List.of(move))).isTrue();
+        }
+        return mancalaBoard;
+    }
+}
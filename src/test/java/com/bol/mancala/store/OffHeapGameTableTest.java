@@ -0,0 +1,84 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.engine.RuleVariant;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.exception.mancala.MancalaGeneralException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Off Heap Game Table Test.
+ */
+class OffHeapGameTableTest {
+
+    @Test
+    @DisplayName("It should find the same games as a map while games are added and removed and the segments grow")
+    void itShouldMatchMapWhileGrowing() {
+        // Given
+        final var gameTable = new OffHeapGameTable(BoardGeometry.MAX_PITS_PER_PLAYER, 0);
+        final Map<UUID, MancalaEntity> expectedGames = new HashMap<>();
+        final List<UUID> gameIds = new ArrayList<>();
+        final var random = new Random(7);
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            if (random.nextInt(3) == 0 && !gameIds.isEmpty()) {
+                final UUID gameId = gameIds.remove(random.nextInt(gameIds.size()));
+                assertThat(gameTable.remove(gameId)).isTrue();
+                expectedGames.remove(gameId);
+            } else {
+                final var game = new MancalaEntity(UUID.randomUUID(), 1 + random.nextInt(9),
+                                                   BoardGeometry.of(1 + random.nextInt(16)),
+                                                   RuleVariant.values()[random.nextInt(RuleVariant.values().length)])
+                        .toBuilder().version(random.nextInt(100)).build();
+                gameTable.put(game);
+                gameIds.add(game.getMancalaId());
+                expectedGames.put(game.getMancalaId(), game);
+            }
+        }
+        // Then
+        assertThat(gameTable.size()).isEqualTo(expectedGames.size());
+        for (MancalaEntity expectedGame : expectedGames.values()) {
+            assertThat(gameTable.get(expectedGame.getMancalaId())).usingRecursiveComparison()
+                    .ignoringFields("lastActivity", "newGame").isEqualTo(expectedGame);
+        }
+        assertThat(gameTable.get(UUID.randomUUID())).isNull();
+        assertThat(gameTable.remove(UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    @DisplayName("It should only update a game at the version the moves were played from and remove the idle games")
+    void itShouldUpdateAndRemoveIdleGames() {
+        // Given
+        final var gameTable = new OffHeapGameTable(6, 16);
+        final Instant idleSince = Instant.now().minusSeconds(60);
+        final var game = new MancalaEntity(UUID.randomUUID(), 6).toBuilder().version(3).build();
+        final var idleGame = new MancalaEntity(UUID.randomUUID(), 6).toBuilder()
+                .lastActivity(idleSince.minusSeconds(1)).build();
+        gameTable.put(game);
+        gameTable.put(idleGame);
+        // When
+        final boolean staleUpdate = gameTable.update(game.toBuilder().version(5).playerId(2).build(), 2);
+        final boolean update = gameTable.update(game.toBuilder().version(4).build(), 3);
+        final int idleGames = gameTable.removeIdle(idleSince, 10);
+        // Then
+        assertThat(staleUpdate).isFalse();
+        assertThat(update).isTrue();
+        assertThat(idleGames).isOne();
+        assertThat(gameTable.get(idleGame.getMancalaId())).isNull();
+        assertThat(gameTable.get(game.getMancalaId()).getVersion()).isEqualTo(4);
+        assertThatThrownBy(() -> gameTable.put(new MancalaEntity(UUID.randomUUID(), 6, BoardGeometry.of(7))))
+                .isInstanceOf(MancalaGeneralException.class);
+    }
+}
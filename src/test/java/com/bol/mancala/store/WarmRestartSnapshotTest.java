@@ -0,0 +1,128 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.engine.BoardGeometry;
+import com.bol.mancala.engine.RuleVariant;
+import com.bol.mancala.entities.MancalaEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Warm Restart Snapshot Test.
+ */
+class WarmRestartSnapshotTest {
+
+    /**
+     * Directory of the file.
+     */
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("It should find every game of the file once, as it was written")
+    void itShouldTakeEveryGameOnce() throws IOException {
+        // Given
+        final Path file = directory.resolve("active-games.bin");
+        final List<MancalaEntity> games = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            games.add(new MancalaEntity(UUID.randomUUID(), 1 + i % 6, BoardGeometry.of(4 + i % 13),
+                                        RuleVariant.values()[i % RuleVariant.values().length])
+                              .toBuilder().version(i).botPlayerId(i % 3 == 0 ? 2 : null).build());
+        }
+        games.add(MancalaEntity.builder().mancalaId(UUID.randomUUID()).playerId(1)
+                          .board(new MancalaEntity(UUID.randomUUID(), 6).getBoard()).build());
+        WarmRestartSnapshot.write(file, games);
+        // When
+        final var snapshot = WarmRestartSnapshot.open(file);
+        // Then
+        assertThat(snapshot.getGameCount()).isEqualTo(games.size());
+        for (MancalaEntity game : games) {
+            final MancalaEntity restoredGame = snapshot.take(game.getMancalaId());
+            assertThat(restoredGame).usingRecursiveComparison().ignoringFields("lastActivity", "newGame")
+                    .isEqualTo(game);
+            assertThat(restoredGame.getLastActivity()).isEqualTo(game.getLastActivity() == null ? null :
+                    Instant.ofEpochMilli(game.getLastActivity().toEpochMilli()));
+            assertThat(snapshot.take(game.getMancalaId())).isNull();
+        }
+        assertThat(snapshot.take(UUID.randomUUID())).isNull();
+        assertThat(snapshot.getRemainingGames()).isZero();
+    }
+
+    @Test
+    @DisplayName("It should take the idle games and keep the others for the next file")
+    void itShouldTakeIdleGames() throws IOException {
+        // Given
+        final Path file = directory.resolve("active-games.bin");
+        final Instant idleSince = Instant.now().minusSeconds(60);
+        final var idleGame = new MancalaEntity(UUID.randomUUID(), 6).toBuilder()
+                .lastActivity(idleSince.minusSeconds(1)).build();
+        final var activeGame = new MancalaEntity(UUID.randomUUID(), 6);
+        WarmRestartSnapshot.write(file, List.of(idleGame, activeGame));
+        final var snapshot = WarmRestartSnapshot.open(file);
+        final List<UUID> idleGameIds = new ArrayList<>();
+        final List<UUID> remainingGameIds = new ArrayList<>();
+        // When
+        final int idleGames = snapshot.takeIdle(idleSince, 10, game -> idleGameIds.add(game.getMancalaId()));
+        snapshot.forEachRemaining(game -> remainingGameIds.add(game.getMancalaId()));
+        // Then
+        assertThat(idleGames).isOne();
+        assertThat(idleGameIds).containsExactly(idleGame.getMancalaId());
+        assertThat(remainingGameIds).containsExactly(activeGame.getMancalaId());
+        assertThat(snapshot.take(idleGame.getMancalaId())).isNull();
+        assertThat(WarmRestartSnapshot.open(file).getRemainingGames()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("It should not restore the games that are written when the file is opened again")
+    void itShouldSkipWrittenGames() throws IOException {
+        // Given
+        final Path file = directory.resolve("active-games.bin");
+        final var writtenGame = new MancalaEntity(UUID.randomUUID(), 6);
+        final var takenGame = new MancalaEntity(UUID.randomUUID(), 6);
+        final var remainingGame = new MancalaEntity(UUID.randomUUID(), 6);
+        WarmRestartSnapshot.write(file, List.of(writtenGame, takenGame, remainingGame));
+        final var snapshot = WarmRestartSnapshot.open(file);
+        snapshot.take(writtenGame.getMancalaId());
+        snapshot.take(takenGame.getMancalaId());
+        // When
+        final int markedGames = snapshot.markWritten(List.of(writtenGame.getMancalaId(), UUID.randomUUID(),
+                                                             remainingGame.getMancalaId()));
+        final var reopenedSnapshot = WarmRestartSnapshot.open(file);
+        // Then
+        assertThat(markedGames).isOne();
+        assertThat(snapshot.isWritten()).isFalse();
+        assertThat(reopenedSnapshot.getRemainingGames()).isEqualTo(2);
+        assertThat(reopenedSnapshot.take(writtenGame.getMancalaId())).isNull();
+        assertThat(reopenedSnapshot.take(takenGame.getMancalaId())).isNotNull();
+        assertThat(reopenedSnapshot.take(remainingGame.getMancalaId())).isNotNull();
+        reopenedSnapshot.markWritten(List.of(takenGame.getMancalaId(), remainingGame.getMancalaId()));
+        assertThat(reopenedSnapshot.isWritten()).isTrue();
+        assertThat(WarmRestartSnapshot.open(file)).isNull();
+    }
+
+    @Test
+    @DisplayName("It should refuse a file that is not complete and open no file when there is none")
+    void itShouldRefuseIncompleteFile() throws IOException {
+        // Given
+        final Path file = directory.resolve("active-games.bin");
+        WarmRestartSnapshot.write(file, List.of(new MancalaEntity(UUID.randomUUID(), 6)));
+        final byte[] content = Files.readAllBytes(file);
+        // When
+        Files.write(file, Arrays.copyOf(content, content.length - 1));
+        // Then
+        assertThatThrownBy(() -> WarmRestartSnapshot.open(file)).isInstanceOf(IOException.class);
+        assertThat(WarmRestartSnapshot.open(directory.resolve("missing.bin"))).isNull();
+    }
+}
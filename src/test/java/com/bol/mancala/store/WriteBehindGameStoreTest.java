@@ -0,0 +1,334 @@
+package com.bol.mancala.store;
+
+import com.bol.mancala.engine.PackedBoard;
+import com.bol.mancala.entities.MancalaEntity;
+import com.bol.mancala.entities.MoveEntity;
+import com.bol.mancala.repositories.MancalaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+/**
+ * Write Behind Game Store Test.
+ */
+@ExtendWith(MockitoExtension.class)
+class WriteBehindGameStoreTest {
+
+    /**
+     * Maximum number of games waiting to be written.
+     */
+    private static final int MAX_DIRTY_GAMES = 3;
+
+    /**
+     * Mock Mancala Repository.
+     */
+    @Mock
+    private MancalaRepository mockMancalaRepository;
+
+    /**
+     * Mock transaction manager.
+     */
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Tested store.
+     */
+    private WriteBehindGameStore gameStore;
+
+    /**
+     * Set up the test.
+     */
+    @BeforeEach
+    void setUp() {
+        gameStore = new WriteBehindGameStore(mockMancalaRepository, new TransactionTemplate(transactionManager),
+                                             MAX_DIRTY_GAMES, "");
+    }
+
+    @Test
+    @DisplayName("It should serve a new game from memory and insert it at the flush")
+    void itShouldInsertNewGameAtFlush() {
+        // Given
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        // When
+        gameStore.create(game);
+        // Then
+        assertThat(gameStore.findById(game.getMancalaId())).isPresent();
+        then(mockMancalaRepository).should(never()).findById(any());
+        then(mockMancalaRepository).should(never()).saveAll(anyIterable());
+        gameStore.flush();
+        then(mockMancalaRepository).should().saveAll(List.of(game));
+        assertThat(gameStore.getDirtyGames()).isZero();
+    }
+
+    @Test
+    @DisplayName("It should update the board of a stored game at the flush")
+    void itShouldUpdateStoredGameAtFlush() {
+        // Given
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        given(mockMancalaRepository.findById(game.getMancalaId())).willReturn(Optional.of(game));
+        final MancalaEntity changedGame = gameStore.findById(game.getMancalaId()).orElseThrow();
+        final byte[] board = PackedBoard.newBoard(5);
+        changedGame.setBoard(board);
+        changedGame.setVersion(1);
+        // When
+        gameStore.update(changedGame, List.of(new MoveEntity(game.getMancalaId(), 1, 0, game.getPlayerId())));
+        gameStore.flush();
+        // Then
+        then(mockMancalaRepository).should().updateBoardIfVersion(eq(game.getMancalaId()), eq(game.getPlayerId()),
+                                                                  eq(board), eq(0L), eq(1L),
+                                                                  eq(changedGame.getLastActivity()));
+        assertThat(gameStore.findById(game.getMancalaId())).hasValueSatisfying(
+                g -> assertThat(g.getBoard()).isSameAs(board));
+    }
+
+    @Test
+    @DisplayName("It should write the moves of updates that failed or waited for a flush over the stored version")
+    void itShouldUpdateStoredGameOverStoredVersion() {
+        // Given
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        given(mockMancalaRepository.findById(game.getMancalaId())).willReturn(Optional.of(game));
+        final MancalaEntity changedGame = gameStore.findById(game.getMancalaId()).orElseThrow();
+        changedGame.setVersion(1);
+        gameStore.update(changedGame, List.of(new MoveEntity(game.getMancalaId(), 1, 0, game.getPlayerId())));
+        given(mockMancalaRepository.updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("The database is not available")).willReturn(1);
+        gameStore.flush();
+        // When
+        final MancalaEntity laterGame = gameStore.findById(game.getMancalaId()).orElseThrow();
+        laterGame.setVersion(2);
+        gameStore.update(laterGame, List.of(new MoveEntity(game.getMancalaId(), 2, 0, game.getPlayerId())));
+        laterGame.setVersion(3);
+        gameStore.update(laterGame, List.of(new MoveEntity(game.getMancalaId(), 3, 1, game.getPlayerId())));
+        gameStore.flush();
+        // Then
+        then(mockMancalaRepository).should(times(2)).updateBoardIfVersion(eq(game.getMancalaId()), any(), any(),
+                                                                          eq(0L), anyLong(), any());
+        then(mockMancalaRepository).should().updateBoardIfVersion(eq(game.getMancalaId()), any(), any(), eq(0L),
+                                                                  eq(3L), any());
+        assertThat(gameStore.getDirtyGames()).isZero();
+    }
+
+    @Test
+    @DisplayName("It should not write a game that is created and deleted before the flush")
+    void itShouldNotWriteGameDeletedBeforeFlush() {
+        // Given
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        gameStore.create(game);
+        // When
+        gameStore.delete(game);
+        gameStore.flush();
+        // Then
+        then(mockMancalaRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("It should not find a deleted game before the delete is flushed")
+    void itShouldDeleteStoredGameAtFlush() {
+        // Given
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        given(mockMancalaRepository.findById(game.getMancalaId())).willReturn(Optional.of(game));
+        gameStore.findById(game.getMancalaId());
+        // When
+        gameStore.delete(game);
+        // Then
+        assertThat(gameStore.findById(game.getMancalaId())).isEmpty();
+        gameStore.flush();
+        then(mockMancalaRepository).should().deleteAllByMancalaIdIn(List.of(game.getMancalaId()));
+    }
+
+    @Test
+    @DisplayName("It should not read a deleted game from the database while its delete is written")
+    void itShouldNotFindGameWhileDeleteInFlight() {
+        // Given
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        given(mockMancalaRepository.findById(game.getMancalaId())).willReturn(Optional.of(game));
+        gameStore.findById(game.getMancalaId());
+        gameStore.delete(game);
+        final AtomicReference<Optional<MancalaEntity>> foundWhileWritten = new AtomicReference<>();
+        given(mockMancalaRepository.deleteAllByMancalaIdIn(List.of(game.getMancalaId()))).willAnswer(invocation -> {
+            foundWhileWritten.set(gameStore.findById(game.getMancalaId()));
+            return 1;
+        });
+        // When
+        gameStore.flush();
+        // Then
+        assertThat(foundWhileWritten.get()).isEmpty();
+        then(mockMancalaRepository).should(times(1)).findById(game.getMancalaId());
+    }
+
+    @Test
+    @DisplayName("It should insert a game again with its later moves when the insert failed")
+    void itShouldMergeFailedInsertWithLaterUpdate() {
+        // Given
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        gameStore.create(game);
+        final MancalaEntity changedGame = game.toBuilder().version(1).build();
+        given(mockMancalaRepository.saveAll(anyIterable())).willAnswer(invocation -> {
+            gameStore.update(changedGame, List.of());
+            throw new IllegalStateException("The database is not available");
+        }).willReturn(List.of());
+        // When
+        gameStore.flush();
+        gameStore.flush();
+        // Then
+        then(mockMancalaRepository).should(times(2)).saveAll(anyIterable());
+        then(mockMancalaRepository).should().saveAll(List.of(changedGame));
+        then(mockMancalaRepository).should(never())
+                .updateBoardIfVersion(any(), any(), any(), anyLong(), anyLong(), any());
+        assertThat(gameStore.getDirtyGames()).isZero();
+    }
+
+    @Test
+    @DisplayName("It should not load an idle game of the database into memory while it is deleted")
+    void itShouldNotFindIdleGameWhileDeleted() {
+        // Given
+        final Instant idleSince = Instant.now().minusSeconds(60);
+        final UUID storedIdleGameId = UUID.randomUUID();
+        given(mockMancalaRepository.findIdleGameIds(eq(idleSince), any())).willReturn(List.of(storedIdleGameId));
+        final AtomicReference<Optional<MancalaEntity>> foundWhileDeleted = new AtomicReference<>();
+        given(mockMancalaRepository.deleteIdleGames(List.of(storedIdleGameId), idleSince)).willAnswer(invocation -> {
+            foundWhileDeleted.set(gameStore.findById(storedIdleGameId));
+            return 1;
+        });
+        // When
+        final int deletedGames = gameStore.deleteIdleGames(idleSince, 10);
+        // Then
+        assertThat(deletedGames).isOne();
+        assertThat(foundWhileDeleted.get()).isEmpty();
+        then(mockMancalaRepository).should(never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("It should flush on the calling thread when too many games are waiting")
+    void itShouldFlushWhenTooManyDirtyGames() {
+        // When
+        for (int i = 0; i < MAX_DIRTY_GAMES; i++) {
+            gameStore.create(new MancalaEntity(UUID.randomUUID(), 6));
+        }
+        // Then
+        then(mockMancalaRepository).should().saveAll(anyIterable());
+        then(mockMancalaRepository).should(never()).deleteAllByMancalaIdIn(anyCollection());
+        assertThat(gameStore.getDirtyGames()).isZero();
+    }
+
+    @Test
+    @DisplayName("It should expire the idle games in memory and the idle games in the database that are not in memory")
+    void itShouldDeleteIdleGames() {
+        // Given
+        final Instant idleSince = Instant.now().minusSeconds(60);
+        final MancalaEntity idleGame = new MancalaEntity(UUID.randomUUID(), 6).toBuilder()
+                .lastActivity(idleSince.minusSeconds(1)).build();
+        final MancalaEntity activeGame = new MancalaEntity(UUID.randomUUID(), 6).toBuilder()
+                .lastActivity(idleSince.minusSeconds(1)).build();
+        final UUID storedIdleGameId = UUID.randomUUID();
+        given(mockMancalaRepository.findById(idleGame.getMancalaId())).willReturn(Optional.of(idleGame));
+        given(mockMancalaRepository.findById(activeGame.getMancalaId())).willReturn(Optional.of(activeGame));
+        gameStore.findById(idleGame.getMancalaId());
+        gameStore.update(gameStore.findById(activeGame.getMancalaId()).orElseThrow(), List.of());
+        given(mockMancalaRepository.findIdleGameIds(eq(idleSince), any()))
+                .willReturn(List.of(activeGame.getMancalaId(), storedIdleGameId));
+        given(mockMancalaRepository.deleteIdleGames(List.of(storedIdleGameId), idleSince)).willReturn(1);
+        // When
+        final int deletedGames = gameStore.deleteIdleGames(idleSince, 10);
+        // Then
+        assertThat(deletedGames).isEqualTo(2);
+        then(mockMancalaRepository).should().deleteAllByMancalaIdIn(List.of(idleGame.getMancalaId()));
+        assertThat(gameStore.findById(activeGame.getMancalaId())).isPresent();
+        assertThat(gameStore.getDirtyGames()).isZero();
+    }
+
+    @Test
+    @DisplayName("It should restore the active games of the last shutdown on first access and write them again")
+    void itShouldRestoreActiveGamesAfterRestart(@TempDir final Path directory) {
+        // Given
+        final String warmRestartFile = directory.resolve("active-games.bin").toString();
+        final var firstStore = new WriteBehindGameStore(mockMancalaRepository,
+                                                        new TransactionTemplate(transactionManager),
+                                                        MAX_DIRTY_GAMES, warmRestartFile);
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        final MancalaEntity otherGame = new MancalaEntity(UUID.randomUUID(), 4).toBuilder().version(7).build();
+        firstStore.create(game);
+        firstStore.create(otherGame);
+        firstStore.close();
+        // When
+        final var restartedStore = new WriteBehindGameStore(mockMancalaRepository,
+                                                            new TransactionTemplate(transactionManager),
+                                                            MAX_DIRTY_GAMES, warmRestartFile);
+        final var restoredGame = restartedStore.findById(otherGame.getMancalaId());
+        // Then
+        assertThat(Path.of(warmRestartFile)).doesNotExist();
+        assertThat(Path.of(warmRestartFile + ".restoring")).exists();
+        assertThat(restoredGame).hasValueSatisfying(g -> {
+            assertThat(g.getVersion()).isEqualTo(7);
+            assertThat(g.getBoard()).isEqualTo(otherGame.getBoard());
+            assertThat(g.isNew()).isFalse();
+        });
+        assertThat(restartedStore.getRestorableGames()).isOne();
+        then(mockMancalaRepository).should(never()).findById(any());
+        restartedStore.close();
+        assertThat(Path.of(warmRestartFile + ".restoring")).doesNotExist();
+        then(mockMancalaRepository).should().saveAll(argThat((List<MancalaEntity> restores) -> restores.size() == 1
+                && restores.get(0).getMancalaId().equals(otherGame.getMancalaId())));
+        final var thirdStore = new WriteBehindGameStore(mockMancalaRepository,
+                                                        new TransactionTemplate(transactionManager),
+                                                        MAX_DIRTY_GAMES, warmRestartFile);
+        assertThat(thirdStore.getRestorableGames()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("It should restore the games that are not written again after a crash and then delete the file")
+    void itShouldRestoreUnwrittenGamesAfterCrash(@TempDir final Path directory) {
+        // Given
+        final String warmRestartFile = directory.resolve("active-games.bin").toString();
+        final var firstStore = new WriteBehindGameStore(mockMancalaRepository,
+                                                        new TransactionTemplate(transactionManager),
+                                                        MAX_DIRTY_GAMES, warmRestartFile);
+        final MancalaEntity game = new MancalaEntity(UUID.randomUUID(), 6);
+        final MancalaEntity otherGame = new MancalaEntity(UUID.randomUUID(), 4);
+        firstStore.create(game);
+        firstStore.create(otherGame);
+        firstStore.close();
+        final var crashedStore = new WriteBehindGameStore(mockMancalaRepository,
+                                                          new TransactionTemplate(transactionManager),
+                                                          MAX_DIRTY_GAMES, warmRestartFile);
+        crashedStore.findById(game.getMancalaId());
+        crashedStore.flush();
+        // When
+        final var restartedStore = new WriteBehindGameStore(mockMancalaRepository,
+                                                            new TransactionTemplate(transactionManager),
+                                                            MAX_DIRTY_GAMES, warmRestartFile);
+        // Then
+        assertThat(restartedStore.getRestorableGames()).isOne();
+        assertThat(restartedStore.findById(game.getMancalaId())).isEmpty();
+        assertThat(restartedStore.findById(otherGame.getMancalaId())).isPresent();
+        assertThat(Path.of(warmRestartFile + ".restoring")).exists();
+        restartedStore.flush();
+        assertThat(Path.of(warmRestartFile + ".restoring")).doesNotExist();
+    }
+}
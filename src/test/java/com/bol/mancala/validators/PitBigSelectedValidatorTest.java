@@ -1,5 +1,6 @@
 package com.bol.mancala.validators;
 
+import com.bol.mancala.engine.BoardGeometry;
 import com.bol.mancala.model.PitPlace;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -26,11 +27,32 @@ class PitBigSelectedValidatorTest {
     @CsvSource({
             "PLAYER_ONE_PIT_BIG, true", // Player have used The player 1 big pit, return true.
             "PLAYER_TWO_PIT_BIG, true", // Player have used The player 2 big pit, return true.
+            "PLAYER_ONE_PIT_F, false", // Player have used a small pit, return false.
     })
     void itShouldValidateBigPitUsed(PitPlace pitPlace, boolean expected) {
         // Given
         // When
-        boolean isValid = underTest.test(pitPlace);
+        boolean isValid = underTest.test(BoardGeometry.STANDARD, pitPlace.ordinal());
+        // Then
+        assertThat(isValid).isEqualTo(expected);
+    }
+
+    /**
+     * This test will check if the player "have used" the one of the big pits of a board with 4 pits per player.
+     *
+     * @param selectedPitIndex selectedPitIndex
+     * @param expected         expected
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "4, true", // Player have used The player 1 big pit, return true.
+            "9, true", // Player have used The player 2 big pit, return true.
+            "6, false", // Player have used a small pit, return false.
+    })
+    void itShouldValidateBigPitUsedOfOtherBoard(Integer selectedPitIndex, boolean expected) {
+        // Given
+        // When
+        boolean isValid = underTest.test(BoardGeometry.of(4), selectedPitIndex);
         // Then
         assertThat(isValid).isEqualTo(expected);
     }
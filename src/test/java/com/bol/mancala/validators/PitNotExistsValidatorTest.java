@@ -1,5 +1,6 @@
 package com.bol.mancala.validators;
 
+import com.bol.mancala.engine.BoardGeometry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -18,19 +19,23 @@ class PitNotExistsValidatorTest {
     /**
      * This test will check if pit is not exists.
      *
+     * @param pitsPerPlayer    pitsPerPlayer
      * @param selectedPitIndex selectedPitIndex
      * @param expected         expected
      */
     @ParameterizedTest
     @CsvSource({
-            "20, true", // Player have used does not exist pit, return true.
-            "300, true", // Player have used does not exist pit, return true.
-            "-5, true", // Player have used does not exist pit, return true.
+            "6, 20, true", // Player have used does not exist pit, return true.
+            "6, 300, true", // Player have used does not exist pit, return true.
+            "6, -5, true", // Player have used does not exist pit, return true.
+            "6, 13, false", // Player have used the last pit of the board, return false.
+            "4, 10, true", // Player have used does not exist pit of a board with 4 pits per player, return true.
+            "4, 9, false", // Player have used the last pit of a board with 4 pits per player, return false.
     })
-    void itShouldValidateNotExistsPitUsed(Integer selectedPitIndex, boolean expected) {
+    void itShouldValidateNotExistsPitUsed(int pitsPerPlayer, Integer selectedPitIndex, boolean expected) {
         // Given
         // When
-        boolean isValid = underTest.test(selectedPitIndex);
+        boolean isValid = underTest.test(BoardGeometry.of(pitsPerPlayer), selectedPitIndex);
         // Then
         assertThat(isValid).isEqualTo(expected);
     }
@@ -1,5 +1,6 @@
 package com.bol.mancala.validators;
 
+import com.bol.mancala.engine.BoardGeometry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -18,21 +19,26 @@ class PitOpponentUsedValidatorTest {
     /**
      * This test will check if the player "have used" the opponent pit.
      *
+     * @param pitsPerPlayer    pitsPerPlayer
      * @param playerId         playerId
      * @param selectedPitIndex selectedPitIndex
      * @param expected         expected
      */
     @ParameterizedTest
     @CsvSource({
-            "PLAYER_1, 10, true", // Player 1 have used player 2 opponent pit (10), return true.
-            "PLAYER_1, 2, false", // Player 1 have used its pit (2), return false.
-            "PLAYER_2, 5, true",  // Player 2 have used player 1 opponent pit (5), return true.
-            "PLAYER_2, 9, false", // Player 2 have used its pit (9), return false.
+            "6, PLAYER_1, 10, true", // Player 1 have used player 2 opponent pit (10), return true.
+            "6, PLAYER_1, 2, false", // Player 1 have used its pit (2), return false.
+            "6, PLAYER_2, 5, true",  // Player 2 have used player 1 opponent pit (5), return true.
+            "6, PLAYER_2, 9, false", // Player 2 have used its pit (9), return false.
+            "4, PLAYER_1, 5, true",  // Player 1 have used player 2 opponent pit (5) of a board with 4 pits, return true.
+            "4, PLAYER_2, 3, true",  // Player 2 have used player 1 opponent pit (3) of a board with 4 pits, return true.
+            "4, PLAYER_2, 5, false", // Player 2 have used its pit (5) of a board with 4 pits, return false.
     })
-    void itShouldValidatePitOpponentUsed(String playerId, Integer selectedPitIndex, boolean expected) {
+    void itShouldValidatePitOpponentUsed(int pitsPerPlayer, String playerId, Integer selectedPitIndex,
+                                         boolean expected) {
         // Given
         // When
-        boolean isValid = underTest.test(playerId, selectedPitIndex);
+        boolean isValid = underTest.test(BoardGeometry.of(pitsPerPlayer), playerId, selectedPitIndex);
         // Then
         assertThat(isValid).isEqualTo(expected);
     }